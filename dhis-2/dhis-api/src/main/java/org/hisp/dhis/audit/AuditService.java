@@ -36,6 +36,13 @@ public interface AuditService
 {
     long addAudit( Audit audit );
 
+    /**
+     * Persists the given audits in a single transaction.
+     *
+     * @param audits the list of {@link Audit}.
+     */
+    void addAudits( List<Audit> audits );
+
     int countAudits( AuditQuery query );
 
     List<Audit> getAudits( AuditQuery query );
@@ -125,6 +125,8 @@ public interface IdentifiableObjectManager
 
     <T extends IdentifiableObject> Date getLastUpdated( Class<T> clazz );
 
+    <T extends IdentifiableObject> String getVersion( Class<T> clazz );
+
     <T extends IdentifiableObject> Map<String, T> getIdMap( Class<T> clazz, IdentifiableProperty property );
 
     <T extends IdentifiableObject> Map<String, T> getIdMap( Class<T> clazz, IdScheme idScheme );
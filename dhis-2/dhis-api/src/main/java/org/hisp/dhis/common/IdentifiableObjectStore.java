@@ -315,6 +315,15 @@ public interface IdentifiableObjectStore<T>
      */
     Date getLastUpdated();
 
+    /**
+     * Returns a version of the objects of this type, derived from the number of
+     * objects and the date of the last updated object, without considering
+     * sharing. The version changes when objects are added, updated or deleted.
+     *
+     * @return a version string.
+     */
+    String getVersion();
+
     /**
      * Returns the number of objects that are equal to or newer than given last
      * updated date.
@@ -49,6 +49,8 @@ public class Pager
 
     private String prevPage;
 
+    private String nextPageToken;
+
     public Pager()
     {
 
@@ -177,4 +179,20 @@ public class Pager
     {
         this.prevPage = prevPage;
     }
+
+    /**
+     * Opaque token identifying the position after the last item of this page,
+     * for endpoints supporting keyset paging.
+     */
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public String getNextPageToken()
+    {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken( String nextPageToken )
+    {
+        this.nextPageToken = nextPageToken;
+    }
 }
@@ -31,6 +31,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
@@ -60,6 +61,22 @@ public interface DataAnalysisStore
         Collection<CategoryOptionCombo> categoryOptionCombos,
         Collection<String> parentPaths, Date from );
 
+    /**
+     * Calculates the average and standard deviation measures of the DataValues
+     * registered for a set of data elements and organisation unit parents in a
+     * single grouped query. Only the category option combos of each data
+     * element are included. Measures are passed to the given consumer as they
+     * are read, so the full result is never held in memory.
+     *
+     * @param dataElements the data elements.
+     * @param parentPaths the parent OrganisationUnits' paths.
+     * @param from the from date for which to include data values.
+     * @param consumer the consumer of measures with a non-zero standard
+     *        deviation.
+     */
+    void getDataAnalysisMeasures( Collection<DataElement> dataElements, Collection<String> parentPaths, Date from,
+        Consumer<DataAnalysisMeasures> consumer );
+
     /**
      * Generates a collection of data value violations of min-max predefined
      * values.
@@ -31,6 +31,7 @@ import java.util.Collection;
 
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.scheduling.JobConfiguration;
 
 public interface MinMaxDataAnalysisService
     extends DataAnalysisService
@@ -44,4 +45,15 @@ public interface MinMaxDataAnalysisService
      */
     void generateMinMaxValues( OrganisationUnit parent,
         Collection<DataElement> dataElements, Double stdDevFactor );
+
+    /**
+     * Generate min-max values, reporting progress to the given job.
+     *
+     * @param parent the parent organisation unit.
+     * @param dataElements the data elements.
+     * @param stdDevFactor the std dev factor.
+     * @param jobId the job to report progress to, can be null.
+     */
+    void generateMinMaxValues( OrganisationUnit parent,
+        Collection<DataElement> dataElements, Double stdDevFactor, JobConfiguration jobId );
 }
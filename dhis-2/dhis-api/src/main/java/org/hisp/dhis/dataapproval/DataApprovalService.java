@@ -186,4 +186,16 @@ public interface DataApprovalService
      * @param organisationUnit the organisation unit.
      */
     void deleteDataApprovals( OrganisationUnit organisationUnit );
+
+    /**
+     * Recomputes the materialized readiness for approval if the organisation
+     * unit hierarchy, data sets, category options or approval workflows have
+     * changed since the given checksum was taken.
+     *
+     * @param lastChecksum the checksum of the approval structure of the
+     *        previous reconciliation, or null to reconcile unconditionally.
+     * @return the checksum of the approval structure which was reconciled, to
+     *         be passed to the next reconciliation.
+     */
+    String reconcileDataApprovalSummaries( String lastChecksum );
 }
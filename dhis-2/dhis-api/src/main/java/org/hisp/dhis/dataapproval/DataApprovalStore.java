@@ -156,4 +156,54 @@ public interface DataApprovalStore
         CategoryCombo attributeCombo,
         Set<CategoryOptionCombo> attributeOptionCombos, List<DataApprovalLevel> userApprovalLevels,
         Map<Integer, DataApprovalLevel> levelMap );
+
+    // -------------------------------------------------------------------------
+    // DataApprovalSummary
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns the materialized approval summary for a given workflow,
+     * workflow period, organisation unit and attribute option combo.
+     *
+     * @param workflow the workflow.
+     * @param period the workflow period.
+     * @param organisationUnit the organisation unit.
+     * @param attributeOptionCombo the attribute option combo.
+     * @return the summary, or null if none exists.
+     */
+    DataApprovalSummary getDataApprovalSummary( DataApprovalWorkflow workflow, Period period,
+        OrganisationUnit organisationUnit, CategoryOptionCombo attributeOptionCombo );
+
+    /**
+     * Clears the materialized readiness of data below for approval, so that
+     * readiness is computed from the approvals below until reconciled.
+     *
+     * @param workflow the workflow to clear, or null for all workflows.
+     */
+    void clearDataApprovalReadiness( DataApprovalWorkflow workflow );
+
+    /**
+     * Recomputes the materialized readiness of data below for approval for
+     * all organisation units above approved data.
+     *
+     * @return the number of summaries reconciled.
+     */
+    int reconcileDataApprovalReadiness();
+
+    /**
+     * Recomputes the materialized highest approved level of all summaries.
+     * Invoked when approval levels are renumbered, which can change which of
+     * the approvals of an organisation unit is at the highest level.
+     */
+    void updateDataApprovalSummaryLevels();
+
+    /**
+     * Returns a checksum of the organisation unit hierarchy, data sets,
+     * category options and approval workflows and levels, including their
+     * memberships, which changes when any of them is added, updated or
+     * deleted.
+     *
+     * @return the checksum.
+     */
+    String getApprovalStructureChecksum();
 }
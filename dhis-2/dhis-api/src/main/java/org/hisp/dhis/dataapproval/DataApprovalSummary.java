@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dataapproval;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Materialized approval summary for a workflow, workflow period, organisation
+ * unit and attribute option combination. Holds the highest level at which the
+ * data is approved for the organisation unit, and whether the data for the
+ * approval level below is ready for approval at this organisation unit. It is
+ * maintained by the data approval store whenever approvals change, so that
+ * approval statuses can be read by indexed lookups instead of being computed
+ * from all approvals in the hierarchy.
+ * <p>
+ * The readiness properties are null when not materialized, in which case
+ * readiness is computed from the approvals below.
+ */
+public class DataApprovalSummary
+    implements Serializable
+{
+    private long workflowId;
+
+    private long periodId;
+
+    private long organisationUnitId;
+
+    private long attributeOptionComboId;
+
+    /**
+     * Identifier of the highest level approved, null if not approved.
+     */
+    private Long dataApprovalLevelId;
+
+    /**
+     * Whether the highest level approval is accepted.
+     */
+    private Boolean accepted;
+
+    /**
+     * Whether all data below is approved, null if not materialized.
+     */
+    private Boolean readyBelow;
+
+    /**
+     * Whether all data below is approved and accepted, null if not
+     * materialized.
+     */
+    private Boolean acceptedBelow;
+
+    // -------------------------------------------------------------------------
+    // Constructors
+    // -------------------------------------------------------------------------
+
+    public DataApprovalSummary()
+    {
+    }
+
+    public DataApprovalSummary( long workflowId, long periodId, long organisationUnitId,
+        long attributeOptionComboId )
+    {
+        this.workflowId = workflowId;
+        this.periodId = periodId;
+        this.organisationUnitId = organisationUnitId;
+        this.attributeOptionComboId = attributeOptionComboId;
+    }
+
+    // -------------------------------------------------------------------------
+    // Logic
+    // -------------------------------------------------------------------------
+
+    public boolean isApproved()
+    {
+        return dataApprovalLevelId != null;
+    }
+
+    // -------------------------------------------------------------------------
+    // hashCode, equals and toString
+    // -------------------------------------------------------------------------
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( workflowId, periodId, organisationUnitId, attributeOptionComboId );
+    }
+
+    @Override
+    public boolean equals( Object object )
+    {
+        if ( this == object )
+        {
+            return true;
+        }
+
+        if ( object == null || getClass() != object.getClass() )
+        {
+            return false;
+        }
+
+        DataApprovalSummary other = (DataApprovalSummary) object;
+
+        return workflowId == other.workflowId && periodId == other.periodId
+            && organisationUnitId == other.organisationUnitId
+            && attributeOptionComboId == other.attributeOptionComboId;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DataApprovalSummary{" +
+            "workflowId=" + workflowId +
+            ", periodId=" + periodId +
+            ", organisationUnitId=" + organisationUnitId +
+            ", attributeOptionComboId=" + attributeOptionComboId +
+            ", dataApprovalLevelId=" + dataApprovalLevelId +
+            ", accepted=" + accepted +
+            ", readyBelow=" + readyBelow +
+            ", acceptedBelow=" + acceptedBelow +
+            '}';
+    }
+
+    // -------------------------------------------------------------------------
+    // Getters and setters
+    // -------------------------------------------------------------------------
+
+    public long getWorkflowId()
+    {
+        return workflowId;
+    }
+
+    public void setWorkflowId( long workflowId )
+    {
+        this.workflowId = workflowId;
+    }
+
+    public long getPeriodId()
+    {
+        return periodId;
+    }
+
+    public void setPeriodId( long periodId )
+    {
+        this.periodId = periodId;
+    }
+
+    public long getOrganisationUnitId()
+    {
+        return organisationUnitId;
+    }
+
+    public void setOrganisationUnitId( long organisationUnitId )
+    {
+        this.organisationUnitId = organisationUnitId;
+    }
+
+    public long getAttributeOptionComboId()
+    {
+        return attributeOptionComboId;
+    }
+
+    public void setAttributeOptionComboId( long attributeOptionComboId )
+    {
+        this.attributeOptionComboId = attributeOptionComboId;
+    }
+
+    public Long getDataApprovalLevelId()
+    {
+        return dataApprovalLevelId;
+    }
+
+    public void setDataApprovalLevelId( Long dataApprovalLevelId )
+    {
+        this.dataApprovalLevelId = dataApprovalLevelId;
+    }
+
+    public Boolean getAccepted()
+    {
+        return accepted;
+    }
+
+    public void setAccepted( Boolean accepted )
+    {
+        this.accepted = accepted;
+    }
+
+    public Boolean getReadyBelow()
+    {
+        return readyBelow;
+    }
+
+    public void setReadyBelow( Boolean readyBelow )
+    {
+        this.readyBelow = readyBelow;
+    }
+
+    public Boolean getAcceptedBelow()
+    {
+        return acceptedBelow;
+    }
+
+    public void setAcceptedBelow( Boolean acceptedBelow )
+    {
+        this.acceptedBelow = acceptedBelow;
+    }
+}
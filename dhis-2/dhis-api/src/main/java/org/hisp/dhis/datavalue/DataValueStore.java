@@ -30,6 +30,7 @@ package org.hisp.dhis.datavalue;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
@@ -143,6 +144,28 @@ public interface DataValueStore
      */
     List<DeflatedDataValue> getDeflatedDataValues( DataExportParams params );
 
+    /**
+     * Returns the data element, period and organisation unit combinations of
+     * data values which have been added, updated or deleted since the given
+     * date. Changes are read from the data value last updated timestamp and the
+     * data value audit table. Only the data element, period and source
+     * identifiers of the returned deflated data values are populated.
+     *
+     * @param since the date from which to include changes.
+     * @return a list of deflated data values.
+     */
+    List<DeflatedDataValue> getDeflatedDataValueChanges( Date since );
+
+    /**
+     * Returns the number of data values which are not deleted by organisation
+     * unit id for the given periods. Organisation units without data values are
+     * not included.
+     *
+     * @param periods the periods.
+     * @return a mapping of organisation unit id to number of data values.
+     */
+    Map<Long, Integer> getDataValueCountsByOrganisationUnit( Collection<Period> periods );
+
     /**
      * Gets the number of DataValues which have been updated between the given
      * start and end date. The
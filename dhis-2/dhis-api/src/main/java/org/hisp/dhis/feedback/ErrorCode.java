@@ -196,6 +196,7 @@ public enum ErrorCode
     E7007(
         "Failed to add/update job configuration - Delay must be not null for jobs with scheduling type FIXED_DELAY: `{0}`" ),
     E7010( "Failed to validate job runtime - `{0}`" ),
+    E7011( "Failed to cancel job `{0}`, job is not running." ),
 
     /* Aggregate analytics */
     E7100( "Query parameters cannot be null" ),
@@ -70,6 +70,16 @@ public interface KeyJsonValueService
      */
     KeyJsonValue getKeyJsonValue( String namespace, String key, boolean isAdmin );
 
+    /**
+     * Retrieves a version of the given namespace or key which changes when
+     * values are added, updated or deleted.
+     *
+     * @param namespace the namespace.
+     * @param key the key, or null to retrieve the version of the namespace.
+     * @return a version string, or null if not accessible.
+     */
+    String getVersion( String namespace, String key, boolean isAdmin );
+
     /**
      * Adds a new KeyJsonValue.
      *
@@ -81,4 +81,15 @@ public interface KeyJsonValueStore
      * @return the KeyJsonValue retrieved
      */
     KeyJsonValue getKeyJsonValue( String namespace, String key );
+
+    /**
+     * Retrieves a version of the given namespace or key, derived from the
+     * number of values and the last updated time stamp, without loading any
+     * values.
+     *
+     * @param namespace the namespace.
+     * @param key the key, or null to retrieve the version of the namespace.
+     * @return a version string.
+     */
+    String getVersion( String namespace, String key );
 }
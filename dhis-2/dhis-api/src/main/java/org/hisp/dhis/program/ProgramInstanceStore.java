@@ -136,6 +136,22 @@ public interface ProgramInstanceStore
      */
     List<ProgramInstance> getWithScheduledNotifications( ProgramNotificationTemplate template, Date notificationDate );
 
+    /**
+     * Get a page of ProgramInstances which have notifications with the given
+     * ProgramNotificationTemplate scheduled on the given date, ordered by
+     * identifier. Paging is done by identifier so that subsequent pages can be
+     * fetched without an offset.
+     *
+     * @param template the template.
+     * @param notificationDate the Date for which the notification is scheduled.
+     * @param afterId only ProgramInstances with an identifier greater than this
+     *        value are returned.
+     * @param pageSize the maximum number of ProgramInstances to return.
+     * @return a list of ProgramInstance.
+     */
+    List<ProgramInstance> getWithScheduledNotifications( ProgramNotificationTemplate template, Date notificationDate,
+        long afterId, int pageSize );
+
     /**
      * Return all program instance by type.
      * <p>
@@ -129,6 +129,22 @@ public interface ProgramStageInstanceStore
     List<ProgramStageInstance> getWithScheduledNotifications( ProgramNotificationTemplate template,
         Date notificationDate );
 
+    /**
+     * Get a page of ProgramStageInstances which have notifications with the
+     * given ProgramNotificationTemplate scheduled on the given date, ordered
+     * by identifier. Paging is done by identifier so that subsequent pages can
+     * be fetched without an offset.
+     *
+     * @param template the template.
+     * @param notificationDate the Date for which the notification is scheduled.
+     * @param afterId only ProgramStageInstances with an identifier greater than
+     *        this value are returned.
+     * @param pageSize the maximum number of ProgramStageInstances to return.
+     * @return a list of ProgramStageInstance.
+     */
+    List<ProgramStageInstance> getWithScheduledNotifications( ProgramNotificationTemplate template,
+        Date notificationDate, long afterId, int pageSize );
+
     /**
      * Set lastSynchronized timestamp to provided timestamp for provided PSIs
      *
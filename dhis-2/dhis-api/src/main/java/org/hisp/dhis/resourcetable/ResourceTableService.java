@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.resourcetable;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+
 /**
  * @author Lars Helge Overland
  */
@@ -105,6 +108,20 @@ public interface ResourceTableService
      */
     void generateDataApprovalMinLevelTable();
 
+    /**
+     * Generates the resource tables of the given types. Table types are polled
+     * from the queue until it is empty, and each resource table is generated in
+     * a separate transaction. Invoke this method multiple times with the same
+     * queue to generate independent resource tables concurrently.
+     *
+     * Resource tables are skipped if they exist and the metadata they are
+     * generated from is unchanged since they were last generated.
+     *
+     * @param tableTypes the queue of {@link ResourceTableType}.
+     * @return a {@link Future}.
+     */
+    Future<?> generateResourceTablesAsync( ConcurrentLinkedQueue<ResourceTableType> tableTypes );
+
     /**
      * Create all SQL views.
      */
@@ -28,6 +28,7 @@
 package org.hisp.dhis.resourcetable;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author Lars Helge Overland
@@ -55,6 +56,18 @@ public interface ResourceTableStore
      */
     void generateResourceTable( ResourceTable<?> resourceTable );
 
+    /**
+     * Returns a checksum of the metadata which the given resource table type
+     * is generated from, based on the row count and max last updated timestamp
+     * of each source table, and the row count and a hash of the rows of each
+     * membership table.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     * @return a checksum, or an empty optional if the resource table type does
+     *         not declare any source tables.
+     */
+    Optional<String> getSourceChecksum( ResourceTableType tableType );
+
     /**
      * Performs a batch update.
      *
@@ -27,34 +27,86 @@
  */
 package org.hisp.dhis.resourcetable;
 
+import static com.google.common.collect.ImmutableList.of;
+
+import java.util.List;
+
 /**
  * @author Lars Helge Overland
  */
 public enum ResourceTableType
 {
-    ORG_UNIT_STRUCTURE( "_orgunitstructure" ),
-    DATA_SET_ORG_UNIT_CATEGORY( "_datasetorganisationunitcategory" ),
-    CATEGORY_OPTION_COMBO_NAME( "_categoryoptioncomboname" ),
-    DATA_ELEMENT_GROUP_SET_STRUCTURE( "_dataelementgroupsetstructure" ),
-    INDICATOR_GROUP_SET_STRUCTURE( "_indicatorgroupsetstructure" ),
-    ORG_UNIT_GROUP_SET_STRUCTURE( "_organisationunitgroupsetstructure" ),
-    CATEGORY_STRUCTURE( "_categorystructure" ),
-    DATA_ELEMENT_STRUCTURE( "_dataelementstructure" ),
-    PERIOD_STRUCTURE( "_periodstructure" ),
-    DATE_PERIOD_STRUCTURE( "_dateperiodstructure" ),
-    DATA_ELEMENT_CATEGORY_OPTION_COMBO( "_dataelementcategoryoptioncombo" ),
-    DATA_APPROVAL_REMAP_LEVEL( "_dataapprovalremaplevel" ),
-    DATA_APPROVAL_MIN_LEVEL( "_dataapprovalminlevel" );
+    ORG_UNIT_STRUCTURE( "_orgunitstructure", of( "organisationunit" ), of() ),
+    DATA_SET_ORG_UNIT_CATEGORY( "_datasetorganisationunitcategory",
+        of( "dataset", "organisationunit", "categorycombo", "categoryoptioncombo", "dataelementcategoryoption" ),
+        of( "datasetsource", "categorycombos_optioncombos", "categoryoptioncombos_categoryoptions",
+            "categoryoption_organisationunits" ) ),
+    CATEGORY_OPTION_COMBO_NAME( "_categoryoptioncomboname",
+        of( "categorycombo", "dataelementcategory", "dataelementcategoryoption", "categoryoptioncombo" ),
+        of( "categorycombos_categories", "categories_categoryoptions", "categorycombos_optioncombos",
+            "categoryoptioncombos_categoryoptions" ) ),
+    DATA_ELEMENT_GROUP_SET_STRUCTURE( "_dataelementgroupsetstructure",
+        of( "dataelementgroupset", "dataelementgroup", "dataelement" ),
+        of( "dataelementgroupmembers", "dataelementgroupsetmembers" ) ),
+    INDICATOR_GROUP_SET_STRUCTURE( "_indicatorgroupsetstructure",
+        of( "indicatorgroupset", "indicatorgroup", "indicator" ),
+        of( "indicatorgroupmembers", "indicatorgroupsetmembers" ) ),
+    ORG_UNIT_GROUP_SET_STRUCTURE( "_organisationunitgroupsetstructure",
+        of( "orgunitgroupset", "orgunitgroup", "organisationunit" ),
+        of( "orgunitgroupmembers", "orgunitgroupsetmembers" ) ),
+    CATEGORY_STRUCTURE( "_categorystructure",
+        of( "dataelementcategory", "dataelementcategoryoption", "categoryoptiongroupset", "categoryoptiongroup",
+            "categoryoptioncombo" ),
+        of( "categories_categoryoptions", "categoryoptioncombos_categoryoptions", "categoryoptiongroupmembers",
+            "categoryoptiongroupsetmembers" ) ),
+    DATA_ELEMENT_STRUCTURE( "_dataelementstructure", of( "dataelement", "dataset" ), of( "datasetelement" ) ),
+    PERIOD_STRUCTURE( "_periodstructure", of(), of() ),
+    DATE_PERIOD_STRUCTURE( "_dateperiodstructure", of(), of() ),
+    DATA_ELEMENT_CATEGORY_OPTION_COMBO( "_dataelementcategoryoptioncombo",
+        of( "dataelement", "categorycombo", "categoryoptioncombo" ), of( "categorycombos_optioncombos" ) ),
+    DATA_APPROVAL_REMAP_LEVEL( "_dataapprovalremaplevel", of(), of() ),
+    DATA_APPROVAL_MIN_LEVEL( "_dataapprovalminlevel", of(), of() );
 
     private String tableName;
 
-    ResourceTableType( String tableName )
+    /**
+     * Identifiable object tables which the resource table is generated from.
+     * The row count and max last updated timestamp of these tables are used to
+     * detect whether the resource table must be regenerated.
+     */
+    private List<String> sourceTables;
+
+    /**
+     * Membership and join tables which the resource table is generated from.
+     * These tables have no last updated column, so the row count and a hash of
+     * the rows are used to detect changes.
+     */
+    private List<String> memberTables;
+
+    ResourceTableType( String tableName, List<String> sourceTables, List<String> memberTables )
     {
         this.tableName = tableName;
+        this.sourceTables = sourceTables;
+        this.memberTables = memberTables;
     }
 
     public String getTableName()
     {
         return tableName;
     }
+
+    public List<String> getSourceTables()
+    {
+        return sourceTables;
+    }
+
+    public List<String> getMemberTables()
+    {
+        return memberTables;
+    }
+
+    public boolean hasSourceTables()
+    {
+        return !sourceTables.isEmpty();
+    }
 }
@@ -44,6 +44,7 @@ import org.hisp.dhis.scheduling.parameters.DataSynchronizationJobParameters;
 import org.hisp.dhis.scheduling.parameters.DisableInactiveUsersJobParameters;
 import org.hisp.dhis.scheduling.parameters.EventProgramsDataSynchronizationJobParameters;
 import org.hisp.dhis.scheduling.parameters.MetadataSyncJobParameters;
+import org.hisp.dhis.scheduling.parameters.MinMaxValueGenerationJobParameters;
 import org.hisp.dhis.scheduling.parameters.MonitoringJobParameters;
 import org.hisp.dhis.scheduling.parameters.PredictorJobParameters;
 import org.hisp.dhis.scheduling.parameters.PushAnalysisJobParameters;
@@ -137,6 +138,12 @@ public class JobConfiguration
 
     private boolean leaderOnlyJob = false;
 
+    /**
+     * Indicates whether cancellation of the running job was requested. Jobs
+     * supporting cooperative cancellation check this and stop early.
+     */
+    private volatile boolean cancelled = false;
+
     public JobConfiguration()
     {
     }
@@ -332,7 +339,8 @@ public class JobConfiguration
         @JsonSubTypes.Type( value = EventProgramsDataSynchronizationJobParameters.class, name = "EVENT_PROGRAMS_DATA_SYNC" ),
         @JsonSubTypes.Type( value = TrackerProgramsDataSynchronizationJobParameters.class, name = "TRACKER_PROGRAMS_DATA_SYNC" ),
         @JsonSubTypes.Type( value = DataSynchronizationJobParameters.class, name = "DATA_SYNC" ),
-        @JsonSubTypes.Type( value = DisableInactiveUsersJobParameters.class, name = "DISABLE_INACTIVE_USERS" )
+        @JsonSubTypes.Type( value = DisableInactiveUsersJobParameters.class, name = "DISABLE_INACTIVE_USERS" ),
+        @JsonSubTypes.Type( value = MinMaxValueGenerationJobParameters.class, name = "MIN_MAX_VALUE_GENERATION" )
     } )
     public JobParameters getJobParameters()
     {
@@ -443,6 +451,16 @@ public class JobConfiguration
         this.leaderOnlyJob = leaderOnlyJob;
     }
 
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    public void setCancelled( boolean cancelled )
+    {
+        this.cancelled = cancelled;
+    }
+
     public boolean isInMemoryJob()
     {
         return inMemoryJob;
@@ -35,6 +35,7 @@ import org.hisp.dhis.scheduling.parameters.DataSynchronizationJobParameters;
 import org.hisp.dhis.scheduling.parameters.DisableInactiveUsersJobParameters;
 import org.hisp.dhis.scheduling.parameters.EventProgramsDataSynchronizationJobParameters;
 import org.hisp.dhis.scheduling.parameters.MetadataSyncJobParameters;
+import org.hisp.dhis.scheduling.parameters.MinMaxValueGenerationJobParameters;
 import org.hisp.dhis.scheduling.parameters.MockJobParameters;
 import org.hisp.dhis.scheduling.parameters.MonitoringJobParameters;
 import org.hisp.dhis.scheduling.parameters.PredictorJobParameters;
@@ -57,35 +58,43 @@ import com.google.common.collect.ImmutableMap;
 public enum JobType
 {
     DATA_STATISTICS( "dataStatisticsJob", false ),
-    DATA_INTEGRITY( "dataIntegrityJob", true ),
-    RESOURCE_TABLE( "resourceTableJob", true ),
+    DATA_INTEGRITY( "dataIntegrityJob", true, JobResourceClass.DB_HEAVY ),
+    RESOURCE_TABLE( "resourceTableJob", true, JobResourceClass.DB_HEAVY ),
     ANALYTICS_TABLE( "analyticsTableJob", true, SchedulingType.CRON, AnalyticsJobParameters.class, ImmutableMap.of(
-        "skipTableTypes", "/api/analytics/tableTypes" ) ),
+        "skipTableTypes", "/api/analytics/tableTypes" ), JobResourceClass.DB_HEAVY ),
     CONTINUOUS_ANALYTICS_TABLE( "continuousAnalyticsTableJob", true, SchedulingType.FIXED_DELAY,
         ContinuousAnalyticsJobParameters.class, ImmutableMap.of(
-            "skipTableTypes", "/api/analytics/tableTypes" ) ),
-    DATA_SYNC( "dataSyncJob", true, SchedulingType.CRON, DataSynchronizationJobParameters.class, null ),
+            "skipTableTypes", "/api/analytics/tableTypes" ),
+        JobResourceClass.DB_HEAVY ),
+    DATA_SYNC( "dataSyncJob", true, SchedulingType.CRON, DataSynchronizationJobParameters.class, null,
+        JobResourceClass.IO_BOUND ),
     TRACKER_PROGRAMS_DATA_SYNC( "trackerProgramsDataSyncJob", true, SchedulingType.CRON,
-        TrackerProgramsDataSynchronizationJobParameters.class, null ),
+        TrackerProgramsDataSynchronizationJobParameters.class, null, JobResourceClass.IO_BOUND ),
     EVENT_PROGRAMS_DATA_SYNC( "eventProgramsDataSyncJob", true, SchedulingType.CRON,
-        EventProgramsDataSynchronizationJobParameters.class, null ),
+        EventProgramsDataSynchronizationJobParameters.class, null, JobResourceClass.IO_BOUND ),
     FILE_RESOURCE_CLEANUP( "fileResourceCleanUpJob", false ),
-    IMAGE_PROCESSING( "imageProcessingJob", false ),
-    META_DATA_SYNC( "metadataSyncJob", true, SchedulingType.CRON, MetadataSyncJobParameters.class, null ),
-    SMS_SEND( "sendSmsJob", false, SchedulingType.CRON, SmsJobParameters.class, null ),
-    SEND_SCHEDULED_MESSAGE( "sendScheduledMessageJob", true ),
-    PROGRAM_NOTIFICATIONS( "programNotificationsJob", true ),
-    VALIDATION_RESULTS_NOTIFICATION( "validationResultNotificationJob", false ),
-    CREDENTIALS_EXPIRY_ALERT( "credentialsExpiryAlertJob", false ),
+    IMAGE_PROCESSING( "imageProcessingJob", false, JobResourceClass.CPU_HEAVY ),
+    META_DATA_SYNC( "metadataSyncJob", true, SchedulingType.CRON, MetadataSyncJobParameters.class, null,
+        JobResourceClass.IO_BOUND ),
+    SMS_SEND( "sendSmsJob", false, SchedulingType.CRON, SmsJobParameters.class, null, JobResourceClass.IO_BOUND ),
+    SEND_SCHEDULED_MESSAGE( "sendScheduledMessageJob", true, JobResourceClass.IO_BOUND ),
+    PROGRAM_NOTIFICATIONS( "programNotificationsJob", true, JobResourceClass.IO_BOUND ),
+    VALIDATION_RESULTS_NOTIFICATION( "validationResultNotificationJob", false, JobResourceClass.IO_BOUND ),
+    CREDENTIALS_EXPIRY_ALERT( "credentialsExpiryAlertJob", false, JobResourceClass.IO_BOUND ),
     MONITORING( "monitoringJob", true, SchedulingType.CRON, MonitoringJobParameters.class, ImmutableMap.of(
         "relativePeriods", "/api/periodTypes/relativePeriodTypes", "validationRuleGroups",
-        "/api/validationRuleGroups" ) ),
+        "/api/validationRuleGroups" ), JobResourceClass.DB_HEAVY ),
     PUSH_ANALYSIS( "pushAnalysisJob", true, SchedulingType.CRON, PushAnalysisJobParameters.class, ImmutableMap.of(
-        "pushAnalysis", "/api/pushAnalysis" ) ),
+        "pushAnalysis", "/api/pushAnalysis" ), JobResourceClass.CPU_HEAVY ),
     PREDICTOR( "predictorJob", true, SchedulingType.CRON, PredictorJobParameters.class, ImmutableMap.of(
-        "predictors", "/api/predictors", "predictorGroups", "/api/predictorGroups" ) ),
-    DATA_SET_NOTIFICATION( "dataSetNotificationJob", false ),
+        "predictors", "/api/predictors", "predictorGroups", "/api/predictorGroups" ), JobResourceClass.DB_HEAVY ),
+    DATA_SET_NOTIFICATION( "dataSetNotificationJob", false, JobResourceClass.IO_BOUND ),
     REMOVE_EXPIRED_RESERVED_VALUES( "removeExpiredReservedValuesJob", false ),
+    DATA_APPROVAL_SUMMARY( "dataApprovalSummaryJob", false, JobResourceClass.DB_HEAVY ),
+    MIN_MAX_VALUE_GENERATION( "minMaxValueGenerationJob", false, SchedulingType.CRON,
+        MinMaxValueGenerationJobParameters.class, null, JobResourceClass.DB_HEAVY ),
+    OUTLIER_STATISTICS( "outlierStatisticsJob", true, JobResourceClass.DB_HEAVY ),
+    EVENT_DATA_VALUE_COMPACTION( "eventDataValueCompactionJob", true, JobResourceClass.DB_HEAVY ),
     TRACKER_IMPORT_JOB( "trackerImportJob", false ),
     TRACKER_IMPORT_NOTIFICATION_JOB( "trackerImportNotificationJob", false ),
     TRACKER_IMPORT_RULE_ENGINE_JOB( "trackerImportRuleEngineJob", false ),
@@ -125,20 +134,35 @@ public enum JobType
 
     private final Map<String, String> relativeApiElements;
 
+    private final JobResourceClass resourceClass;
+
     JobType( String key, boolean configurable )
     {
-        this( key, configurable, SchedulingType.CRON, null, null );
+        this( key, configurable, JobResourceClass.DEFAULT );
+    }
+
+    JobType( String key, boolean configurable, JobResourceClass resourceClass )
+    {
+        this( key, configurable, SchedulingType.CRON, null, null, resourceClass );
     }
 
     JobType( String key, boolean configurable, SchedulingType schedulingType,
         Class<? extends JobParameters> jobParameters,
         Map<String, String> relativeApiElements )
+    {
+        this( key, configurable, schedulingType, jobParameters, relativeApiElements, JobResourceClass.DEFAULT );
+    }
+
+    JobType( String key, boolean configurable, SchedulingType schedulingType,
+        Class<? extends JobParameters> jobParameters,
+        Map<String, String> relativeApiElements, JobResourceClass resourceClass )
     {
         this.key = key;
         this.configurable = configurable;
         this.schedulingType = schedulingType;
         this.jobParameters = jobParameters;
         this.relativeApiElements = relativeApiElements;
+        this.resourceClass = resourceClass;
     }
 
     public boolean isCronSchedulingType()
@@ -180,4 +204,9 @@ public enum JobType
     {
         return relativeApiElements;
     }
+
+    public JobResourceClass getResourceClass()
+    {
+        return resourceClass;
+    }
 }
@@ -107,6 +107,15 @@ public interface SchedulingManager
      */
     void stopJob( JobConfiguration jobConfiguration );
 
+    /**
+     * Requests cooperative cancellation of a running job. The job stops at the
+     * next point where it checks for cancellation.
+     *
+     * @param uid the uid of the job configuration.
+     * @return true if a running job was found, false if not.
+     */
+    boolean cancelJob( String uid );
+
     /**
      * Get a job based on the job type.
      *
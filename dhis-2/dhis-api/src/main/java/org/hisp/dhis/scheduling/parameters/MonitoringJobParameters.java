@@ -28,6 +28,7 @@
 package org.hisp.dhis.scheduling.parameters;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -67,6 +68,10 @@ public class MonitoringJobParameters
 
     private boolean persistResults;
 
+    private boolean incremental;
+
+    private Date lastIncrementalRun;
+
     public MonitoringJobParameters()
     {
     }
@@ -142,6 +147,39 @@ public class MonitoringJobParameters
         this.persistResults = persistResults;
     }
 
+    /**
+     * When true, only the organisation units and periods with data value
+     * changes since the last successful incremental run are validated. The
+     * first run, or the first run after the job was edited, is a full run.
+     */
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isIncremental()
+    {
+        return incremental;
+    }
+
+    public void setIncremental( boolean incremental )
+    {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Start time of the last successful incremental run, maintained by the
+     * job.
+     */
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public Date getLastIncrementalRun()
+    {
+        return lastIncrementalRun;
+    }
+
+    public void setLastIncrementalRun( Date lastIncrementalRun )
+    {
+        this.lastIncrementalRun = lastIncrementalRun;
+    }
+
     @Override
     public Optional<ErrorReport> validate()
     {
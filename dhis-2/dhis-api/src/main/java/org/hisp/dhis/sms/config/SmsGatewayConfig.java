@@ -76,6 +76,13 @@ public abstract class SmsGatewayConfig
     @JsonView( SmsConfigurationViews.Public.class )
     private String urlTemplate;
 
+    /**
+     * Maximum number of messages to send through this gateway per second, 0
+     * means no limit.
+     */
+    @JsonView( SmsConfigurationViews.Public.class )
+    private int maxMessagesPerSecond;
+
     public String getUrlTemplate()
     {
         return urlTemplate;
@@ -146,6 +153,16 @@ public abstract class SmsGatewayConfig
         this.sendUrlParameters = sendUrlParameters;
     }
 
+    public int getMaxMessagesPerSecond()
+    {
+        return maxMessagesPerSecond;
+    }
+
+    public void setMaxMessagesPerSecond( int maxMessagesPerSecond )
+    {
+        this.maxMessagesPerSecond = maxMessagesPerSecond;
+    }
+
     @Override
     public boolean equals( Object o )
     {
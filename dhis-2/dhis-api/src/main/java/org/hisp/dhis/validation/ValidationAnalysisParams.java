@@ -28,10 +28,12 @@
 package org.hisp.dhis.validation;
 
 import java.util.Collection;
+import java.util.Date;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.JobConfiguration;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -75,6 +77,10 @@ public final class ValidationAnalysisParams
 
     private int dayInPeriod = -1;
 
+    private Date changedSince;
+
+    private JobConfiguration jobConfiguration;
+
     /**
      * Gets the rules selected for analysis
      *
@@ -162,6 +168,43 @@ public final class ValidationAnalysisParams
         return dayInPeriod;
     }
 
+    /**
+     * Gets the date from which data value changes should be considered when
+     * validating incrementally. When set, only the organisation units and
+     * periods affected by data values added, updated or deleted since this
+     * date are validated for the rules referencing the changed data elements,
+     * and previously persisted results for the validated combinations which
+     * are no longer violations are removed.
+     *
+     * @return the date, or null if all organisation units and periods are
+     *         validated.
+     */
+    public Date getChangedSince()
+    {
+        return changedSince;
+    }
+
+    /**
+     * Indicates whether the analysis is incremental.
+     *
+     * @return true if a changed since date is set.
+     */
+    public boolean isIncremental()
+    {
+        return changedSince != null;
+    }
+
+    /**
+     * Gets the job configuration of the job running the analysis, used for
+     * progress notifications and cooperative cancellation.
+     *
+     * @return the job configuration, or null if not run by a job.
+     */
+    public JobConfiguration getJobConfiguration()
+    {
+        return jobConfiguration;
+    }
+
     /**
      * Limits the number of results we should look for. This can help prevent
      * the analysis running too long by stopping after a set number of results,
@@ -254,6 +297,31 @@ public final class ValidationAnalysisParams
             return this;
         }
 
+        /**
+         * Only validates the organisation units and periods affected by data
+         * value changes since the given date. Null validates everything.
+         *
+         * @param changedSince the date from which to consider changes
+         * @return the updated builder object
+         */
+        public Builder withChangedSince( Date changedSince )
+        {
+            this.params.changedSince = changedSince;
+            return this;
+        }
+
+        /**
+         * Sets the job configuration of the job running the analysis.
+         *
+         * @param jobConfiguration the job configuration
+         * @return the updated builder object
+         */
+        public Builder withJobConfiguration( JobConfiguration jobConfiguration )
+        {
+            this.params.jobConfiguration = jobConfiguration;
+            return this;
+        }
+
         /**
          * The max number of results we want from the analysis.
          *
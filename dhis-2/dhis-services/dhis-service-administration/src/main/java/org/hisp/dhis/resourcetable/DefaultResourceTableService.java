@@ -32,6 +32,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,10 +47,12 @@ import org.hisp.dhis.category.CategoryOptionGroupSet;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.commons.util.ConcurrentUtils;
 import org.hisp.dhis.dataapproval.DataApprovalLevelService;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroupSet;
 import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.indicator.IndicatorGroupSet;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroupSet;
@@ -54,8 +62,12 @@ import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.resourcetable.table.*;
 import org.hisp.dhis.sqlview.SqlView;
 import org.hisp.dhis.sqlview.SqlViewService;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.collect.Lists;
 
@@ -87,10 +99,15 @@ public class DefaultResourceTableService
 
     private StatementBuilder statementBuilder;
 
+    private DbmsManager dbmsManager;
+
+    private TransactionTemplate transactionTemplate;
+
     public DefaultResourceTableService( ResourceTableStore resourceTableStore,
         IdentifiableObjectManager idObjectManager, OrganisationUnitService organisationUnitService,
         PeriodService periodService, SqlViewService sqlViewService, DataApprovalLevelService dataApprovalLevelService,
-        CategoryService categoryService, StatementBuilder statementBuilder )
+        CategoryService categoryService, StatementBuilder statementBuilder, DbmsManager dbmsManager,
+        TransactionTemplate transactionTemplate )
     {
         checkNotNull( resourceTableStore );
         checkNotNull( idObjectManager );
@@ -100,6 +117,8 @@ public class DefaultResourceTableService
         checkNotNull( dataApprovalLevelService );
         checkNotNull( categoryService );
         checkNotNull( statementBuilder );
+        checkNotNull( dbmsManager );
+        checkNotNull( transactionTemplate );
 
         this.resourceTableStore = resourceTableStore;
         this.idObjectManager = idObjectManager;
@@ -109,8 +128,16 @@ public class DefaultResourceTableService
         this.dataApprovalLevelService = dataApprovalLevelService;
         this.categoryService = categoryService;
         this.statementBuilder = statementBuilder;
+        this.dbmsManager = dbmsManager;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    /**
+     * Checksums of the source metadata of resource tables at the time they
+     * were last generated.
+     */
+    private final Map<ResourceTableType, String> sourceChecksums = new ConcurrentHashMap<>();
+
     // -------------------------------------------------------------------------
     // ResourceTableService implementation
     // -------------------------------------------------------------------------
@@ -119,66 +146,75 @@ public class DefaultResourceTableService
     @Transactional
     public void generateOrganisationUnitStructures()
     {
-        resourceTableStore.generateResourceTable( new OrganisationUnitStructureResourceTable(
-            null, organisationUnitService, organisationUnitService.getNumberOfOrganisationalLevels() ) );
+        generateResourceTable( ResourceTableType.ORG_UNIT_STRUCTURE,
+            () -> new OrganisationUnitStructureResourceTable(
+                null, organisationUnitService.getNumberOfOrganisationalLevels() ) );
     }
 
     @Override
     @Transactional
     public void generateDataSetOrganisationUnitCategoryTable()
     {
-        resourceTableStore.generateResourceTable( new DataSetOrganisationUnitCategoryResourceTable(
-            idObjectManager.getAllNoAcl( DataSet.class ), categoryService.getDefaultCategoryOptionCombo() ) );
+        generateResourceTable( ResourceTableType.DATA_SET_ORG_UNIT_CATEGORY,
+            () -> new DataSetOrganisationUnitCategoryResourceTable(
+                idObjectManager.getAllNoAcl( DataSet.class ), categoryService.getDefaultCategoryOptionCombo() ) );
     }
 
     @Override
     @Transactional
     public void generateCategoryOptionComboNames()
     {
-        resourceTableStore.generateResourceTable( new CategoryOptionComboNameResourceTable(
-            idObjectManager.getAllNoAcl( CategoryCombo.class ) ) );
+        generateResourceTable( ResourceTableType.CATEGORY_OPTION_COMBO_NAME,
+            () -> new CategoryOptionComboNameResourceTable(
+                idObjectManager.getAllNoAcl( CategoryCombo.class ) ) );
     }
 
     @Override
     @Transactional
     public void generateDataElementGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new DataElementGroupSetResourceTable(
-            idObjectManager.getDataDimensionsNoAcl( DataElementGroupSet.class ) ) );
+        generateResourceTable( ResourceTableType.DATA_ELEMENT_GROUP_SET_STRUCTURE,
+            () -> new DataElementGroupSetResourceTable(
+                idObjectManager.getDataDimensionsNoAcl( DataElementGroupSet.class ) ) );
     }
 
     @Override
     @Transactional
     public void generateIndicatorGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new IndicatorGroupSetResourceTable(
-            idObjectManager.getAllNoAcl( IndicatorGroupSet.class ) ) );
+        generateResourceTable( ResourceTableType.INDICATOR_GROUP_SET_STRUCTURE,
+            () -> new IndicatorGroupSetResourceTable(
+                idObjectManager.getAllNoAcl( IndicatorGroupSet.class ) ) );
     }
 
     @Override
     @Transactional
     public void generateOrganisationUnitGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new OrganisationUnitGroupSetResourceTable(
-            idObjectManager.getDataDimensionsNoAcl( OrganisationUnitGroupSet.class ),
-            statementBuilder.supportsPartialIndexes(), organisationUnitService.getNumberOfOrganisationalLevels() ) );
+        generateResourceTable( ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE,
+            () -> new OrganisationUnitGroupSetResourceTable(
+                idObjectManager.getDataDimensionsNoAcl( OrganisationUnitGroupSet.class ),
+                statementBuilder.supportsPartialIndexes(),
+                organisationUnitService.getNumberOfOrganisationalLevels() ) );
     }
 
     @Override
     @Transactional
     public void generateCategoryTable()
     {
-        resourceTableStore.generateResourceTable( new CategoryResourceTable(
-            idObjectManager.getDataDimensionsNoAcl( Category.class ),
-            idObjectManager.getDataDimensionsNoAcl( CategoryOptionGroupSet.class ) ) );
+        generateResourceTable( ResourceTableType.CATEGORY_STRUCTURE,
+            () -> new CategoryResourceTable(
+                idObjectManager.getDataDimensionsNoAcl( Category.class ),
+                idObjectManager.getDataDimensionsNoAcl( CategoryOptionGroupSet.class ) ) );
     }
 
     @Override
     @Transactional
     public void generateDataElementTable()
     {
-        resourceTableStore.generateResourceTable( new DataElementResourceTable(
-            idObjectManager.getAllNoAcl( DataElement.class ) ) );
+        generateResourceTable( ResourceTableType.DATA_ELEMENT_STRUCTURE,
+            () -> new DataElementResourceTable(
+                idObjectManager.getAllNoAcl( DataElement.class ) ) );
     }
 
     @Override
@@ -198,7 +234,8 @@ public class DefaultResourceTableService
     @Transactional
     public void generateCategoryOptionComboTable()
     {
-        resourceTableStore.generateResourceTable( new CategoryOptionComboResourceTable( null ) );
+        generateResourceTable( ResourceTableType.DATA_ELEMENT_CATEGORY_OPTION_COMBO,
+            () -> new CategoryOptionComboResourceTable( null ) );
     }
 
     @Override
@@ -219,6 +256,139 @@ public class DefaultResourceTableService
         }
     }
 
+    @Override
+    @Async
+    public Future<?> generateResourceTablesAsync( ConcurrentLinkedQueue<ResourceTableType> tableTypes )
+    {
+        taskLoop: while ( true )
+        {
+            ResourceTableType tableType = tableTypes.poll();
+
+            if ( tableType == null )
+            {
+                break taskLoop;
+            }
+
+            transactionTemplate.executeWithoutResult( status -> generateResourceTable( tableType ) );
+        }
+
+        return ConcurrentUtils.getImmediateFuture();
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Generates the resource table of the given type.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     */
+    private void generateResourceTable( ResourceTableType tableType )
+    {
+        switch ( tableType )
+        {
+        case ORG_UNIT_STRUCTURE:
+            generateOrganisationUnitStructures();
+            break;
+        case DATA_SET_ORG_UNIT_CATEGORY:
+            generateDataSetOrganisationUnitCategoryTable();
+            break;
+        case CATEGORY_OPTION_COMBO_NAME:
+            generateCategoryOptionComboNames();
+            break;
+        case DATA_ELEMENT_GROUP_SET_STRUCTURE:
+            generateDataElementGroupSetTable();
+            break;
+        case INDICATOR_GROUP_SET_STRUCTURE:
+            generateIndicatorGroupSetTable();
+            break;
+        case ORG_UNIT_GROUP_SET_STRUCTURE:
+            generateOrganisationUnitGroupSetTable();
+            break;
+        case CATEGORY_STRUCTURE:
+            generateCategoryTable();
+            break;
+        case DATA_ELEMENT_STRUCTURE:
+            generateDataElementTable();
+            break;
+        case PERIOD_STRUCTURE:
+            generatePeriodTable();
+            break;
+        case DATE_PERIOD_STRUCTURE:
+            generateDatePeriodTable();
+            break;
+        case DATA_ELEMENT_CATEGORY_OPTION_COMBO:
+            generateCategoryOptionComboTable();
+            break;
+        case DATA_APPROVAL_REMAP_LEVEL:
+            generateDataApprovalRemapLevelTable();
+            break;
+        case DATA_APPROVAL_MIN_LEVEL:
+            generateDataApprovalMinLevelTable();
+            break;
+        default:
+            throw new IllegalArgumentException( "Unsupported resource table type: " + tableType );
+        }
+    }
+
+    /**
+     * Generates the resource table provided by the given supplier, unless the
+     * resource table exists and the checksum of its source metadata is
+     * unchanged since the last time it was generated. The supplier is only
+     * invoked when the resource table is generated, so that the source objects
+     * are not loaded when the resource table is skipped.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     * @param resourceTable the supplier of the {@link ResourceTable}.
+     */
+    private void generateResourceTable( ResourceTableType tableType, Supplier<ResourceTable<?>> resourceTable )
+    {
+        final Optional<String> checksum = resourceTableStore.getSourceChecksum( tableType );
+
+        if ( checksum.isPresent() && checksum.get().equals( sourceChecksums.get( tableType ) )
+            && dbmsManager.tableExists( tableType.getTableName() ) )
+        {
+            log.info( String.format( "Skipping resource table with unchanged source metadata: '%s'",
+                tableType.getTableName() ) );
+
+            return;
+        }
+
+        resourceTableStore.generateResourceTable( resourceTable.get() );
+
+        if ( checksum.isPresent() )
+        {
+            saveSourceChecksum( tableType, checksum.get() );
+        }
+    }
+
+    /**
+     * Records the source checksum of the given resource table type. The
+     * checksum is recorded after the current transaction commits, if any, so
+     * that a rolled back generation is not skipped the next time.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     * @param checksum the source checksum.
+     */
+    private void saveSourceChecksum( ResourceTableType tableType, String checksum )
+    {
+        if ( !TransactionSynchronizationManager.isSynchronizationActive() )
+        {
+            sourceChecksums.put( tableType, checksum );
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization( new TransactionSynchronization()
+        {
+            @Override
+            public void afterCommit()
+            {
+                sourceChecksums.put( tableType, checksum );
+            }
+        } );
+    }
+
     // -------------------------------------------------------------------------
     // SQL Views. Each view is created/dropped in separate transactions so that
     // process continues even if individual operations fail.
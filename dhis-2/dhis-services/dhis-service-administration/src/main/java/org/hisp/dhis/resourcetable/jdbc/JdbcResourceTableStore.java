@@ -31,6 +31,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,8 +43,10 @@ import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableStore;
+import org.hisp.dhis.resourcetable.ResourceTableType;
 import org.hisp.dhis.system.util.Clock;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
 /**
@@ -192,6 +196,42 @@ public class JdbcResourceTableStore
             String.format( "Resource table '%s' update done: '%s'", resourceTable.getTableName(), clock.time() ) );
     }
 
+    @Override
+    public Optional<String> getSourceChecksum( ResourceTableType tableType )
+    {
+        if ( !tableType.hasSourceTables() )
+        {
+            return Optional.empty();
+        }
+
+        final Stream<String> sourceTables = tableType.getSourceTables().stream()
+            .map( table -> "(select count(*) from " + table + "), (select max(lastupdated) from " + table + ")" );
+
+        final Stream<String> memberTables = tableType.getMemberTables().stream()
+            .map( table -> {
+                String hash = statementBuilder.getTableHash( table );
+                return "(select count(*) from " + table + ")" + (hash != null ? ", " + hash : "");
+            } );
+
+        final String sql = "select " + Stream.concat( sourceTables, memberTables )
+            .collect( Collectors.joining( ", " ) );
+
+        log.debug( String.format( "Source checksum SQL: '%s'", sql ) );
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+
+        rowSet.next();
+
+        final StringBuilder checksum = new StringBuilder();
+
+        for ( int i = 1; i <= rowSet.getMetaData().getColumnCount(); i++ )
+        {
+            checksum.append( rowSet.getObject( i ) ).append( "-" );
+        }
+
+        return Optional.of( checksum.toString() );
+    }
+
     @Override
     public void batchUpdate( int columns, String tableName, List<Object[]> batchArgs )
     {
@@ -29,15 +29,10 @@ package org.hisp.dhis.resourcetable.table;
 
 import static org.hisp.dhis.system.util.SqlUtils.quote;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import org.hisp.dhis.organisationunit.OrganisationUnit;
-import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableType;
 
@@ -49,15 +44,16 @@ import com.google.common.collect.Lists;
 public class OrganisationUnitStructureResourceTable
     extends ResourceTable<OrganisationUnit>
 {
-    private OrganisationUnitService organisationUnitService; // Nasty
+    /**
+     * Length of a path segment, i.e. the path separator and a UID.
+     */
+    private static final int PATH_SEGMENT_LENGTH = 12;
 
     private int organisationUnitLevels;
 
-    public OrganisationUnitStructureResourceTable( List<OrganisationUnit> objects,
-        OrganisationUnitService organisationUnitService, int organisationUnitLevels )
+    public OrganisationUnitStructureResourceTable( List<OrganisationUnit> objects, int organisationUnitLevels )
     {
         super( objects );
-        this.organisationUnitService = organisationUnitService;
         this.organisationUnitLevels = organisationUnitLevels;
     }
 
@@ -85,56 +81,52 @@ public class OrganisationUnitStructureResourceTable
         return sql.append( ");" ).toString();
     }
 
+    /**
+     * Resolves the ancestor at each level by extracting the corresponding UID
+     * from the path of the organisation unit, which avoids loading the
+     * hierarchy into memory. The path is made of fixed length segments of the
+     * form {@code /<uid>}.
+     */
     @Override
     public Optional<String> getPopulateTempTableStatement()
     {
-        return Optional.empty();
-    }
-
-    @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
-    {
-        List<Object[]> batchArgs = new ArrayList<>();
+        StringBuilder insert = new StringBuilder( "insert into " ).append( getTempTableName() )
+            .append( " (organisationunitid, organisationunituid, level" );
 
-        for ( int i = 0; i < organisationUnitLevels; i++ )
-        {
-            int level = i + 1;
+        StringBuilder select = new StringBuilder( "select ou.organisationunitid, ou.uid, ou.hierarchylevel" );
 
-            Collection<OrganisationUnit> units = organisationUnitService.getOrganisationUnitsAtLevel( level );
+        StringBuilder from = new StringBuilder( "from organisationunit ou " );
 
-            for ( OrganisationUnit unit : units )
-            {
-                List<Object> values = new ArrayList<>();
+        for ( int k = 1; k <= organisationUnitLevels; k++ )
+        {
+            String alias = "l" + k;
 
-                values.add( unit.getId() );
-                values.add( unit.getUid() );
-                values.add( level );
+            insert.append( ", " ).append( quote( "idlevel" + k ) )
+                .append( ", " ).append( quote( "uidlevel" + k ) )
+                .append( ", " ).append( quote( "namelevel" + k ) );
 
-                Map<Integer, Long> identifiers = new HashMap<>();
-                Map<Integer, String> uids = new HashMap<>();
-                Map<Integer, String> names = new HashMap<>();
+            select.append( ", " ).append( alias ).append( ".organisationunitid" )
+                .append( ", " ).append( alias ).append( ".uid" )
+                .append( ", " ).append( alias ).append( ".name" );
 
-                for ( int j = level; j > 0; j-- )
-                {
-                    identifiers.put( j, unit.getId() );
-                    uids.put( j, unit.getUid() );
-                    names.put( j, unit.getName() );
+            from.append( "left join organisationunit " ).append( alias ).append( " on " ).append( alias )
+                .append( ".uid = substring(ou.path, " ).append( ((k - 1) * PATH_SEGMENT_LENGTH) + 2 )
+                .append( ", 11) " );
+        }
 
-                    unit = unit.getParent();
-                }
+        insert.append( ") " );
+        select.append( " " );
 
-                for ( int k = 1; k <= organisationUnitLevels; k++ )
-                {
-                    values.add( identifiers.get( k ) != null ? identifiers.get( k ) : null );
-                    values.add( uids.get( k ) );
-                    values.add( names.get( k ) );
-                }
+        String sql = insert.toString() + select.toString() + from.toString() +
+            "where ou.hierarchylevel is not null";
 
-                batchArgs.add( values.toArray() );
-            }
-        }
+        return Optional.of( sql );
+    }
 
-        return Optional.of( batchArgs );
+    @Override
+    public Optional<List<Object[]>> getPopulateTempTableContent()
+    {
+        return Optional.empty();
     }
 
     @Override
@@ -27,8 +27,14 @@
  */
 package org.hisp.dhis.resourcetable;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import org.hisp.dhis.DhisTest;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.commons.util.ConcurrentUtils;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroup;
 import org.hisp.dhis.dataelement.DataElementGroupSet;
@@ -39,6 +45,9 @@ import org.hisp.dhis.period.MonthlyPeriodType;
 import org.hisp.dhis.period.PeriodType;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.google.common.collect.Lists;
 
 /**
  * @author Lars Helge Overland
@@ -55,20 +64,27 @@ public class ResourceTableServiceTest
     @Autowired
     private DataSetService dataSetService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DataElement deB;
+
+    private DataElementGroup degC;
+
     @Override
     public void setUpTest()
     {
         PeriodType pt = new MonthlyPeriodType();
 
         DataElement deA = createDataElement( 'A' );
-        DataElement deB = createDataElement( 'B' );
+        deB = createDataElement( 'B' );
 
         idObjectManager.save( deA );
         idObjectManager.save( deB );
 
         DataElementGroup degA = createDataElementGroup( 'A' );
         DataElementGroup degB = createDataElementGroup( 'B' );
-        DataElementGroup degC = createDataElementGroup( 'C' );
+        degC = createDataElementGroup( 'C' );
         DataElementGroup degD = createDataElementGroup( 'D' );
 
         degA.addDataElement( deA );
@@ -131,4 +147,46 @@ public class ResourceTableServiceTest
         resourceTableService.generateDatePeriodTable();
         resourceTableService.generateCategoryOptionComboTable();
     }
+
+    @Test
+    public void testGenerateResourceTablesAsync()
+    {
+        ConcurrentLinkedQueue<ResourceTableType> tableTypes = new ConcurrentLinkedQueue<>( Lists.newArrayList(
+            ResourceTableType.ORG_UNIT_STRUCTURE,
+            ResourceTableType.CATEGORY_OPTION_COMBO_NAME,
+            ResourceTableType.DATA_ELEMENT_GROUP_SET_STRUCTURE,
+            ResourceTableType.PERIOD_STRUCTURE ) );
+
+        ConcurrentUtils.waitForCompletion( Lists.newArrayList(
+            resourceTableService.generateResourceTablesAsync( tableTypes ),
+            resourceTableService.generateResourceTablesAsync( tableTypes ) ) );
+
+        assertTrue( tableTypes.isEmpty() );
+    }
+
+    @Test
+    public void testGenerateUnchangedResourceTable()
+    {
+        resourceTableService.generateDataElementGroupSetTable();
+
+        assertEquals( 2, countRows( "_dataelementgroupsetstructure" ) );
+
+        jdbcTemplate.execute( "delete from _dataelementgroupsetstructure" );
+
+        resourceTableService.generateDataElementGroupSetTable();
+
+        assertEquals( 0, countRows( "_dataelementgroupsetstructure" ) );
+
+        jdbcTemplate.update( "insert into dataelementgroupmembers (dataelementgroupid, dataelementid) values (?, ?)",
+            degC.getId(), deB.getId() );
+
+        resourceTableService.generateDataElementGroupSetTable();
+
+        assertEquals( 2, countRows( "_dataelementgroupsetstructure" ) );
+    }
+
+    private int countRows( String table )
+    {
+        return jdbcTemplate.queryForObject( "select count(*) from " + table, Integer.class );
+    }
 }
@@ -67,6 +67,13 @@ public class AnalyticsTable
      */
     private List<AnalyticsTablePartition> tablePartitions = new UniqueArrayList<>();
 
+    /**
+     * Whether to use the clustered layout, where rows are physically ordered
+     * by period and org unit hierarchy and period and date columns are
+     * indexed with BRIN indexes.
+     */
+    private boolean clusteredLayout = false;
+
     // -------------------------------------------------------------------------
     // Constructors
     // -------------------------------------------------------------------------
@@ -152,6 +159,18 @@ public class AnalyticsTable
         return !tablePartitions.isEmpty();
     }
 
+    /**
+     * Sets whether to use the clustered table layout.
+     *
+     * @param clusteredLayout whether to use the clustered table layout.
+     * @return this analytics table.
+     */
+    public AnalyticsTable withClusteredLayout( boolean clusteredLayout )
+    {
+        this.clusteredLayout = clusteredLayout;
+        return this;
+    }
+
     public AnalyticsTablePartition getLatestPartition()
     {
         return tablePartitions.stream()
@@ -188,6 +207,11 @@ public class AnalyticsTable
         return tablePartitions;
     }
 
+    public boolean isClusteredLayout()
+    {
+        return clusteredLayout;
+    }
+
     // -------------------------------------------------------------------------
     // hashCode, equals, toString
     // -------------------------------------------------------------------------
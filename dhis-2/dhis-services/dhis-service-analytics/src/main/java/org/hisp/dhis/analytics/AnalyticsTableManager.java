@@ -29,6 +29,7 @@ package org.hisp.dhis.analytics;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
@@ -119,6 +120,18 @@ public interface AnalyticsTableManager
      */
     void swapTable( AnalyticsTableUpdateParams params, AnalyticsTable table );
 
+    /**
+     * Splits the given partition into chunks which can be populated
+     * concurrently, based on table statistics. Returns a list with only the
+     * given partition if it should be populated in one statement.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param partition the analytics table partition.
+     * @return the chunks of the partition.
+     */
+    List<AnalyticsTablePartition> getPopulationChunks( AnalyticsTableUpdateParams params,
+        AnalyticsTablePartition partition );
+
     /**
      * Copies and denormalizes rows from data value table into analytics table.
      * The data range is based on the start date of the data value row.
@@ -165,6 +178,16 @@ public interface AnalyticsTableManager
      */
     void analyzeTable( String tableName );
 
+    /**
+     * Returns the estimated number of distinct values for each column of the
+     * given table, based on the statistics collected by the last analyze
+     * operation. Columns without statistics are not included.
+     *
+     * @param tableName the table name.
+     * @return a mapping from unquoted column name to number of distinct values.
+     */
+    Map<String, Long> getColumnDistinctValueCounts( String tableName );
+
     /**
      * Applies aggregation level logic to the analytics table by setting the
      * organisation unit level column values to null for the levels above the
@@ -68,6 +68,22 @@ public class AnalyticsTablePartition
      */
     private boolean dataApproval;
 
+    /**
+     * The row id range of this chunk of the partition, start inclusive and end
+     * exclusive. Null if the partition is populated in one statement.
+     */
+    private Long chunkStart;
+
+    private Long chunkEnd;
+
+    /**
+     * The one-based number of this chunk and the total number of chunks the
+     * partition was split into, used for progress reporting.
+     */
+    private int chunkNo;
+
+    private int chunkCount;
+
     public AnalyticsTablePartition( AnalyticsTable masterTable, Integer year, Date startDate, Date endDate,
         boolean dataApproval )
     {
@@ -116,6 +132,32 @@ public class AnalyticsTablePartition
         return name;
     }
 
+    /**
+     * Returns a chunk of this partition covering the given row id range. All
+     * chunks of a partition populate the same temporary table.
+     *
+     * @param start the first row id, inclusive.
+     * @param end the last row id, exclusive.
+     * @param no the one-based number of the chunk.
+     * @param count the total number of chunks.
+     * @return a chunk of this partition.
+     */
+    public AnalyticsTablePartition withChunk( long start, long end, int no, int count )
+    {
+        AnalyticsTablePartition chunk = new AnalyticsTablePartition( masterTable, year, startDate, endDate,
+            dataApproval );
+        chunk.chunkStart = start;
+        chunk.chunkEnd = end;
+        chunk.chunkNo = no;
+        chunk.chunkCount = count;
+        return chunk;
+    }
+
+    public boolean isChunk()
+    {
+        return chunkStart != null && chunkEnd != null;
+    }
+
     public boolean isLatestPartition()
     {
         return Objects.equals( year, LATEST_PARTITION );
@@ -146,9 +188,19 @@ public class AnalyticsTablePartition
         return dataApproval;
     }
 
+    public Long getChunkStart()
+    {
+        return chunkStart;
+    }
+
+    public Long getChunkEnd()
+    {
+        return chunkEnd;
+    }
+
     @Override
     public String toString()
     {
-        return getTableName();
+        return isChunk() ? getTableName() + " chunk " + chunkNo + " of " + chunkCount : getTableName();
     }
 }
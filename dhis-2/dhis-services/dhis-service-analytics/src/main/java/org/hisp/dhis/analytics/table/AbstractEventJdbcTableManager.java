@@ -198,7 +198,10 @@ public abstract class AbstractEventJdbcTableManager
 
         sql += fromClause;
 
-        invokeTimeAndLog( sql, String.format( "Populate %s", tableName ) );
+        sql += getClusterOrderClause( partition, columns );
+
+        invokeTimeAndLog( sql, partition.isChunk() ? String.format( "Populate %s, %s", tableName, partition )
+            : String.format( "Populate %s", tableName ) );
     }
 
     protected List<AnalyticsTableColumn> addTrackedEntityAttributes( Program program )
@@ -69,6 +69,7 @@ import org.springframework.util.Assert;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 
 /**
  * @author Lars Helge Overland
@@ -267,6 +268,36 @@ public abstract class AbstractJdbcTableManager
         executeSilently( sql );
     }
 
+    @Override
+    public Map<String, Long> getColumnDistinctValueCounts( String tableName )
+    {
+        final String sql = "select s.attname, s.n_distinct, c.reltuples " +
+            "from pg_stats s " +
+            "inner join pg_class c on c.relname = s.tablename " +
+            "and c.relnamespace = s.schemaname::regnamespace " +
+            "where s.tablename = '" + tableName + "'";
+
+        Map<String, Long> distinctCounts = new HashMap<>();
+
+        jdbcTemplate.query( sql, rs -> {
+            double distinct = rs.getDouble( "n_distinct" );
+            double rows = rs.getDouble( "reltuples" );
+
+            // Negative values denote a fraction of the number of rows
+
+            distinctCounts.put( rs.getString( "attname" ), Math.round( distinct >= 0 ? distinct : -distinct * rows ) );
+        } );
+
+        return distinctCounts;
+    }
+
+    @Override
+    public List<AnalyticsTablePartition> getPopulationChunks( AnalyticsTableUpdateParams params,
+        AnalyticsTablePartition partition )
+    {
+        return Lists.newArrayList( partition );
+    }
+
     @Override
     @Async
     public Future<?> populateTablesAsync( AnalyticsTableUpdateParams params,
@@ -579,6 +610,58 @@ public abstract class AbstractJdbcTableManager
         log.info( String.format( "%s in: %s", logMessage, timer.stop().toString() ) );
     }
 
+    /**
+     * Returns the name of the column by which rows are ordered first in the
+     * clustered table layout, typically the main date of the table. Returns
+     * null if the table type does not support the clustered layout.
+     *
+     * @return the quoted column name, or null.
+     */
+    protected String getClusterPeriodColumn()
+    {
+        return null;
+    }
+
+    /**
+     * Returns an order by clause which physically clusters the rows of the
+     * given partition by period and org unit hierarchy, the latter through the
+     * org unit level columns in level order. Columns are referenced by their
+     * position in the given list, which must match the select list of the
+     * populate statement. Returns an empty string if the clustered layout is
+     * not enabled for the table.
+     *
+     * @param partition the {@link AnalyticsTablePartition}.
+     * @param columns the populated {@link AnalyticsTableColumn}.
+     * @return an order by clause, or an empty string.
+     */
+    protected String getClusterOrderClause( AnalyticsTablePartition partition, List<AnalyticsTableColumn> columns )
+    {
+        final String periodColumn = getClusterPeriodColumn();
+
+        if ( periodColumn == null || !partition.getMasterTable().isClusteredLayout() )
+        {
+            return StringUtils.EMPTY;
+        }
+
+        final String orgUnitLevelPrefix = "\"" + PREFIX_ORGUNITLEVEL;
+
+        List<Integer> positions = new ArrayList<>();
+
+        for ( int i = 0; i < columns.size(); i++ )
+        {
+            if ( columns.get( i ).getName().equals( periodColumn ) )
+            {
+                positions.add( 0, i + 1 );
+            }
+            else if ( columns.get( i ).getName().startsWith( orgUnitLevelPrefix ) )
+            {
+                positions.add( i + 1 );
+            }
+        }
+
+        return positions.isEmpty() ? StringUtils.EMPTY : " order by " + StringUtils.join( positions, "," );
+    }
+
     /**
      * Collects all the {@link PeriodType} as a list of
      * {@link AnalyticsTableColumn}.
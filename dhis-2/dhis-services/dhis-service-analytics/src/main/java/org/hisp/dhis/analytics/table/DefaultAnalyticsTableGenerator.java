@@ -32,9 +32,13 @@ import static org.hisp.dhis.system.notification.NotificationLevel.ERROR;
 import static org.hisp.dhis.system.notification.NotificationLevel.INFO;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -44,9 +48,11 @@ import org.hisp.dhis.analytics.AnalyticsTableService;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.commons.collection.CollectionUtils;
+import org.hisp.dhis.commons.util.ConcurrentUtils;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.message.MessageService;
 import org.hisp.dhis.resourcetable.ResourceTableService;
+import org.hisp.dhis.resourcetable.ResourceTableType;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
@@ -211,19 +217,49 @@ public class DefaultAnalyticsTableGenerator
         final Date startTime = new Date();
 
         resourceTableService.dropAllSqlViews();
-        resourceTableService.generateOrganisationUnitStructures();
-        resourceTableService.generateDataSetOrganisationUnitCategoryTable();
-        resourceTableService.generateCategoryOptionComboNames();
-        resourceTableService.generateDataElementGroupSetTable();
-        resourceTableService.generateIndicatorGroupSetTable();
-        resourceTableService.generateOrganisationUnitGroupSetTable();
-        resourceTableService.generateCategoryTable();
-        resourceTableService.generateDataElementTable();
-        resourceTableService.generatePeriodTable();
-        resourceTableService.generateDatePeriodTable();
-        resourceTableService.generateCategoryOptionComboTable();
+
+        generateResourceTables(
+            ResourceTableType.ORG_UNIT_STRUCTURE,
+            ResourceTableType.DATA_SET_ORG_UNIT_CATEGORY,
+            ResourceTableType.CATEGORY_OPTION_COMBO_NAME,
+            ResourceTableType.DATA_ELEMENT_GROUP_SET_STRUCTURE,
+            ResourceTableType.INDICATOR_GROUP_SET_STRUCTURE,
+            ResourceTableType.CATEGORY_STRUCTURE,
+            ResourceTableType.DATA_ELEMENT_STRUCTURE,
+            ResourceTableType.PERIOD_STRUCTURE,
+            ResourceTableType.DATE_PERIOD_STRUCTURE,
+            ResourceTableType.DATA_ELEMENT_CATEGORY_OPTION_COMBO );
+
+        // Depends on the org unit structure table
+
+        generateResourceTables( ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE );
+
         resourceTableService.createAllSqlViews();
 
         systemSettingManager.saveSystemSetting( SettingKey.LAST_SUCCESSFUL_RESOURCE_TABLES_UPDATE, startTime );
     }
+
+    /**
+     * Generates the given resource tables concurrently. The resource tables
+     * must not depend on each other.
+     *
+     * @param tableTypes the {@link ResourceTableType} to generate.
+     */
+    private void generateResourceTables( ResourceTableType... tableTypes )
+    {
+        int taskNo = Math.min( DefaultAnalyticsTableService.getProcessNo( systemSettingManager ),
+            tableTypes.length );
+
+        ConcurrentLinkedQueue<ResourceTableType> tableTypeQ = new ConcurrentLinkedQueue<>(
+            Arrays.asList( tableTypes ) );
+
+        List<Future<?>> futures = new ArrayList<>();
+
+        for ( int i = 0; i < taskNo; i++ )
+        {
+            futures.add( resourceTableService.generateResourceTablesAsync( tableTypeQ ) );
+        }
+
+        ConcurrentUtils.waitForCompletion( futures );
+    }
 }
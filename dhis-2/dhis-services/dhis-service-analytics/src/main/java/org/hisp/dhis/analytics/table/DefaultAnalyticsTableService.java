@@ -28,17 +28,23 @@
 package org.hisp.dhis.analytics.table;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.hisp.dhis.analytics.ColumnDataType.DATE;
+import static org.hisp.dhis.analytics.ColumnDataType.TIMESTAMP;
+import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quote;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.AnalyticsIndex;
 import org.hisp.dhis.analytics.AnalyticsTable;
 import org.hisp.dhis.analytics.AnalyticsTableColumn;
@@ -51,7 +57,10 @@ import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.commons.util.ConcurrentUtils;
 import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.setting.SettingKey;
@@ -59,6 +68,7 @@ import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.system.util.Clock;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
 /**
@@ -68,6 +78,22 @@ import com.google.common.collect.Lists;
 public class DefaultAnalyticsTableService
     implements AnalyticsTableService
 {
+    private static final String BRIN_INDEX_TYPE = "brin";
+
+    /**
+     * Minimum estimated number of distinct values for a column to be indexed
+     * with a B-tree index in the clustered table layout. With fewer values,
+     * each value matches more than one percent of the rows on average and a
+     * sequential or BRIN-assisted scan is typically cheaper.
+     */
+    private static final long MIN_BTREE_DISTINCT_VALUES = 100;
+
+    private static final Set<String> PERIOD_COLUMNS = ImmutableSet.<String> builder()
+        .add( quote( "pe" ), quote( "year" ) )
+        .addAll( PeriodType.getAvailablePeriodTypes().stream()
+            .map( pt -> quote( pt.getName().toLowerCase() ) ).iterator() )
+        .build();
+
     private AnalyticsTableManager tableManager;
 
     private OrganisationUnitService organisationUnitService;
@@ -80,9 +106,12 @@ public class DefaultAnalyticsTableService
 
     private SystemSettingManager systemSettingManager;
 
+    private DhisConfigurationProvider config;
+
     public DefaultAnalyticsTableService( AnalyticsTableManager tableManager,
         OrganisationUnitService organisationUnitService, DataElementService dataElementService,
-        ResourceTableService resourceTableService, Notifier notifier, SystemSettingManager systemSettingManager )
+        ResourceTableService resourceTableService, Notifier notifier, SystemSettingManager systemSettingManager,
+        DhisConfigurationProvider config )
     {
         checkNotNull( tableManager );
         checkNotNull( organisationUnitService );
@@ -90,6 +119,7 @@ public class DefaultAnalyticsTableService
         checkNotNull( resourceTableService );
         checkNotNull( notifier );
         checkNotNull( systemSettingManager );
+        checkNotNull( config );
 
         this.tableManager = tableManager;
         this.organisationUnitService = organisationUnitService;
@@ -97,6 +127,7 @@ public class DefaultAnalyticsTableService
         this.resourceTableService = resourceTableService;
         this.notifier = notifier;
         this.systemSettingManager = systemSettingManager;
+        this.config = config;
     }
 
     // -------------------------------------------------------------------------
@@ -114,7 +145,7 @@ public class DefaultAnalyticsTableService
     {
         JobConfiguration jobId = params.getJobId();
 
-        final int processNo = getProcessNo();
+        final int processNo = getProcessNo( systemSettingManager );
 
         int tableUpdates = 0;
 
@@ -145,8 +176,13 @@ public class DefaultAnalyticsTableService
             return;
         }
 
-        clock.logTime( String.format( "Table update start: %s, earliest: %s, parameters: %s",
-            tableType.getTableName(), getLongDateString( params.getFromDate() ), params.toString() ) );
+        final boolean clusteredLayout = isClusteredLayout( tableType );
+
+        tables.forEach( table -> table.withClusteredLayout( clusteredLayout ) );
+
+        clock.logTime( String.format( "Table update start: %s, earliest: %s, clustered layout: %b, parameters: %s",
+            tableType.getTableName(), getLongDateString( params.getFromDate() ), clusteredLayout,
+            params.toString() ) );
         notifier.notify( jobId, "Performing pre-create table work" );
 
         tableManager.preCreateTables( params );
@@ -185,16 +221,30 @@ public class DefaultAnalyticsTableService
             clock.logTime( "Tables vacuumed" );
         }
 
+        if ( clusteredLayout )
+        {
+            notifier.notify( jobId, "Analyzing analytics tables" );
+
+            analyzeTables( tables );
+
+            clock.logTime( "Analyzed tables" );
+        }
+
         notifier.notify( jobId, "Creating indexes" );
 
         createIndexes( tables );
 
         clock.logTime( "Created indexes" );
-        notifier.notify( jobId, "Analyzing analytics tables" );
 
-        analyzeTables( tables );
+        if ( !clusteredLayout )
+        {
+            notifier.notify( jobId, "Analyzing analytics tables" );
+
+            analyzeTables( tables );
+
+            clock.logTime( "Analyzed tables" );
+        }
 
-        clock.logTime( "Analyzed tables" );
         notifier.notify( jobId, "Removing updated and deleted data" );
 
         tableManager.removeUpdatedData( params, tables );
@@ -259,11 +309,16 @@ public class DefaultAnalyticsTableService
      */
     private void populateTables( AnalyticsTableUpdateParams params, List<AnalyticsTable> tables )
     {
-        List<AnalyticsTablePartition> partitions = PartitionUtils.getTablePartitions( tables );
+        List<AnalyticsTablePartition> partitions = new ArrayList<>();
 
-        int taskNo = Math.min( getProcessNo(), partitions.size() );
+        for ( AnalyticsTablePartition partition : PartitionUtils.getTablePartitions( tables ) )
+        {
+            partitions.addAll( tableManager.getPopulationChunks( params, partition ) );
+        }
+
+        int taskNo = Math.min( getProcessNo( systemSettingManager ), partitions.size() );
 
-        log.info( "Populate table task number: " + taskNo );
+        log.info( "Populate table task number: " + taskNo + ", partitions and chunks: " + partitions.size() );
 
         ConcurrentLinkedQueue<AnalyticsTablePartition> partitionQ = new ConcurrentLinkedQueue<>( partitions );
 
@@ -307,7 +362,7 @@ public class DefaultAnalyticsTableService
 
             List<Future<?>> futures = new ArrayList<>();
 
-            for ( int j = 0; j < getProcessNo(); j++ )
+            for ( int j = 0; j < getProcessNo( systemSettingManager ); j++ )
             {
                 futures.add( tableManager.applyAggregationLevels( partitionQ, dataElements, level ) );
             }
@@ -333,7 +388,7 @@ public class DefaultAnalyticsTableService
 
         List<Future<?>> futures = new ArrayList<>();
 
-        for ( int i = 0; i < getProcessNo(); i++ )
+        for ( int i = 0; i < getProcessNo( systemSettingManager ); i++ )
         {
             tableManager.vacuumTablesAsync( partitionQ );
         }
@@ -342,7 +397,10 @@ public class DefaultAnalyticsTableService
     }
 
     /**
-     * Creates indexes on the given analytics tables.
+     * Creates indexes on the given analytics tables. For tables using the
+     * clustered layout, period and date columns are indexed with BRIN indexes
+     * and other columns are indexed only if they are selective, which requires
+     * the tables to be analyzed up front.
      *
      * @param tables the list of {@link AnalyticsTable}.
      */
@@ -352,10 +410,18 @@ public class DefaultAnalyticsTableService
 
         ConcurrentLinkedQueue<AnalyticsIndex> indexes = new ConcurrentLinkedQueue<>();
 
+        int skippedIndexes = 0;
+
         for ( AnalyticsTablePartition partition : partitions )
         {
             List<AnalyticsTableColumn> columns = partition.getMasterTable().getDimensionColumns();
 
+            boolean clusteredLayout = partition.getMasterTable().isClusteredLayout();
+
+            Map<String, Long> distinctValueCounts = clusteredLayout
+                ? tableManager.getColumnDistinctValueCounts( partition.getTempTableName() )
+                : null;
+
             for ( AnalyticsTableColumn col : columns )
             {
                 if ( !col.isSkipIndex() )
@@ -363,16 +429,32 @@ public class DefaultAnalyticsTableService
                     List<String> indexColumns = col.hasIndexColumns() ? col.getIndexColumns()
                         : Lists.newArrayList( col.getName() );
 
-                    indexes.add( new AnalyticsIndex( partition.getTempTableName(), indexColumns, col.getIndexType() ) );
+                    String indexType = col.getIndexType();
+
+                    if ( clusteredLayout && indexType == null )
+                    {
+                        if ( isBrinIndexColumn( col ) )
+                        {
+                            indexType = BRIN_INDEX_TYPE;
+                        }
+                        else if ( !isSelectiveColumn( indexColumns.get( 0 ), distinctValueCounts ) )
+                        {
+                            skippedIndexes++;
+                            continue;
+                        }
+                    }
+
+                    indexes.add( new AnalyticsIndex( partition.getTempTableName(), indexColumns, indexType ) );
                 }
             }
         }
 
-        log.info( "No of analytics table indexes: " + indexes.size() );
+        log.info( String.format( "No of analytics table indexes: %d, skipped non-selective indexes: %d",
+            indexes.size(), skippedIndexes ) );
 
         List<Future<?>> futures = new ArrayList<>();
 
-        for ( int i = 0; i < getProcessNo(); i++ )
+        for ( int i = 0; i < getProcessNo( systemSettingManager ); i++ )
         {
             futures.add( tableManager.createIndexesAsync( indexes ) );
         }
@@ -407,13 +489,59 @@ public class DefaultAnalyticsTableService
         resourceTableService.createAllSqlViews();
     }
 
+    /**
+     * Indicates whether the clustered table layout is enabled for the given
+     * table type through a comma separated list of table types in the
+     * configuration.
+     *
+     * @param tableType the {@link AnalyticsTableType}.
+     */
+    private boolean isClusteredLayout( AnalyticsTableType tableType )
+    {
+        String tableTypes = config.getProperty( ConfigurationKey.ANALYTICS_TABLE_CLUSTERED_LAYOUT );
+
+        return Arrays.asList( StringUtils.split( StringUtils.upperCase( tableTypes ), ", " ) )
+            .contains( tableType.name() );
+    }
+
+    /**
+     * Indicates whether the given column should be indexed with a BRIN index
+     * in the clustered table layout, which applies to period and date columns
+     * as these follow the physical order of the rows.
+     *
+     * @param column the {@link AnalyticsTableColumn}.
+     */
+    private boolean isBrinIndexColumn( AnalyticsTableColumn column )
+    {
+        return !column.hasIndexColumns() && (DATE == column.getDataType() || TIMESTAMP == column.getDataType() ||
+            PERIOD_COLUMNS.contains( column.getName() ));
+    }
+
+    /**
+     * Indicates whether a B-tree index on the given column is selective
+     * enough to be worth building. Columns without statistics are considered
+     * selective.
+     *
+     * @param column the quoted column name.
+     * @param distinctValueCounts the estimated number of distinct values per
+     *        unquoted column name.
+     */
+    private boolean isSelectiveColumn( String column, Map<String, Long> distinctValueCounts )
+    {
+        Long distinctValues = distinctValueCounts.get( StringUtils.strip( column, "\"" ) );
+
+        return distinctValues == null || distinctValues >= MIN_BTREE_DISTINCT_VALUES;
+    }
+
     /**
      * Gets the number of available cores. Uses explicit number from system
      * setting if available. Detects number of cores from current server runtime
      * if not. Subtracts one to the number of cores if greater than two to allow
      * one core for general system operations.
+     *
+     * @param systemSettingManager the {@link SystemSettingManager}.
      */
-    private int getProcessNo()
+    static int getProcessNo( SystemSettingManager systemSettingManager )
     {
         Integer cores = (Integer) systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS );
 
@@ -333,6 +333,8 @@ public class JdbcAnalyticsTableManager
             sql += "and " + whereClause;
         }
 
+        sql += getClusterOrderClause( partition, columns );
+
         invokeTimeAndLog( sql, String.format( "Populate %s %s", tableName, valueTypes ) );
     }
 
@@ -556,6 +558,12 @@ public class JdbcAnalyticsTableManager
         return FIXED_COLS;
     }
 
+    @Override
+    protected String getClusterPeriodColumn()
+    {
+        return quote( "pestartdate" );
+    }
+
     /**
      * Indicates whether the system should ignore data which has not been
      * approved in analytics tables.
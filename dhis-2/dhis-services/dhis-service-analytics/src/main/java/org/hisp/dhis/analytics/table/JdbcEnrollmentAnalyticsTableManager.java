@@ -186,4 +186,10 @@ public class JdbcEnrollmentAnalyticsTableManager
     {
         return FIXED_COLS;
     }
+
+    @Override
+    protected String getClusterPeriodColumn()
+    {
+        return quote( "enrollmentdate" );
+    }
 }
@@ -41,6 +41,8 @@ import static org.hisp.dhis.system.util.MathUtils.NUMERIC_LENIENT_REGEXP;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -71,6 +73,7 @@ import org.hisp.dhis.system.database.DatabaseInfo;
 import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -93,6 +96,16 @@ public class JdbcEventAnalyticsTableManager
 
     public static final String OU_GEOMETRY_COL_SUFFIX = "_geom";
 
+    /**
+     * Number of events above which a yearly partition is split into chunks
+     * which are populated concurrently, and the target size of each chunk.
+     */
+    private static final long POPULATE_CHUNK_ROWS = 1_000_000;
+
+    private static final long MAX_POPULATE_CHUNKS = 64;
+
+    private static final Pattern PLAN_ROWS_PATTERN = Pattern.compile( "rows=(\\d+)" );
+
     public JdbcEventAnalyticsTableManager( IdentifiableObjectManager idObjectManager,
         OrganisationUnitService organisationUnitService, CategoryService categoryService,
         SystemSettingManager systemSettingManager, DataApprovalLevelService dataApprovalLevelService,
@@ -292,6 +305,12 @@ public class JdbcEventAnalyticsTableManager
         return FIXED_COLS;
     }
 
+    @Override
+    protected String getClusterPeriodColumn()
+    {
+        return quote( "executiondate" );
+    }
+
     @Override
     protected List<String> getPartitionChecks( AnalyticsTablePartition partition )
     {
@@ -302,6 +321,57 @@ public class JdbcEventAnalyticsTableManager
                 "executiondate < '" + DateUtils.getMediumDateString( partition.getEndDate() ) + "'" );
     }
 
+    @Override
+    public List<AnalyticsTablePartition> getPopulationChunks( AnalyticsTableUpdateParams params,
+        AnalyticsTablePartition partition )
+    {
+        // Concurrent chunks would interleave the physical order of the rows
+
+        if ( partition.isLatestPartition() || partition.getMasterTable().isClusteredLayout() )
+        {
+            return Lists.newArrayList( partition );
+        }
+
+        final String whereClause = getPartitionWhereClause( params, partition );
+
+        long estimatedRows = getEstimatedRows( "select 1 from programstageinstance psi " + whereClause );
+
+        int chunkCount = (int) Math.min( MAX_POPULATE_CHUNKS,
+            (estimatedRows + POPULATE_CHUNK_ROWS - 1) / POPULATE_CHUNK_ROWS );
+
+        if ( chunkCount < 2 )
+        {
+            return Lists.newArrayList( partition );
+        }
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( "select min(psi.programstageinstanceid) as minid, "
+            + "max(psi.programstageinstanceid) as maxid from programstageinstance psi " + whereClause );
+
+        if ( !rowSet.next() || rowSet.getObject( "minid" ) == null )
+        {
+            return Lists.newArrayList( partition );
+        }
+
+        long minId = rowSet.getLong( "minid" );
+        long maxId = rowSet.getLong( "maxid" ) + 1;
+        long chunkSize = Math.max( 1, (maxId - minId + chunkCount - 1) / chunkCount );
+        int count = (int) ((maxId - minId + chunkSize - 1) / chunkSize);
+
+        List<AnalyticsTablePartition> chunks = new ArrayList<>();
+
+        for ( int i = 0; i < count; i++ )
+        {
+            long start = minId + i * chunkSize;
+
+            chunks.add( partition.withChunk( start, Math.min( start + chunkSize, maxId ), i + 1, count ) );
+        }
+
+        log.info( String.format( "Split partition %s with about %d rows into %d chunks", partition,
+            estimatedRows, chunks.size() ) );
+
+        return chunks;
+    }
+
     @Override
     protected void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
     {
@@ -310,6 +380,10 @@ public class JdbcEventAnalyticsTableManager
         final String end = DateUtils.getLongDateString( partition.getEndDate() );
         final String partitionClause = partition.isLatestPartition() ? "and psi.lastupdated >= '" + start + "' "
             : "and psi.executiondate >= '" + start + "' and psi.executiondate < '" + end + "' ";
+        final String chunkClause = partition.isChunk()
+            ? "and psi.programstageinstanceid >= " + partition.getChunkStart() + " " +
+                "and psi.programstageinstanceid < " + partition.getChunkEnd() + " "
+            : "";
 
         String fromClause = "from programstageinstance psi " +
             "inner join programinstance pi on psi.programinstanceid=pi.programinstanceid " +
@@ -326,6 +400,7 @@ public class JdbcEventAnalyticsTableManager
             "left join _dateperiodstructure dps on cast(psi.executiondate as date)=dps.dateperiod " +
             "where psi.lastupdated < '" + getLongDateString( params.getStartTime() ) + "' " +
             partitionClause +
+            chunkClause +
             "and pr.programid=" + program.getId() + " " +
             "and psi.organisationunitid is not null " +
             "and psi.executiondate is not null " +
@@ -334,6 +409,34 @@ public class JdbcEventAnalyticsTableManager
         populateTableInternal( partition, getDimensionColumns( program ), fromClause );
     }
 
+    /**
+     * Returns a where clause on the event table alone which matches the events
+     * of the given yearly partition, used to split it into chunks.
+     */
+    private String getPartitionWhereClause( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    {
+        return "where psi.lastupdated < '" + getLongDateString( params.getStartTime() ) + "' " +
+            "and psi.executiondate >= '" + DateUtils.getLongDateString( partition.getStartDate() ) + "' " +
+            "and psi.executiondate < '" + DateUtils.getLongDateString( partition.getEndDate() ) + "' " +
+            "and psi.programstageid in (select programstageid from programstage where programid=" +
+            partition.getMasterTable().getProgram().getId() + ") " +
+            "and psi.organisationunitid is not null " +
+            "and psi.deleted is false";
+    }
+
+    /**
+     * Returns the number of rows the database planner estimates for the given
+     * query, based on table statistics, without executing it.
+     */
+    private long getEstimatedRows( String sql )
+    {
+        List<String> plan = jdbcTemplate.queryForList( "explain " + sql, String.class );
+
+        Matcher matcher = PLAN_ROWS_PATTERN.matcher( plan.isEmpty() ? "" : plan.get( 0 ) );
+
+        return matcher.find() ? Long.parseLong( matcher.group( 1 ) ) : 0;
+    }
+
     private List<AnalyticsTableColumn> getDimensionColumns( Program program )
     {
         List<AnalyticsTableColumn> columns = new ArrayList<>();
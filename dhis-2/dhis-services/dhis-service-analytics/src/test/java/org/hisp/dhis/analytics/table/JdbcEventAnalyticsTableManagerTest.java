@@ -78,6 +78,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -392,6 +393,83 @@ public class JdbcEventAnalyticsTableManagerTest
         assertThat( sql.getValue(), containsString( String.format( ouQuery, "name" ) ) );
     }
 
+    @Test
+    public void verifyLargePartitionIsPopulatedInChunks()
+    {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        Program programA = createProgram( 'A' );
+
+        when( idObjectManager.getAllNoAcl( Program.class ) ).thenReturn( Lists.newArrayList( programA ) );
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder().withLastYears( 2 )
+            .withStartTime( START_TIME ).withToday( today ).build();
+
+        when( jdbcTemplate.queryForList(
+            getYearQueryForCurrentYear( programA, true ),
+            Integer.class ) ).thenReturn( Lists.newArrayList( 2018, 2019 ) );
+
+        when( jdbcTemplate.queryForList( startsWith( "explain " ), eq( String.class ) ) ).thenReturn(
+            Lists.newArrayList( "Seq Scan on programstageinstance psi  (cost=0.00..9.00 rows=2500000 width=4)" ) );
+
+        SqlRowSet rowSet = mock( SqlRowSet.class );
+        when( rowSet.next() ).thenReturn( true );
+        when( rowSet.getObject( "minid" ) ).thenReturn( 1L );
+        when( rowSet.getLong( "minid" ) ).thenReturn( 1L );
+        when( rowSet.getLong( "maxid" ) ).thenReturn( 3000000L );
+        when( jdbcTemplate.queryForRowSet( startsWith( "select min(psi.programstageinstanceid)" ) ) )
+            .thenReturn( rowSet );
+
+        AnalyticsTablePartition partition = PartitionUtils.getTablePartitions( subject.getAnalyticsTables( params ) )
+            .get( 0 );
+
+        List<AnalyticsTablePartition> chunks = subject.getPopulationChunks( params, partition );
+
+        assertThat( chunks, hasSize( 3 ) );
+        assertThat( chunks.get( 0 ).getChunkStart(), is( 1L ) );
+        assertThat( chunks.get( 2 ).getChunkEnd(), is( 3000001L ) );
+        assertThat( chunks.get( 1 ).getTempTableName(), is( partition.getTempTableName() ) );
+
+        subject.populateTable( params, chunks.get( 1 ) );
+
+        verify( jdbcTemplate ).execute( sql.capture() );
+
+        assertThat( sql.getValue(), containsString( "and psi.programstageinstanceid >= 1000001 "
+            + "and psi.programstageinstanceid < 2000001 " ) );
+    }
+
+    @Test
+    public void verifyClusteredLayoutPopulatesTableInPeriodAndOrgUnitOrder()
+    {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        Program programA = createProgram( 'A' );
+
+        when( idObjectManager.getAllNoAcl( Program.class ) ).thenReturn( Lists.newArrayList( programA ) );
+        when( organisationUnitService.getFilledOrganisationUnitLevels() ).thenReturn( Lists.newArrayList(
+            new OrganisationUnitLevel( 1, "National" ), new OrganisationUnitLevel( 2, "District" ) ) );
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder().withLastYears( 2 )
+            .withStartTime( START_TIME ).withToday( today ).build();
+
+        when( jdbcTemplate.queryForList(
+            getYearQueryForCurrentYear( programA, true ),
+            Integer.class ) ).thenReturn( Lists.newArrayList( 2018, 2019 ) );
+
+        AnalyticsTable table = subject.getAnalyticsTables( params ).get( 0 ).withClusteredLayout( true );
+        AnalyticsTablePartition partition = table.getTablePartitions().get( 0 );
+
+        assertThat( subject.getPopulationChunks( params, partition ), contains( partition ) );
+
+        subject.populateTable( params, partition );
+
+        verify( jdbcTemplate ).execute( sql.capture() );
+
+        List<String> columns = table.getDimensionColumns().stream()
+            .map( AnalyticsTableColumn::getName ).collect( Collectors.toList() );
+
+        assertThat( sql.getValue(), endsWith( " order by " + (columns.indexOf( quote( "executiondate" ) ) + 1) + ","
+            + (columns.indexOf( quote( "uidlevel1" ) ) + 1) + "," + (columns.indexOf( quote( "uidlevel2" ) ) + 1) ) );
+    }
+
     @Test
     public void verifyTeiTypeOrgUnitFetchesOuNameWhenPopulatingEventAnalyticsTable()
     {
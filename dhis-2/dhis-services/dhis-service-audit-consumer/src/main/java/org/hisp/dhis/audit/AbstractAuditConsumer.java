@@ -28,20 +28,39 @@
 package org.hisp.dhis.audit;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.PreDestroy;
 import javax.jms.TextMessage;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.scheduling.annotation.Scheduled;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
+ * Base class for audit consumers. Audits are buffered as messages are consumed
+ * and persisted in batches, each batch in a single transaction. A batch is
+ * persisted when the buffer reaches the batch size, buffered audits are
+ * flushed every second and on shutdown.
+ *
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @Slf4j
 public abstract class AbstractAuditConsumer
     implements AuditConsumer
 {
+    private static final int BATCH_SIZE = 500;
+
     protected AuditService auditService;
 
     protected ObjectMapper objectMapper;
@@ -50,6 +69,16 @@ public abstract class AbstractAuditConsumer
 
     protected boolean isAuditDatabaseEnabled;
 
+    private final BlockingQueue<org.hisp.dhis.audit.Audit> pending = new LinkedBlockingQueue<>();
+
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final AtomicLong persisted = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong lag = new AtomicLong();
+
     protected void _consume( TextMessage message )
     {
         try
@@ -64,6 +93,8 @@ public abstract class AbstractAuditConsumer
 
             org.hisp.dhis.audit.Audit audit = auditMessage.toAudit();
 
+            consumed.incrementAndGet();
+
             if ( isAuditLogEnabled )
             {
                 log.info( objectMapper.writeValueAsString( audit ) );
@@ -71,7 +102,12 @@ public abstract class AbstractAuditConsumer
 
             if ( isAuditDatabaseEnabled )
             {
-                auditService.addAudit( audit );
+                pending.offer( audit );
+
+                if ( pending.size() >= BATCH_SIZE )
+                {
+                    flush();
+                }
             }
         }
         catch ( IOException e )
@@ -85,4 +121,116 @@ public abstract class AbstractAuditConsumer
             log.error( "An error occurred persisting an Audit message of type 'TRACKER'", e );
         }
     }
+
+    /**
+     * Persists all buffered audits in batches.
+     */
+    @Scheduled( fixedDelay = 1_000 )
+    public void flush()
+    {
+        List<org.hisp.dhis.audit.Audit> audits = new ArrayList<>( BATCH_SIZE );
+
+        while ( pending.drainTo( audits, BATCH_SIZE ) > 0 )
+        {
+            persist( audits );
+
+            audits.clear();
+        }
+    }
+
+    /**
+     * Persists buffered audits on shutdown so that they are not lost.
+     */
+    @PreDestroy
+    public void flushOnShutdown()
+    {
+        log.info( String.format( "Persisting %d buffered Audit messages on shutdown", pending.size() ) );
+
+        flush();
+    }
+
+    /**
+     * Persists the given audits in a single batch. Falls back to persisting
+     * the audits individually if the batch fails, so that a single invalid
+     * audit does not cause the whole batch to be lost.
+     */
+    private void persist( List<org.hisp.dhis.audit.Audit> audits )
+    {
+        try
+        {
+            auditService.addAudits( audits );
+
+            persisted.addAndGet( audits.size() );
+
+            audits.stream()
+                .map( org.hisp.dhis.audit.Audit::getCreatedAt )
+                .filter( Objects::nonNull )
+                .min( Comparator.naturalOrder() )
+                .ifPresent( createdAt -> lag.set( Duration.between( createdAt, LocalDateTime.now() ).toMillis() ) );
+        }
+        catch ( Exception e )
+        {
+            log.warn( String.format( "An error occurred persisting a batch of %d Audit messages, "
+                + "persisting audits individually", audits.size() ), e );
+
+            audits.forEach( this::persist );
+        }
+    }
+
+    private void persist( org.hisp.dhis.audit.Audit audit )
+    {
+        try
+        {
+            auditService.addAudit( audit );
+
+            persisted.incrementAndGet();
+        }
+        catch ( Exception e )
+        {
+            failed.incrementAndGet();
+
+            log.error( "An error occurred persisting an Audit message", e );
+        }
+    }
+
+    /**
+     * Returns the number of audit messages consumed.
+     */
+    public long getConsumedCount()
+    {
+        return consumed.get();
+    }
+
+    /**
+     * Returns the number of audits persisted.
+     */
+    public long getPersistedCount()
+    {
+        return persisted.get();
+    }
+
+    /**
+     * Returns the number of audits which failed to be persisted.
+     */
+    public long getFailedCount()
+    {
+        return failed.get();
+    }
+
+    /**
+     * Returns the number of audits waiting to be persisted.
+     */
+    public int getPendingCount()
+    {
+        return pending.size();
+    }
+
+    /**
+     * Returns the time in milliseconds between the creation of the oldest audit
+     * of the last persisted batch and the time it was persisted.
+     */
+    public long getLagMillis()
+    {
+        return lag.get();
+    }
 }
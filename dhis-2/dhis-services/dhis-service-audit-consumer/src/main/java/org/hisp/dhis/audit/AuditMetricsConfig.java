@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.MONITORING_AUDIT_ENABLED;
+
+import java.util.List;
+
+import org.hisp.dhis.artemis.audit.AuditScheduler;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.monitoring.metrics.MetricsEnabler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Exposes throughput and lag metrics of the audit producer buffer and the audit
+ * consumers.
+ */
+@Configuration
+@Conditional( AuditMetricsConfig.AuditMetricsEnabledCondition.class )
+public class AuditMetricsConfig
+{
+    @Autowired
+    public void bindToRegistry( MeterRegistry registry, AuditScheduler auditScheduler,
+        List<AbstractAuditConsumer> auditConsumers )
+    {
+        FunctionCounter.builder( "audit.producer.received", auditScheduler, AuditScheduler::getReceivedCount )
+            .description( "Number of audits added to the producer buffer" )
+            .register( registry );
+
+        FunctionCounter.builder( "audit.producer.coalesced", auditScheduler, AuditScheduler::getCoalescedCount )
+            .description( "Number of audits merged into a buffered audit of the same entity" )
+            .register( registry );
+
+        FunctionCounter.builder( "audit.producer.published", auditScheduler, AuditScheduler::getPublishedCount )
+            .description( "Number of audits published to the broker" )
+            .register( registry );
+
+        Gauge.builder( "audit.producer.queue.size", auditScheduler, AuditScheduler::getQueueSize )
+            .description( "Number of audits in the producer buffer" )
+            .register( registry );
+
+        for ( AbstractAuditConsumer consumer : auditConsumers )
+        {
+            String name = consumer.getClass().getSimpleName();
+
+            FunctionCounter.builder( "audit.consumer.consumed", consumer, AbstractAuditConsumer::getConsumedCount )
+                .tag( "consumer", name )
+                .description( "Number of audit messages consumed" )
+                .register( registry );
+
+            FunctionCounter.builder( "audit.consumer.persisted", consumer, AbstractAuditConsumer::getPersistedCount )
+                .tag( "consumer", name )
+                .description( "Number of audits persisted" )
+                .register( registry );
+
+            FunctionCounter.builder( "audit.consumer.failed", consumer, AbstractAuditConsumer::getFailedCount )
+                .tag( "consumer", name )
+                .description( "Number of audits which failed to be persisted" )
+                .register( registry );
+
+            Gauge.builder( "audit.consumer.pending", consumer, AbstractAuditConsumer::getPendingCount )
+                .tag( "consumer", name )
+                .description( "Number of audits waiting to be persisted" )
+                .register( registry );
+
+            Gauge.builder( "audit.consumer.lag", consumer, AbstractAuditConsumer::getLagMillis )
+                .tag( "consumer", name )
+                .description( "Milliseconds between creation and persistence of audits in the last batch" )
+                .baseUnit( "milliseconds" )
+                .register( registry );
+        }
+    }
+
+    static class AuditMetricsEnabledCondition
+        extends
+        MetricsEnabler
+    {
+        @Override
+        protected ConfigurationKey getConfigKey()
+        {
+            return MONITORING_AUDIT_ENABLED;
+        }
+    }
+}
@@ -799,6 +799,20 @@ public class DefaultIdentifiableObjectManager
         return store.getLastUpdated();
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public <T extends IdentifiableObject> String getVersion( Class<T> clazz )
+    {
+        IdentifiableObjectStore<IdentifiableObject> store = getIdentifiableObjectStore( clazz );
+
+        if ( store == null )
+        {
+            return null;
+        }
+
+        return store.getVersion();
+    }
+
     @Override
     @Transactional( readOnly = true )
     public <T extends IdentifiableObject> Map<String, T> getIdMap( Class<T> clazz, IdentifiableProperty property )
@@ -708,6 +708,28 @@ public class HibernateIdentifiableObjectStore<T extends BaseIdentifiableObject>
         return getSingleResult( typedQuery );
     }
 
+    @Override
+    public String getVersion()
+    {
+        CriteriaBuilder builder = getCriteriaBuilder();
+
+        CriteriaQuery<Object[]> query = builder.createQuery( Object[].class );
+
+        Root<T> root = query.from( getClazz() );
+
+        query.multiselect( builder.count( root ), builder.greatest( root.<Date> get( "lastUpdated" ) ) );
+
+        TypedQuery<Object[]> typedQuery = getSession().createQuery( query );
+
+        typedQuery.setHint( JpaQueryUtils.HIBERNATE_CACHEABLE_HINT, true );
+
+        Object[] result = typedQuery.getSingleResult();
+
+        Date lastUpdated = (Date) result[1];
+
+        return result[0] + "-" + (lastUpdated != null ? lastUpdated.getTime() : 0);
+    }
+
     @Override
     public List<T> getByDataDimension( boolean dataDimension )
     {
@@ -65,6 +65,8 @@ public class DefaultDataApprovalLevelService
 
     private final DataApprovalLevelStore dataApprovalLevelStore;
 
+    private final DataApprovalStore dataApprovalStore;
+
     private final OrganisationUnitService organisationUnitService;
 
     private final CategoryService categoryService;
@@ -74,16 +76,18 @@ public class DefaultDataApprovalLevelService
     private final AclService aclService;
 
     public DefaultDataApprovalLevelService( DataApprovalLevelStore dataApprovalLevelStore,
-        OrganisationUnitService organisationUnitService, CategoryService categoryService,
-        CurrentUserService currentUserService, AclService aclService )
+        DataApprovalStore dataApprovalStore, OrganisationUnitService organisationUnitService,
+        CategoryService categoryService, CurrentUserService currentUserService, AclService aclService )
     {
         checkNotNull( dataApprovalLevelStore );
+        checkNotNull( dataApprovalStore );
         checkNotNull( organisationUnitService );
         checkNotNull( categoryService );
         checkNotNull( currentUserService );
         checkNotNull( aclService );
 
         this.dataApprovalLevelStore = dataApprovalLevelStore;
+        this.dataApprovalStore = dataApprovalStore;
         this.organisationUnitService = organisationUnitService;
         this.categoryService = categoryService;
         this.currentUserService = currentUserService;
@@ -440,6 +444,8 @@ public class DefaultDataApprovalLevelService
                 update( dataApprovalLevels.get( i ), i );
             }
         }
+
+        dataApprovalStore.updateDataApprovalSummaryLevels();
     }
 
     @Override
@@ -587,6 +593,8 @@ public class DefaultDataApprovalLevelService
 
         update( d1, index );
         update( d2, index + 1 );
+
+        dataApprovalStore.updateDataApprovalSummaryLevels();
     }
 
     /**
@@ -145,6 +145,8 @@ public class DefaultDataApprovalService
     public void updateWorkflow( DataApprovalWorkflow dataApprovalWorkflow )
     {
         workflowStore.update( dataApprovalWorkflow );
+
+        dataApprovalStore.clearDataApprovalReadiness( dataApprovalWorkflow );
     }
 
     @Override
@@ -586,6 +588,24 @@ public class DefaultDataApprovalService
         dataApprovalStore.deleteDataApprovals( organisationUnit );
     }
 
+    @Override
+    @Transactional
+    public String reconcileDataApprovalSummaries( String lastChecksum )
+    {
+        String checksum = dataApprovalStore.getApprovalStructureChecksum();
+
+        if ( checksum.equals( lastChecksum ) )
+        {
+            log.debug( "Approval structure not changed since last reconciliation" );
+
+            return lastChecksum;
+        }
+
+        dataApprovalStore.reconcileDataApprovalReadiness();
+
+        return checksum;
+    }
+
     // -------------------------------------------------------------------------
     // Supportive methods
     // -------------------------------------------------------------------------
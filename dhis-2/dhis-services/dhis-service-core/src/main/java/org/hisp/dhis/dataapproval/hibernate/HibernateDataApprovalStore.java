@@ -38,16 +38,20 @@ import static org.hisp.dhis.dataapproval.DataApprovalState.UNAPPROVED_WAITING;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.criteria.CriteriaBuilder;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.cache.Cache;
@@ -61,6 +65,7 @@ import org.hisp.dhis.dataapproval.DataApprovalLevel;
 import org.hisp.dhis.dataapproval.DataApprovalState;
 import org.hisp.dhis.dataapproval.DataApprovalStatus;
 import org.hisp.dhis.dataapproval.DataApprovalStore;
+import org.hisp.dhis.dataapproval.DataApprovalSummary;
 import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
 import org.hisp.dhis.hibernate.HibernateGenericStore;
 import org.hisp.dhis.hibernate.jsonb.type.JsonbFunctions;
@@ -79,6 +84,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
+import com.google.common.collect.ImmutableList;
+
 /**
  * @author Jim Grace
  */
@@ -94,6 +101,25 @@ public class HibernateDataApprovalStore
 
     private static final String SQL_CAT = StatementBuilder.QUOTE + SQL_CONCAT + StatementBuilder.QUOTE;
 
+    private static final String SUMMARY_KEY_RESTRICTION = "where workflowid = ? and periodid = ? " +
+        "and organisationunitid = ? and attributeoptioncomboid = ?";
+
+    private static final List<String> SUMMARY_KEY_COLUMNS = ImmutableList.of( "workflowid", "periodid",
+        "organisationunitid", "attributeoptioncomboid" );
+
+    /**
+     * Tables with a last updated column which affect approval readiness.
+     */
+    private static final List<String> APPROVAL_STRUCTURE_TABLES = ImmutableList.of( "organisationunit", "dataset",
+        "dataelementcategoryoption", "dataapprovalworkflow", "dataapprovallevel" );
+
+    /**
+     * Membership tables without a last updated column which affect approval
+     * readiness.
+     */
+    private static final List<String> APPROVAL_STRUCTURE_MEMBER_TABLES = ImmutableList.of( "datasetsource",
+        "categoryoption_organisationunits", "categoryoptioncombos_categoryoptions", "dataapprovalworkflowlevels" );
+
     private final Cache<Boolean> isApprovedCache;
 
     // -------------------------------------------------------------------------
@@ -156,6 +182,8 @@ public class HibernateDataApprovalStore
         dataApproval.setPeriod( periodService.reloadPeriod( dataApproval.getPeriod() ) );
 
         save( dataApproval );
+
+        updateDataApprovalSummaries( dataApproval );
     }
 
     @Override
@@ -166,6 +194,8 @@ public class HibernateDataApprovalStore
         dataApproval.setPeriod( periodService.reloadPeriod( dataApproval.getPeriod() ) );
 
         update( dataApproval );
+
+        updateDataApprovalSummaries( dataApproval );
     }
 
     @Override
@@ -176,6 +206,8 @@ public class HibernateDataApprovalStore
         dataApproval.setPeriod( periodService.reloadPeriod( dataApproval.getPeriod() ) );
 
         delete( dataApproval );
+
+        updateDataApprovalSummaries( dataApproval );
     }
 
     @Override
@@ -186,6 +218,11 @@ public class HibernateDataApprovalStore
         String hql = "delete from DataApproval d where d.organisationUnit = :unit";
 
         getSession().createQuery( hql ).setParameter( "unit", organisationUnit ).executeUpdate();
+
+        jdbcTemplate.update( "delete from dataapprovalsummary where organisationunitid = ?",
+            organisationUnit.getId() );
+
+        clearDataApprovalReadiness( null );
     }
 
     @Override
@@ -254,6 +291,306 @@ public class HibernateDataApprovalStore
         return jdbcTemplate.queryForList( sql ).size() > 0;
     }
 
+    // -------------------------------------------------------------------------
+    // DataApprovalSummary
+    // -------------------------------------------------------------------------
+
+    @Override
+    public DataApprovalSummary getDataApprovalSummary( DataApprovalWorkflow workflow, Period period,
+        OrganisationUnit organisationUnit, CategoryOptionCombo attributeOptionCombo )
+    {
+        Period storedPeriod = periodService.reloadPeriod( period );
+
+        if ( storedPeriod == null )
+        {
+            return null;
+        }
+
+        final String sql = "select dataapprovallevelid, accepted, readybelow, acceptedbelow " +
+            "from dataapprovalsummary " + SUMMARY_KEY_RESTRICTION;
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql, workflow.getId(), storedPeriod.getId(),
+            organisationUnit.getId(), attributeOptionCombo.getId() );
+
+        if ( !rowSet.next() )
+        {
+            return null;
+        }
+
+        DataApprovalSummary summary = new DataApprovalSummary( workflow.getId(), storedPeriod.getId(),
+            organisationUnit.getId(), attributeOptionCombo.getId() );
+
+        summary.setDataApprovalLevelId( (Long) getNullableValue( rowSet, 1, rowSet.getLong( 1 ) ) );
+        summary.setAccepted( (Boolean) getNullableValue( rowSet, 2, rowSet.getBoolean( 2 ) ) );
+        summary.setReadyBelow( (Boolean) getNullableValue( rowSet, 3, rowSet.getBoolean( 3 ) ) );
+        summary.setAcceptedBelow( (Boolean) getNullableValue( rowSet, 4, rowSet.getBoolean( 4 ) ) );
+
+        return summary;
+    }
+
+    @Override
+    public void clearDataApprovalReadiness( DataApprovalWorkflow workflow )
+    {
+        final String sql = "update dataapprovalsummary set readybelow = null, acceptedbelow = null" +
+            (workflow != null ? " where workflowid = " + workflow.getId() : "");
+
+        jdbcTemplate.update( sql );
+    }
+
+    @Override
+    public int reconcileDataApprovalReadiness()
+    {
+        clearDataApprovalReadiness( null );
+
+        jdbcTemplate.update( "delete from dataapprovalsummary where dataapprovallevelid is null" );
+
+        final String sql = "select das.workflowid, das.periodid, o.path, das.attributeoptioncomboid " +
+            "from dataapprovalsummary das " +
+            "join organisationunit o on o.organisationunitid = das.organisationunitid";
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+
+        Map<Long, DataApprovalWorkflow> workflows = new HashMap<>();
+        Map<Long, Period> periods = new HashMap<>();
+        Set<String> reconciled = new HashSet<>();
+
+        while ( rowSet.next() )
+        {
+            DataApprovalWorkflow workflow = workflows.computeIfAbsent( rowSet.getLong( 1 ),
+                id -> getSession().get( DataApprovalWorkflow.class, id ) );
+            Period period = periods.computeIfAbsent( rowSet.getLong( 2 ), periodService::getPeriod );
+            String path = rowSet.getString( 3 );
+            long attributeOptionComboId = rowSet.getLong( 4 );
+
+            String ancestorUid = getApprovalAncestorUid( workflow, path );
+
+            if ( ancestorUid != null && reconciled.add( workflow.getId() + SQL_CONCAT + period.getId()
+                + SQL_CONCAT + ancestorUid + SQL_CONCAT + attributeOptionComboId ) )
+            {
+                updateReadinessSummary( workflow, period, ancestorUid, attributeOptionComboId );
+            }
+        }
+
+        log.info( String.format( "Reconciled data approval readiness for %d organisation units",
+            reconciled.size() ) );
+
+        return reconciled.size();
+    }
+
+    @Override
+    public void updateDataApprovalSummaryLevels()
+    {
+        getSession().flush();
+
+        final String approvalRestriction = "where da.workflowid = das.workflowid and da.periodid = das.periodid " +
+            "and da.organisationunitid = das.organisationunitid " +
+            "and da.attributeoptioncomboid = das.attributeoptioncomboid ";
+
+        jdbcTemplate.update( "update dataapprovalsummary das set dataapprovallevelid = (" +
+            "select da.dataapprovallevelid " +
+            "from dataapproval da " +
+            "join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid " +
+            approvalRestriction +
+            "order by dal.level " +
+            "limit 1)" );
+
+        jdbcTemplate.update( "update dataapprovalsummary das set accepted = (" +
+            "select da.accepted " +
+            "from dataapproval da " +
+            approvalRestriction +
+            "and da.dataapprovallevelid = das.dataapprovallevelid)" );
+    }
+
+    @Override
+    public String getApprovalStructureChecksum()
+    {
+        final Stream<String> tables = APPROVAL_STRUCTURE_TABLES.stream()
+            .map( table -> "(select count(*) from " + table + "), (select max(lastupdated) from " + table + ")" );
+
+        final Stream<String> memberTables = APPROVAL_STRUCTURE_MEMBER_TABLES.stream()
+            .map( table -> {
+                String hash = statementBuilder.getTableHash( table );
+                return "(select count(*) from " + table + ")" + (hash != null ? ", " + hash : "");
+            } );
+
+        final String sql = "select " + Stream.concat( tables, memberTables ).collect( Collectors.joining( ", " ) );
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+
+        rowSet.next();
+
+        final StringBuilder checksum = new StringBuilder();
+
+        for ( int i = 1; i <= rowSet.getMetaData().getColumnCount(); i++ )
+        {
+            checksum.append( rowSet.getObject( i ) ).append( SQL_CONCAT );
+        }
+
+        return checksum.toString();
+    }
+
+    /**
+     * Updates the materialized summary of the organisation unit of the given
+     * approval, and the readiness below of its closest ancestor at an approval
+     * level. Invoked in the transaction of the change to the approval.
+     * <p>
+     * The summary rows are locked before they are computed, so that concurrent
+     * changes to approvals of the same or of sibling organisation units are
+     * serialized, and each computation sees the committed changes of the
+     * others. Rows are locked from the organisation unit upwards, so that
+     * transactions lock rows in the same order.
+     *
+     * @param dataApproval the approval which was added, updated or deleted.
+     */
+    private void updateDataApprovalSummaries( DataApproval dataApproval )
+    {
+        getSession().flush();
+
+        DataApprovalWorkflow workflow = dataApproval.getWorkflow();
+        Period period = dataApproval.getPeriod();
+        OrganisationUnit orgUnit = dataApproval.getOrganisationUnit();
+        long attributeOptionComboId = dataApproval.getAttributeOptionCombo().getId();
+
+        lockSummary( workflow.getId(), period.getId(), orgUnit.getId(), attributeOptionComboId );
+
+        final String sql = "select da.dataapprovallevelid, da.accepted " +
+            "from dataapproval da " +
+            "join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid " +
+            "where da.workflowid = ? and da.periodid = ? and da.organisationunitid = ? " +
+            "and da.attributeoptioncomboid = ? " +
+            "order by dal.level " +
+            "limit 1";
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql, workflow.getId(), period.getId(), orgUnit.getId(),
+            attributeOptionComboId );
+
+        boolean approved = rowSet.next();
+
+        saveSummary( workflow.getId(), period.getId(), orgUnit.getId(), attributeOptionComboId,
+            ImmutableList.of( "dataapprovallevelid", "accepted" ),
+            approved ? rowSet.getLong( 1 ) : null,
+            approved ? rowSet.getBoolean( 2 ) : null );
+
+        String ancestorUid = getApprovalAncestorUid( workflow, orgUnit.getPath() );
+
+        if ( ancestorUid != null )
+        {
+            updateReadinessSummary( workflow, period, ancestorUid, attributeOptionComboId );
+        }
+    }
+
+    /**
+     * Computes and saves whether data below the given organisation unit is
+     * ready for approval, both when acceptance is and is not required.
+     *
+     * @param workflow the workflow.
+     * @param period the workflow period.
+     * @param orgUnitUid the organisation unit at an approval level.
+     * @param attributeOptionComboId the attribute option combo id.
+     */
+    private void updateReadinessSummary( DataApprovalWorkflow workflow, Period period, String orgUnitUid,
+        long attributeOptionComboId )
+    {
+        final String levelSql = "select organisationunitid, hierarchylevel from organisationunit where uid = ?";
+
+        SqlRowSet levelRowSet = jdbcTemplate.queryForRowSet( levelSql, orgUnitUid );
+
+        if ( !levelRowSet.next() )
+        {
+            return;
+        }
+
+        long orgUnitId = levelRowSet.getLong( 1 );
+        int orgUnitLevel = levelRowSet.getInt( 2 );
+
+        DataApprovalLevel approvalLevelBelowOrgUnit = workflow.getSortedLevels().stream()
+            .filter( dal -> dal.getOrgUnitLevel() > orgUnitLevel )
+            .findFirst().orElse( null );
+
+        if ( approvalLevelBelowOrgUnit == null )
+        {
+            return;
+        }
+
+        boolean isDefaultCombo = categoryService.getDefaultCategoryOptionCombo().getId() == attributeOptionComboId;
+
+        lockSummary( workflow.getId(), period.getId(), orgUnitId, attributeOptionComboId );
+
+        final String sql = "select " +
+            getReadyBelowSubquery( workflow, orgUnitLevel, approvalLevelBelowOrgUnit, isDefaultCombo,
+                period.getId(), false )
+            + ", " +
+            getReadyBelowSubquery( workflow, orgUnitLevel, approvalLevelBelowOrgUnit, isDefaultCombo,
+                period.getId(), true )
+            + " " +
+            "from organisationunit o " +
+            "join categoryoptioncombo coc on coc.categoryoptioncomboid = " + attributeOptionComboId + " " +
+            "where o.organisationunitid = " + orgUnitId;
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+
+        if ( rowSet.next() )
+        {
+            saveSummary( workflow.getId(), period.getId(), orgUnitId, attributeOptionComboId,
+                ImmutableList.of( "readybelow", "acceptedbelow" ), rowSet.getBoolean( 1 ), rowSet.getBoolean( 2 ) );
+        }
+    }
+
+    /**
+     * Updates the given columns of a summary row, inserting the row if it does
+     * not exist, in a single statement.
+     *
+     * @param columns the columns to assign.
+     * @param values the values to assign, one per column.
+     */
+    private void saveSummary( long workflowId, long periodId, long orgUnitId, long attributeOptionComboId,
+        List<String> columns, Object... values )
+    {
+        Object[] key = { workflowId, periodId, orgUnitId, attributeOptionComboId };
+
+        final String sql = statementBuilder.getUpsert( "dataapprovalsummary", SUMMARY_KEY_COLUMNS, columns );
+
+        jdbcTemplate.update( sql, ArrayUtils.addAll( key, values ) );
+    }
+
+    /**
+     * Locks a summary row until the end of the transaction, inserting an empty
+     * row if it does not exist.
+     */
+    private void lockSummary( long workflowId, long periodId, long orgUnitId, long attributeOptionComboId )
+    {
+        saveSummary( workflowId, periodId, orgUnitId, attributeOptionComboId, ImmutableList.of() );
+
+        final String sql = "select workflowid from dataapprovalsummary " + SUMMARY_KEY_RESTRICTION + " for update";
+
+        jdbcTemplate.queryForList( sql, workflowId, periodId, orgUnitId, attributeOptionComboId );
+    }
+
+    /**
+     * Returns the uid of the closest ancestor of an organisation unit which is
+     * at an approval level of the workflow, or null if there is none.
+     *
+     * @param workflow the workflow.
+     * @param path the path of the organisation unit.
+     * @return the ancestor uid, or null.
+     */
+    private String getApprovalAncestorUid( DataApprovalWorkflow workflow, String path )
+    {
+        String[] uids = StringUtils.split( path, "/" );
+
+        Integer ancestorLevel = workflow.getSortedLevels().stream()
+            .map( DataApprovalLevel::getOrgUnitLevel )
+            .filter( level -> level < uids.length )
+            .max( Integer::compare ).orElse( null );
+
+        return ancestorLevel == null ? null : uids[ancestorLevel - 1];
+    }
+
+    private Object getNullableValue( SqlRowSet rowSet, int column, Object value )
+    {
+        return rowSet.wasNull() ? null : value;
+    }
+
     @Override
     public List<DataApprovalStatus> getDataApprovalStatuses( DataApprovalWorkflow workflow,
         Period period, Collection<OrganisationUnit> orgUnits, int orgUnitLevel,
@@ -440,6 +777,8 @@ public class HibernateDataApprovalStore
 
         String coEndDateExtension = workflow.getSqlCoEndDateExtension();
 
+        final int workflowPeriodId = getWorkflowPeriodId( workflow, endDate );
+
         String approvedAboveSubquery = "false"; // Not approved above if this is
                                                 // the highest (lowest number)
                                                 // approval orgUnit level.
@@ -449,11 +788,10 @@ public class HibernateDataApprovalStore
             approvedAboveSubquery = "exists ( " +
                 "select 1 " +
                 "from dataapproval da " +
-                "join period p on p.periodid = da.periodid " +
                 "join organisationunit dao on dao.organisationunitid = da.organisationunitid " +
                 "where " + statementBuilder.position( "dao.uid", "o.path" ) + " = "
                 + pathPositionAtLevel( approvedAboveLevel ) + " " +
-                "and '" + endDate + "' >= p.startdate and '" + endDate + "' <= p.enddate " +
+                "and da.periodid = " + workflowPeriodId + " " +
                 "and da.dataapprovallevelid = " + approvedAboveLevel.getId() + " " +
                 "and da.workflowid = " + workflow.getId() + " " +
                 "and da.attributeoptioncomboid = coc.categoryoptioncomboid " +
@@ -469,78 +807,56 @@ public class HibernateDataApprovalStore
             boolean acceptanceRequiredForApproval = (Boolean) systemSettingManager
                 .getSystemSetting( SettingKey.ACCEPTANCE_REQUIRED_FOR_APPROVAL );
 
-            readyBelowSubquery = "not exists ( " + // Ready if nothing expected
-                                                   // below is
-                                                   // unapproved(/unaccepted)
-                "select 1 " +
-                "from organisationunit dao " + // Lower-level Data Approval
-                                               // OrgUnit (DAO) where approval
-                                               // is needed to be ready.
-                "where " + statementBuilder.position( "o.uid", "dao.path" ) + " = "
-                + pathPositionAtLevel( orgUnitLevel ) + " " +
-                "and dao.hierarchylevel = " + approvalLevelBelowOrgUnit.getOrgUnitLevel() + " " +
-                "and exists ( " + // Data for this workflow is collected
-                                  // somewhere at or below DAO
-                "select 1 from organisationunit child " +
-                "where " + statementBuilder.position( "dao.uid", "child.path" ) + " <> 0 " +
-                "and child.organisationunitid in ( " +
-                "select distinct sourceid " +
-                "from datasetsource dss " +
-                "join dataset ds on ds.datasetid = dss.datasetid " +
-                "where ds.workflowid = " + workflow.getId() +
-                ") " +
-                ") " +
-                (isDefaultCombo ? "" : // Default combo options never have an
-                                       // organisation unit mapping.
-                    "and not exists (" + // No AOCs without all attribute
-                                         // options valid for org unit.
-                        "select 1 " +
-                        "from categoryoptioncombos_categoryoptions cc1 " +
-                        "where cc1.categoryoptioncomboid = coc.categoryoptioncomboid " +
-                        "and ( " +
-                        "exists ( " + // If there are orgUnit mappings...
-                        "select 1 " +
-                        "from categoryoption_organisationunits co1 " +
-                        "where co1.categoryoptionid = cc1.categoryoptionid ) " +
-                        "and not exists (" + // then one of them should map to
-                                             // this orgUnit.
-                        "select 1 " +
-                        "from categoryoption_organisationunits co1 " +
-                        "join organisationunit o1 on o1.organisationunitid = co1.organisationunitid " +
-                        "where co1.categoryoptionid = cc1.categoryoptionid " +
-                        "and " + statementBuilder.position( "o1.uid", "dao.path" ) +
-                        " between 2 and " + pathPositionAtLevel( approvalLevelBelowOrgUnit ) + " " +
-                        ") " +
-                        ") " +
-                        ") ")
-                +
-                "and not exists (" + // Data not approved(/accepted) below where
-                                     // it needs to be if ready.
-                "select 1 from dataapproval da " +
-                "join period p on p.periodid = da.periodid " +
-                "where da.organisationunitid = dao.organisationunitid " +
-                "and da.dataapprovallevelid = " + approvalLevelBelowOrgUnit.getId() + " " +
-                "and '" + endDate + "' >= p.startdate and '" + endDate + "' <= p.enddate " +
-                "and da.workflowid = " + workflow.getId() + " " +
+            readyBelowSubquery = "coalesce( ( " + // Materialized readiness, if
+                                                  // any
+                "select das." + (acceptanceRequiredForApproval ? "acceptedbelow" : "readybelow") + " " +
+                "from dataapprovalsummary das " +
+                "where das.workflowid = " + workflow.getId() + " " +
+                "and das.periodid = " + workflowPeriodId + " " +
+                "and das.organisationunitid = o.organisationunitid " +
+                "and das.attributeoptioncomboid = coc.categoryoptioncomboid " +
+                "), " +
+                getReadyBelowSubquery( workflow, orgUnitLevel, approvalLevelBelowOrgUnit, isDefaultCombo,
+                    workflowPeriodId, acceptanceRequiredForApproval )
+                + ") ";
+        }
+
+        String highestApprovedSubquery;
+
+        if ( userApprovalLevelRestrictions.isEmpty() )
+        {
+            highestApprovedSubquery = "(select min(" + // Materialized highest
+                                                       // approval per orgUnit
+                statementBuilder.concatenate( MAX_APPROVAL_LEVEL + " + dal.level", SQL_CAT, "da.accepted",
+                    SQL_CAT, "da.organisationunitid" )
+                + ") " +
+                "from dataapprovalsummary da " +
+                "join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid " +
+                highestApprovedOrgUnitJoin +
+                "where da.workflowid = " + workflow.getId() + " " +
+                "and da.periodid = " + workflowPeriodId + " " +
                 "and da.attributeoptioncomboid = coc.categoryoptioncomboid " +
-                (acceptanceRequiredForApproval ? "and da.accepted " : "") +
-                ") " +
-                ") ";
+                "and " + highestApprovedOrgUnitCompare +
+                ")";
+        }
+        else
+        {
+            highestApprovedSubquery = "(select min(" +
+                statementBuilder.concatenate( MAX_APPROVAL_LEVEL + " + dal.level", SQL_CAT, "da.accepted",
+                    SQL_CAT, "da.organisationunitid" )
+                + ") " +
+                "from dataapproval da " +
+                "join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid " +
+                highestApprovedOrgUnitJoin +
+                "where da.workflowid = " + workflow.getId() + " " +
+                "and da.periodid = " + workflowPeriodId + " " +
+                "and da.attributeoptioncomboid = coc.categoryoptioncomboid " +
+                "and " + highestApprovedOrgUnitCompare + userApprovalLevelRestrictions +
+                ")";
         }
 
         final String sql = "select coc.uid as cocuid, o.uid as ouuid, o.name as ouname, " +
-            "(select min("
-            + statementBuilder.concatenate( MAX_APPROVAL_LEVEL + " + dal.level", SQL_CAT, "da.accepted", SQL_CAT,
-                "da.organisationunitid" )
-            + ") " +
-            "from dataapproval da " +
-            "join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid " +
-            highestApprovedOrgUnitJoin +
-            "where da.workflowid = " + workflow.getId() + " " +
-            "and da.periodid = " + getWorkflowPeriodId( workflow, endDate ) + " " +
-            "and da.attributeoptioncomboid = coc.categoryoptioncomboid " +
-            "and " + highestApprovedOrgUnitCompare + userApprovalLevelRestrictions +
-            ") as highest_approved, " +
+            highestApprovedSubquery + " as highest_approved, " +
             readyBelowSubquery + " as ready_below, " +
             approvedAboveSubquery + " as approved_above " +
             "from categoryoptioncombo coc " +
@@ -666,6 +982,80 @@ public class HibernateDataApprovalStore
         return statusList;
     }
 
+    /**
+     * Returns a subquery which indicates whether data below the organisation
+     * unit "o" is approved (and accepted if required) for the attribute option
+     * combo "coc" at the given approval level below.
+     *
+     * @param workflow the workflow.
+     * @param orgUnitLevel the hierarchy level of "o".
+     * @param approvalLevelBelowOrgUnit the next approval level below "o".
+     * @param isDefaultCombo whether "coc" is the default combo.
+     * @param workflowPeriodId id of the workflow period.
+     * @param acceptanceRequiredForApproval whether acceptance is required.
+     * @return the subquery.
+     */
+    private String getReadyBelowSubquery( DataApprovalWorkflow workflow, int orgUnitLevel,
+        DataApprovalLevel approvalLevelBelowOrgUnit, boolean isDefaultCombo, long workflowPeriodId,
+        boolean acceptanceRequiredForApproval )
+    {
+        return "not exists ( " + // Ready if nothing expected below is
+                                 // unapproved(/unaccepted)
+            "select 1 " +
+            "from organisationunit dao " + // Lower-level Data Approval
+                                           // OrgUnit (DAO) where approval
+                                           // is needed to be ready.
+            "where " + statementBuilder.position( "o.uid", "dao.path" ) + " = "
+            + pathPositionAtLevel( orgUnitLevel ) + " " +
+            "and dao.hierarchylevel = " + approvalLevelBelowOrgUnit.getOrgUnitLevel() + " " +
+            "and exists ( " + // Data for this workflow is collected
+                              // somewhere at or below DAO
+            "select 1 from organisationunit child " +
+            "where " + statementBuilder.position( "dao.uid", "child.path" ) + " <> 0 " +
+            "and child.organisationunitid in ( " +
+            "select distinct sourceid " +
+            "from datasetsource dss " +
+            "join dataset ds on ds.datasetid = dss.datasetid " +
+            "where ds.workflowid = " + workflow.getId() +
+            ") " +
+            ") " +
+            (isDefaultCombo ? "" : // Default combo options never have an
+                                   // organisation unit mapping.
+                "and not exists (" + // No AOCs without all attribute
+                                     // options valid for org unit.
+                    "select 1 " +
+                    "from categoryoptioncombos_categoryoptions cc1 " +
+                    "where cc1.categoryoptioncomboid = coc.categoryoptioncomboid " +
+                    "and ( " +
+                    "exists ( " + // If there are orgUnit mappings...
+                    "select 1 " +
+                    "from categoryoption_organisationunits co1 " +
+                    "where co1.categoryoptionid = cc1.categoryoptionid ) " +
+                    "and not exists (" + // then one of them should map to
+                                         // this orgUnit.
+                    "select 1 " +
+                    "from categoryoption_organisationunits co1 " +
+                    "join organisationunit o1 on o1.organisationunitid = co1.organisationunitid " +
+                    "where co1.categoryoptionid = cc1.categoryoptionid " +
+                    "and " + statementBuilder.position( "o1.uid", "dao.path" ) +
+                    " between 2 and " + pathPositionAtLevel( approvalLevelBelowOrgUnit ) + " " +
+                    ") " +
+                    ") " +
+                    ") ")
+            +
+            "and not exists (" + // Data not approved(/accepted) below where
+                                 // it needs to be if ready.
+            "select 1 from dataapproval da " +
+            "where da.organisationunitid = dao.organisationunitid " +
+            "and da.dataapprovallevelid = " + approvalLevelBelowOrgUnit.getId() + " " +
+            "and da.periodid = " + workflowPeriodId + " " +
+            "and da.workflowid = " + workflow.getId() + " " +
+            "and da.attributeoptioncomboid = coc.categoryoptioncomboid " +
+            (acceptanceRequiredForApproval ? "and da.accepted " : "") +
+            ") " +
+            ") ";
+    }
+
     /**
      * Get the id for the workflow period that spans the given end date. The
      * workflow period may or may not be the same as the period for which we are
@@ -36,6 +36,7 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -356,6 +357,20 @@ public class DefaultDataValueService
         return dataValueStore.getDeflatedDataValues( params );
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public List<DeflatedDataValue> getDeflatedDataValueChanges( Date since )
+    {
+        return dataValueStore.getDeflatedDataValueChanges( since );
+    }
+
+    @Override
+    @Transactional( readOnly = true )
+    public Map<Long, Integer> getDataValueCountsByOrganisationUnit( Collection<Period> periods )
+    {
+        return dataValueStore.getDataValueCountsByOrganisationUnit( periods );
+    }
+
     @Override
     @Transactional( readOnly = true )
     public int getDataValueCount( int days )
@@ -484,6 +484,53 @@ public class HibernateDataValueStore extends HibernateGenericStore<DataValue>
         return result;
     }
 
+    @Override
+    public List<DeflatedDataValue> getDeflatedDataValueChanges( Date since )
+    {
+        final String sql = "select dv.dataelementid, dv.periodid, dv.sourceid " +
+            "from datavalue dv " +
+            "where dv.lastupdated >= ? " +
+            "union " +
+            "select dva.dataelementid, dva.periodid, dva.organisationunitid " +
+            "from datavalueaudit dva " +
+            "where dva.created >= ?";
+
+        List<DeflatedDataValue> result = jdbcTemplate.query( sql, ( rs, rowNum ) -> {
+            DeflatedDataValue value = new DeflatedDataValue();
+            value.setDataElementId( rs.getLong( 1 ) );
+            value.setPeriodId( rs.getLong( 2 ) );
+            value.setSourceId( rs.getLong( 3 ) );
+            return value;
+        }, since, since );
+
+        log.debug( String.format( "Found %d changed data value combinations since %s", result.size(), since ) );
+
+        return result;
+    }
+
+    @Override
+    public Map<Long, Integer> getDataValueCountsByOrganisationUnit( Collection<Period> periods )
+    {
+        Map<Long, Integer> counts = new HashMap<>();
+
+        if ( periods.isEmpty() )
+        {
+            return counts;
+        }
+
+        final String sql = "select dv.sourceid, count(*) " +
+            "from datavalue dv " +
+            "where dv.periodid in (" + getCommaDelimitedString( getIdentifiers( periods ) ) + ") " +
+            "and dv.deleted is false " +
+            "group by dv.sourceid";
+
+        jdbcTemplate.query( sql, rs -> {
+            counts.put( rs.getLong( 1 ), rs.getInt( 2 ) );
+        } );
+
+        return counts;
+    }
+
     @Override
     public int getDataValueCountLastUpdatedBetween( Date startDate, Date endDate, boolean includeDeleted )
     {
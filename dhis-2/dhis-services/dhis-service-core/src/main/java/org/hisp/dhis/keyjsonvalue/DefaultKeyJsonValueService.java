@@ -101,6 +101,18 @@ public class DefaultKeyJsonValueService
         return keyJsonValueStore.getKeyJsonValue( namespace, key );
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public String getVersion( String namespace, String key, boolean isAdmin )
+    {
+        if ( !isAdmin && MetadataVersionService.METADATASTORE.equals( namespace ) )
+        {
+            return null;
+        }
+
+        return keyJsonValueStore.getVersion( namespace, key );
+    }
+
     @Override
     @Transactional( readOnly = true )
     public List<KeyJsonValue> getKeyJsonValuesInNamespace( String namespace, boolean isAdmin )
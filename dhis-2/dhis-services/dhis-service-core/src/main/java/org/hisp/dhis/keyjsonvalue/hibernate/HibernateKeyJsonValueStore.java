@@ -113,4 +113,29 @@ public class HibernateKeyJsonValueStore
             .addPredicate( root -> builder.equal( root.get( "namespace" ), namespace ) )
             .addPredicate( root -> builder.equal( root.get( "key" ), key ) ) );
     }
+
+    @Override
+    public String getVersion( String namespace, String key )
+    {
+        String hql = "select count(*), max(lastUpdated) from KeyJsonValue where namespace = :namespace";
+
+        if ( key != null )
+        {
+            hql += " and key = :key";
+        }
+
+        Query<Object[]> query = getSession().createQuery( hql, Object[].class );
+        query.setParameter( "namespace", namespace );
+
+        if ( key != null )
+        {
+            query.setParameter( "key", key );
+        }
+
+        Object[] result = query.getSingleResult();
+
+        Date lastUpdated = (Date) result[1];
+
+        return result[0] + "-" + (lastUpdated != null ? lastUpdated.getTime() : 0);
+    }
 }
@@ -37,10 +37,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.proxy.HibernateProxy;
 import org.hisp.dhis.attribute.Attribute;
 import org.hisp.dhis.attribute.AttributeService;
 import org.hisp.dhis.category.CategoryDimension;
@@ -67,7 +69,6 @@ import org.hisp.dhis.query.Restrictions;
 import org.hisp.dhis.schema.MergeParams;
 import org.hisp.dhis.schema.MergeService;
 import org.hisp.dhis.schema.Property;
-import org.hisp.dhis.schema.PropertyType;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.system.util.ReflectionUtils;
@@ -97,6 +98,12 @@ import com.google.common.collect.Lists;
 @Scope( value = "prototype", proxyMode = ScopedProxyMode.INTERFACES )
 public class DefaultPreheatService implements PreheatService
 {
+    /**
+     * Maximum number of identifiers per query, below the bind parameter limit
+     * of PostgreSQL.
+     */
+    private static final int IDENTIFIER_QUERY_SIZE = 20000;
+
     private final SchemaService schemaService;
 
     private final QueryService queryService;
@@ -170,74 +177,22 @@ public class DefaultPreheatService implements PreheatService
 
         if ( PreheatIdentifier.UID == params.getPreheatIdentifier() || hasOnlyUIDClasses )
         {
-            for ( Class<? extends IdentifiableObject> klass : uidMap.keySet() )
-            {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( uidMap.get( klass ) ),
-                    20000 );
-
-                if ( !identifiers.isEmpty() )
-                {
-                    for ( List<String> ids : identifiers )
-                    {
-                        Query query = Query.from( schemaService.getDynamicSchema( klass ) );
-                        query.setUser( preheat.getUser() );
-                        query.add( Restrictions.in( "id", ids ) );
-                        List<? extends IdentifiableObject> objects = queryService.query( query );
-                        preheat.put( PreheatIdentifier.UID, objects );
-                    }
-                }
-            }
+            uidMap.forEach( ( klass, ids ) -> preheatObjects( preheat, PreheatIdentifier.UID, klass, ids ) );
         }
 
         if ( codeMap != null && (PreheatIdentifier.CODE == params.getPreheatIdentifier()) )
         {
-            for ( Class<? extends IdentifiableObject> klass : codeMap.keySet() )
-            {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( codeMap.get( klass ) ),
-                    20000 );
-
-                if ( !identifiers.isEmpty() )
-                {
-                    for ( List<String> ids : identifiers )
-                    {
-                        Query query = Query.from( schemaService.getDynamicSchema( klass ) );
-                        query.setUser( preheat.getUser() );
-                        query.add( Restrictions.in( "code", ids ) );
-                        List<? extends IdentifiableObject> objects = queryService.query( query );
-                        preheat.put( PreheatIdentifier.CODE, objects );
-                    }
-                }
-            }
+            codeMap.forEach( ( klass, ids ) -> preheatObjects( preheat, PreheatIdentifier.CODE, klass, ids ) );
 
-            if ( uidMap.containsKey( User.class ) && !uidMap.get( User.class ).isEmpty() )
+            if ( uidMap.containsKey( User.class ) )
             {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( uidMap.get( User.class ) ),
-                    20000 );
-
-                for ( List<String> ids : identifiers )
-                {
-                    Query query = Query.from( schemaService.getDynamicSchema( User.class ) );
-                    query.setUser( preheat.getUser() );
-                    query.add( Restrictions.in( "id", ids ) );
-                    List<? extends IdentifiableObject> objects = queryService.query( query );
-                    preheat.put( PreheatIdentifier.UID, objects );
-                }
+                preheatObjects( preheat, PreheatIdentifier.UID, User.class, uidMap.get( User.class ) );
             }
 
-            if ( uidMap.containsKey( UserAuthorityGroup.class )
-                && !uidMap.get( UserAuthorityGroup.class ).isEmpty() )
+            if ( uidMap.containsKey( UserAuthorityGroup.class ) )
             {
-                List<List<String>> identifiers = Lists
-                    .partition( Lists.newArrayList( uidMap.get( UserAuthorityGroup.class ) ), 20000 );
-
-                for ( List<String> ids : identifiers )
-                {
-                    Query query = Query.from( schemaService.getDynamicSchema( UserAuthorityGroup.class ) );
-                    query.setUser( preheat.getUser() );
-                    query.add( Restrictions.in( "id", ids ) );
-                    List<? extends IdentifiableObject> objects = queryService.query( query );
-                    preheat.put( PreheatIdentifier.UID, objects );
-                }
+                preheatObjects( preheat, PreheatIdentifier.UID, UserAuthorityGroup.class,
+                    uidMap.get( UserAuthorityGroup.class ) );
             }
         }
 
@@ -310,6 +265,26 @@ public class DefaultPreheatService implements PreheatService
         return preheat;
     }
 
+    /**
+     * Loads the objects of the given class with the given identifiers into the
+     * preheat. A class is loaded with a single query unless the number of
+     * identifiers exceeds the bind parameter limit of the database.
+     */
+    private void preheatObjects( Preheat preheat, PreheatIdentifier identifier,
+        Class<? extends IdentifiableObject> klass, Set<String> identifiers )
+    {
+        String property = PreheatIdentifier.CODE == identifier ? "code" : "id";
+
+        for ( List<String> ids : Lists.partition( Lists.newArrayList( identifiers ), IDENTIFIER_QUERY_SIZE ) )
+        {
+            Query query = Query.from( schemaService.getDynamicSchema( klass ) );
+            query.setUser( preheat.getUser() );
+            query.add( Restrictions.in( property, ids ) );
+            List<? extends IdentifiableObject> objects = queryService.query( query );
+            preheat.put( identifier, objects );
+        }
+    }
+
     private void handleSecurity( Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> objects,
         PreheatIdentifier identifier, Preheat preheat )
     {
@@ -480,17 +455,10 @@ public class DefaultPreheatService implements PreheatService
         return collectReferences( map );
     }
 
-    @SuppressWarnings( "unchecked" )
     private Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> collectReferences(
         Map<Class<?>, List<?>> objects )
     {
-        Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> map = new HashMap<>();
-
-        map.put( PreheatIdentifier.UID, new HashMap<>() );
-        map.put( PreheatIdentifier.CODE, new HashMap<>() );
-
-        Map<Class<? extends IdentifiableObject>, Set<String>> uidMap = map.get( PreheatIdentifier.UID );
-        Map<Class<? extends IdentifiableObject>, Set<String>> codeMap = map.get( PreheatIdentifier.CODE );
+        Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> map = createReferenceMap();
 
         if ( objects.isEmpty() )
         {
@@ -502,77 +470,102 @@ public class DefaultPreheatService implements PreheatService
 
         collectScanTargets( targets );
 
-        for ( Class<?> klass : targets.keySet() )
-        {
-            Schema schema = schemaService.getDynamicSchema( klass );
+        // Schemas are resolved up front as dynamic schemas are registered on
+        // first request. Classes are independent of each other and are walked
+        // concurrently as long as none of the objects is attached to the
+        // session, which must not be accessed from other threads.
 
-            List<Property> referenceProperties = schema.getProperties().stream()
-                .filter( p -> p.isPersisted() && p.isOwner()
-                    && (PropertyType.REFERENCE == p.getPropertyType()
-                        || PropertyType.REFERENCE == p.getItemPropertyType()) )
-                .collect( Collectors.toList() );
+        Map<Class<?>, Schema> schemas = new HashMap<>();
+        targets.keySet().forEach( klass -> schemas.put( klass, schemaService.getDynamicSchema( klass ) ) );
 
-            for ( Object object : targets.get( klass ) )
-            {
-                if ( schema.isIdentifiableObject() )
-                {
-                    IdentifiableObject identifiableObject = (IdentifiableObject) object;
-                    identifiableObject.getAttributeValues().forEach( av -> addIdentifiers( map, av.getAttribute() ) );
-                    identifiableObject.getUserGroupAccesses()
-                        .forEach( uga -> addIdentifiers( map, uga.getUserGroup() ) );
-                    identifiableObject.getUserAccesses().forEach( ua -> addIdentifiers( map, ua.getUser() ) );
+        boolean parallel = targets.size() > 1
+            && targets.values().stream().allMatch( list -> list.stream().allMatch( this::isTransient ) );
 
-                    if ( identifiableObject.getCreatedBy() != null )
-                    {
-                        addIdentifiers( map, identifiableObject.getCreatedBy() );
-                    }
+        Stream<Class<?>> classes = parallel ? targets.keySet().parallelStream() : targets.keySet().stream();
 
-                    addIdentifiers( map, identifiableObject );
-                }
+        List<Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>>> classReferences = classes
+            .map( klass -> collectReferences( schemas.get( klass ), targets.get( klass ) ) )
+            .collect( Collectors.toList() );
 
-                referenceProperties.forEach( p -> {
-                    if ( !p.isCollection() )
-                    {
-                        Class<? extends IdentifiableObject> itemKlass = (Class<? extends IdentifiableObject>) p
-                            .getKlass();
+        classReferences.forEach( references -> mergeReferences( map, references ) );
 
-                        if ( !uidMap.containsKey( itemKlass ) )
-                            uidMap.put( itemKlass, new HashSet<>() );
-                        if ( !codeMap.containsKey( itemKlass ) )
-                            codeMap.put( itemKlass, new HashSet<>() );
+        cleanEmptyEntries( map.get( PreheatIdentifier.UID ) );
+        cleanEmptyEntries( map.get( PreheatIdentifier.CODE ) );
 
-                        Object reference = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
+        return map;
+    }
 
-                        if ( reference != null )
-                        {
-                            IdentifiableObject identifiableObject = (IdentifiableObject) reference;
-                            addIdentifiers( map, identifiableObject );
-                        }
-                    }
-                    else
+    /**
+     * Collects the references of the given objects of a single class, using
+     * the cached reference properties of the schema of the class.
+     */
+    @SuppressWarnings( "unchecked" )
+    private Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> collectReferences(
+        Schema schema, List<?> objects )
+    {
+        Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> map = createReferenceMap();
+
+        Map<Class<? extends IdentifiableObject>, Set<String>> uidMap = map.get( PreheatIdentifier.UID );
+        Map<Class<? extends IdentifiableObject>, Set<String>> codeMap = map.get( PreheatIdentifier.CODE );
+
+        List<Property> referenceProperties = schema.getOwnerReferenceProperties();
+
+        referenceProperties.stream().filter( p -> !p.isCollection() ).forEach( p -> {
+            Class<? extends IdentifiableObject> itemKlass = (Class<? extends IdentifiableObject>) p.getKlass();
+
+            uidMap.computeIfAbsent( itemKlass, k -> new HashSet<>() );
+            codeMap.computeIfAbsent( itemKlass, k -> new HashSet<>() );
+        } );
+
+        for ( Object object : objects )
+        {
+            if ( schema.isIdentifiableObject() )
+            {
+                IdentifiableObject identifiableObject = (IdentifiableObject) object;
+                identifiableObject.getAttributeValues().forEach( av -> addIdentifiers( map, av.getAttribute() ) );
+                identifiableObject.getUserGroupAccesses()
+                    .forEach( uga -> addIdentifiers( map, uga.getUserGroup() ) );
+                identifiableObject.getUserAccesses().forEach( ua -> addIdentifiers( map, ua.getUser() ) );
+
+                if ( identifiableObject.getCreatedBy() != null )
+                {
+                    addIdentifiers( map, identifiableObject.getCreatedBy() );
+                }
+
+                addIdentifiers( map, identifiableObject );
+            }
+
+            referenceProperties.forEach( p -> {
+                if ( !p.isCollection() )
+                {
+                    Object reference = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
+
+                    if ( reference != null )
                     {
-                        Collection<IdentifiableObject> reference = ReflectionUtils.invokeMethod( object,
-                            p.getGetterMethod() );
-                        reference.forEach( identifiableObject -> addIdentifiers( map, identifiableObject ) );
+                        IdentifiableObject identifiableObject = (IdentifiableObject) reference;
+                        addIdentifiers( map, identifiableObject );
+                    }
+                }
+                else
+                {
+                    Collection<IdentifiableObject> reference = ReflectionUtils.invokeMethod( object,
+                        p.getGetterMethod() );
+                    reference.forEach( identifiableObject -> addIdentifiers( map, identifiableObject ) );
 
-                        if ( DataElementOperand.class.isAssignableFrom( p.getItemKlass() ) )
-                        {
-                            CollectionUtils.nullSafeForEach( reference, identifiableObject -> {
-                                DataElementOperand dataElementOperand = (DataElementOperand) identifiableObject;
-                                addIdentifiers( map, dataElementOperand.getDataElement() );
-                                addIdentifiers( map, dataElementOperand.getCategoryOptionCombo() );
-                            } );
-                        }
+                    if ( DataElementOperand.class.isAssignableFrom( p.getItemKlass() ) )
+                    {
+                        CollectionUtils.nullSafeForEach( reference, identifiableObject -> {
+                            DataElementOperand dataElementOperand = (DataElementOperand) identifiableObject;
+                            addIdentifiers( map, dataElementOperand.getDataElement() );
+                            addIdentifiers( map, dataElementOperand.getCategoryOptionCombo() );
+                        } );
                     }
-                } );
+                }
+            } );
 
-                collectAnalyticalObjectReferences( map, object );
-            }
+            collectAnalyticalObjectReferences( map, object );
         }
 
-        cleanEmptyEntries( uidMap );
-        cleanEmptyEntries( codeMap );
-
         return map;
     }
 
@@ -707,11 +700,7 @@ public class DefaultPreheatService implements PreheatService
                 continue;
             }
 
-            List<Property> properties = schema.getProperties().stream()
-                .filter( p -> p.isPersisted() && p.isOwner()
-                    && (PropertyType.REFERENCE == p.getPropertyType()
-                        || PropertyType.REFERENCE == p.getItemPropertyType()) )
-                .collect( Collectors.toList() );
+            List<Property> properties = schema.getOwnerReferenceProperties();
 
             List<IdentifiableObject> identifiableObjects = (List<IdentifiableObject>) targets.get( objectClass );
             Map<String, Map<String, Object>> refMap = new HashMap<>();
@@ -866,13 +855,7 @@ public class DefaultPreheatService implements PreheatService
 
         Schema schema = schemaService.getDynamicSchema( HibernateProxyUtils.getRealClass( object ) );
 
-        List<Property> properties = schema.getProperties().stream()
-            .filter( p -> p.isPersisted() && p.isOwner()
-                && (PropertyType.REFERENCE == p.getPropertyType()
-                    || PropertyType.REFERENCE == p.getItemPropertyType()) )
-            .collect( Collectors.toList() );
-
-        for ( Property property : properties )
+        for ( Property property : schema.getOwnerReferenceProperties() )
         {
             if ( skipConnect( property.getKlass() ) || skipConnect( property.getItemKlass() ) )
             {
@@ -952,6 +935,33 @@ public class DefaultPreheatService implements PreheatService
         return ref;
     }
 
+    private Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> createReferenceMap()
+    {
+        Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> map = new HashMap<>();
+
+        map.put( PreheatIdentifier.UID, new HashMap<>() );
+        map.put( PreheatIdentifier.CODE, new HashMap<>() );
+
+        return map;
+    }
+
+    private void mergeReferences( Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> target,
+        Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> source )
+    {
+        source.forEach( ( identifier, classMap ) -> classMap.forEach( ( klass, identifiers ) -> target
+            .get( identifier ).computeIfAbsent( klass, k -> new HashSet<>() ).addAll( identifiers ) ) );
+    }
+
+    /**
+     * Indicates whether the given object is not attached to the session, so
+     * that it can be read from other threads.
+     */
+    private boolean isTransient( Object object )
+    {
+        return !(object instanceof HibernateProxy)
+            && !(object instanceof IdentifiableObject && ((IdentifiableObject) object).getId() != 0);
+    }
+
     private void cleanEmptyEntries( Map<Class<? extends IdentifiableObject>, Set<String>> map )
     {
         Set<Class<? extends IdentifiableObject>> classes = new HashSet<>( map.keySet() );
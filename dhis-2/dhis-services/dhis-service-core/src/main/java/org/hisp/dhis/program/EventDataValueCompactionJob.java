@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.program;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.commons.timer.SystemTimer;
+import org.hisp.dhis.commons.timer.Timer;
+import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.hibernate.jsonb.type.JsonEventDataValueSetBinaryType;
+import org.hisp.dhis.scheduling.AbstractJob;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.NotificationLevel;
+import org.hisp.dhis.system.notification.Notifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Rewrites the event data values of existing events into the compact encoding
+ * in batches. Only events with values not marked as compact are
+ * rewritten, so the job can be stopped and run again. An event is only
+ * updated if its data values have not changed since they were read.
+ *
+ * @see JsonEventDataValueSetBinaryType
+ */
+@Slf4j
+@Component( "eventDataValueCompactionJob" )
+public class EventDataValueCompactionJob
+    extends AbstractJob
+{
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_SQL = "select psi.programstageinstanceid, psi.eventdatavalues::text as json "
+        + "from programstageinstance psi "
+        + "where psi.programstageinstanceid > ? "
+        + "and exists (select 1 from jsonb_each(psi.eventdatavalues) dv "
+        + "where dv.value->'" + JsonEventDataValueSetBinaryType.VERSION_KEY + "' is null) "
+        + "order by psi.programstageinstanceid "
+        + "limit " + BATCH_SIZE;
+
+    private static final String UPDATE_SQL = "update programstageinstance set eventdatavalues = ?::jsonb "
+        + "where programstageinstanceid = ? and eventdatavalues = ?::jsonb";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Notifier notifier;
+
+    private final DhisConfigurationProvider dhisConfig;
+
+    private final JsonEventDataValueSetBinaryType eventDataValueType = new JsonEventDataValueSetBinaryType();
+
+    public EventDataValueCompactionJob( JdbcTemplate jdbcTemplate, Notifier notifier,
+        DhisConfigurationProvider dhisConfig )
+    {
+        checkNotNull( jdbcTemplate );
+        checkNotNull( notifier );
+        checkNotNull( dhisConfig );
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifier = notifier;
+        this.dhisConfig = dhisConfig;
+    }
+
+    @Override
+    public JobType getJobType()
+    {
+        return JobType.EVENT_DATA_VALUE_COMPACTION;
+    }
+
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public void execute( JobConfiguration jobConfiguration )
+    {
+        if ( !dhisConfig.isEnabled( ConfigurationKey.TRACKER_EVENT_DATA_VALUES_COMPACT ) )
+        {
+            notifier.notify( jobConfiguration, NotificationLevel.WARN,
+                "Compact event data value encoding is not enabled", true );
+            return;
+        }
+
+        Timer timer = new SystemTimer().start();
+
+        notifier.notify( jobConfiguration, NotificationLevel.INFO, "Compacting event data values", false );
+
+        long lastId = 0;
+        int updated = 0;
+        int rows;
+
+        do
+        {
+            SqlRowSet rowSet = jdbcTemplate.queryForRowSet( SELECT_SQL, lastId );
+            List<Object[]> batchArgs = new ArrayList<>();
+            rows = 0;
+
+            while ( rowSet.next() )
+            {
+                rows++;
+                lastId = rowSet.getLong( "programstageinstanceid" );
+                String json = rowSet.getString( "json" );
+
+                try
+                {
+                    Set<EventDataValue> eventDataValues = (Set<EventDataValue>) eventDataValueType
+                        .convertJsonToObject( json );
+
+                    batchArgs.add( new Object[] { JsonEventDataValueSetBinaryType.writeCompactJson( eventDataValues ),
+                        lastId, json } );
+                }
+                catch ( IllegalArgumentException | JsonProcessingException ex )
+                {
+                    log.warn( "Skipping event data values of event with id " + lastId + ": " + ex.getMessage() );
+                }
+            }
+
+            if ( !batchArgs.isEmpty() )
+            {
+                for ( int count : jdbcTemplate.batchUpdate( UPDATE_SQL, batchArgs ) )
+                {
+                    updated += Math.max( count, 0 );
+                }
+
+                notifier.notify( jobConfiguration, NotificationLevel.INFO, String.format(
+                    "Compacted event data values of %d events", updated ), false );
+            }
+        }
+        while ( rows == BATCH_SIZE );
+
+        timer.stop();
+
+        notifier.notify( jobConfiguration, NotificationLevel.INFO, String.format(
+            "Event data values of %d events compacted in %s", updated, timer.toString() ), true );
+    }
+}
@@ -310,18 +310,43 @@ public class HibernateProgramInstanceStore
     @Override
     public List<ProgramInstance> getWithScheduledNotifications( ProgramNotificationTemplate template,
         Date notificationDate )
+    {
+        Query<ProgramInstance> query = getScheduledNotificationsQuery( template, notificationDate, "" );
+
+        return query != null ? query.list() : Lists.newArrayList();
+    }
+
+    @Override
+    public List<ProgramInstance> getWithScheduledNotifications( ProgramNotificationTemplate template,
+        Date notificationDate, long afterId, int pageSize )
+    {
+        Query<ProgramInstance> query = getScheduledNotificationsQuery( template, notificationDate,
+            "and pi.id > :afterId order by pi.id" );
+
+        if ( query == null )
+        {
+            return Lists.newArrayList();
+        }
+
+        return query
+            .setParameter( "afterId", afterId )
+            .setMaxResults( pageSize ).list();
+    }
+
+    private Query<ProgramInstance> getScheduledNotificationsQuery( ProgramNotificationTemplate template,
+        Date notificationDate, String hqlSuffix )
     {
         if ( notificationDate == null
             || !SCHEDULED_PROGRAM_INSTANCE_TRIGGERS.contains( template.getNotificationTrigger() ) )
         {
-            return Lists.newArrayList();
+            return null;
         }
 
         String dateProperty = toDateProperty( template.getNotificationTrigger() );
 
         if ( dateProperty == null )
         {
-            return Lists.newArrayList();
+            return null;
         }
 
         Date targetDate = DateUtils.addDays( notificationDate, template.getRelativeScheduledDays() * -1 );
@@ -331,12 +356,12 @@ public class HibernateProgramInstanceStore
             "where :notificationTemplate in elements(p.notificationTemplates) " +
             "and pi." + dateProperty + " is not null " +
             "and pi.status = :activeEnrollmentStatus " +
-            "and cast(:targetDate as date) = pi." + dateProperty;
+            "and cast(:targetDate as date) = pi." + dateProperty + " " + hqlSuffix;
 
         return getQuery( hql )
             .setParameter( "notificationTemplate", template )
             .setParameter( "activeEnrollmentStatus", ProgramStatus.ACTIVE )
-            .setParameter( "targetDate", targetDate ).list();
+            .setParameter( "targetDate", targetDate );
     }
 
     @Override
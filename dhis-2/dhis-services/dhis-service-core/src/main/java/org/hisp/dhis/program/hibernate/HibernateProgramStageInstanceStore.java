@@ -206,16 +206,41 @@ public class HibernateProgramStageInstanceStore
     @Override
     public List<ProgramStageInstance> getWithScheduledNotifications( ProgramNotificationTemplate template,
         Date notificationDate )
+    {
+        Query<ProgramStageInstance> query = getScheduledNotificationsQuery( template, notificationDate, "" );
+
+        return query != null ? query.list() : Lists.newArrayList();
+    }
+
+    @Override
+    public List<ProgramStageInstance> getWithScheduledNotifications( ProgramNotificationTemplate template,
+        Date notificationDate, long afterId, int pageSize )
+    {
+        Query<ProgramStageInstance> query = getScheduledNotificationsQuery( template, notificationDate,
+            "and psi.id > :afterId order by psi.id" );
+
+        if ( query == null )
+        {
+            return Lists.newArrayList();
+        }
+
+        return query
+            .setParameter( "afterId", afterId )
+            .setMaxResults( pageSize ).list();
+    }
+
+    private Query<ProgramStageInstance> getScheduledNotificationsQuery( ProgramNotificationTemplate template,
+        Date notificationDate, String hqlSuffix )
     {
         if ( notificationDate == null
             || !SCHEDULED_PROGRAM_STAGE_INSTANCE_TRIGGERS.contains( template.getNotificationTrigger() ) )
         {
-            return Lists.newArrayList();
+            return null;
         }
 
         if ( template.getRelativeScheduledDays() == null )
         {
-            return Lists.newArrayList();
+            return null;
         }
 
         Date targetDate = DateUtils.addDays( notificationDate, template.getRelativeScheduledDays() * -1 );
@@ -227,12 +252,12 @@ public class HibernateProgramStageInstanceStore
             "and psi.executionDate is null " +
             "and psi.status != :skippedEventStatus " +
             "and cast(:targetDate as date) = psi.dueDate " +
-            "and psi.deleted is false";
+            "and psi.deleted is false " + hqlSuffix;
 
         return getQuery( hql )
             .setParameter( "notificationTemplate", template )
             .setParameter( "skippedEventStatus", EventStatus.SKIPPED )
-            .setParameter( "targetDate", targetDate ).list();
+            .setParameter( "targetDate", targetDate );
     }
 
     @Override
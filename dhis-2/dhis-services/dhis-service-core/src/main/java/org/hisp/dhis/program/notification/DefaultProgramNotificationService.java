@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -48,6 +49,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.lang.BooleanUtils;
 import org.hisp.dhis.common.DeliveryChannel;
+import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.eventdatavalue.EventDataValue;
 import org.hisp.dhis.message.MessageConversationParams;
@@ -72,6 +74,7 @@ import org.hisp.dhis.user.User;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -93,6 +96,12 @@ public class DefaultProgramNotificationService
             iwt.getProgramNotificationInstance().getScheduledAt() != null &&
             DateUtils.isToday( iwt.getProgramNotificationInstance().getScheduledAt() );
 
+    /**
+     * Number of enrollments or events for which messages are rendered and sent
+     * in one round when processing scheduled notifications.
+     */
+    private static final int SCHEDULED_NOTIFICATION_PAGE_SIZE = 1000;
+
     // -------------------------------------------------------------------------
     // Dependencies
     // -------------------------------------------------------------------------
@@ -124,27 +133,50 @@ public class DefaultProgramNotificationService
     @NonNull
     private final NotificationTemplateMapper notificationTemplateMapper;
 
+    @NonNull
+    private final ScheduledNotificationProgressStore scheduledNotificationProgressStore;
+
+    @NonNull
+    private final TransactionTemplate transactionTemplate;
+
+    private int scheduledNotificationPageSize = SCHEDULED_NOTIFICATION_PAGE_SIZE;
+
     // -------------------------------------------------------------------------
     // ProgramStageNotificationService implementation
     // -------------------------------------------------------------------------
 
-    @Transactional
+    /**
+     * Sends the scheduled messages of the day, one page of enrollments or
+     * events at a time. Each page is sent in its own transaction, together with
+     * the progress for the template and day, so that a run which is
+     * interrupted resumes after the pages already sent.
+     */
     @Override
     public void sendScheduledNotificationsForDay( Date notificationDate )
     {
         Clock clock = new Clock( log ).startClock()
             .logTime( "Processing ProgramStageNotification messages" );
 
-        List<ProgramNotificationTemplate> scheduledTemplates = getScheduledTemplates();
+        List<Long> scheduledTemplateIds = transactionTemplate.execute( status -> {
+            scheduledNotificationProgressStore.deleteBefore( notificationDate );
+
+            return getScheduledTemplates().stream()
+                .map( ProgramNotificationTemplate::getId )
+                .collect( Collectors.toList() );
+        } );
 
         int totalMessageCount = 0;
 
-        for ( ProgramNotificationTemplate template : scheduledTemplates )
+        for ( Long templateId : scheduledTemplateIds )
         {
-            MessageBatch batch = createScheduledMessageBatchForDay( template, notificationDate );
-            sendAll( batch );
-
-            totalMessageCount += batch.messageCount();
+            totalMessageCount += this.<ProgramStageInstance> sendScheduledMessagesForDay( templateId,
+                notificationDate, ScheduledNotificationProgressStore.PROGRAM_STAGE_INSTANCE,
+                programStageInstanceStore::getWithScheduledNotifications,
+                this::createProgramStageInstanceMessageBatch );
+            totalMessageCount += this.<ProgramInstance> sendScheduledMessagesForDay( templateId,
+                notificationDate, ScheduledNotificationProgressStore.PROGRAM_INSTANCE,
+                programInstanceStore::getWithScheduledNotifications,
+                this::createProgramInstanceMessageBatch );
         }
 
         clock.logTime( String.format( "Created and sent %d messages in %s", totalMessageCount, clock.time() ) );
@@ -294,21 +326,77 @@ public class DefaultProgramNotificationService
         sendAll( messageBatch );
     }
 
+    /**
+     * Sets the number of enrollments or events sent in one round when
+     * processing scheduled notifications.
+     *
+     * @param scheduledNotificationPageSize the page size.
+     */
+    void setScheduledNotificationPageSize( int scheduledNotificationPageSize )
+    {
+        this.scheduledNotificationPageSize = scheduledNotificationPageSize;
+    }
+
     // -------------------------------------------------------------------------
     // Supportive methods
     // -------------------------------------------------------------------------
 
-    private MessageBatch createScheduledMessageBatchForDay( ProgramNotificationTemplate template, Date day )
-    {
-        List<ProgramStageInstance> programStageInstances = programStageInstanceStore
-            .getWithScheduledNotifications( template, day );
+    /**
+     * Sends the scheduled messages of the given template for enrollments or
+     * events, one page at a time, starting after the last page sent for the
+     * template and day. Each page is read, sent and recorded as sent in its
+     * own transaction, so that the session holding the instances, tracked
+     * entity instances, attribute values and messages of a page is discarded
+     * before the next page is read.
+     *
+     * @param templateId the template identifier.
+     * @param day the notification day.
+     * @param progressColumn the progress column of the type of instance.
+     * @param pageReader reads a page of instances for a template, day, last
+     *        identifier and page size.
+     * @param batchCreator creates the messages for a template and page.
+     * @return the number of messages sent.
+     */
+    private <T extends IdentifiableObject> int sendScheduledMessagesForDay( long templateId, Date day,
+        String progressColumn, PageReader<T> pageReader,
+        BiFunction<ProgramNotificationTemplate, List<T>, MessageBatch> batchCreator )
+    {
+        int messageCount = 0;
+        long afterId = scheduledNotificationProgressStore.getLastId( templateId, day, progressColumn );
+
+        SentPage sentPage;
+
+        do
+        {
+            final long pageAfterId = afterId;
 
-        List<ProgramInstance> programInstances = programInstanceStore.getWithScheduledNotifications( template, day );
+            sentPage = transactionTemplate.execute( status -> {
+                ProgramNotificationTemplate template = identifiableObjectManager
+                    .get( ProgramNotificationTemplate.class, templateId );
 
-        MessageBatch psiBatch = createProgramStageInstanceMessageBatch( template, programStageInstances );
-        MessageBatch psBatch = createProgramInstanceMessageBatch( template, programInstances );
+                List<T> page = pageReader.read( template, day, pageAfterId, scheduledNotificationPageSize );
 
-        return new MessageBatch( psiBatch, psBatch );
+                if ( page.isEmpty() )
+                {
+                    return new SentPage( 0, 0, pageAfterId );
+                }
+
+                MessageBatch batch = batchCreator.apply( template, page );
+                sendAll( batch );
+
+                long lastId = page.get( page.size() - 1 ).getId();
+
+                scheduledNotificationProgressStore.saveLastId( templateId, day, progressColumn, lastId );
+
+                return new SentPage( page.size(), batch.messageCount(), lastId );
+            } );
+
+            messageCount += sentPage.getMessageCount();
+            afterId = sentPage.getLastId();
+        }
+        while ( sentPage.getSize() == scheduledNotificationPageSize );
+
+        return messageCount;
     }
 
     private List<ProgramNotificationTemplate> getScheduledTemplates()
@@ -652,6 +740,22 @@ public class DefaultProgramNotificationService
         }
     }
 
+    @Data
+    private static class SentPage
+    {
+        private final int size;
+
+        private final int messageCount;
+
+        private final long lastId;
+    }
+
+    @FunctionalInterface
+    private interface PageReader<T>
+    {
+        List<T> read( ProgramNotificationTemplate template, Date day, long afterId, int pageSize );
+    }
+
     @Data
     @Builder
     static class NotificationInstanceWithTemplate
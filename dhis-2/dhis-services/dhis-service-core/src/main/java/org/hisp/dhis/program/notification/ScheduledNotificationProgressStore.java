@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.program.notification;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.hisp.dhis.jdbc.StatementBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Stores the progress of sending scheduled program notifications, as the
+ * identifier of the last enrollment and event for which the messages of a
+ * template and day were sent, so that an interrupted run resumes after the
+ * pages already sent.
+ */
+@Repository( "org.hisp.dhis.program.notification.ScheduledNotificationProgressStore" )
+public class ScheduledNotificationProgressStore
+{
+    public static final String PROGRAM_INSTANCE = "programinstanceid";
+
+    public static final String PROGRAM_STAGE_INSTANCE = "programstageinstanceid";
+
+    private static final String TABLE = "programnotificationprogress";
+
+    private static final List<String> KEY_COLUMNS = ImmutableList.of( "programnotificationtemplateid",
+        "notificationdate" );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final StatementBuilder statementBuilder;
+
+    public ScheduledNotificationProgressStore( JdbcTemplate jdbcTemplate, StatementBuilder statementBuilder )
+    {
+        checkNotNull( jdbcTemplate );
+        checkNotNull( statementBuilder );
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.statementBuilder = statementBuilder;
+    }
+
+    /**
+     * Returns the identifier of the last instance for which messages of the
+     * given template and day were sent.
+     *
+     * @param templateId the template identifier.
+     * @param day the notification day.
+     * @param column {@link #PROGRAM_INSTANCE} or
+     *        {@link #PROGRAM_STAGE_INSTANCE}.
+     * @return the identifier, or 0 if no messages were sent.
+     */
+    public long getLastId( long templateId, Date day, String column )
+    {
+        final String sql = "select " + column + " from " + TABLE + " " +
+            "where programnotificationtemplateid = ? and notificationdate = ?";
+
+        List<Long> ids = jdbcTemplate.queryForList( sql, Long.class, templateId, getDay( day ) );
+
+        return ids.isEmpty() || ids.get( 0 ) == null ? 0 : ids.get( 0 );
+    }
+
+    /**
+     * Saves the identifier of the last instance for which messages of the
+     * given template and day were sent.
+     *
+     * @param templateId the template identifier.
+     * @param day the notification day.
+     * @param column {@link #PROGRAM_INSTANCE} or
+     *        {@link #PROGRAM_STAGE_INSTANCE}.
+     * @param lastId the identifier.
+     */
+    public void saveLastId( long templateId, Date day, String column, long lastId )
+    {
+        final String sql = statementBuilder.getUpsert( TABLE, KEY_COLUMNS, ImmutableList.of( column ) );
+
+        jdbcTemplate.update( sql, templateId, getDay( day ), lastId );
+    }
+
+    /**
+     * Removes the progress of days before the given day.
+     *
+     * @param day the notification day.
+     */
+    public void deleteBefore( Date day )
+    {
+        jdbcTemplate.update( "delete from " + TABLE + " where notificationdate < ?", getDay( day ) );
+    }
+
+    private Date getDay( Date date )
+    {
+        return DateUtils.truncate( date, Calendar.DATE );
+    }
+}
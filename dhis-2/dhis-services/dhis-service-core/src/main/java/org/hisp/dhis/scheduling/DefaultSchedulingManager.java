@@ -35,10 +35,10 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 
@@ -69,9 +69,9 @@ public class DefaultSchedulingManager
 {
     private static final int DEFAULT_INITIAL_DELAY_S = 10;
 
-    private Map<String, ScheduledFuture<?>> futures = new HashMap<>();
+    private final Map<String, ScheduledFuture<?>> futures = new ConcurrentHashMap<>();
 
-    private Map<String, ListenableFuture<?>> currentTasks = new HashMap<>();
+    private final Map<String, ListenableFuture<?>> currentTasks = new ConcurrentHashMap<>();
 
     // -------------------------------------------------------------------------
     // Dependencies
@@ -89,9 +89,12 @@ public class DefaultSchedulingManager
 
     private final ApplicationContext applicationContext;
 
+    private final JobConcurrencyLimiter jobConcurrencyLimiter;
+
     public DefaultSchedulingManager( JobConfigurationService jobConfigurationService, MessageService messageService,
         LeaderManager leaderManager, @Qualifier( "taskScheduler" ) TaskScheduler jobScheduler,
-        @Qualifier( "taskScheduler" ) AsyncListenableTaskExecutor jobExecutor, ApplicationContext applicationContext )
+        @Qualifier( "taskScheduler" ) AsyncListenableTaskExecutor jobExecutor, ApplicationContext applicationContext,
+        JobConcurrencyLimiter jobConcurrencyLimiter )
     {
         checkNotNull( jobConfigurationService );
         checkNotNull( messageService );
@@ -99,6 +102,7 @@ public class DefaultSchedulingManager
         checkNotNull( jobScheduler );
         checkNotNull( jobExecutor );
         checkNotNull( applicationContext );
+        checkNotNull( jobConcurrencyLimiter );
 
         this.jobConfigurationService = jobConfigurationService;
         this.messageService = messageService;
@@ -106,6 +110,7 @@ public class DefaultSchedulingManager
         this.jobScheduler = jobScheduler;
         this.jobExecutor = jobExecutor;
         this.applicationContext = applicationContext;
+        this.jobConcurrencyLimiter = jobConcurrencyLimiter;
     }
 
     @PostConstruct
@@ -138,6 +143,8 @@ public class DefaultSchedulingManager
     @Override
     public void jobConfigurationStarted( JobConfiguration jobConfiguration )
     {
+        jobConfiguration.setCancelled( false );
+
         if ( !jobConfiguration.isInMemoryJob() )
         {
             runningJobConfigurations.add( jobConfiguration );
@@ -182,19 +189,24 @@ public class DefaultSchedulingManager
 
                 ScheduledFuture<?> future = null;
 
+                Runnable job = jobConcurrencyLimiter.limit( jobConfiguration,
+                    () -> jobInstance.execute( jobConfiguration ),
+                    () -> internalExecuteJobConfiguration( jobConfiguration ) );
+
                 if ( jobConfiguration.getJobType().isCronSchedulingType() )
                 {
-                    future = jobScheduler.schedule( () -> jobInstance.execute( jobConfiguration ),
-                        new CronTrigger( jobConfiguration.getCronExpression() ) );
+                    future = jobScheduler.schedule( job, new CronTrigger( jobConfiguration.getCronExpression() ) );
                 }
                 else if ( jobConfiguration.getJobType().isFixedDelaySchedulingType() )
                 {
-                    future = jobScheduler.scheduleWithFixedDelay( () -> jobInstance.execute( jobConfiguration ),
-                        Instant.now().plusSeconds( DEFAULT_INITIAL_DELAY_S ),
+                    future = jobScheduler.scheduleWithFixedDelay( job, Instant.now().plusSeconds( DEFAULT_INITIAL_DELAY_S ),
                         Duration.of( jobConfiguration.getDelay(), ChronoUnit.SECONDS ) );
                 }
 
-                futures.put( jobConfiguration.getUid(), future );
+                if ( future != null )
+                {
+                    futures.put( jobConfiguration.getUid(), future );
+                }
 
                 log.info( String.format( "Scheduled job: %s", jobConfiguration ) );
             }
@@ -210,8 +222,9 @@ public class DefaultSchedulingManager
 
             if ( jobConfiguration.getUid() != null && !futures.containsKey( jobConfiguration.getUid() ) )
             {
-                ScheduledFuture<?> future = jobScheduler.schedule(
-                    () -> jobInstance.execute( jobConfiguration ), startTime );
+                ScheduledFuture<?> future = jobScheduler.schedule( jobConcurrencyLimiter.limit( jobConfiguration,
+                    () -> jobInstance.execute( jobConfiguration ),
+                    () -> internalExecuteJobConfiguration( jobConfiguration ) ), startTime );
 
                 futures.put( jobConfiguration.getUid(), future );
 
@@ -221,6 +234,25 @@ public class DefaultSchedulingManager
         }
     }
 
+    @Override
+    public boolean cancelJob( String uid )
+    {
+        boolean found = false;
+
+        for ( JobConfiguration jobConfiguration : runningJobConfigurations )
+        {
+            if ( uid.equals( jobConfiguration.getUid() ) )
+            {
+                jobConfiguration.setCancelled( true );
+                found = true;
+            }
+        }
+
+        log.info( String.format( "Requested cancellation of job with key: '%s', running: '%b'", uid, found ) );
+
+        return found;
+    }
+
     @Override
     public void stopJob( JobConfiguration jobConfiguration )
     {
@@ -236,7 +268,8 @@ public class DefaultSchedulingManager
     @Override
     public boolean executeJob( JobConfiguration jobConfiguration )
     {
-        if ( jobConfiguration != null && !isJobConfigurationRunning( jobConfiguration ) )
+        if ( jobConfiguration != null && !isJobConfigurationRunning( jobConfiguration )
+            && !jobConcurrencyLimiter.isQueued( jobConfiguration ) )
         {
             internalExecuteJobConfiguration( jobConfiguration );
             return true;
@@ -279,9 +312,17 @@ public class DefaultSchedulingManager
     {
         JobInstance jobInstance = new DefaultJobInstance( this, messageService, leaderManager );
 
-        ListenableFuture<?> future = jobExecutor.submitListenable( () -> jobInstance.execute( jobConfiguration ) );
+        ListenableFuture<?> future = jobExecutor.submitListenable( jobConcurrencyLimiter.limit( jobConfiguration,
+            () -> jobInstance.execute( jobConfiguration ),
+            () -> internalExecuteJobConfiguration( jobConfiguration ) ) );
 
-        currentTasks.put( jobConfiguration.getUid(), future );
+        if ( jobConfiguration.getUid() != null )
+        {
+            currentTasks.put( jobConfiguration.getUid(), future );
+
+            future.addCallback( result -> currentTasks.remove( jobConfiguration.getUid(), future ),
+                ex -> currentTasks.remove( jobConfiguration.getUid(), future ) );
+        }
 
         log.info( String.format( "Scheduler initiated execution of job: %s", jobConfiguration ) );
     }
@@ -320,6 +361,6 @@ public class DefaultSchedulingManager
 
     private boolean isJobInSystem( String jobKey )
     {
-        return futures.get( jobKey ) != null || currentTasks.get( jobKey ) != null;
+        return jobKey != null && ( futures.get( jobKey ) != null || currentTasks.get( jobKey ) != null );
     }
 }
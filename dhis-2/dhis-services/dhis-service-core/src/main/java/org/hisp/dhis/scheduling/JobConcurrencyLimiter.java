@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the number of concurrently running jobs. At most one run of each job
+ * configuration runs at a time, database heavy jobs of the same
+ * {@link JobType} share a configurable cap, and jobs of the same
+ * {@link JobResourceClass} share a configurable cap. Permits are never waited for on the calling
+ * thread. A run which cannot obtain its permits is queued, and is resubmitted
+ * when a running job releases its permits. A run of a job configuration which
+ * is already queued is coalesced into the queued run.
+ */
+@Slf4j
+@Component
+public class JobConcurrencyLimiter
+{
+    private final Map<JobResourceClass, Semaphore> resourceClassPermits = new EnumMap<>( JobResourceClass.class );
+
+    /**
+     * Permits of job types which are limited independently of their job
+     * configurations, which are the database heavy job types.
+     */
+    private final Map<JobType, Semaphore> jobTypePermits = new EnumMap<>( JobType.class );
+
+    /**
+     * Identifiers of running job configurations.
+     */
+    private final Set<String> runningJobs = new HashSet<>();
+
+    /**
+     * Resubmission tasks of queued runs by job configuration identifier, in
+     * order of arrival.
+     */
+    private final Map<String, QueuedRun> queuedJobs = new LinkedHashMap<>();
+
+    public JobConcurrencyLimiter( DhisConfigurationProvider config )
+    {
+        checkNotNull( config );
+
+        resourceClassPermits.put( JobResourceClass.DB_HEAVY,
+            getPermits( config, ConfigurationKey.SCHEDULING_DB_HEAVY_MAX_JOBS ) );
+        resourceClassPermits.put( JobResourceClass.CPU_HEAVY,
+            getPermits( config, ConfigurationKey.SCHEDULING_CPU_HEAVY_MAX_JOBS ) );
+        resourceClassPermits.put( JobResourceClass.IO_BOUND,
+            getPermits( config, ConfigurationKey.SCHEDULING_IO_BOUND_MAX_JOBS ) );
+
+        for ( JobType jobType : JobType.values() )
+        {
+            if ( jobType.getResourceClass() == JobResourceClass.DB_HEAVY )
+            {
+                jobTypePermits.put( jobType,
+                    getPermits( config, ConfigurationKey.SCHEDULING_DB_HEAVY_MAX_JOBS_PER_TYPE ) );
+            }
+        }
+    }
+
+    /**
+     * Wraps the given job runnable so that its execution honours the
+     * concurrency caps of the given job configuration, its job type and its
+     * resource class.
+     * If the permits are not available, the run is queued and the given
+     * resubmit task is invoked once permits are released, which is expected
+     * to submit a new run of the job configuration for execution. In-memory
+     * jobs are not limited.
+     *
+     * @param jobConfiguration the job configuration.
+     * @param job the runnable executing the job.
+     * @param resubmit the task submitting a new run of the job configuration.
+     * @return a limited runnable.
+     */
+    public Runnable limit( JobConfiguration jobConfiguration, Runnable job, Runnable resubmit )
+    {
+        if ( jobConfiguration.isInMemoryJob() || jobConfiguration.getUid() == null )
+        {
+            return job;
+        }
+
+        return () -> {
+            if ( !acquireOrQueue( jobConfiguration, resubmit ) )
+            {
+                return;
+            }
+
+            try
+            {
+                job.run();
+            }
+            finally
+            {
+                release( jobConfiguration );
+            }
+        };
+    }
+
+    /**
+     * Indicates whether a run of the given job configuration is waiting for a
+     * permit.
+     *
+     * @param jobConfiguration the job configuration.
+     * @return true if a run is queued.
+     */
+    public synchronized boolean isQueued( JobConfiguration jobConfiguration )
+    {
+        return jobConfiguration.getUid() != null && queuedJobs.containsKey( jobConfiguration.getUid() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Acquires the permits of the given job configuration, or queues the run
+     * if the permits are not available.
+     *
+     * @return true if the permits were acquired.
+     */
+    private synchronized boolean acquireOrQueue( JobConfiguration jobConfiguration, Runnable resubmit )
+    {
+        if ( tryAcquire( jobConfiguration ) )
+        {
+            queuedJobs.remove( jobConfiguration.getUid() );
+            return true;
+        }
+
+        if ( queuedJobs.containsKey( jobConfiguration.getUid() ) )
+        {
+            log.info( String.format( "Job already queued, coalesced run of job: %s", jobConfiguration ) );
+        }
+        else
+        {
+            log.info( String.format( "Job permits not available, queued run of job: %s", jobConfiguration ) );
+
+            queuedJobs.put( jobConfiguration.getUid(), new QueuedRun( jobConfiguration, resubmit ) );
+        }
+
+        return false;
+    }
+
+    private boolean tryAcquire( JobConfiguration jobConfiguration )
+    {
+        if ( runningJobs.contains( jobConfiguration.getUid() ) )
+        {
+            return false;
+        }
+
+        Semaphore typePermit = jobTypePermits.get( jobConfiguration.getJobType() );
+
+        if ( typePermit != null && !typePermit.tryAcquire() )
+        {
+            return false;
+        }
+
+        Semaphore classPermit = resourceClassPermits.get( jobConfiguration.getJobType().getResourceClass() );
+
+        if ( classPermit != null && !classPermit.tryAcquire() )
+        {
+            if ( typePermit != null )
+            {
+                typePermit.release();
+            }
+
+            return false;
+        }
+
+        runningJobs.add( jobConfiguration.getUid() );
+
+        return true;
+    }
+
+    /**
+     * Releases the permits of the given job configuration and resubmits the
+     * queued runs which can obtain their permits. Resubmitted runs acquire
+     * their permits when they start, and are queued again if other runs were
+     * faster.
+     */
+    private void release( JobConfiguration jobConfiguration )
+    {
+        List<Runnable> resubmits = new ArrayList<>();
+
+        synchronized ( this )
+        {
+            runningJobs.remove( jobConfiguration.getUid() );
+
+            Semaphore typePermit = jobTypePermits.get( jobConfiguration.getJobType() );
+
+            if ( typePermit != null )
+            {
+                typePermit.release();
+            }
+
+            Semaphore classPermit = resourceClassPermits.get( jobConfiguration.getJobType().getResourceClass() );
+
+            if ( classPermit != null )
+            {
+                classPermit.release();
+            }
+
+            Map<JobResourceClass, Integer> availablePermits = new EnumMap<>( JobResourceClass.class );
+            resourceClassPermits.forEach( ( type, permit ) -> availablePermits.put( type, permit.availablePermits() ) );
+
+            Map<JobType, Integer> availableTypePermits = new EnumMap<>( JobType.class );
+            jobTypePermits.forEach( ( type, permit ) -> availableTypePermits.put( type, permit.availablePermits() ) );
+
+            Iterator<QueuedRun> queuedRuns = queuedJobs.values().iterator();
+
+            while ( queuedRuns.hasNext() )
+            {
+                QueuedRun run = queuedRuns.next();
+                JobType jobType = run.jobConfiguration.getJobType();
+                Integer available = availablePermits.get( jobType.getResourceClass() );
+                Integer availableForType = availableTypePermits.get( jobType );
+
+                if ( !runningJobs.contains( run.jobConfiguration.getUid() ) && (available == null || available > 0)
+                    && (availableForType == null || availableForType > 0) )
+                {
+                    queuedRuns.remove();
+                    resubmits.add( run.resubmit );
+
+                    if ( available != null )
+                    {
+                        availablePermits.put( jobType.getResourceClass(), available - 1 );
+                    }
+
+                    if ( availableForType != null )
+                    {
+                        availableTypePermits.put( jobType, availableForType - 1 );
+                    }
+                }
+            }
+        }
+
+        for ( Runnable resubmit : resubmits )
+        {
+            try
+            {
+                resubmit.run();
+            }
+            catch ( RuntimeException ex )
+            {
+                log.error( "Failed to resubmit queued job", ex );
+            }
+        }
+    }
+
+    private static Semaphore getPermits( DhisConfigurationProvider config, ConfigurationKey key )
+    {
+        return new Semaphore( Math.max( 1, Integer.parseInt( config.getProperty( key ) ) ) );
+    }
+
+    private static class QueuedRun
+    {
+        private final JobConfiguration jobConfiguration;
+
+        private final Runnable resubmit;
+
+        private QueuedRun( JobConfiguration jobConfiguration, Runnable resubmit )
+        {
+            this.jobConfiguration = jobConfiguration;
+            this.resubmit = resubmit;
+        }
+    }
+}
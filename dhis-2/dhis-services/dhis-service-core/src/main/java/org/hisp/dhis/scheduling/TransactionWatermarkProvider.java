@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Date;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provides the watermark of incremental jobs, meaning the time up to which
+ * changes are known to be seen by a run. Rows written by transactions which
+ * are open when a run starts commit later with an earlier last updated time,
+ * so the watermark is the start of the oldest open transaction rather than
+ * the start of the run.
+ */
+@Component
+public class TransactionWatermarkProvider
+{
+    /**
+     * Margin subtracted from a watermark, to cover differences between the
+     * clocks of the servers writing to the database.
+     */
+    public static final int CLOCK_SKEW_MARGIN_MINUTES = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionWatermarkProvider( JdbcTemplate jdbcTemplate )
+    {
+        checkNotNull( jdbcTemplate );
+
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the start time of the oldest open transaction in the database,
+     * which includes the current transaction, capped at the current time.
+     */
+    public Date getWatermark()
+    {
+        final String sql = "select min(xact_start) from pg_stat_activity " +
+            "where datname = current_database() and xact_start is not null";
+
+        final Date oldestTransactionStart = jdbcTemplate.queryForObject( sql, Date.class );
+        final Date now = new Date();
+
+        return oldestTransactionStart != null && oldestTransactionStart.before( now ) ? oldestTransactionStart : now;
+    }
+
+    /**
+     * Returns the watermark to store for a run of an incremental job, which
+     * is the start of the oldest open transaction minus the clock skew margin,
+     * capped at the start of the run.
+     *
+     * @param runStart the start time of the run.
+     */
+    public Date getWatermark( Date runStart )
+    {
+        final Date watermark = DateUtils.addMinutes( getWatermark(), -CLOCK_SKEW_MARGIN_MINUTES );
+
+        return watermark.before( runStart ) ? watermark : runStart;
+    }
+}
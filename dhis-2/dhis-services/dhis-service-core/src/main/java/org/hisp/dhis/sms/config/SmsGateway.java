@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.sms.config;
 
+import java.net.ConnectException;
 import java.util.Base64;
 import java.util.List;
 import java.util.Set;
@@ -47,6 +48,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.google.common.collect.ImmutableMap;
@@ -82,6 +84,7 @@ public abstract class SmsGateway
         .put( HttpStatus.NOT_FOUND, GatewayResponse.RESULT_CODE_404 )
         .put( HttpStatus.METHOD_NOT_ALLOWED, GatewayResponse.RESULT_CODE_405 )
         .put( HttpStatus.GONE, GatewayResponse.RESULT_CODE_410 )
+        .put( HttpStatus.TOO_MANY_REQUESTS, GatewayResponse.RESULT_CODE_429 )
         .put( HttpStatus.SERVICE_UNAVAILABLE, GatewayResponse.RESULT_CODE_503 )
         .put( HttpStatus.FORBIDDEN, GatewayResponse.RESULT_CODE_403 )
         .put( HttpStatus.INTERNAL_SERVER_ERROR, GatewayResponse.RESULT_CODE_504 ).build();
@@ -132,6 +135,13 @@ public abstract class SmsGateway
 
             statusCode = ex.getStatusCode();
         }
+        catch ( ResourceAccessException ex )
+        {
+            log.error( "Connection error", ex );
+
+            statusCode = ex.getCause() instanceof ConnectException ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.INTERNAL_SERVER_ERROR;
+        }
         catch ( Exception ex )
         {
             log.error( "Error", ex );
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.outboundmessage.OutboundMessage;
+import org.hisp.dhis.outboundmessage.OutboundMessageBatch;
+import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
+import org.hisp.dhis.sms.outbound.GatewayResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Sends messages through SMS gateways. Sending is throttled per gateway
+ * according to {@link SmsGatewayConfig#getMaxMessagesPerSecond()}.
+ * Asynchronous sending is done by a bounded pool of worker threads so that
+ * slow gateways do not block the calling thread. When the queue of the pool is
+ * full, tasks are rejected and their futures fail, so that the calling thread
+ * never waits for the rate limit or backoff of a gateway. Messages sent
+ * asynchronously which are rejected with a temporary error, meaning that the
+ * gateway refused the connection, is unavailable or rate limits, are retried
+ * with exponential backoff. Synchronous sends are attempted once, so that
+ * callers never wait for a backoff period.
+ *
+ * @see SmsMessageSender
+ */
+@Slf4j
+@Component( "org.hisp.dhis.sms.config.SmsGatewayDispatcher" )
+public class SmsGatewayDispatcher
+{
+    private static final int WORKER_THREADS = 4;
+
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 1000;
+
+    private static final Set<GatewayResponse> RETRYABLE_RESPONSES = ImmutableSet.of(
+        GatewayResponse.SERVICE_NOT_AVAILABLE, GatewayResponse.RESULT_CODE_429, GatewayResponse.RESULT_CODE_503 );
+
+    /**
+     * Whether the current thread runs a task submitted to the pool, and may
+     * therefore wait between attempts.
+     */
+    private static final ThreadLocal<Boolean> ASYNC = ThreadLocal.withInitial( () -> false );
+
+    private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    public SmsGatewayDispatcher()
+    {
+        this( DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS );
+    }
+
+    /**
+     * @param maxAttempts the maximum number of attempts for sending a message.
+     * @param initialBackoffMillis the wait before the second attempt, doubled
+     *        for each subsequent attempt.
+     */
+    public SmsGatewayDispatcher( int maxAttempts, long initialBackoffMillis )
+    {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.executor = new ThreadPoolExecutor( WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>( QUEUE_CAPACITY ), new ThreadFactoryBuilder()
+                .setNameFormat( "DHIS2-SMS-%d" ).setDaemon( true ).build() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Sending
+    // -------------------------------------------------------------------------
+
+    /**
+     * Sends a message through the given gateway, waiting for the rate limit of
+     * the gateway. Retries on temporary errors when run by the pool.
+     */
+    public OutboundMessageResponse send( SmsGateway gateway, String subject, String text, Set<String> recipients,
+        SmsGatewayConfig config )
+    {
+        OutboundMessageResponse response = null;
+
+        int attempts = getMaxAttempts();
+
+        for ( int attempt = 1; attempt <= attempts; attempt++ )
+        {
+            acquire( config, 1 );
+
+            response = gateway.send( subject, text, recipients, config );
+
+            if ( !isRetryable( response ) || attempt == attempts || !backoff( attempt ) )
+            {
+                break;
+            }
+        }
+
+        return response;
+    }
+
+    /**
+     * Sends a batch through the given gateway, waiting for the rate limit of
+     * the gateway. When run by the pool, messages which fail with a temporary
+     * error are resent together after a backoff period.
+     *
+     * @return the responses, in the order of the messages of the batch.
+     */
+    public List<OutboundMessageResponse> sendBatch( SmsGateway gateway, OutboundMessageBatch batch,
+        SmsGatewayConfig config )
+    {
+        List<OutboundMessage> messages = batch.getMessages();
+
+        acquire( config, messages.size() );
+
+        List<OutboundMessageResponse> responses = new ArrayList<>( gateway.sendBatch( batch, config ) );
+
+        if ( responses.size() != messages.size() )
+        {
+            return responses;
+        }
+
+        int attempts = getMaxAttempts();
+
+        for ( int attempt = 1; attempt < attempts; attempt++ )
+        {
+            List<Integer> retries = new ArrayList<>();
+
+            for ( int i = 0; i < responses.size(); i++ )
+            {
+                if ( isRetryable( responses.get( i ) ) )
+                {
+                    retries.add( i );
+                }
+            }
+
+            if ( retries.isEmpty() || !backoff( attempt ) )
+            {
+                break;
+            }
+
+            log.info( String.format( "Retrying %d of %d messages, attempt %d", retries.size(), messages.size(),
+                attempt + 1 ) );
+
+            for ( Integer i : retries )
+            {
+                OutboundMessage message = messages.get( i );
+
+                acquire( config, 1 );
+
+                responses.set( i, gateway.send( message.getSubject(), message.getText(), message.getRecipients(),
+                    config ) );
+            }
+        }
+
+        return responses;
+    }
+
+    /**
+     * Runs the given task on the pool of sending threads. If the queue of the
+     * pool is full, the task is not run and the returned future fails with a
+     * {@link RejectedExecutionException}.
+     */
+    public <T> ListenableFuture<T> submit( Callable<T> task )
+    {
+        ListenableFutureTask<T> future = new ListenableFutureTask<>( () -> {
+            boolean async = ASYNC.get();
+
+            ASYNC.set( true );
+
+            try
+            {
+                return task.call();
+            }
+            finally
+            {
+                ASYNC.set( async );
+            }
+        } );
+
+        try
+        {
+            executor.execute( future );
+        }
+        catch ( RejectedExecutionException ex )
+        {
+            log.warn( String.format( "SMS sending pool is saturated, rejected task, queued tasks: %d",
+                executor.getQueue().size() ) );
+
+            SettableListenableFuture<T> rejected = new SettableListenableFuture<>();
+            rejected.setException( ex );
+
+            return rejected;
+        }
+
+        return future;
+    }
+
+    /**
+     * Stops accepting tasks and waits for the queued messages to be sent.
+     */
+    @PreDestroy
+    public void shutdown()
+    {
+        log.info( String.format( "Shutting down SMS sending pool, queued tasks: %d", executor.getQueue().size() ) );
+
+        executor.shutdown();
+
+        try
+        {
+            if ( !executor.awaitTermination( SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS ) )
+            {
+                List<Runnable> dropped = executor.shutdownNow();
+
+                log.warn( String.format( "SMS sending pool did not finish in time, dropped tasks: %d",
+                    dropped.size() ) );
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            executor.shutdownNow();
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void acquire( SmsGatewayConfig config, int permits )
+    {
+        int maxMessagesPerSecond = config.getMaxMessagesPerSecond();
+
+        if ( maxMessagesPerSecond <= 0 || permits <= 0 )
+        {
+            return;
+        }
+
+        RateLimiter rateLimiter = rateLimiters.computeIfAbsent( config.getUid(),
+            uid -> RateLimiter.create( maxMessagesPerSecond ) );
+
+        if ( rateLimiter.getRate() != maxMessagesPerSecond )
+        {
+            rateLimiter.setRate( maxMessagesPerSecond );
+        }
+
+        rateLimiter.acquire( permits );
+    }
+
+    private int getMaxAttempts()
+    {
+        return ASYNC.get() ? maxAttempts : 1;
+    }
+
+    private boolean isRetryable( OutboundMessageResponse response )
+    {
+        return response != null && !response.isOk()
+            && RETRYABLE_RESPONSES.contains( response.getResponseObject() );
+    }
+
+    /**
+     * Sleeps before the next attempt, doubling the period for each attempt.
+     *
+     * @return false if interrupted while sleeping.
+     */
+    private boolean backoff( int attempt )
+    {
+        try
+        {
+            Thread.sleep( initialBackoffMillis << (attempt - 1) );
+
+            return true;
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+    }
+}
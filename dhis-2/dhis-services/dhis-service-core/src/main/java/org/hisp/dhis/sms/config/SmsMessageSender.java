@@ -90,20 +90,25 @@ public class SmsMessageSender
 
     private OutboundSmsService outboundSmsService;
 
+    private SmsGatewayDispatcher gatewayDispatcher;
+
     public SmsMessageSender( GatewayAdministrationService gatewayAdminService, List<SmsGateway> smsGateways,
-        UserSettingService userSettingService, OutboundSmsService outboundSmsService )
+        UserSettingService userSettingService, OutboundSmsService outboundSmsService,
+        SmsGatewayDispatcher gatewayDispatcher )
     {
 
         Preconditions.checkNotNull( gatewayAdminService );
         Preconditions.checkNotNull( smsGateways );
         Preconditions.checkNotNull( outboundSmsService );
         Preconditions.checkNotNull( userSettingService );
+        Preconditions.checkNotNull( gatewayDispatcher );
         Preconditions.checkState( !smsGateways.isEmpty() );
 
         this.gatewayAdminService = gatewayAdminService;
         this.smsGateways = smsGateways;
         this.userSettingService = userSettingService;
         this.outboundSmsService = outboundSmsService;
+        this.gatewayDispatcher = gatewayDispatcher;
     }
 
     // -------------------------------------------------------------------------
@@ -206,7 +211,8 @@ public class SmsMessageSender
         {
             if ( smsGateway.accept( defaultGateway ) )
             {
-                List<OutboundMessageResponse> responses = smsGateway.sendBatch( batch, defaultGateway );
+                List<OutboundMessageResponse> responses = gatewayDispatcher.sendBatch( smsGateway, batch,
+                    defaultGateway );
 
                 return generateSummary( responses, batch );
             }
@@ -219,8 +225,7 @@ public class SmsMessageSender
     @Override
     public ListenableFuture<OutboundMessageResponseSummary> sendMessageBatchAsync( OutboundMessageBatch batch )
     {
-        OutboundMessageResponseSummary summary = sendMessageBatch( batch );
-        return new AsyncResult<>( summary );
+        return gatewayDispatcher.submit( () -> sendMessageBatch( batch ) );
     }
 
     @Override
@@ -262,7 +267,7 @@ public class SmsMessageSender
                 {
                     log.info( "Sending SMS to " + to );
 
-                    status = smsGateway.send( subject, text, new HashSet<>( to ), gatewayConfig );
+                    status = gatewayDispatcher.send( smsGateway, subject, text, new HashSet<>( to ), gatewayConfig );
 
                     handleResponse( status, outboundSms );
                 }
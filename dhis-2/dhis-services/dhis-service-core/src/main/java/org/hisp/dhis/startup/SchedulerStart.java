@@ -89,6 +89,10 @@ public class SchedulerStart extends AbstractStartupRoutine
 
     private final String DEFAULT_REMOVE_EXPIRED_RESERVED_VALUES = "Remove expired reserved values";
 
+    private final String DEFAULT_DATA_APPROVAL_SUMMARY_UID = "nW5rA9dZqE3";
+
+    private final String DEFAULT_DATA_APPROVAL_SUMMARY = "Data approval summary reconciliation";
+
     private final String DEFAULT_LEADER_ELECTION_UID = "MoUd5BTQ3lY";
 
     private final String DEFAULT_LEADER_ELECTION = "Leader election in cluster";
@@ -228,6 +232,15 @@ public class SchedulerStart extends AbstractStartupRoutine
             addAndScheduleJob( removeExpiredReservedValues );
         }
 
+        if ( verifyNoJobExist( DEFAULT_DATA_APPROVAL_SUMMARY, jobConfigurations ) )
+        {
+            JobConfiguration dataApprovalSummary = new JobConfiguration( DEFAULT_DATA_APPROVAL_SUMMARY,
+                DATA_APPROVAL_SUMMARY, CRON_HOURLY, null );
+            dataApprovalSummary.setLeaderOnlyJob( true );
+            dataApprovalSummary.setUid( DEFAULT_DATA_APPROVAL_SUMMARY_UID );
+            addAndScheduleJob( dataApprovalSummary );
+        }
+
         if ( verifyNoJobExist( DEFAULT_LEADER_ELECTION, jobConfigurations ) && "true".equalsIgnoreCase( redisEnabled ) )
         {
             JobConfiguration leaderElectionJobConfiguration = new JobConfiguration( DEFAULT_LEADER_ELECTION,
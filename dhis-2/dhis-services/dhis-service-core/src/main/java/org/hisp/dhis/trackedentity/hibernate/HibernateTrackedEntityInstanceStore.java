@@ -666,7 +666,8 @@ public class HibernateTrackedEntityInstanceStore
                 {
                     final String col = statementBuilder.columnQuote( item.getItemId() );
 
-                    sql += col + ".value " + regexp + " '" + start + StringUtils.lowerCase( query ) + end + "' or ";
+                    sql += "lower(" + col + ".value) " + regexp + " '" + start + StringUtils.lowerCase( query ) + end
+                        + "' or ";
                 }
 
                 sql = removeLastOr( sql ) + ") and ";
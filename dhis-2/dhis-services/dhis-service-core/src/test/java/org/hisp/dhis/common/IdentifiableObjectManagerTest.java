@@ -146,6 +146,24 @@ public class IdentifiableObjectManagerTest
         assertEquals( dataElementB, identifiableObjectManager.get( classes, dataElementB.getUid() ) );
     }
 
+    @Test
+    public void testGetVersion()
+    {
+        String emptyVersion = identifiableObjectManager.getVersion( DataElement.class );
+
+        DataElement dataElementA = createDataElement( 'A' );
+        dataElementService.addDataElement( dataElementA );
+
+        String version = identifiableObjectManager.getVersion( DataElement.class );
+
+        assertNotNull( version );
+        assertFalse( version.equals( emptyVersion ) );
+
+        dataElementService.deleteDataElement( dataElementA );
+
+        assertEquals( emptyVersion, identifiableObjectManager.getVersion( DataElement.class ) );
+    }
+
     @Test
     public void publicAccessSetIfNoUser()
     {
@@ -740,6 +740,44 @@ public class DataApprovalServiceTest
         assertNull( level );
     }
 
+    @Test
+    public void testGetDataApprovalStatusAfterLevelsRenumbered()
+    {
+        createUserAndInjectSecurityContext( singleton( organisationUnitA ), false,
+            DataApproval.AUTH_APPROVE, DataApproval.AUTH_APPROVE_LOWER_LEVELS );
+
+        Date date = new Date();
+        DataApproval dataApprovalB = new DataApproval( level2, workflow12A, periodA, organisationUnitB,
+            defaultOptionCombo, NOT_ACCEPTED, date, userA );
+
+        dataApprovalService.approveData( newArrayList( dataApprovalB ) );
+
+        assertEquals( 2, level2.getLevel() );
+
+        CategoryOptionGroupSet groupSet = new CategoryOptionGroupSet( "GroupSetRenumber" );
+        categoryService.saveCategoryOptionGroupSet( groupSet );
+
+        DataApprovalLevel level1GroupSet = new DataApprovalLevel( "level1GroupSet", 1, groupSet );
+        dataApprovalLevelService.addDataApprovalLevel( level1GroupSet );
+
+        assertEquals( 2, level1GroupSet.getLevel() );
+        assertEquals( 3, level2.getLevel() );
+
+        DataApprovalStatus status = dataApprovalService.getDataApprovalStatus( workflow12A, periodA,
+            organisationUnitB, defaultOptionCombo );
+        assertEquals( DataApprovalState.APPROVED_HERE, status.getState() );
+        assertEquals( level2.getName(), status.getApprovedLevel().getName() );
+
+        dataApprovalLevelService.deleteDataApprovalLevel( level1GroupSet );
+
+        assertEquals( 2, level2.getLevel() );
+
+        status = dataApprovalService.getDataApprovalStatus( workflow12A, periodA, organisationUnitB,
+            defaultOptionCombo );
+        assertEquals( DataApprovalState.APPROVED_HERE, status.getState() );
+        assertEquals( level2.getName(), status.getApprovedLevel().getName() );
+    }
+
     @Test
     public void testDeleteDataApproval()
     {
@@ -259,4 +259,54 @@ public class DataApprovalStoreTest
         dataApprovalB = dataApprovalStore.getDataApproval( level2, workflowB12, periodB, sourceB, categoryOptionCombo );
         assertNull( dataApprovalB );
     }
+
+    // -------------------------------------------------------------------------
+    // DataApprovalSummary
+    // -------------------------------------------------------------------------
+
+    @Test
+    public void testDataApprovalSummary()
+    {
+        Date date = new Date();
+        DataApproval dataApprovalA = new DataApproval( level1, workflowA12, periodA, sourceA, categoryOptionCombo,
+            false, date, userA );
+        DataApproval dataApprovalB = new DataApproval( level2, workflowA12, periodA, sourceB, categoryOptionCombo,
+            false, date, userA );
+
+        dataApprovalStore.addDataApproval( dataApprovalB );
+
+        DataApprovalSummary summaryB = dataApprovalStore.getDataApprovalSummary( workflowA12, periodA, sourceB,
+            categoryOptionCombo );
+        assertNotNull( summaryB );
+        assertEquals( level2.getId(), summaryB.getDataApprovalLevelId().longValue() );
+        assertFalse( summaryB.getAccepted() );
+
+        DataApprovalSummary summaryA = dataApprovalStore.getDataApprovalSummary( workflowA12, periodA, sourceA,
+            categoryOptionCombo );
+        assertNotNull( summaryA );
+        assertFalse( summaryA.isApproved() );
+        assertTrue( summaryA.getReadyBelow() );
+
+        dataApprovalB.setAccepted( true );
+        dataApprovalStore.updateDataApproval( dataApprovalB );
+        dataApprovalStore.addDataApproval( dataApprovalA );
+
+        summaryB = dataApprovalStore.getDataApprovalSummary( workflowA12, periodA, sourceB, categoryOptionCombo );
+        assertTrue( summaryB.getAccepted() );
+
+        summaryA = dataApprovalStore.getDataApprovalSummary( workflowA12, periodA, sourceA, categoryOptionCombo );
+        assertEquals( level1.getId(), summaryA.getDataApprovalLevelId().longValue() );
+
+        dataApprovalStore.deleteDataApproval( dataApprovalA );
+        dataApprovalStore.deleteDataApproval( dataApprovalB );
+
+        summaryB = dataApprovalStore.getDataApprovalSummary( workflowA12, periodA, sourceB, categoryOptionCombo );
+        assertFalse( summaryB.isApproved() );
+
+        assertNull( dataApprovalStore.getDataApprovalSummary( workflowA12, periodB, sourceB, categoryOptionCombo ) );
+
+        dataApprovalStore.reconcileDataApprovalReadiness();
+
+        assertNull( dataApprovalStore.getDataApprovalSummary( workflowA12, periodA, sourceB, categoryOptionCombo ) );
+    }
 }
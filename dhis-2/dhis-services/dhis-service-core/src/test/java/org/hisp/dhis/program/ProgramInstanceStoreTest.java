@@ -304,6 +304,15 @@ public class ProgramInstanceStoreTest
 
         results = programInstanceStore.getWithScheduledNotifications( a3, yesterday );
         assertEquals( 0, results.size() );
+
+        // Paged
+
+        results = programInstanceStore.getWithScheduledNotifications( a1, today, 0, 10 );
+        assertEquals( 1, results.size() );
+        assertEquals( enrollmentA, results.get( 0 ) );
+
+        results = programInstanceStore.getWithScheduledNotifications( a1, today, enrollmentA.getId(), 10 );
+        assertEquals( 0, results.size() );
     }
 
     @Test
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.program.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.message.MessageConversationParams;
+import org.hisp.dhis.message.MessageService;
+import org.hisp.dhis.notification.NotificationMessage;
+import org.hisp.dhis.notification.NotificationMessageRenderer;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.program.ProgramInstance;
+import org.hisp.dhis.program.ProgramInstanceStore;
+import org.hisp.dhis.program.ProgramStageInstance;
+import org.hisp.dhis.program.ProgramStageInstanceStore;
+import org.hisp.dhis.program.message.ProgramMessageService;
+import org.hisp.dhis.program.notification.template.snapshot.NotificationTemplateMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests sending scheduled notifications page by page with real transactions
+ * and progress, where the message services and instance stores are mocked.
+ */
+@SuppressWarnings( "unchecked" )
+public class ProgramNotificationServiceIntegrationTest
+    extends IntegrationTestBase
+{
+    private static final int PAGE_SIZE = 2;
+
+    private static final long EVENT_COUNT = 5;
+
+    @Autowired
+    private IdentifiableObjectManager manager;
+
+    @Autowired
+    private ProgramNotificationTemplateService notificationTemplateService;
+
+    @Autowired
+    private ScheduledNotificationProgressStore scheduledNotificationProgressStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MessageService messageService;
+
+    private DefaultProgramNotificationService programNotificationService;
+
+    private ProgramNotificationTemplate template;
+
+    private final List<String> sentMessages = new ArrayList<>();
+
+    private String failingMessage;
+
+    @Before
+    public void init()
+    {
+        template = createProgramNotificationTemplate( "Scheduled", 0, NotificationTrigger.SCHEDULED_DAYS_DUE_DATE,
+            ProgramNotificationRecipient.USERS_AT_ORGANISATION_UNIT );
+        manager.save( template );
+
+        OrganisationUnit organisationUnit = createOrganisationUnit( 'A' );
+
+        List<ProgramStageInstance> events = LongStream.rangeClosed( 1, EVENT_COUNT ).mapToObj( id -> {
+            ProgramStageInstance event = new ProgramStageInstance();
+            event.setId( id );
+            event.setOrganisationUnit( organisationUnit );
+            return event;
+        } ).collect( Collectors.toList() );
+
+        ProgramStageInstanceStore programStageInstanceStore = mock( ProgramStageInstanceStore.class );
+        ProgramInstanceStore programInstanceStore = mock( ProgramInstanceStore.class );
+        NotificationMessageRenderer<ProgramStageInstance> programStageNotificationRenderer = mock(
+            NotificationMessageRenderer.class );
+
+        when( programStageInstanceStore.getWithScheduledNotifications( any( ProgramNotificationTemplate.class ),
+            any( Date.class ), anyLong(), anyInt() ) ).thenAnswer( invocation -> events.stream()
+                .filter( event -> event.getId() > invocation.<Long> getArgument( 2 ) )
+                .limit( invocation.<Integer> getArgument( 3 ) )
+                .collect( Collectors.toList() ) );
+        when( programInstanceStore.getWithScheduledNotifications( any( ProgramNotificationTemplate.class ),
+            any( Date.class ), anyLong(), anyInt() ) ).thenReturn( Collections.emptyList() );
+        when( programStageNotificationRenderer.render( any( ProgramStageInstance.class ),
+            any( ProgramNotificationTemplate.class ) ) ).thenAnswer( invocation -> new NotificationMessage(
+                String.valueOf( ((ProgramStageInstance) invocation.getArgument( 0 )).getId() ), "Message" ) );
+
+        messageService = mock( MessageService.class );
+
+        when( messageService.sendMessage( any( MessageConversationParams.class ) ) ).thenAnswer( invocation -> {
+            String subject = ((MessageConversationParams) invocation.getArgument( 0 )).getSubject();
+
+            if ( subject.equals( failingMessage ) )
+            {
+                throw new IllegalStateException( "Failed to send message" );
+            }
+
+            sentMessages.add( subject );
+            return 0L;
+        } );
+
+        programNotificationService = new DefaultProgramNotificationService( mock( ProgramMessageService.class ),
+            messageService, programInstanceStore, programStageInstanceStore, manager,
+            mock( NotificationMessageRenderer.class ), programStageNotificationRenderer, notificationTemplateService,
+            new NotificationTemplateMapper(), scheduledNotificationProgressStore, transactionTemplate );
+        programNotificationService.setScheduledNotificationPageSize( PAGE_SIZE );
+    }
+
+    @Test
+    public void testSendScheduledNotificationsInPages()
+    {
+        Date today = new Date();
+
+        programNotificationService.sendScheduledNotificationsForDay( today );
+
+        assertEquals( EVENT_COUNT, sentMessages.size() );
+        assertEquals( EVENT_COUNT, scheduledNotificationProgressStore.getLastId( template.getId(), today,
+            ScheduledNotificationProgressStore.PROGRAM_STAGE_INSTANCE ) );
+
+        // A second run of the day resumes after the last event sent
+
+        programNotificationService.sendScheduledNotificationsForDay( today );
+
+        assertEquals( EVENT_COUNT, sentMessages.size() );
+    }
+
+    @Test
+    public void testResumeAfterFailedPage()
+    {
+        Date today = new Date();
+
+        failingMessage = "4";
+
+        try
+        {
+            programNotificationService.sendScheduledNotificationsForDay( today );
+            fail( "Expected the run to fail" );
+        }
+        catch ( IllegalStateException expected )
+        {
+        }
+
+        // The first page was committed with its progress, the progress of the
+        // second page was rolled back
+
+        assertTrue( sentMessages.containsAll( Arrays.asList( "1", "2" ) ) );
+        assertEquals( 2, scheduledNotificationProgressStore.getLastId( template.getId(), today,
+            ScheduledNotificationProgressStore.PROGRAM_STAGE_INSTANCE ) );
+
+        sentMessages.clear();
+        failingMessage = null;
+
+        programNotificationService.sendScheduledNotificationsForDay( today );
+
+        Collections.sort( sentMessages );
+
+        assertEquals( Arrays.asList( "3", "4", "5" ), sentMessages );
+        assertEquals( EVENT_COUNT, scheduledNotificationProgressStore.getLastId( template.getId(), today,
+            ScheduledNotificationProgressStore.PROGRAM_STAGE_INSTANCE ) );
+    }
+}
@@ -77,6 +77,7 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.collect.Sets;
 
@@ -129,6 +130,12 @@ public class ProgramNotificationServiceTest extends DhisConvenienceTest
     @Mock
     private ProgramNotificationTemplateService notificationTemplateService;
 
+    @Mock
+    private ScheduledNotificationProgressStore scheduledNotificationProgressStore;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     private NotificationTemplateMapper notificationTemplateMapper = new NotificationTemplateMapper();
 
     private DefaultProgramNotificationService programNotificationService;
@@ -203,7 +210,7 @@ public class ProgramNotificationServiceTest extends DhisConvenienceTest
         programNotificationService = new DefaultProgramNotificationService( this.programMessageService,
             this.messageService, this.programInstanceStore, this.programStageInstanceStore, this.manager,
             this.programNotificationRenderer, this.programStageNotificationRenderer, notificationTemplateService,
-            notificationTemplateMapper );
+            notificationTemplateMapper, scheduledNotificationProgressStore, transactionTemplate );
 
         setUpInstances();
 
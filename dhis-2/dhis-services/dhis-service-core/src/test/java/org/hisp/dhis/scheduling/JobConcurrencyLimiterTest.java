@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.scheduling.parameters.MockJobParameters;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class JobConcurrencyLimiterTest
+{
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private DhisConfigurationProvider config;
+
+    private JobConcurrencyLimiter limiter;
+
+    @Before
+    public void setUp()
+    {
+        when( config.getProperty( any( ConfigurationKey.class ) ) ).thenReturn( "1" );
+
+        limiter = new JobConcurrencyLimiter( config );
+    }
+
+    @Test
+    public void testInMemoryJobIsNotLimited()
+    {
+        JobConfiguration jobConfiguration = new JobConfiguration( "inMemory", JobType.MOCK, null, true );
+        Runnable job = () -> {
+        };
+
+        assertSame( job, limiter.limit( jobConfiguration, job, job ) );
+    }
+
+    @Test
+    public void testQueueAndResubmitRun()
+    {
+        JobConfiguration jobConfiguration = createJobConfiguration( "jobA", JobType.MOCK );
+
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger resubmits = new AtomicInteger();
+        List<Runnable> nested = new ArrayList<>();
+
+        Runnable job = limiter.limit( jobConfiguration, () -> {
+            executions.incrementAndGet();
+            nested.forEach( Runnable::run );
+        }, resubmits::incrementAndGet );
+
+        // Runs of the running job configuration are queued and coalesced
+        // without blocking
+
+        nested.add( job );
+        nested.add( job );
+
+        job.run();
+
+        assertEquals( 1, executions.get() );
+        assertEquals( 1, resubmits.get() );
+        assertFalse( limiter.isQueued( jobConfiguration ) );
+
+        nested.clear();
+        job.run();
+
+        assertEquals( 2, executions.get() );
+    }
+
+    @Test
+    public void testDistinctConfigurationsOfSameTypeAreNotSerialized()
+    {
+        JobConfiguration jobConfigurationA = createJobConfiguration( "jobA", JobType.MOCK );
+        JobConfiguration jobConfigurationB = createJobConfiguration( "jobB", JobType.MOCK );
+
+        AtomicInteger executions = new AtomicInteger();
+
+        Runnable jobB = limiter.limit( jobConfigurationB, executions::incrementAndGet, () -> {
+        } );
+        Runnable jobA = limiter.limit( jobConfigurationA, () -> {
+            executions.incrementAndGet();
+            jobB.run();
+        }, () -> {
+        } );
+
+        jobA.run();
+
+        assertEquals( 2, executions.get() );
+        assertFalse( limiter.isQueued( jobConfigurationB ) );
+    }
+
+    @Test
+    public void testResourceClassCap()
+    {
+        JobConfiguration jobConfigurationA = createJobConfiguration( "jobA", JobType.ANALYTICS_TABLE );
+        JobConfiguration jobConfigurationB = createJobConfiguration( "jobB", JobType.ANALYTICS_TABLE );
+
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger resubmits = new AtomicInteger();
+
+        Runnable jobB = limiter.limit( jobConfigurationB, executions::incrementAndGet, resubmits::incrementAndGet );
+        Runnable jobA = limiter.limit( jobConfigurationA, () -> {
+            executions.incrementAndGet();
+            jobB.run();
+            assertTrue( limiter.isQueued( jobConfigurationB ) );
+        }, () -> {
+        } );
+
+        jobA.run();
+
+        assertEquals( 1, executions.get() );
+        assertEquals( 1, resubmits.get() );
+        assertFalse( limiter.isQueued( jobConfigurationB ) );
+    }
+
+    @Test
+    public void testJobTypeCap()
+    {
+        when( config.getProperty( ConfigurationKey.SCHEDULING_DB_HEAVY_MAX_JOBS ) ).thenReturn( "3" );
+
+        limiter = new JobConcurrencyLimiter( config );
+
+        JobConfiguration jobConfigurationA = createJobConfiguration( "jobA", JobType.ANALYTICS_TABLE );
+        JobConfiguration jobConfigurationB = createJobConfiguration( "jobB", JobType.ANALYTICS_TABLE );
+        JobConfiguration jobConfigurationC = createJobConfiguration( "jobC", JobType.RESOURCE_TABLE );
+
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger resubmits = new AtomicInteger();
+
+        Runnable jobB = limiter.limit( jobConfigurationB, executions::incrementAndGet, resubmits::incrementAndGet );
+        Runnable jobC = limiter.limit( jobConfigurationC, executions::incrementAndGet, () -> {
+        } );
+        Runnable jobA = limiter.limit( jobConfigurationA, () -> {
+            executions.incrementAndGet();
+            jobB.run();
+            jobC.run();
+            assertTrue( limiter.isQueued( jobConfigurationB ) );
+            assertFalse( limiter.isQueued( jobConfigurationC ) );
+        }, () -> {
+        } );
+
+        jobA.run();
+
+        assertEquals( 2, executions.get() );
+        assertEquals( 1, resubmits.get() );
+        assertFalse( limiter.isQueued( jobConfigurationB ) );
+    }
+
+    private static JobConfiguration createJobConfiguration( String name, JobType jobType )
+    {
+        JobConfiguration jobConfiguration = new JobConfiguration( name, jobType, "0 * * ? * *",
+            new MockJobParameters() );
+        jobConfiguration.setAutoFields();
+        return jobConfiguration;
+    }
+}
@@ -31,6 +31,10 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.RandomStringUtils;
@@ -50,6 +54,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.springframework.util.concurrent.ListenableFuture;
 
 import com.google.common.collect.Sets;
 
@@ -122,7 +127,7 @@ public class SmsMessageSenderTest
         smsGateways.add( bulkSmsGateway );
 
         smsMessageSender = new SmsMessageSender( gatewayAdministrationService, smsGateways, userSettingService,
-            outboundSmsService );
+            outboundSmsService, new SmsGatewayDispatcher( 1, 0 ) );
     }
 
     private void mockGateway()
@@ -367,6 +372,107 @@ public class SmsMessageSenderTest
         assertEquals( 0, summary.getPending() );
     }
 
+    @Test
+    public void testSendMessageBatchAsyncRetriesTemporarilyFailedMessages()
+        throws Exception
+    {
+        smsMessageSender = new SmsMessageSender( gatewayAdministrationService, smsGateways, userSettingService,
+            outboundSmsService, new SmsGatewayDispatcher( 3, 0 ) );
+
+        when( gatewayAdministrationService.getDefaultGateway() ).thenReturn( smsGatewayConfig );
+        mockGateway();
+
+        responseForTemporarilyFailedBatch();
+
+        OutboundMessageBatch batch = new OutboundMessageBatch( outboundMessages, DeliveryChannel.SMS );
+
+        OutboundMessageResponseSummary summary = smsMessageSender.sendMessageBatchAsync( batch ).get();
+
+        assertNotNull( summary );
+        assertEquals( OutboundMessageBatchStatus.COMPLETED, summary.getBatchStatus() );
+        assertEquals( 4, summary.getSent() );
+        assertEquals( 4, summary.getTotal() );
+
+        verify( bulkSmsGateway, times( 1 ) ).sendBatch( any(), any() );
+        verify( bulkSmsGateway, times( 1 ) ).send( anyString(), anyString(), anySet(), any() );
+    }
+
+    @Test
+    public void testSubmitFailsFastWhenPoolIsSaturated()
+        throws Exception
+    {
+        SmsGatewayDispatcher dispatcher = new SmsGatewayDispatcher( 3, 0 );
+        CountDownLatch release = new CountDownLatch( 1 );
+
+        ListenableFuture<Boolean> rejected = null;
+
+        for ( int i = 0; i < 2000 && rejected == null; i++ )
+        {
+            ListenableFuture<Boolean> future = dispatcher.submit( () -> release.await( 10, TimeUnit.SECONDS ) );
+
+            if ( future.isDone() )
+            {
+                rejected = future;
+            }
+        }
+
+        try
+        {
+            assertNotNull( rejected );
+
+            ExecutionException ex = assertThrows( ExecutionException.class, rejected::get );
+            assertTrue( ex.getCause() instanceof RejectedExecutionException );
+        }
+        finally
+        {
+            release.countDown();
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testSendMessageBatchDoesNotRetry()
+    {
+        smsMessageSender = new SmsMessageSender( gatewayAdministrationService, smsGateways, userSettingService,
+            outboundSmsService, new SmsGatewayDispatcher( 3, 0 ) );
+
+        when( gatewayAdministrationService.getDefaultGateway() ).thenReturn( smsGatewayConfig );
+        mockGateway();
+
+        responseForTemporarilyFailedBatch();
+
+        OutboundMessageBatch batch = new OutboundMessageBatch( outboundMessages, DeliveryChannel.SMS );
+
+        OutboundMessageResponseSummary summary = smsMessageSender.sendMessageBatch( batch );
+
+        assertEquals( OutboundMessageBatchStatus.FAILED, summary.getBatchStatus() );
+        assertEquals( 1, summary.getFailed() );
+
+        verify( bulkSmsGateway, never() ).send( anyString(), anyString(), anySet(), any() );
+    }
+
+    @Test
+    public void testSendMessageBatchAsyncDoesNotRetryPermanentlyFailedMessages()
+        throws Exception
+    {
+        smsMessageSender = new SmsMessageSender( gatewayAdministrationService, smsGateways, userSettingService,
+            outboundSmsService, new SmsGatewayDispatcher( 3, 0 ) );
+
+        when( gatewayAdministrationService.getDefaultGateway() ).thenReturn( smsGatewayConfig );
+        mockGateway();
+
+        responseForFailedBatch();
+
+        OutboundMessageBatch batch = new OutboundMessageBatch( outboundMessages, DeliveryChannel.SMS );
+
+        OutboundMessageResponseSummary summary = smsMessageSender.sendMessageBatchAsync( batch ).get();
+
+        assertEquals( OutboundMessageBatchStatus.FAILED, summary.getBatchStatus() );
+        assertEquals( 1, summary.getFailed() );
+
+        verify( bulkSmsGateway, never() ).send( anyString(), anyString(), anySet(), any() );
+    }
+
     @Test
     public void testSendMessageBatchWithMaxRecipients()
     {
@@ -527,6 +633,14 @@ public class SmsMessageSenderTest
             new OutboundMessageResponse( GatewayResponse.FAILED.getResponseMessage(), GatewayResponse.FAILED, false ) );
     }
 
+    private void responseForTemporarilyFailedBatch()
+    {
+        responseForFailedBatch();
+
+        summaryResponses.set( 3, new OutboundMessageResponse( GatewayResponse.RESULT_CODE_503.getResponseMessage(),
+            GatewayResponse.RESULT_CODE_503, false ) );
+    }
+
     private void responseForCompletedBatch()
     {
         summaryResponses.clear();
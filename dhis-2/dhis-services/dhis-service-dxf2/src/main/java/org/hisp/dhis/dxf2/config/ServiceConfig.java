@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hisp.dhis.commons.util.BoundedExecutor;
 import org.hisp.dhis.dxf2.events.importer.Checker;
 import org.hisp.dhis.dxf2.events.importer.Processor;
 import org.hisp.dhis.dxf2.events.importer.delete.postprocess.EventDeleteAuditPostProcessor;
@@ -108,6 +109,14 @@ import com.google.common.collect.ImmutableMap;
 @Configuration( "dxf2ServiceConfig" )
 public class ServiceConfig
 {
+    public static final String METADATA_EXPORT_EXECUTOR = "org.hisp.dhis.dxf2.metadata.MetadataExportExecutor";
+
+    /**
+     * Maximum number of threads reading sections of metadata exports, which
+     * is also the number of database connections used by exports.
+     */
+    private static final int METADATA_EXPORT_MAX_THREADS = 4;
+
     @Autowired
     @Qualifier( "initialInterval" )
     private ConfigurationPropertyFactoryBean initialInterval;
@@ -141,6 +150,16 @@ public class ServiceConfig
         return retryTemplate;
     }
 
+    /**
+     * Pool for reading the sections of metadata exports. Tasks must open
+     * their own transaction.
+     */
+    @Bean( METADATA_EXPORT_EXECUTOR )
+    public BoundedExecutor metadataExportExecutor()
+    {
+        return new BoundedExecutor( "METADATA-EXPORT", METADATA_EXPORT_MAX_THREADS );
+    }
+
     private final static List<Class<? extends ValidationCheck>> CREATE_UPDATE_CHECKS = newArrayList(
         DuplicateIdsCheck.class,
         ValidationHooksCheck.class,
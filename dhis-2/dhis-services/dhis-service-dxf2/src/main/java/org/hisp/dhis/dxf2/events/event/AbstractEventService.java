@@ -61,6 +61,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -203,6 +204,8 @@ public abstract class AbstractEventService implements EventService
 
     private static final int FLUSH_FREQUENCY = 100;
 
+    private static final int STREAM_BATCH_SIZE = 500;
+
     // -------------------------------------------------------------------------
     // Caches
     // -------------------------------------------------------------------------
@@ -308,19 +311,48 @@ public abstract class AbstractEventService implements EventService
 
         List<Event> eventList = eventStore.getEvents( params, organisationUnits, Collections.emptyMap() );
 
-        for ( Event event : eventList )
+        if ( events.getPager() != null )
         {
-            if ( trackerOwnershipAccessManager.hasAccess( user,
-                entityInstanceService.getTrackedEntityInstance( event.getTrackedEntityInstance() ),
-                programService.getProgram( event.getProgram() ) ) )
-            {
-                events.getEvents().add( event );
-            }
+            events.getPager().setNextPageToken( params.getNextPageToken() );
         }
 
+        acceptOwnedEvents( user, eventList, events.getEvents()::add );
+
         return events;
     }
 
+    @Transactional( readOnly = true )
+    @Override
+    public void streamEvents( EventSearchParams params, Consumer<Event> consumer )
+    {
+        validate( params );
+
+        List<OrganisationUnit> organisationUnits = getOrganisationUnits( params );
+
+        User user = currentUserService.getCurrentUser();
+
+        params.handleCurrentUserSelectionMode( user );
+
+        List<Event> batch = new ArrayList<>();
+
+        eventStore.streamEvents( params, organisationUnits, event -> {
+            batch.add( event );
+
+            if ( batch.size() >= STREAM_BATCH_SIZE )
+            {
+                acceptOwnedEvents( currentUserService.getCurrentUser(), batch, consumer );
+                batch.clear();
+
+                // Tracked entity instances and owners loaded for the
+                // ownership checks would otherwise pile up in the session
+
+                dbmsManager.clearSession();
+            }
+        } );
+
+        acceptOwnedEvents( currentUserService.getCurrentUser(), batch, consumer );
+    }
+
     @Transactional( readOnly = true )
     @Override
     public Grid getEventsGrid( EventSearchParams params )
@@ -836,6 +868,43 @@ public abstract class AbstractEventService implements EventService
     // HELPERS
     // -------------------------------------------------------------------------
 
+    /**
+     * Passes the events which the user has ownership access to on to the given
+     * consumer. Tracked entity instances and programs of the events are loaded
+     * once per call instead of once per event.
+     */
+    private void acceptOwnedEvents( User user, List<Event> events, Consumer<Event> consumer )
+    {
+        List<String> entityInstanceUids = events.stream()
+            .map( Event::getTrackedEntityInstance )
+            .filter( Objects::nonNull )
+            .distinct()
+            .collect( Collectors.toList() );
+
+        Map<String, TrackedEntityInstance> entityInstances = new HashMap<>();
+
+        for ( List<String> uids : Lists.partition( entityInstanceUids, STREAM_BATCH_SIZE ) )
+        {
+            entityInstanceService.getTrackedEntityInstancesByUid( uids, user )
+                .forEach( entityInstance -> entityInstances.put( entityInstance.getUid(), entityInstance ) );
+        }
+
+        Map<String, Program> programs = new HashMap<>();
+
+        for ( Event event : events )
+        {
+            Program program = event.getProgram() != null
+                ? programs.computeIfAbsent( event.getProgram(), programService::getProgram )
+                : null;
+
+            if ( trackerOwnershipAccessManager.hasAccess( user,
+                entityInstances.get( event.getTrackedEntityInstance() ), program ) )
+            {
+                consumer.accept( event );
+            }
+        }
+    }
+
     private List<OrganisationUnit> getOrganisationUnits( EventSearchParams params )
     {
         List<OrganisationUnit> organisationUnits = new ArrayList<>();
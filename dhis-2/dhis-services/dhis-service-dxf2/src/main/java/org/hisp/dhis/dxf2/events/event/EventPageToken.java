@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.events.event;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import lombok.Getter;
+
+import org.hisp.dhis.common.IllegalQueryException;
+
+/**
+ * Position of the last event of a page of events ordered by last updated and
+ * identifier, used for keyset paging. The token is opaque to clients, which
+ * pass it back unchanged to fetch the following page.
+ */
+@Getter
+public class EventPageToken
+{
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Format of the last updated timestamp in tokens and in SQL, at database
+     * precision.
+     */
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter
+        .ofPattern( "yyyy-MM-dd HH:mm:ss.SSSSSS" );
+
+    /**
+     * Last updated timestamp of the last event, as stored in the database and
+     * independent of the time zone of the server.
+     */
+    private final LocalDateTime lastUpdated;
+
+    /**
+     * Identifier of the last event.
+     */
+    private final long id;
+
+    public EventPageToken( LocalDateTime lastUpdated, long id )
+    {
+        this.lastUpdated = lastUpdated;
+        this.id = id;
+    }
+
+    /**
+     * Returns the last updated timestamp formatted for SQL.
+     */
+    public String getLastUpdatedString()
+    {
+        return TIMESTAMP_FORMAT.format( lastUpdated );
+    }
+
+    /**
+     * Encodes this token as an URL safe string.
+     */
+    public String encode()
+    {
+        String token = getLastUpdatedString() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString( token.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Decodes a token previously created with {@link #encode()}.
+     *
+     * @param token the encoded token.
+     * @return the page token.
+     * @throws IllegalQueryException if the token is invalid.
+     */
+    public static EventPageToken decode( String token )
+    {
+        try
+        {
+            String decoded = new String( Base64.getUrlDecoder().decode( token ), StandardCharsets.UTF_8 );
+
+            int index = decoded.lastIndexOf( SEPARATOR );
+
+            return new EventPageToken( LocalDateTime.parse( decoded.substring( 0, index ), TIMESTAMP_FORMAT ),
+                Long.parseLong( decoded.substring( index + 1 ) ) );
+        }
+        catch ( IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex )
+        {
+            throw new IllegalQueryException( "Page token is invalid: " + token );
+        }
+    }
+}
@@ -153,6 +153,18 @@ public class EventSearchParams
 
     private boolean skipPaging;
 
+    /**
+     * Encoded {@link EventPageToken} of the last event of the previous page,
+     * for keyset paging.
+     */
+    private String pageToken;
+
+    /**
+     * Encoded {@link EventPageToken} of the last event of the current page.
+     * Set by the event store when the query supports keyset paging.
+     */
+    private String nextPageToken;
+
     private List<OrderParam> orders;
 
     private List<OrderParam> gridOrders;
@@ -266,6 +278,24 @@ public class EventSearchParams
         return lastUpdatedDuration != null;
     }
 
+    /**
+     * Indicates whether this parameters specifies a page token for keyset
+     * paging.
+     */
+    public boolean hasPageToken()
+    {
+        return pageToken != null;
+    }
+
+    /**
+     * Indicates whether events are returned in the default order, which is by
+     * last updated and identifier descending and supports keyset paging.
+     */
+    public boolean isDefaultOrder()
+    {
+        return (orders == null || orders.isEmpty()) && (gridOrders == null || gridOrders.isEmpty());
+    }
+
     /**
      * Indicates whether this search params contain any filters.
      */
@@ -564,6 +594,28 @@ public class EventSearchParams
         return this;
     }
 
+    public String getPageToken()
+    {
+        return pageToken;
+    }
+
+    public EventSearchParams setPageToken( String pageToken )
+    {
+        this.pageToken = pageToken;
+        return this;
+    }
+
+    public String getNextPageToken()
+    {
+        return nextPageToken;
+    }
+
+    public EventSearchParams setNextPageToken( String nextPageToken )
+    {
+        this.nextPageToken = nextPageToken;
+        return this;
+    }
+
     public boolean isIncludeAttributes()
     {
         return includeAttributes;
@@ -33,6 +33,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.dxf2.common.ImportOptions;
@@ -53,6 +54,16 @@ public interface EventService
 
     Events getEvents( EventSearchParams params );
 
+    /**
+     * Streams the events matching the given parameters to the given consumer
+     * without loading the full result into memory. Paging is applied only if
+     * requested explicitly.
+     *
+     * @param params the event search parameters.
+     * @param consumer the consumer of the events.
+     */
+    void streamEvents( EventSearchParams params, Consumer<Event> consumer );
+
     EventRows getEventRows( EventSearchParams params );
 
     Grid getEventsGrid( EventSearchParams params );
@@ -30,6 +30,7 @@ package org.hisp.dhis.dxf2.events.event;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.dxf2.events.report.EventRow;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
@@ -64,6 +65,19 @@ public interface EventStore
     List<Event> getEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
         Map<String, Set<String>> psdesWithSkipSyncTrue );
 
+    /**
+     * Reads the events matching the given parameters over a database cursor
+     * and hands each one to the given consumer as soon as it is complete, so
+     * that the full result is never held in memory. Must be invoked within a
+     * transaction for the cursor to be used.
+     *
+     * @param params the event search parameters.
+     * @param organisationUnits the organisation units to search.
+     * @param consumer the consumer of the events.
+     */
+    void streamEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        Consumer<Event> consumer );
+
     List<Map<String, String>> getEventsGrid( EventSearchParams params, List<OrganisationUnit> organisationUnits );
 
     List<EventRow> getEventRows( EventSearchParams params, List<OrganisationUnit> organisationUnits );
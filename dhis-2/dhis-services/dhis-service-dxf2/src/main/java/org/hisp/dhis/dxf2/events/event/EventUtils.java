@@ -29,7 +29,6 @@ package org.hisp.dhis.dxf2.events.event;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -44,6 +43,7 @@ import org.hisp.dhis.attribute.Attribute;
 import org.hisp.dhis.attribute.AttributeValue;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.hibernate.jsonb.type.JsonEventDataValueSetBinaryType;
 import org.hisp.dhis.program.UserInfoSnapshot;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserCredentials;
@@ -51,8 +51,6 @@ import org.postgresql.util.PGobject;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.MapType;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 
 /**
  * @author Luciano Fiandesio
@@ -88,17 +86,29 @@ public class EventUtils
      *
      * @param dataValues a Set of {@see EventDataValue}
      * @param mapper a configured Jackson {@see ObjectMapper}
+     * @param compact whether to use the compact encoding of
+     *        {@see JsonEventDataValueSetBinaryType}
      * @return a PGobject containing the serialized Set
      * @throws JsonProcessingException if the JSON serialization fails
      */
-    public static PGobject eventDataValuesToJson( Set<EventDataValue> dataValues, ObjectMapper mapper )
+    public static PGobject eventDataValuesToJson( Set<EventDataValue> dataValues, ObjectMapper mapper,
+        boolean compact )
         throws JsonProcessingException,
         SQLException
     {
         PGobject jsonbObj = new PGobject();
         jsonbObj.setType( "json" );
-        jsonbObj.setValue( mapper.writeValueAsString(
-            dataValues.stream().collect( Collectors.toMap( EventDataValue::getDataElement, Function.identity() ) ) ) );
+
+        if ( compact )
+        {
+            jsonbObj.setValue( JsonEventDataValueSetBinaryType.writeCompactJson( dataValues ) );
+        }
+        else
+        {
+            jsonbObj.setValue( mapper.writeValueAsString( dataValues.stream()
+                .collect( Collectors.toMap( EventDataValue::getDataElement, Function.identity() ) ) ) );
+        }
+
         return jsonbObj;
     }
 
@@ -133,9 +143,6 @@ public class EventUtils
     public static Set<EventDataValue> jsonToEventDataValues( ObjectMapper jsonMapper, Object eventsDataValues )
         throws JsonProcessingException
     {
-        final TypeFactory typeFactory = jsonMapper.getTypeFactory();
-        MapType mapType = typeFactory.constructMapType( HashMap.class, String.class, EventDataValue.class );
-
         String content = null;
         if ( eventsDataValues instanceof String )
         {
@@ -146,19 +153,12 @@ public class EventUtils
             content = ((PGobject) eventsDataValues).getValue();
         }
 
-        Set<EventDataValue> dataValues = new HashSet<>();
-        if ( !org.apache.commons.lang3.StringUtils.isEmpty( content ) )
+        if ( org.apache.commons.lang3.StringUtils.isEmpty( content ) )
         {
-            Map<String, EventDataValue> parsed = jsonMapper.readValue( content, mapType );
-            for ( String dataElementId : parsed.keySet() )
-            {
-                EventDataValue edv = parsed.get( dataElementId );
-                edv.setDataElement( dataElementId );
-                dataValues.add( edv );
-            }
+            return new HashSet<>();
         }
 
-        return dataValues;
+        return JsonEventDataValueSetBinaryType.readEventDataValues( jsonMapper, content );
     }
 
     public static Set<AttributeValue> getAttributeValues( ObjectMapper jsonMapper, Object attributeValues )
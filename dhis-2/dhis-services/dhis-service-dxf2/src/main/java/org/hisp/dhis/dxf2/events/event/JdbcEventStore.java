@@ -69,8 +69,10 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
@@ -78,6 +80,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -87,6 +90,7 @@ import org.hisp.dhis.common.BaseIdentifiableObject;
 import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdSchemes;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.common.QueryFilter;
 import org.hisp.dhis.common.QueryItem;
 import org.hisp.dhis.common.QueryOperator;
@@ -101,6 +105,8 @@ import org.hisp.dhis.dxf2.events.report.EventRow;
 import org.hisp.dhis.dxf2.events.trackedentity.Attribute;
 import org.hisp.dhis.event.EventStatus;
 import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.hibernate.jsonb.type.JsonEventDataValueSetBinaryType;
 import org.hisp.dhis.jdbc.BatchPreparedStatementSetterWithKeyHolder;
 import org.hisp.dhis.jdbc.JdbcUtils;
@@ -127,13 +133,13 @@ import org.springframework.core.env.Environment;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.support.rowset.ResultSetWrappingSqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
 
@@ -164,6 +170,11 @@ public class JdbcEventStore implements EventStore
         " left join users usernote on psinote.lastupdatedby = usernote.userid" +
         " left join userinfo on usernote.userid = userinfo.userinfoid";
 
+    /**
+     * Number of rows fetched per round trip when streaming events.
+     */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private static final String PSI_STATUS_EQ = " psi.status = '";
 
     private static final String PSI_LASTUPDATED_GT = " psi.lastupdated >= '";
@@ -252,10 +263,7 @@ public class JdbcEventStore implements EventStore
 
     // Cannot use DefaultRenderService mapper. Does not work properly -
     // DHIS2-6102
-    private static final ObjectReader eventDataValueJsonReader = JsonEventDataValueSetBinaryType.MAPPER
-        .readerFor( new TypeReference<Map<String, EventDataValue>>()
-        {
-        } );
+    private static final ObjectMapper eventDataValueJsonMapper = JsonEventDataValueSetBinaryType.MAPPER;
 
     private final StatementBuilder statementBuilder;
 
@@ -269,9 +277,12 @@ public class JdbcEventStore implements EventStore
 
     private final Environment env;
 
+    private final DhisConfigurationProvider dhisConfig;
+
     public JdbcEventStore( StatementBuilder statementBuilder, JdbcTemplate jdbcTemplate,
         @Qualifier( "dataValueJsonMapper" ) ObjectMapper jsonMapper,
-        CurrentUserService currentUserService, IdentifiableObjectManager identifiableObjectManager, Environment env )
+        CurrentUserService currentUserService, IdentifiableObjectManager identifiableObjectManager, Environment env,
+        DhisConfigurationProvider dhisConfig )
     {
         checkNotNull( statementBuilder );
         checkNotNull( jdbcTemplate );
@@ -279,6 +290,7 @@ public class JdbcEventStore implements EventStore
         checkNotNull( identifiableObjectManager );
         checkNotNull( jsonMapper );
         checkNotNull( env );
+        checkNotNull( dhisConfig );
 
         this.statementBuilder = statementBuilder;
         this.jdbcTemplate = jdbcTemplate;
@@ -286,6 +298,7 @@ public class JdbcEventStore implements EventStore
         this.manager = identifiableObjectManager;
         this.jsonMapper = jsonMapper;
         this.env = env;
+        this.dhisConfig = dhisConfig;
 
     }
 
@@ -311,182 +324,304 @@ public class JdbcEventStore implements EventStore
 
         Set<String> notes = new HashSet<>();
 
+        EventPageToken lastRow = null;
+
+        Set<Long> pageEventIds = new HashSet<>();
+
         while ( rowSet.next() )
         {
+            LocalDateTime psiLastUpdated = rowSet.getString( "psi_uid" ) != null
+                ? rowSet.getObject( "psi_lastupdated", LocalDateTime.class )
+                : null;
+
+            if ( psiLastUpdated != null )
+            {
+                lastRow = new EventPageToken( psiLastUpdated, rowSet.getLong( "psi_id" ) );
+                pageEventIds.add( lastRow.getId() );
+            }
+
             if ( rowSet.getString( "psi_uid" ) == null
                 || (params.getCategoryOptionCombo() == null && !isSuper( user ) && !userHasAccess( rowSet )) )
             {
                 continue;
             }
 
-            String psiUid = rowSet.getString( "psi_uid" );
-
-            Event event;
+            Event event = mapEventRow( rowSet, params, user, eventUidToEventMap, notes, psdesWithSkipSyncTrue );
 
-            if ( !eventUidToEventMap.containsKey( psiUid ) )
+            if ( event != null )
             {
-                validateIdentifiersPresence( rowSet, params.getIdSchemes(), true );
+                events.add( event );
+            }
+        }
 
-                event = new Event();
-                eventUidToEventMap.put( psiUid, event );
+        if ( params.isPaging() && params.isDefaultOrder() && lastRow != null
+            && pageEventIds.size() >= params.getPageSizeWithDefault() )
+        {
+            params.setNextPageToken( lastRow.encode() );
+        }
 
-                if ( !params.isSkipEventId() )
-                {
-                    event.setUid( psiUid );
-                    event.setEvent( psiUid );
-                }
+        IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
+        IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
 
-                event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
-                event.setStatus( EventStatus.valueOf( rowSet.getString( "psi_status" ) ) );
+        if ( dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID )
+        {
+            CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
 
-                event.setProgram( rowSet.getString( "p_identifier" ) );
-                event.setProgramStage( rowSet.getString( "ps_identifier" ) );
-                event.setOrgUnit( rowSet.getString( "ou_identifier" ) );
-                event.setDeleted( rowSet.getBoolean( "psi_deleted" ) );
+            List<Collection<DataValue>> dataValuesList = events.stream().map( Event::getDataValues )
+                .collect( Collectors.toList() );
+            populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+            convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+        }
 
-                ProgramType programType = ProgramType.fromValue( rowSet.getString( "p_type" ) );
+        if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
+        {
+            return events.stream().filter( ev -> ev.getAttributeCategoryOptions() != null
+                && splitToArray( ev.getAttributeCategoryOptions(), TextUtils.SEMICOLON ).size() == ev.getOptionSize() )
+                .collect( Collectors.toList() );
+        }
 
-                if ( programType != ProgramType.WITHOUT_REGISTRATION )
-                {
-                    event.setEnrollment( rowSet.getString( "pi_uid" ) );
-                    event.setEnrollmentStatus( EnrollmentStatus
-                        .fromProgramStatus( ProgramStatus.valueOf( rowSet.getString( "pi_status" ) ) ) );
-                    event.setFollowup( rowSet.getBoolean( "pi_followup" ) );
-                }
+        return events;
+    }
 
-                if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
-                {
-                    event.setOptionSize( rowSet.getInt( "option_size" ) );
-                }
+    @Override
+    public void streamEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        Consumer<Event> consumer )
+    {
+        User user = currentUserService.getCurrentUser();
 
-                event.setAttributeOptionCombo( rowSet.getString( "coc_identifier" ) );
-                event.setAttributeCategoryOptions( rowSet.getString( "deco_uid" ) );
-                event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
+        setAccessiblePrograms( user, params );
 
-                event.setStoredBy( rowSet.getString( "psi_storedby" ) );
-                event.setOrgUnitName( rowSet.getString( "ou_name" ) );
-                event.setDueDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_duedate" ) ) );
-                event.setEventDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_executiondate" ) ) );
-                event.setCreated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_created" ) ) );
-                event.setCreatedByUserInfo( jsonToUserInfo( rowSet.getString( "psi_createdbyuserinfo" ), jsonMapper ) );
-                event.setLastUpdated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_lastupdated" ) ) );
-                event.setLastUpdatedByUserInfo(
-                    jsonToUserInfo( rowSet.getString( "psi_lastupdatedbyuserinfo" ), jsonMapper ) );
+        String sql = buildSql( params, organisationUnits, user );
 
-                event.setCompletedBy( rowSet.getString( "psi_completedby" ) );
-                event.setCompletedDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_completeddate" ) ) );
+        log.debug( "Event stream SQL: " + sql );
 
-                if ( rowSet.getObject( "psi_geometry" ) != null )
-                {
-                    try
-                    {
-                        Geometry geom = new WKTReader().read( rowSet.getString( "psi_geometry" ) );
+        IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
+        IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
+        CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
 
-                        event.setGeometry( geom );
-                    }
-                    catch ( ParseException e )
-                    {
-                        log.error( "Unable to read geometry for event '" + event.getUid() + "': ", e );
-                    }
+        Consumer<Event> emitter = event -> {
+            if ( params.getCategoryOptionCombo() == null && !isSuper( user )
+                && (event.getAttributeCategoryOptions() == null || splitToArray(
+                    event.getAttributeCategoryOptions(), TextUtils.SEMICOLON ).size() != event.getOptionSize()) )
+            {
+                return;
+            }
+
+            if ( dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID )
+            {
+                List<Collection<DataValue>> dataValuesList = Collections.singletonList( event.getDataValues() );
+                populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+                convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+            }
+
+            consumer.accept( event );
+        };
+
+        // Rows of one event are adjacent as the order always ends with the
+        // event id, so an event is complete once the next one starts
+
+        jdbcTemplate.query( connection -> {
+            PreparedStatement statement = connection.prepareStatement( sql );
+            statement.setFetchSize( STREAM_FETCH_SIZE );
+            return statement;
+        }, (ResultSetExtractor<Void>) resultSet -> {
+            SqlRowSet rowSet = new ResultSetWrappingSqlRowSet( resultSet );
+
+            Map<String, Event> eventUidToEventMap = new HashMap<>();
+            Set<String> notes = new HashSet<>();
+            Event current = null;
+
+            while ( rowSet.next() )
+            {
+                if ( rowSet.getString( "psi_uid" ) == null
+                    || (params.getCategoryOptionCombo() == null && !isSuper( user ) && !userHasAccess( rowSet )) )
+                {
+                    continue;
                 }
 
-                if ( rowSet.getObject( "user_assigned" ) != null )
+                if ( current != null && !eventUidToEventMap.containsKey( rowSet.getString( "psi_uid" ) ) )
                 {
-                    event.setAssignedUser( rowSet.getString( "user_assigned" ) );
-                    event.setAssignedUserUsername( rowSet.getString( "user_assigned_username" ) );
-                    event.setAssignedUserDisplayName( rowSet.getString( "user_assigned_name" ) );
+                    emitter.accept( current );
+                    eventUidToEventMap.clear();
+                    notes.clear();
                 }
 
-                events.add( event );
-            }
-            else
-            {
-                event = eventUidToEventMap.get( psiUid );
-                String attributeCategoryCombination = event.getAttributeCategoryOptions();
-                String currentAttributeCategoryCombination = rowSet.getString( "deco_uid" );
+                Event event = mapEventRow( rowSet, params, user, eventUidToEventMap, notes, Collections.emptyMap() );
 
-                if ( !attributeCategoryCombination.contains( currentAttributeCategoryCombination ) )
+                if ( event != null )
                 {
-                    event.setAttributeCategoryOptions(
-                        attributeCategoryCombination + ";" + currentAttributeCategoryCombination );
+                    current = event;
                 }
             }
 
-            if ( !StringUtils.isEmpty( rowSet.getString( "psi_eventdatavalues" ) ) )
+            if ( current != null )
             {
-                Set<EventDataValue> eventDataValues = convertEventDataValueJsonIntoSet(
-                    rowSet.getString( "psi_eventdatavalues" ) );
+                emitter.accept( current );
+            }
 
-                for ( EventDataValue dv : eventDataValues )
-                {
-                    DataValue dataValue = convertEventDataValueIntoDtoDataValue( dv );
+            return null;
+        } );
+    }
 
-                    if ( params.isSynchronizationQuery() )
-                    {
-                        if ( psdesWithSkipSyncTrue.containsKey( rowSet.getString( "ps_uid" ) ) && psdesWithSkipSyncTrue
-                            .get( rowSet.getString( "ps_uid" ) ).contains( dv.getDataElement() ) )
-                        {
-                            dataValue.setSkipSynchronization( true );
-                        }
-                        else
-                        {
-                            dataValue.setSkipSynchronization( false );
-                        }
-                    }
+    /**
+     * Maps a row of the event query. The first row of an event creates the
+     * event, subsequent rows of the same event add attribute category options,
+     * data values and notes to it.
+     *
+     * @return the event if it was created from this row, null otherwise.
+     */
+    private Event mapEventRow( SqlRowSet rowSet, EventSearchParams params, User user,
+        Map<String, Event> eventUidToEventMap, Set<String> notes, Map<String, Set<String>> psdesWithSkipSyncTrue )
+    {
+        Event created = null;
 
-                    event.getDataValues().add( dataValue );
-                }
+        String psiUid = rowSet.getString( "psi_uid" );
+
+        Event event;
+
+        if ( !eventUidToEventMap.containsKey( psiUid ) )
+        {
+            validateIdentifiersPresence( rowSet, params.getIdSchemes(), true );
+
+            event = new Event();
+            eventUidToEventMap.put( psiUid, event );
+
+            if ( !params.isSkipEventId() )
+            {
+                event.setUid( psiUid );
+                event.setEvent( psiUid );
             }
 
-            if ( rowSet.getString( "psinote_value" ) != null && !notes.contains( rowSet.getString( "psinote_id" ) ) )
+            event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
+            event.setStatus( EventStatus.valueOf( rowSet.getString( "psi_status" ) ) );
+
+            event.setProgram( rowSet.getString( "p_identifier" ) );
+            event.setProgramStage( rowSet.getString( "ps_identifier" ) );
+            event.setOrgUnit( rowSet.getString( "ou_identifier" ) );
+            event.setDeleted( rowSet.getBoolean( "psi_deleted" ) );
+
+            ProgramType programType = ProgramType.fromValue( rowSet.getString( "p_type" ) );
+
+            if ( programType != ProgramType.WITHOUT_REGISTRATION )
             {
-                Note note = new Note();
-                note.setNote( rowSet.getString( "psinote_uid" ) );
-                note.setValue( rowSet.getString( "psinote_value" ) );
-                note.setStoredDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psinote_storeddate" ) ) );
-                note.setStoredBy( rowSet.getString( "psinote_storedby" ) );
+                event.setEnrollment( rowSet.getString( "pi_uid" ) );
+                event.setEnrollmentStatus( EnrollmentStatus
+                    .fromProgramStatus( ProgramStatus.valueOf( rowSet.getString( "pi_status" ) ) ) );
+                event.setFollowup( rowSet.getBoolean( "pi_followup" ) );
+            }
+
+            if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
+            {
+                event.setOptionSize( rowSet.getInt( "option_size" ) );
+            }
+
+            event.setAttributeOptionCombo( rowSet.getString( "coc_identifier" ) );
+            event.setAttributeCategoryOptions( rowSet.getString( "deco_uid" ) );
+            event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
+
+            event.setStoredBy( rowSet.getString( "psi_storedby" ) );
+            event.setOrgUnitName( rowSet.getString( "ou_name" ) );
+            event.setDueDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_duedate" ) ) );
+            event.setEventDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_executiondate" ) ) );
+            event.setCreated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_created" ) ) );
+            event.setCreatedByUserInfo( jsonToUserInfo( rowSet.getString( "psi_createdbyuserinfo" ), jsonMapper ) );
+            event.setLastUpdated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_lastupdated" ) ) );
+            event.setLastUpdatedByUserInfo(
+                jsonToUserInfo( rowSet.getString( "psi_lastupdatedbyuserinfo" ), jsonMapper ) );
+
+            event.setCompletedBy( rowSet.getString( "psi_completedby" ) );
+            event.setCompletedDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_completeddate" ) ) );
 
-                if ( rowSet.getObject( "usernote_id" ) != null )
+            if ( rowSet.getObject( "psi_geometry" ) != null )
+            {
+                try
                 {
+                    Geometry geom = new WKTReader().read( rowSet.getString( "psi_geometry" ) );
 
-                    note.setLastUpdatedBy(
-                        UserInfoSnapshot.of(
-                            rowSet.getLong( "usernote_id" ),
-                            rowSet.getString( "usernote_code" ),
-                            rowSet.getString( "usernote_uid" ),
-                            rowSet.getString( "usernote_username" ),
-                            rowSet.getString( "userinfo_firstname" ),
-                            rowSet.getString( "userinfo_surname" ) ) );
+                    event.setGeometry( geom );
                 }
+                catch ( ParseException e )
+                {
+                    log.error( "Unable to read geometry for event '" + event.getUid() + "': ", e );
+                }
+            }
 
-                note.setLastUpdated( rowSet.getDate( "psinote_lastupdated" ) );
-
-                event.getNotes().add( note );
-                notes.add( rowSet.getString( "psinote_id" ) );
+            if ( rowSet.getObject( "user_assigned" ) != null )
+            {
+                event.setAssignedUser( rowSet.getString( "user_assigned" ) );
+                event.setAssignedUserUsername( rowSet.getString( "user_assigned_username" ) );
+                event.setAssignedUserDisplayName( rowSet.getString( "user_assigned_name" ) );
             }
+
+            created = event;
         }
+        else
+        {
+            event = eventUidToEventMap.get( psiUid );
+            String attributeCategoryCombination = event.getAttributeCategoryOptions();
+            String currentAttributeCategoryCombination = rowSet.getString( "deco_uid" );
 
-        IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
-        IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
+            if ( !attributeCategoryCombination.contains( currentAttributeCategoryCombination ) )
+            {
+                event.setAttributeCategoryOptions(
+                    attributeCategoryCombination + ";" + currentAttributeCategoryCombination );
+            }
+        }
 
-        if ( dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID )
+        if ( !StringUtils.isEmpty( rowSet.getString( "psi_eventdatavalues" ) ) )
         {
-            CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
+            Set<EventDataValue> eventDataValues = convertEventDataValueJsonIntoSet(
+                rowSet.getString( "psi_eventdatavalues" ) );
 
-            List<Collection<DataValue>> dataValuesList = events.stream().map( Event::getDataValues )
-                .collect( Collectors.toList() );
-            populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
-            convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+            for ( EventDataValue dv : eventDataValues )
+            {
+                DataValue dataValue = convertEventDataValueIntoDtoDataValue( dv );
+
+                if ( params.isSynchronizationQuery() )
+                {
+                    if ( psdesWithSkipSyncTrue.containsKey( rowSet.getString( "ps_uid" ) ) && psdesWithSkipSyncTrue
+                        .get( rowSet.getString( "ps_uid" ) ).contains( dv.getDataElement() ) )
+                    {
+                        dataValue.setSkipSynchronization( true );
+                    }
+                    else
+                    {
+                        dataValue.setSkipSynchronization( false );
+                    }
+                }
+
+                event.getDataValues().add( dataValue );
+            }
         }
 
-        if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
+        if ( rowSet.getString( "psinote_value" ) != null && !notes.contains( rowSet.getString( "psinote_id" ) ) )
         {
-            return events.stream().filter( ev -> ev.getAttributeCategoryOptions() != null
-                && splitToArray( ev.getAttributeCategoryOptions(), TextUtils.SEMICOLON ).size() == ev.getOptionSize() )
-                .collect( Collectors.toList() );
+            Note note = new Note();
+            note.setNote( rowSet.getString( "psinote_uid" ) );
+            note.setValue( rowSet.getString( "psinote_value" ) );
+            note.setStoredDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psinote_storeddate" ) ) );
+            note.setStoredBy( rowSet.getString( "psinote_storedby" ) );
+
+            if ( rowSet.getObject( "usernote_id" ) != null )
+            {
+
+                note.setLastUpdatedBy(
+                    UserInfoSnapshot.of(
+                        rowSet.getLong( "usernote_id" ),
+                        rowSet.getString( "usernote_code" ),
+                        rowSet.getString( "usernote_uid" ),
+                        rowSet.getString( "usernote_username" ),
+                        rowSet.getString( "userinfo_firstname" ),
+                        rowSet.getString( "userinfo_surname" ) ) );
+            }
+
+            note.setLastUpdated( rowSet.getDate( "psinote_lastupdated" ) );
+
+            event.getNotes().add( note );
+            notes.add( rowSet.getString( "psinote_id" ) );
         }
 
-        return events;
+        return created;
     }
 
     @Override
@@ -769,7 +904,7 @@ public class JdbcEventStore implements EventStore
 
         if ( params.hasFilters() )
         {
-            sql = buildGridSql( params, organisationUnits );
+            sql = buildGridSql( params, organisationUnits, false );
         }
         else
         {
@@ -778,10 +913,6 @@ public class JdbcEventStore implements EventStore
 
         sql = sql.replaceFirst( "select .*? from", "select count(*) from" );
 
-        sql = sql.replaceFirst( "order .*? (desc|asc)", "" );
-
-        sql = sql.replaceFirst( "limit \\d+ offset \\d+", "" );
-
         log.debug( "Event query count SQL: " + sql );
 
         return jdbcTemplate.queryForObject( sql, Integer.class );
@@ -803,6 +934,16 @@ public class JdbcEventStore implements EventStore
     }
 
     private String buildGridSql( EventSearchParams params, List<OrganisationUnit> organisationUnits )
+    {
+        return buildGridSql( params, organisationUnits, true );
+    }
+
+    /**
+     * @param orderAndPage whether to include the order and paging clauses,
+     *        which are left out when counting events.
+     */
+    private String buildGridSql( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        boolean orderAndPage )
     {
         SqlHelper hlp = new SqlHelper();
 
@@ -846,6 +987,11 @@ public class JdbcEventStore implements EventStore
 
         sqlBuilder.append( getFromWhereClause( params, hlp, organisationUnits ) );
 
+        if ( !orderAndPage )
+        {
+            return sqlBuilder.toString();
+        }
+
         // ---------------------------------------------------------------------
         // Order clause
         // ---------------------------------------------------------------------
@@ -864,18 +1010,39 @@ public class JdbcEventStore implements EventStore
     /**
      * Query is based on three sub queries on event, data value and comment,
      * which are joined using program stage instance id. The purpose of the
-     * separate queries is to be able to page properly on events.
+     * separate queries is to be able to page properly on events. The event
+     * query returns one row per attribute category option of an event, so
+     * the page is selected on distinct event ids before the option rows are
+     * joined. When a page token is given, events are restricted to those
+     * following the last event of the previous page in the default order,
+     * instead of using an offset.
      */
     private String buildSql( EventSearchParams params, List<OrganisationUnit> organisationUnits, User user )
     {
+        String eventSelectQuery = getEventSelectQuery( params, organisationUnits, user );
+
         StringBuilder sqlBuilder = new StringBuilder().append( "select * from (" );
 
-        sqlBuilder.append( getEventSelectQuery( params, organisationUnits, user ) );
+        if ( params.isPaging() )
+        {
+            sqlBuilder.append( "select * from (" ).append( eventSelectQuery )
+                .append( ") as psi_rows where psi_id in (select psi_id from (select distinct on (psi_id) * from (" )
+                .append( eventSelectQuery ).append( ") as psi_keys " ).append( getPageTokenQuery( params ) )
+                .append( ") as psi_events " ).append( getOrderQuery( params ) )
+                .append( getEventPagingQuery( params ) ).append( ") " );
+        }
+        else if ( params.hasPageToken() )
+        {
+            sqlBuilder.append( "select * from (" ).append( eventSelectQuery ).append( ") as psi_page " )
+                .append( getPageTokenQuery( params ) );
+        }
+        else
+        {
+            sqlBuilder.append( eventSelectQuery );
+        }
 
         sqlBuilder.append( getOrderQuery( params ) );
 
-        sqlBuilder.append( getEventPagingQuery( params ) );
-
         sqlBuilder.append( ") as event left join (" );
 
         if ( params.isIncludeAttributes() )
@@ -1409,11 +1576,33 @@ public class JdbcEventStore implements EventStore
         return sqlBuilder.toString();
     }
 
+    private String getPageTokenQuery( EventSearchParams params )
+    {
+        if ( !params.hasPageToken() )
+        {
+            return "";
+        }
+
+        if ( !params.isDefaultOrder() )
+        {
+            throw new IllegalQueryException( "Page token cannot be combined with order" );
+        }
+
+        EventPageToken pageToken = EventPageToken.decode( params.getPageToken() );
+
+        return "where (psi_lastupdated, psi_id) < (cast('" + pageToken.getLastUpdatedString() + "' as timestamp), "
+            + pageToken.getId() + ") ";
+    }
+
     private String getEventPagingQuery( EventSearchParams params )
     {
         StringBuilder sqlBuilder = new StringBuilder().append( " " );
 
-        if ( params.isPaging() )
+        if ( params.isPaging() && params.hasPageToken() )
+        {
+            sqlBuilder.append( "limit " ).append( params.getPageSizeWithDefault() ).append( " " );
+        }
+        else if ( params.isPaging() )
         {
             sqlBuilder.append( "limit " ).append( params.getPageSizeWithDefault() ).append( " offset " )
                 .append( params.getOffset() ).append( " " );
@@ -1497,11 +1686,11 @@ public class JdbcEventStore implements EventStore
 
         if ( !orderFields.isEmpty() )
         {
-            return "order by " + StringUtils.join( orderFields, ',' ) + " ";
+            return "order by " + StringUtils.join( orderFields, ',' ) + ",psi_id desc ";
         }
         else
         {
-            return "order by psi_lastupdated desc ";
+            return "order by psi_lastupdated desc, psi_id desc ";
         }
     }
 
@@ -1680,7 +1869,8 @@ public class JdbcEventStore implements EventStore
         {
             ps.setObject(   21, null );
         }
-        ps.setObject(       22, eventDataValuesToJson( event.getEventDataValues(), this.jsonMapper ) );
+        ps.setObject(       22, eventDataValuesToJson( event.getEventDataValues(), this.jsonMapper,
+            isCompactEventDataValues() ) );
         // @formatter:on
     }
 
@@ -1723,7 +1913,8 @@ public class JdbcEventStore implements EventStore
             ps.setObject( 18, null );
         }
 
-        ps.setObject( 19, eventDataValuesToJson( programStageInstance.getEventDataValues(), this.jsonMapper ) );
+        ps.setObject( 19, eventDataValuesToJson( programStageInstance.getEventDataValues(), this.jsonMapper,
+            isCompactEventDataValues() ) );
         ps.setString( 20, programStageInstance.getUid() );
     }
 
@@ -1737,12 +1928,16 @@ public class JdbcEventStore implements EventStore
         return rowSet.getBoolean( "decoa_can_access" );
     }
 
+    private boolean isCompactEventDataValues()
+    {
+        return dhisConfig.isEnabled( ConfigurationKey.TRACKER_EVENT_DATA_VALUES_COMPACT );
+    }
+
     private Set<EventDataValue> convertEventDataValueJsonIntoSet( String jsonString )
     {
         try
         {
-            Map<String, EventDataValue> data = eventDataValueJsonReader.readValue( jsonString );
-            return JsonEventDataValueSetBinaryType.convertEventDataValuesMapIntoSet( data );
+            return JsonEventDataValueSetBinaryType.readEventDataValues( eventDataValueJsonMapper, jsonString );
         }
         catch ( IOException e )
         {
@@ -1781,10 +1976,18 @@ public class JdbcEventStore implements EventStore
         {
             for ( DataValue dv : dataValues )
             {
-                deUids.add( dv.getDataElement() );
+                if ( !dataElementUidToIdentifierCache.containsKey( dv.getDataElement() ) )
+                {
+                    deUids.add( dv.getDataElement() );
+                }
             }
         }
 
+        if ( deUids.isEmpty() )
+        {
+            return;
+        }
+
         if ( !idScheme.isAttribute() )
         {
             List<DataElement> dataElements = manager.get( DataElement.class, deUids );
@@ -30,7 +30,9 @@ package org.hisp.dhis.dxf2.events.event.csv;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.function.Consumer;
 
+import org.hisp.dhis.dxf2.events.event.Event;
 import org.hisp.dhis.dxf2.events.event.Events;
 
 /**
@@ -41,6 +43,17 @@ public interface CsvEventService
     void writeEvents( OutputStream outputStream, Events events, boolean withHeader )
         throws IOException;
 
+    /**
+     * Writes the events handed out by the given producer as CSV while they
+     * are produced, without collecting them in memory first.
+     *
+     * @param outputStream the stream to write to.
+     * @param eventProducer producer passing each event to the given consumer.
+     * @param withHeader whether to write a header row.
+     */
+    void streamEvents( OutputStream outputStream, Consumer<Consumer<Event>> eventProducer, boolean withHeader )
+        throws IOException;
+
     Events readEvents( InputStream inputStream, boolean skipFirst )
         throws IOException,
         org.locationtech.jts.io.ParseException;
@@ -30,8 +30,10 @@ package org.hisp.dhis.dxf2.events.event.csv;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.dxf2.events.event.DataValue;
@@ -45,6 +47,7 @@ import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvParser;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
@@ -71,47 +74,36 @@ public class DefaultCsvEventService
 
         for ( Event event : events.getEvents() )
         {
-            CsvEventDataValue templateDataValue = new CsvEventDataValue();
-            templateDataValue.setEvent( event.getEvent() );
-            templateDataValue.setStatus( event.getStatus() != null ? event.getStatus().name() : null );
-            templateDataValue.setProgram( event.getProgram() );
-            templateDataValue.setProgramStage( event.getProgramStage() );
-            templateDataValue.setEnrollment( event.getEnrollment() );
-            templateDataValue.setOrgUnit( event.getOrgUnit() );
-            templateDataValue.setEventDate( event.getEventDate() );
-            templateDataValue.setDueDate( event.getDueDate() );
-            templateDataValue.setStoredBy( event.getStoredBy() );
-            templateDataValue.setCompletedDate( event.getCompletedDate() );
-            templateDataValue.setCompletedBy( event.getCompletedBy() );
-
-            if ( event.getGeometry() != null )
-            {
-                templateDataValue.setGeometry( event.getGeometry().toText() );
+            dataValues.addAll( getCsvDataValues( event ) );
+        }
 
-                if ( event.getGeometry().getGeometryType().equals( "Point" ) )
-                {
-                    templateDataValue.setLongitude( event.getGeometry().getCoordinate().x );
-                    templateDataValue.setLatitude( event.getGeometry().getCoordinate().y );
-                }
-            }
+        writer.writeValue( outputStream, dataValues );
+    }
 
-            for ( DataValue value : event.getDataValues() )
-            {
-                CsvEventDataValue dataValue = new CsvEventDataValue( templateDataValue );
-                dataValue.setDataElement( value.getDataElement() );
-                dataValue.setValue( value.getValue() );
-                dataValue.setProvidedElsewhere( value.getProvidedElsewhere() );
+    @Override
+    public void streamEvents( OutputStream outputStream, Consumer<Consumer<Event>> eventProducer,
+        boolean withHeader )
+        throws IOException
+    {
+        ObjectWriter writer = CSV_MAPPER.writer( CSV_SCHEMA.withUseHeader( withHeader ) );
 
-                if ( value.getStoredBy() != null )
+        try ( SequenceWriter sequenceWriter = writer.writeValues( outputStream ) )
+        {
+            eventProducer.accept( event -> {
+                try
                 {
-                    dataValue.setStoredBy( value.getStoredBy() );
+                    sequenceWriter.writeAll( getCsvDataValues( event ) );
                 }
-
-                dataValues.add( dataValue );
-            }
+                catch ( IOException ex )
+                {
+                    throw new UncheckedIOException( ex );
+                }
+            } );
+        }
+        catch ( UncheckedIOException ex )
+        {
+            throw ex.getCause();
         }
-
-        writer.writeValue( outputStream, dataValues );
     }
 
     @Override
@@ -170,4 +162,57 @@ public class DefaultCsvEventService
 
         return events;
     }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Converts the given event to CSV rows, one per data value.
+     */
+    private List<CsvEventDataValue> getCsvDataValues( Event event )
+    {
+        List<CsvEventDataValue> dataValues = new ArrayList<>();
+
+        CsvEventDataValue templateDataValue = new CsvEventDataValue();
+        templateDataValue.setEvent( event.getEvent() );
+        templateDataValue.setStatus( event.getStatus() != null ? event.getStatus().name() : null );
+        templateDataValue.setProgram( event.getProgram() );
+        templateDataValue.setProgramStage( event.getProgramStage() );
+        templateDataValue.setEnrollment( event.getEnrollment() );
+        templateDataValue.setOrgUnit( event.getOrgUnit() );
+        templateDataValue.setEventDate( event.getEventDate() );
+        templateDataValue.setDueDate( event.getDueDate() );
+        templateDataValue.setStoredBy( event.getStoredBy() );
+        templateDataValue.setCompletedDate( event.getCompletedDate() );
+        templateDataValue.setCompletedBy( event.getCompletedBy() );
+
+        if ( event.getGeometry() != null )
+        {
+            templateDataValue.setGeometry( event.getGeometry().toText() );
+
+            if ( event.getGeometry().getGeometryType().equals( "Point" ) )
+            {
+                templateDataValue.setLongitude( event.getGeometry().getCoordinate().x );
+                templateDataValue.setLatitude( event.getGeometry().getCoordinate().y );
+            }
+        }
+
+        for ( DataValue value : event.getDataValues() )
+        {
+            CsvEventDataValue dataValue = new CsvEventDataValue( templateDataValue );
+            dataValue.setDataElement( value.getDataElement() );
+            dataValue.setValue( value.getValue() );
+            dataValue.setProvidedElsewhere( value.getProvidedElsewhere() );
+
+            if ( value.getStoredBy() != null )
+            {
+                dataValue.setStoredBy( value.getStoredBy() );
+            }
+
+            dataValues.add( dataValue );
+        }
+
+        return dataValues;
+    }
 }
@@ -33,12 +33,16 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.hisp.dhis.dxf2.events.event.DataValue;
+import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.hibernate.jsonb.type.JsonEventDataValueSetBinaryType;
+import org.hisp.dhis.util.DateUtils;
 import org.postgresql.util.PGobject;
 import org.springframework.jdbc.core.RowCallbackHandler;
 
-import com.google.gson.Gson;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
 /**
  * @author Luciano Fiandesio
@@ -49,8 +53,6 @@ public class EventDataValueRowCallbackHandler implements
 {
     private Map<String, List<DataValue>> dataValues;
 
-    private static final Gson gson = new Gson();
-
     public EventDataValueRowCallbackHandler()
     {
         this.dataValues = new HashMap<>();
@@ -63,25 +65,26 @@ public class EventDataValueRowCallbackHandler implements
         dataValues.put( rs.getString( "key" ), getDataValue( rs ) );
     }
 
+    /**
+     * Reads the event data values through
+     * {@link JsonEventDataValueSetBinaryType}, so that values in the verbose
+     * and in the compact encoding are mapped to identical data values.
+     */
     private List<DataValue> getDataValue( ResultSet rs )
         throws SQLException
     {
-        // TODO not sure this is the most efficient way to handle JSONB -> java
         List<DataValue> dataValues = new ArrayList<>();
 
         PGobject values = (PGobject) rs.getObject( "eventdatavalues" );
-        Map<String, ?> eventDataValuesJson = gson.fromJson( values.getValue(), Map.class );
 
-        for ( String dataElementUid : eventDataValuesJson.keySet() )
+        for ( EventDataValue eventDataValue : readEventDataValues( values.getValue() ) )
         {
-            Map jsonValues = (Map) eventDataValuesJson.get( dataElementUid );
-            DataValue value = new DataValue( dataElementUid,
-                (String) jsonValues.get( "value" ) );
+            DataValue value = new DataValue( eventDataValue.getDataElement(), eventDataValue.getValue() );
 
-            value.setCreated( (String) jsonValues.get( "created" ) );
-            value.setLastUpdated( (String) jsonValues.get( "lastUpdated" ) );
-            value.setStoredBy( (String) jsonValues.get( "storedBy" ) );
-            value.setProvidedElsewhere( (Boolean) jsonValues.get( "providedElsewhere" ) );
+            value.setCreated( DateUtils.getIso8601NoTz( eventDataValue.getCreated() ) );
+            value.setLastUpdated( DateUtils.getIso8601NoTz( eventDataValue.getLastUpdated() ) );
+            value.setStoredBy( eventDataValue.getStoredBy() );
+            value.setProvidedElsewhere( Boolean.TRUE.equals( eventDataValue.getProvidedElsewhere() ) );
 
             dataValues.add( value );
         }
@@ -89,6 +92,20 @@ public class EventDataValueRowCallbackHandler implements
         return dataValues;
     }
 
+    private Set<EventDataValue> readEventDataValues( String content )
+        throws SQLException
+    {
+        try
+        {
+            return JsonEventDataValueSetBinaryType.readEventDataValues( JsonEventDataValueSetBinaryType.MAPPER,
+                content );
+        }
+        catch ( JsonProcessingException e )
+        {
+            throw new SQLException( "Unable to read event data values", e );
+        }
+    }
+
     public Map<String, List<DataValue>> getItems()
     {
         return this.dataValues;
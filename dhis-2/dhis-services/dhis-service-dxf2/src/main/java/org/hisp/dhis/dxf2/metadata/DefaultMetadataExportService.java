@@ -27,11 +27,19 @@
  */
 package org.hisp.dhis.dxf2.metadata;
 
+import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nonnull;
 
@@ -47,8 +55,10 @@ import org.hisp.dhis.chart.Chart;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.InterpretableObject;
 import org.hisp.dhis.common.SetMap;
+import org.hisp.dhis.common.UserContext;
 import org.hisp.dhis.commons.timer.SystemTimer;
 import org.hisp.dhis.commons.timer.Timer;
+import org.hisp.dhis.commons.util.BoundedExecutor;
 import org.hisp.dhis.dashboard.Dashboard;
 import org.hisp.dhis.dashboard.DashboardItem;
 import org.hisp.dhis.dataelement.DataElement;
@@ -60,6 +70,7 @@ import org.hisp.dhis.dataset.DataSetElement;
 import org.hisp.dhis.dataset.Section;
 import org.hisp.dhis.document.Document;
 import org.hisp.dhis.dxf2.common.OrderParams;
+import org.hisp.dhis.dxf2.config.ServiceConfig;
 import org.hisp.dhis.eventchart.EventChart;
 import org.hisp.dhis.eventreport.EventReport;
 import org.hisp.dhis.fieldfilter.Defaults;
@@ -71,6 +82,7 @@ import org.hisp.dhis.interpretation.Interpretation;
 import org.hisp.dhis.legend.Legend;
 import org.hisp.dhis.legend.LegendSet;
 import org.hisp.dhis.mapping.MapView;
+import org.hisp.dhis.node.Node;
 import org.hisp.dhis.node.NodeUtils;
 import org.hisp.dhis.node.config.InclusionStrategy;
 import org.hisp.dhis.node.types.CollectionNode;
@@ -104,11 +116,18 @@ import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.trackedentity.TrackedEntityType;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserService;
+import org.hisp.dhis.user.UserSettingKey;
 import org.hisp.dhis.visualization.Visualization;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.base.Enums;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
@@ -131,6 +150,9 @@ public class DefaultMetadataExportService implements MetadataExportService
     @Autowired
     private CurrentUserService currentUserService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private ProgramRuleService programRuleService;
 
@@ -143,59 +165,30 @@ public class DefaultMetadataExportService implements MetadataExportService
     @Autowired
     private AttributeService attributeService;
 
+    @Autowired
+    @Qualifier( ServiceConfig.METADATA_EXPORT_EXECUTOR )
+    private BoundedExecutor exportExecutor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Override
-    @SuppressWarnings( "unchecked" )
     public Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> getMetadata(
         MetadataExportParams params )
     {
         Timer timer = new SystemTimer().start();
-        Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata = new HashMap<>();
+        Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata = new LinkedHashMap<>();
 
-        if ( params.getUser() == null )
-        {
-            params.setUser( currentUserService.getCurrentUser() );
-        }
-
-        if ( params.getClasses().isEmpty() )
-        {
-            schemaService.getMetadataSchemas().stream()
-                .filter( schema -> schema.isIdentifiableObject() && schema.isPersisted() )
-                .filter( s -> !s.isSecondaryMetadata() )
-                .forEach(
-                    schema -> params.getClasses().add( (Class<? extends IdentifiableObject>) schema.getKlass() ) );
-        }
+        initParams( params );
 
         log.info( "(" + params.getUsername() + ") Export:Start" );
 
-        for ( Class<? extends IdentifiableObject> klass : params.getClasses() )
+        for ( Class<? extends IdentifiableObject> klass : getSortedClasses( params ) )
         {
-            Query query;
-
-            if ( params.getQuery( klass ) != null )
-            {
-                query = params.getQuery( klass );
-            }
-            else
-            {
-                OrderParams orderParams = new OrderParams( Sets.newHashSet( params.getDefaultOrder() ) );
-                query = queryService.getQueryFromUrl( klass, params.getDefaultFilter(),
-                    orderParams.getOrders( schemaService.getDynamicSchema( klass ) ) );
-            }
-
-            if ( query.getUser() == null )
-            {
-                query.setUser( params.getUser() );
-            }
-
-            query.setDefaultOrder();
-            query.setDefaults( params.getDefaults() );
-
-            List<? extends IdentifiableObject> objects = queryService.query( query );
+            List<? extends IdentifiableObject> objects = queryObjects( params, klass );
 
             if ( !objects.isEmpty() )
             {
-                log.info( "(" + params.getUsername() + ") Exported " + objects.size() + " objects of type "
-                    + klass.getSimpleName() );
                 metadata.put( klass, objects );
             }
         }
@@ -208,26 +201,13 @@ public class DefaultMetadataExportService implements MetadataExportService
     @Override
     public RootNode getMetadataAsNode( MetadataExportParams params )
     {
-        RootNode rootNode = NodeUtils.createMetadata();
-        rootNode.getConfig().setInclusionStrategy( params.getInclusionStrategy() );
-
-        SystemInfo systemInfo = systemService.getSystemInfo();
-
-        ComplexNode system = rootNode.addChild( new ComplexNode( "system" ) );
-        system.addChild( new SimpleNode( "id", systemInfo.getSystemId() ) );
-        system.addChild( new SimpleNode( "rev", systemInfo.getRevision() ) );
-        system.addChild( new SimpleNode( "version", systemInfo.getVersion() ) );
-        system.addChild( new SimpleNode( "date", systemInfo.getServerDate() ) );
+        RootNode rootNode = createRootNode( params );
 
         Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata = getMetadata( params );
 
         for ( Class<? extends IdentifiableObject> klass : metadata.keySet() )
         {
-            FieldFilterParams fieldFilterParams = new FieldFilterParams( metadata.get( klass ),
-                params.getFields( klass ), params.getDefaults(), params.getSkipSharing() );
-            fieldFilterParams.setUser( params.getUser() );
-
-            CollectionNode collectionNode = fieldFilterService.toCollectionNode( klass, fieldFilterParams );
+            CollectionNode collectionNode = getCollectionNode( params, klass, metadata.get( klass ) );
 
             if ( !collectionNode.getChildren().isEmpty() )
             {
@@ -238,6 +218,20 @@ public class DefaultMetadataExportService implements MetadataExportService
         return rootNode;
     }
 
+    @Override
+    public RootNode getMetadataAsStreamingNode( MetadataExportParams params )
+    {
+        RootNode rootNode = createRootNode( params );
+
+        initParams( params );
+
+        log.info( "(" + params.getUsername() + ") Export:Start" );
+
+        rootNode.setDeferredChildren( new SectionIterator( params, getSortedClasses( params ) ) );
+
+        return rootNode;
+    }
+
     @Override
     public void validate( MetadataExportParams params )
     {
@@ -429,6 +423,253 @@ public class DefaultMetadataExportService implements MetadataExportService
         return rootNode;
     }
 
+    // -----------------------------------------------------------------------------------
+    // Export
+    // -----------------------------------------------------------------------------------
+
+    @SuppressWarnings( "unchecked" )
+    private void initParams( MetadataExportParams params )
+    {
+        if ( params.getUser() == null )
+        {
+            params.setUser( currentUserService.getCurrentUser() );
+        }
+
+        if ( params.getClasses().isEmpty() )
+        {
+            schemaService.getMetadataSchemas().stream()
+                .filter( schema -> schema.isIdentifiableObject() && schema.isPersisted() )
+                .filter( s -> !s.isSecondaryMetadata() )
+                .forEach(
+                    schema -> params.getClasses().add( (Class<? extends IdentifiableObject>) schema.getKlass() ) );
+        }
+    }
+
+    /**
+     * Returns the classes to export in the order of their schemas, which is
+     * the order in which they are imported.
+     */
+    private List<Class<? extends IdentifiableObject>> getSortedClasses( MetadataExportParams params )
+    {
+        List<Class<? extends IdentifiableObject>> classes = new ArrayList<>( params.getClasses() );
+        classes.sort( Comparator.comparingInt( klass -> schemaService.getDynamicSchema( klass ).getOrder() ) );
+
+        return classes;
+    }
+
+    private RootNode createRootNode( MetadataExportParams params )
+    {
+        RootNode rootNode = NodeUtils.createMetadata();
+        rootNode.getConfig().setInclusionStrategy( params.getInclusionStrategy() );
+
+        SystemInfo systemInfo = systemService.getSystemInfo();
+
+        ComplexNode system = rootNode.addChild( new ComplexNode( "system" ) );
+        system.addChild( new SimpleNode( "id", systemInfo.getSystemId() ) );
+        system.addChild( new SimpleNode( "rev", systemInfo.getRevision() ) );
+        system.addChild( new SimpleNode( "version", systemInfo.getVersion() ) );
+        system.addChild( new SimpleNode( "date", systemInfo.getServerDate() ) );
+
+        return rootNode;
+    }
+
+    private List<? extends IdentifiableObject> queryObjects( MetadataExportParams params,
+        Class<? extends IdentifiableObject> klass )
+    {
+        return queryObjects( params, klass, params.getUser() );
+    }
+
+    private List<? extends IdentifiableObject> queryObjects( MetadataExportParams params,
+        Class<? extends IdentifiableObject> klass, User user )
+    {
+        Query query;
+
+        if ( params.getQuery( klass ) != null )
+        {
+            query = params.getQuery( klass );
+        }
+        else
+        {
+            OrderParams orderParams = new OrderParams( Sets.newHashSet( params.getDefaultOrder() ) );
+            query = queryService.getQueryFromUrl( klass, params.getDefaultFilter(),
+                orderParams.getOrders( schemaService.getDynamicSchema( klass ) ) );
+        }
+
+        if ( query.getUser() == null )
+        {
+            query.setUser( user );
+        }
+
+        query.setDefaultOrder();
+        query.setDefaults( params.getDefaults() );
+
+        List<? extends IdentifiableObject> objects = queryService.query( query );
+
+        if ( !objects.isEmpty() )
+        {
+            log.info( "(" + params.getUsername() + ") Exported " + objects.size() + " objects of type "
+                + klass.getSimpleName() );
+        }
+
+        return objects;
+    }
+
+    private CollectionNode getCollectionNode( MetadataExportParams params, Class<? extends IdentifiableObject> klass,
+        List<? extends IdentifiableObject> objects )
+    {
+        return getCollectionNode( params, klass, objects, params.getUser() );
+    }
+
+    private CollectionNode getCollectionNode( MetadataExportParams params, Class<? extends IdentifiableObject> klass,
+        List<? extends IdentifiableObject> objects, User user )
+    {
+        FieldFilterParams fieldFilterParams = new FieldFilterParams( objects, params.getFields( klass ),
+            params.getDefaults(), params.getSkipSharing() );
+        fieldFilterParams.setUser( user );
+
+        return fieldFilterService.toCollectionNode( klass, fieldFilterParams );
+    }
+
+    /**
+     * Produces the collection node of each class in order. The sections of the
+     * next classes are read concurrently in the export pool, each in its own
+     * read-only transaction, while at most as many sections as the pool has
+     * threads are in progress or waiting to be written.
+     *
+     * Users are reloaded by id in the transaction of each section, as the
+     * entities of the calling thread belong to its own persistence session.
+     * Closing the iterator cancels the sections not yet started and discards
+     * the sections in progress, e.g. when the client disconnected.
+     */
+    private class SectionIterator
+        extends AbstractIterator<Node>
+        implements AutoCloseable
+    {
+        private final MetadataExportParams params;
+
+        private final Iterator<Class<? extends IdentifiableObject>> classes;
+
+        private final Deque<Future<CollectionNode>> pending = new ArrayDeque<>();
+
+        private final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        private final Long userId;
+
+        private final Long contextUserId = getId( UserContext.getUser() );
+
+        private final Serializable dbLocale = UserContext.getUserSetting( UserSettingKey.DB_LOCALE );
+
+        private final Timer timer = new SystemTimer().start();
+
+        SectionIterator( MetadataExportParams params, List<Class<? extends IdentifiableObject>> classes )
+        {
+            this.params = params;
+            this.classes = classes.iterator();
+            this.userId = getId( params.getUser() );
+        }
+
+        @Override
+        public void close()
+        {
+            pending.forEach( f -> f.cancel( true ) );
+            pending.clear();
+        }
+
+        @Override
+        protected Node computeNext()
+        {
+            submitSections();
+
+            while ( !pending.isEmpty() )
+            {
+                CollectionNode collectionNode = getSection( pending.poll() );
+
+                submitSections();
+
+                if ( !collectionNode.getChildren().isEmpty() )
+                {
+                    return collectionNode;
+                }
+            }
+
+            log.info( "(" + params.getUsername() + ") Export:Done took " + timer.toString() );
+
+            return endOfData();
+        }
+
+        private void submitSections()
+        {
+            while ( pending.size() < exportExecutor.getParallelism() && classes.hasNext() )
+            {
+                Class<? extends IdentifiableObject> klass = classes.next();
+
+                pending.add( exportExecutor.submit( () -> readSection( klass ) ) );
+            }
+        }
+
+        private CollectionNode readSection( Class<? extends IdentifiableObject> klass )
+        {
+            SecurityContextHolder.getContext().setAuthentication( authentication );
+
+            try
+            {
+                TransactionTemplate readOnlyTemplate = new TransactionTemplate(
+                    transactionTemplate.getTransactionManager() );
+                readOnlyTemplate.setReadOnly( true );
+
+                return readOnlyTemplate.execute( status -> {
+                    User user = getUser( userId );
+
+                    UserContext.setUser( getUser( contextUserId ) );
+                    UserContext.setUserSetting( UserSettingKey.DB_LOCALE, dbLocale );
+
+                    return getCollectionNode( params, klass, queryObjects( params, klass, user ), user );
+                } );
+            }
+            finally
+            {
+                UserContext.reset();
+                SecurityContextHolder.clearContext();
+            }
+        }
+
+        private Long getId( User user )
+        {
+            return user != null ? user.getId() : null;
+        }
+
+        private User getUser( Long id )
+        {
+            return id != null ? userService.getUser( id ) : null;
+        }
+
+        private CollectionNode getSection( Future<CollectionNode> future )
+        {
+            try
+            {
+                return future.get();
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+                close();
+
+                throw new MetadataExportException( "Interrupted while exporting metadata" );
+            }
+            catch ( ExecutionException ex )
+            {
+                close();
+
+                if ( ex.getCause() instanceof RuntimeException )
+                {
+                    throw (RuntimeException) ex.getCause();
+                }
+
+                throw new IllegalStateException( ex.getCause() );
+            }
+        }
+    }
+
     // -----------------------------------------------------------------------------------
     // Utility Methods
     // -----------------------------------------------------------------------------------
@@ -59,6 +59,18 @@ public interface MetadataExportService
      */
     RootNode getMetadataAsNode( MetadataExportParams params );
 
+    /**
+     * Returns same result as getMetadataAsNode, but the objects of each class
+     * are read concurrently and produced as deferred children of the root
+     * node, one class at a time while the node is serialized. The returned
+     * node can be serialized only once.
+     *
+     * @param params Export parameters
+     * @return RootNode instance with deferred children for the exported
+     *         objects
+     */
+    RootNode getMetadataAsStreamingNode( MetadataExportParams params );
+
     /**
      * Validates the import params. Not currently implemented.
      *
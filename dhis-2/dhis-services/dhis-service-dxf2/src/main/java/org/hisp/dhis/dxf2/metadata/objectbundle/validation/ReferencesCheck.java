@@ -45,7 +45,6 @@ import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.preheat.Preheat;
 import org.hisp.dhis.preheat.PreheatErrorReport;
 import org.hisp.dhis.preheat.PreheatIdentifier;
-import org.hisp.dhis.schema.PropertyType;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.user.User;
@@ -109,62 +108,60 @@ public class ReferencesCheck
         }
 
         Schema schema = ctx.getSchemaService().getDynamicSchema( HibernateProxyUtils.getRealClass( object ) );
-        schema.getProperties().stream().filter( p -> p.isPersisted() && p.isOwner()
-            && (PropertyType.REFERENCE == p.getPropertyType() || PropertyType.REFERENCE == p.getItemPropertyType()) )
-            .forEach( p -> {
-                if ( skipCheck( p.getKlass() ) || skipCheck( p.getItemKlass() ) )
-                {
-                    return;
-                }
+        schema.getOwnerReferenceProperties().forEach( p -> {
+            if ( skipCheck( p.getKlass() ) || skipCheck( p.getItemKlass() ) )
+            {
+                return;
+            }
 
-                if ( !p.isCollection() )
+            if ( !p.isCollection() )
+            {
+                IdentifiableObject refObject = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
+                IdentifiableObject ref = preheat.get( identifier, refObject );
+
+                if ( ref == null && refObject != null && !preheat.isDefault( refObject ) )
                 {
-                    IdentifiableObject refObject = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
-                    IdentifiableObject ref = preheat.get( identifier, refObject );
+                    // HACK this needs to be redone when the move to using
+                    // uuid as user identifiers is ready
+                    boolean isUserReference = User.class.isAssignableFrom( p.getKlass() ) &&
+                        ("user".equals( p.getName() ) || "lastUpdatedBy".equals( p.getName() ));
 
-                    if ( ref == null && refObject != null && !preheat.isDefault( refObject ) )
+                    if ( !(isUserReference && skipSharing) )
                     {
-                        // HACK this needs to be redone when the move to using
-                        // uuid as user identifiers is ready
-                        boolean isUserReference = User.class.isAssignableFrom( p.getKlass() ) &&
-                            ("user".equals( p.getName() ) || "lastUpdatedBy".equals( p.getName() ));
-
-                        if ( !(isUserReference && skipSharing) )
-                        {
-                            preheatErrorReports.add( new PreheatErrorReport( identifier, object.getClass(),
-                                ErrorCode.E5002, identifier.getIdentifiersWithName( refObject ),
-                                identifier.getIdentifiersWithName( object ), p.getName() ) );
-                        }
+                        preheatErrorReports.add( new PreheatErrorReport( identifier, object.getClass(),
+                            ErrorCode.E5002, identifier.getIdentifiersWithName( refObject ),
+                            identifier.getIdentifiersWithName( object ), p.getName() ) );
                     }
                 }
-                else
+            }
+            else
+            {
+                Collection<IdentifiableObject> objects = ReflectionUtils.newCollectionInstance( p.getKlass() );
+                Collection<IdentifiableObject> refObjects = ReflectionUtils.invokeMethod( object,
+                    p.getGetterMethod() );
+
+                for ( IdentifiableObject refObject : refObjects )
                 {
-                    Collection<IdentifiableObject> objects = ReflectionUtils.newCollectionInstance( p.getKlass() );
-                    Collection<IdentifiableObject> refObjects = ReflectionUtils.invokeMethod( object,
-                        p.getGetterMethod() );
+                    if ( preheat.isDefault( refObject ) )
+                        continue;
+
+                    IdentifiableObject ref = preheat.get( identifier, refObject );
 
-                    for ( IdentifiableObject refObject : refObjects )
+                    if ( ref == null && refObject != null )
                     {
-                        if ( preheat.isDefault( refObject ) )
-                            continue;
-
-                        IdentifiableObject ref = preheat.get( identifier, refObject );
-
-                        if ( ref == null && refObject != null )
-                        {
-                            preheatErrorReports.add( new PreheatErrorReport( identifier, object.getClass(),
-                                ErrorCode.E5002, identifier.getIdentifiersWithName( refObject ),
-                                identifier.getIdentifiersWithName( object ), p.getCollectionName() ) );
-                        }
-                        else
-                        {
-                            objects.add( refObject );
-                        }
+                        preheatErrorReports.add( new PreheatErrorReport( identifier, object.getClass(),
+                            ErrorCode.E5002, identifier.getIdentifiersWithName( refObject ),
+                            identifier.getIdentifiersWithName( object ), p.getCollectionName() ) );
+                    }
+                    else
+                    {
+                        objects.add( refObject );
                     }
-
-                    ReflectionUtils.invokeMethod( object, p.getSetterMethod(), objects );
                 }
-            } );
+
+                ReflectionUtils.invokeMethod( object, p.getSetterMethod(), objects );
+            }
+        } );
 
         if ( schema.havePersistedProperty( "attributeValues" ) )
         {
@@ -28,27 +28,41 @@
 package org.hisp.dhis.dxf2.events.event;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import javax.sql.DataSource;
 
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.dxf2.events.report.EventRow;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.jdbc.statementbuilder.PostgreSQLStatementBuilder;
 import org.hisp.dhis.user.CurrentUserService;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -75,6 +89,9 @@ public class JdbcEventStoreTest
     @Mock
     private Environment env;
 
+    @Mock
+    private DhisConfigurationProvider dhisConfig;
+
     @Rule
     public MockitoRule rule = MockitoJUnit.rule();
 
@@ -87,7 +104,7 @@ public class JdbcEventStoreTest
 
         ObjectMapper objectMapper = new ObjectMapper();
         subject = new JdbcEventStore( new PostgreSQLStatementBuilder(), jdbcTemplate, objectMapper, currentUserService,
-            manager, env );
+            manager, env, dhisConfig );
     }
 
     @Test
@@ -101,6 +118,105 @@ public class JdbcEventStoreTest
         verify( rowSet, times( 4 ) ).getString( "psi_eventdatavalues" );
     }
 
+    @Test
+    public void verifyPageTokenRestrictsQueryToFollowingEvents()
+    {
+        when( rowSet.next() ).thenReturn( false );
+
+        EventPageToken pageToken = new EventPageToken( LocalDateTime.of( 2021, 3, 1, 10, 15, 30, 123456000 ), 42L );
+
+        EventSearchParams eventSearchParams = new EventSearchParams()
+            .setPageSize( 50 )
+            .setPageToken( pageToken.encode() );
+
+        subject.getEvents( eventSearchParams, new ArrayList<>(), new HashMap<>() );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate ).queryForRowSet( sql.capture() );
+
+        assertThat( sql.getValue(), containsString(
+            "(psi_lastupdated, psi_id) < (cast('2021-03-01 10:15:30.123456' as timestamp), 42)" ) );
+        assertThat( sql.getValue(), containsString( "limit 50 " ) );
+        assertThat( sql.getValue(), not( containsString( "offset" ) ) );
+    }
+
+    @Test
+    public void verifyPageIsCutOnEventsWithSeveralCategoryOptions()
+    {
+        mockEventWithTwoCategoryOptions();
+
+        EventSearchParams eventSearchParams = new EventSearchParams().setPageSize( 1 );
+
+        List<Event> events = subject.getEvents( eventSearchParams, new ArrayList<>(), new HashMap<>() );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate ).queryForRowSet( sql.capture() );
+
+        assertThat( sql.getValue(), containsString( "psi_id in (select psi_id from (select distinct on (psi_id) * " ) );
+        assertThat( sql.getValue(), containsString( "as psi_events order by psi_lastupdated desc, psi_id desc  "
+            + "limit 1 offset 0 ) " ) );
+        assertThat( events, hasSize( 1 ) );
+        assertEquals( "CatOptUID01;CatOptUID02", events.get( 0 ).getAttributeCategoryOptions() );
+        assertEquals( 42L, EventPageToken.decode( eventSearchParams.getNextPageToken() ).getId() );
+    }
+
+    @Test
+    public void verifyShortPageHasNoPageToken()
+    {
+        mockEventWithTwoCategoryOptions();
+
+        EventSearchParams eventSearchParams = new EventSearchParams().setPageSize( 2 );
+
+        List<Event> events = subject.getEvents( eventSearchParams, new ArrayList<>(), new HashMap<>() );
+
+        assertThat( events, hasSize( 1 ) );
+        assertNull( eventSearchParams.getNextPageToken() );
+    }
+
+    @Test( expected = IllegalQueryException.class )
+    public void verifyInvalidPageTokenIsRejected()
+    {
+        EventSearchParams eventSearchParams = new EventSearchParams()
+            .setPageSize( 50 )
+            .setPageToken( "invalid" );
+
+        subject.getEvents( eventSearchParams, new ArrayList<>(), new HashMap<>() );
+    }
+
+    @Test
+    public void verifyStreamEventsReadsOverCursor()
+        throws Exception
+    {
+        subject.streamEvents( new EventSearchParams(), new ArrayList<>(), event -> {
+        } );
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass( PreparedStatementCreator.class );
+        verify( jdbcTemplate ).query( creator.capture(), any( ResultSetExtractor.class ) );
+        verify( jdbcTemplate, never() ).queryForRowSet( anyString() );
+
+        Connection connection = mock( Connection.class );
+        PreparedStatement statement = mock( PreparedStatement.class );
+        when( connection.prepareStatement( anyString() ) ).thenReturn( statement );
+
+        creator.getValue().createPreparedStatement( connection );
+
+        verify( statement ).setFetchSize( 1000 );
+    }
+
+    private void mockEventWithTwoCategoryOptions()
+    {
+        mockRowSet();
+
+        // Simulate one event with two attribute category options
+        when( rowSet.next() ).thenReturn( true ).thenReturn( true ).thenReturn( false );
+
+        when( rowSet.getObject( "psi_lastupdated", LocalDateTime.class ) )
+            .thenReturn( LocalDateTime.of( 2021, 3, 1, 10, 15, 30 ) );
+        when( rowSet.getLong( "psi_id" ) ).thenReturn( 42L );
+        when( rowSet.getString( "psi_status" ) ).thenReturn( "ACTIVE" );
+        when( rowSet.getString( "deco_uid" ) ).thenReturn( "CatOptUID01" ).thenReturn( "CatOptUID02" );
+    }
+
     private void mockRowSet()
     {
         // Simulate 3 rows
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.events.trackedentity.store.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.hisp.dhis.dxf2.events.event.DataValue;
+import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.hibernate.jsonb.type.JsonEventDataValueSetBinaryType;
+import org.hisp.dhis.program.UserInfoSnapshot;
+import org.junit.Test;
+import org.postgresql.util.PGobject;
+
+public class EventDataValueRowCallbackHandlerTest
+{
+    @Test
+    public void verifyVerboseAndCompactEncodingsAreMappedIdentically()
+        throws Exception
+    {
+        UserInfoSnapshot user = new UserInfoSnapshot();
+        user.setUsername( "admin" );
+
+        EventDataValue eventDataValue = new EventDataValue( "hUQ5Hfcx1JA", "g8upMTyEZGZ", user );
+        eventDataValue.setCreated( new Date( 1560506250564L ) );
+        eventDataValue.setLastUpdated( new Date( 1560506250987L ) );
+        eventDataValue.setStoredBy( "admin" );
+
+        String verbose = JsonEventDataValueSetBinaryType.MAPPER
+            .writeValueAsString( Collections.singletonMap( "hUQ5Hfcx1JA", eventDataValue ) );
+        String compact = JsonEventDataValueSetBinaryType
+            .writeCompactJson( Collections.singleton( eventDataValue ) );
+
+        DataValue verboseValue = getDataValue( verbose );
+        DataValue compactValue = getDataValue( compact );
+
+        assertEquals( "hUQ5Hfcx1JA", compactValue.getDataElement() );
+        assertEquals( verboseValue.getValue(), compactValue.getValue() );
+        assertEquals( verboseValue.getCreated(), compactValue.getCreated() );
+        assertEquals( verboseValue.getLastUpdated(), compactValue.getLastUpdated() );
+        assertEquals( verboseValue.getStoredBy(), compactValue.getStoredBy() );
+        assertEquals( verboseValue.getProvidedElsewhere(), compactValue.getProvidedElsewhere() );
+        assertFalse( compactValue.getProvidedElsewhere() );
+    }
+
+    private DataValue getDataValue( String json )
+        throws SQLException
+    {
+        PGobject values = new PGobject();
+        values.setType( "jsonb" );
+        values.setValue( json );
+
+        ResultSet rs = mock( ResultSet.class );
+        when( rs.getString( "key" ) ).thenReturn( "iuDUBa26aHN" );
+        when( rs.getObject( "eventdatavalues" ) ).thenReturn( values );
+
+        EventDataValueRowCallbackHandler handler = new EventDataValueRowCallbackHandler();
+        handler.processRow( rs );
+
+        List<DataValue> dataValues = handler.getItems().get( "iuDUBa26aHN" );
+        assertEquals( 1, dataValues.size() );
+
+        return dataValues.get( 0 );
+    }
+}
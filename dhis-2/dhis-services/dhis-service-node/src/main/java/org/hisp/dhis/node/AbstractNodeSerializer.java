@@ -28,6 +28,7 @@
 package org.hisp.dhis.node;
 
 import java.io.OutputStream;
+import java.util.Iterator;
 
 import org.hisp.dhis.node.config.Config;
 import org.hisp.dhis.node.types.CollectionNode;
@@ -65,10 +66,41 @@ public abstract class AbstractNodeSerializer implements NodeSerializer
         throws Exception
     {
         this.config = rootNode.getConfig();
-        startSerialize( rootNode, outputStream );
-        writeRootNode( rootNode );
-        endSerialize( rootNode, outputStream );
-        this.config = null;
+
+        try
+        {
+            if ( !isStreaming() )
+            {
+                rootNode.getDeferredChildren().forEachRemaining( rootNode::addChild );
+            }
+
+            startSerialize( rootNode, outputStream );
+            writeRootNode( rootNode );
+            endSerialize( rootNode, outputStream );
+        }
+        finally
+        {
+            // Releases the producer of deferred children which were not
+            // written, e.g. as the client disconnected
+
+            if ( rootNode.getDeferredChildren() instanceof AutoCloseable )
+            {
+                ((AutoCloseable) rootNode.getDeferredChildren()).close();
+            }
+
+            this.config = null;
+        }
+    }
+
+    /**
+     * Indicates whether this serializer writes the deferred children of the
+     * root node one at a time. Serializers which need all children up front,
+     * e.g. to derive a header, get the deferred children added as regular
+     * children before serializing.
+     */
+    protected boolean isStreaming()
+    {
+        return false;
     }
 
     protected abstract void startWriteRootNode( RootNode rootNode )
@@ -85,6 +117,17 @@ public abstract class AbstractNodeSerializer implements NodeSerializer
             flushStream();
         }
 
+        Iterator<? extends Node> deferredChildren = rootNode.getDeferredChildren();
+
+        while ( deferredChildren.hasNext() )
+        {
+            AbstractNode node = (AbstractNode) deferredChildren.next();
+            node.setParent( rootNode );
+
+            dispatcher( node );
+            flushStream();
+        }
+
         endWriteRootNode( rootNode );
         flushStream();
     }
@@ -98,6 +98,11 @@ public final class NodeUtils
         pagerNode.addChild( new SimpleNode( "nextPage", pager.getNextPage() ) );
         pagerNode.addChild( new SimpleNode( "prevPage", pager.getPrevPage() ) );
 
+        if ( pager.getNextPageToken() != null )
+        {
+            pagerNode.addChild( new SimpleNode( "nextPageToken", pager.getNextPageToken() ) );
+        }
+
         return pagerNode;
     }
 
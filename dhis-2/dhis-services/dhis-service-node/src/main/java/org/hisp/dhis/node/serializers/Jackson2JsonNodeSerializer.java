@@ -72,6 +72,12 @@ public class Jackson2JsonNodeSerializer extends AbstractNodeSerializer
         return Lists.newArrayList( CONTENT_TYPE );
     }
 
+    @Override
+    protected boolean isStreaming()
+    {
+        return true;
+    }
+
     @Override
     protected void flushStream()
         throws Exception
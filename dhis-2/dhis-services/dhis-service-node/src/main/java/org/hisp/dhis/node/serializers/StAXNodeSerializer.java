@@ -98,6 +98,12 @@ public class StAXNodeSerializer extends AbstractNodeSerializer
         writer.setDefaultNamespace( rootNode.getDefaultNamespace() );
     }
 
+    @Override
+    protected boolean isStreaming()
+    {
+        return true;
+    }
+
     @Override
     protected void flushStream()
         throws Exception
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.node.types;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Objects;
 
 import org.hisp.dhis.node.Node;
@@ -41,6 +43,8 @@ public class RootNode extends ComplexNode
 
     private final Config config = new Config();
 
+    private Iterator<? extends Node> deferredChildren = Collections.emptyIterator();
+
     public RootNode( String name )
     {
         super( name );
@@ -69,6 +73,22 @@ public class RootNode extends ComplexNode
         return config;
     }
 
+    /**
+     * Children which are produced while serializing, after the regular
+     * children. Each deferred child is written and released before the next
+     * one is produced, so they are never held in memory together. The
+     * iterator can be consumed only once.
+     */
+    public Iterator<? extends Node> getDeferredChildren()
+    {
+        return deferredChildren;
+    }
+
+    public void setDeferredChildren( Iterator<? extends Node> deferredChildren )
+    {
+        this.deferredChildren = deferredChildren;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.node.serializers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.hisp.dhis.node.Node;
+import org.hisp.dhis.node.types.CollectionNode;
+import org.hisp.dhis.node.types.ComplexNode;
+import org.hisp.dhis.node.types.RootNode;
+import org.hisp.dhis.node.types.SimpleNode;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for {@link Jackson2JsonNodeSerializer}.
+ */
+public class Jackson2JsonNodeSerializerTest
+{
+    private final Jackson2JsonNodeSerializer serializer = new Jackson2JsonNodeSerializer( new ObjectMapper() );
+
+    @Test
+    public void serializeDeferredChildren()
+        throws Exception
+    {
+        RootNode rootNode = new RootNode( "metadata" );
+        ComplexNode system = rootNode.addChild( new ComplexNode( "system" ) );
+        system.addChild( new SimpleNode( "id", "sys" ) );
+
+        Iterator<Node> deferredChildren = Arrays.<Node> asList( createCollection( "dataElements", "a" ),
+            createCollection( "indicators", "b" ) ).iterator();
+        rootNode.setDeferredChildren( deferredChildren );
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        serializer.serialize( rootNode, outputStream );
+
+        assertEquals( "{\"system\":{\"id\":\"sys\"},\"dataElements\":[{\"id\":\"a\"}],\"indicators\":[{\"id\":\"b\"}]}",
+            new String( outputStream.toByteArray(), StandardCharsets.UTF_8 ) );
+        assertFalse( deferredChildren.hasNext() );
+        assertEquals( 1, rootNode.getChildren().size() );
+    }
+
+    private CollectionNode createCollection( String name, String id )
+    {
+        CollectionNode collectionNode = new CollectionNode( name );
+        ComplexNode complexNode = collectionNode.addChild( new ComplexNode( name.substring( 0, name.length() - 1 ) ) );
+        complexNode.addChild( new SimpleNode( "id", id ) );
+
+        return collectionNode;
+    }
+}
@@ -38,6 +38,7 @@ import static org.hisp.dhis.system.notification.NotificationLevel.ERROR;
 import static org.hisp.dhis.system.util.ValidationUtils.dataValueIsZeroAndInsignificant;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +51,7 @@ import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.*;
 import org.hisp.dhis.commons.collection.CachingMap;
+import org.hisp.dhis.commons.util.BoundedExecutor;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.constant.Constant;
 import org.hisp.dhis.constant.ConstantService;
@@ -70,6 +72,7 @@ import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.program.AnalyticsType;
 import org.hisp.dhis.program.ProgramIndicator;
+import org.hisp.dhis.reporting.config.ExecutorConfig;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.scheduling.parameters.PredictorJobParameters;
 import org.hisp.dhis.system.notification.NotificationLevel;
@@ -80,6 +83,7 @@ import org.hisp.dhis.user.User;
 import org.hisp.dhis.util.DateUtils;
 import org.hisp.quick.BatchHandler;
 import org.hisp.quick.BatchHandlerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -119,11 +123,14 @@ public class DefaultPredictionService
 
     private CurrentUserService currentUserService;
 
+    private final BoundedExecutor predictionExecutor;
+
     public DefaultPredictionService( PredictorService predictorService, ConstantService constantService,
         ExpressionService expressionService, DataValueService dataValueService, CategoryService categoryService,
         OrganisationUnitService organisationUnitService, PeriodService periodService,
         IdentifiableObjectManager idObjectManager, AnalyticsService analyticsService, Notifier notifier,
-        BatchHandlerFactory batchHandlerFactory, CurrentUserService currentUserService )
+        BatchHandlerFactory batchHandlerFactory, CurrentUserService currentUserService,
+        @Qualifier( ExecutorConfig.PREDICTION_EXECUTOR ) BoundedExecutor predictionExecutor )
     {
         checkNotNull( predictorService );
         checkNotNull( constantService );
@@ -136,6 +143,7 @@ public class DefaultPredictionService
         checkNotNull( notifier );
         checkNotNull( batchHandlerFactory );
         checkNotNull( currentUserService );
+        checkNotNull( predictionExecutor );
 
         this.predictorService = predictorService;
         this.constantService = constantService;
@@ -149,6 +157,7 @@ public class DefaultPredictionService
         this.notifier = notifier;
         this.batchHandlerFactory = batchHandlerFactory;
         this.currentUserService = currentUserService;
+        this.predictionExecutor = predictionExecutor;
     }
 
     /**
@@ -180,6 +189,17 @@ public class DefaultPredictionService
      */
     private final static String NON_AOC = "x";
 
+    /**
+     * Number of organisation units fetched from the database at once.
+     */
+    private final static int ORG_UNITS_PER_FETCH = 500;
+
+    /**
+     * Maximum number of organisation units for which predictions are
+     * evaluated by a single task of the prediction pool.
+     */
+    private final static int ORG_UNITS_PER_TASK = 50;
+
     @Override
     public PredictionSummary predictJob( PredictorJobParameters params, JobConfiguration jobId )
     {
@@ -286,12 +306,12 @@ public class DefaultPredictionService
                 sampleItems, new HashSet<>() );
         }
         Map<String, Constant> constantMap = constantService.getConstantMap();
-        List<Period> outputPeriods = getPeriodsBetweenDates( predictor.getPeriodType(), startDate, endDate );
-        Set<Period> existingOutputPeriods = getExistingPeriods( outputPeriods );
-        ListMap<Period, Period> samplePeriodsMap = getSamplePeriodsMap( outputPeriods, predictor );
+        List<Period> predictedPeriods = getPeriodsBetweenDates( predictor.getPeriodType(), startDate, endDate );
+        Set<Period> existingOutputPeriods = getExistingPeriods( predictedPeriods );
+        ListMap<Period, Period> samplePeriodsMap = getSamplePeriodsMap( predictedPeriods, predictor );
         Set<Period> allSamplePeriods = samplePeriodsMap.uniqueValues();
         Set<Period> existingSamplePeriods = getExistingPeriods( new ArrayList<>( allSamplePeriods ) );
-        outputPeriods = periodService.reloadPeriods( outputPeriods );
+        List<Period> outputPeriods = periodService.reloadPeriods( predictedPeriods );
         Set<Period> outputPeriodSet = new HashSet<>( outputPeriods );
         CategoryOptionCombo defaultCategoryOptionCombo = categoryService.getDefaultCategoryOptionCombo();
         Set<String> defaultOptionComboAsSet = Sets.newHashSet( defaultCategoryOptionCombo.getUid() );
@@ -304,15 +324,10 @@ public class DefaultPredictionService
         DimensionalItemObject predictionReference = getPredictionReference( outputDataElement, outputOptionCombo,
             sampleItems );
 
-        Set<OrganisationUnit> currentUserOrgUnits = new HashSet<>();
-        String storedBy = "system-process";
         User currentUser = currentUserService.getCurrentUser();
-
-        if ( currentUser != null )
-        {
-            currentUserOrgUnits = currentUser.getOrganisationUnits();
-            storedBy = currentUser.getUsername();
-        }
+        Set<OrganisationUnit> currentUserOrgUnits = currentUser != null ? currentUser.getOrganisationUnits()
+            : new HashSet<>();
+        String storedBy = currentUser != null ? currentUser.getUsername() : "system-process";
 
         predictionSummary.incrementPredictors();
 
@@ -333,7 +348,7 @@ public class DefaultPredictionService
 
             // For performance, fetch the data from a bunch of orgUnits at once.
 
-            List<List<OrganisationUnit>> orgUnitLists = Lists.partition( orgUnitsAtLevel, 500 );
+            List<List<OrganisationUnit>> orgUnitLists = Lists.partition( orgUnitsAtLevel, ORG_UNITS_PER_FETCH );
 
             for ( List<OrganisationUnit> orgUnits : orgUnitLists )
             {
@@ -345,82 +360,103 @@ public class DefaultPredictionService
                     ? new Map4<>()
                     : getDataValues( items, outputPeriodSet, existingOutputPeriods, orgUnits );
 
-                List<DataValue> predictions = new ArrayList<>();
+                // Attribute option combos are resolved up front, as the
+                // prediction tasks below run outside of the database session.
+
+                Map<String, CategoryOptionCombo> aocLookup = getAttributeOptionComboLookup( sampleMap4, valueMap4,
+                    defaultCategoryOptionCombo, cocMap );
 
                 // For each org unit, find its sample data and its non-sample
-                // data values.
+                // data values. Org units are evaluated in parallel tasks,
+                // while all predictions are written from this thread.
                 //
                 // We will make independent predictions for each attribute
                 // option combination, but some analytics data that is not
                 // stored by AOC must be evaluated with every AOC found.
 
-                for ( OrganisationUnit orgUnit : orgUnits )
-                {
-                    MapMapMap<String, Period, DimensionalItemObject, Double> sampleMap3 = firstNonNull(
-                        sampleMap4.get( orgUnit ), new MapMapMap<>() );
-                    MapMapMap<String, Period, DimensionalItemObject, Double> valueMap3 = firstNonNull(
-                        valueMap4.get( orgUnit ), new MapMapMap<>() );
-
-                    MapMap<Period, DimensionalItemObject, Double> sampleMapNonAoc = firstNonNull(
-                        sampleMap3.get( NON_AOC ), new MapMap<>() );
-                    MapMap<Period, DimensionalItemObject, Double> valueMapNonAoc = firstNonNull(
-                        valueMap3.get( NON_AOC ), new MapMap<>() );
-
-                    Set<String> attributeOptionCombos = getAttributeOptionCombos( sampleMap3, valueMap3,
-                        defaultOptionComboAsSet );
-
-                    // Predict independently for each AOC, adding in the data,
-                    // if any, that is stored without an AOC.
+                List<Callable<List<DataValue>>> tasks = new ArrayList<>();
 
-                    for ( String aoc : attributeOptionCombos )
-                    {
-                        MapMap<Period, DimensionalItemObject, Double> sampleMap2 = firstNonNull( sampleMap3.get( aoc ),
-                            new MapMap<>() );
-                        MapMap<Period, DimensionalItemObject, Double> valueMap2 = firstNonNull( valueMap3.get( aoc ),
-                            new MapMap<>() );
-
-                        sampleMap2.putMap( sampleMapNonAoc );
-                        valueMap2.putMap( valueMapNonAoc );
-
-                        MapMap<Period, DimensionalItemObject, Double> periodValueMap = applySkipTest( sampleMap2,
-                            skipTest, constantMap );
-
-                        // Predict for each output period.
+                for ( List<OrganisationUnit> taskOrgUnits : Lists.partition( orgUnits, ORG_UNITS_PER_TASK ) )
+                {
+                    tasks.add( () -> {
+                        List<DataValue> taskPredictions = new ArrayList<>();
 
-                        for ( Period outputPeriod : outputPeriods )
+                        for ( OrganisationUnit orgUnit : taskOrgUnits )
                         {
-                            Map<DimensionalItemObject, Double> valueMap = firstNonNull( valueMap2.get( outputPeriod ),
-                                new HashMap<>() );
+                            MapMapMap<String, Period, DimensionalItemObject, Double> sampleMap3 = firstNonNull(
+                                sampleMap4.get( orgUnit ), new MapMapMap<>() );
+                            MapMapMap<String, Period, DimensionalItemObject, Double> valueMap3 = firstNonNull(
+                                valueMap4.get( orgUnit ), new MapMapMap<>() );
 
-                            if ( requireData
-                                && dataIsAbsent( outputPeriod, valueMap, samplePeriodsMap, periodValueMap ) )
-                            {
-                                continue;
-                            }
+                            MapMap<Period, DimensionalItemObject, Double> sampleMapNonAoc = firstNonNull(
+                                sampleMap3.get( NON_AOC ), new MapMap<>() );
+                            MapMap<Period, DimensionalItemObject, Double> valueMapNonAoc = firstNonNull(
+                                valueMap3.get( NON_AOC ), new MapMap<>() );
 
-                            Double value = castDouble( expressionService.getExpressionValue( generator.getExpression(),
-                                PREDICTOR_EXPRESSION, valueMap, constantMap, null,
-                                outputPeriod.getDaysInPeriod(), generator.getMissingValueStrategy(),
-                                samplePeriodsMap.get( outputPeriod ), periodValueMap ) );
+                            Set<String> attributeOptionCombos = getAttributeOptionCombos( sampleMap3, valueMap3,
+                                defaultOptionComboAsSet );
 
-                            carryPredictionForward( value, outputPeriod, predictionReference, periodValueMap );
+                            // Predict independently for each AOC, adding in the
+                            // data, if any, that is stored without an AOC.
 
-                            if ( value != null && !value.isNaN() && !value.isInfinite() &&
-                                !dataValueIsZeroAndInsignificant( Double.toString( value ), outputDataElement ) )
+                            for ( String aoc : attributeOptionCombos )
                             {
-                                String valueString = outputDataElement.getValueType().isInteger()
-                                    ? Long.toString( Math.round( value ) )
-                                    : Double.toString( MathUtils.roundFraction( value, 4 ) );
-
-                                predictions.add( new DataValue( outputDataElement,
-                                    outputPeriod, orgUnit, outputOptionCombo,
-                                    cocMap.get( aoc, () -> categoryService.getCategoryOptionCombo( aoc ) ),
-                                    valueString, storedBy, now, null ) );
+                                MapMap<Period, DimensionalItemObject, Double> sampleMap2 = firstNonNull(
+                                    sampleMap3.get( aoc ), new MapMap<>() );
+                                MapMap<Period, DimensionalItemObject, Double> valueMap2 = firstNonNull(
+                                    valueMap3.get( aoc ), new MapMap<>() );
+
+                                sampleMap2.putMap( sampleMapNonAoc );
+                                valueMap2.putMap( valueMapNonAoc );
+
+                                MapMap<Period, DimensionalItemObject, Double> periodValueMap = applySkipTest(
+                                    sampleMap2, skipTest, constantMap );
+
+                                // Predict for each output period.
+
+                                for ( Period outputPeriod : outputPeriods )
+                                {
+                                    Map<DimensionalItemObject, Double> valueMap = firstNonNull(
+                                        valueMap2.get( outputPeriod ), new HashMap<>() );
+
+                                    if ( requireData
+                                        && dataIsAbsent( outputPeriod, valueMap, samplePeriodsMap, periodValueMap ) )
+                                    {
+                                        continue;
+                                    }
+
+                                    Double value = castDouble( expressionService.getExpressionValue(
+                                        generator.getExpression(), PREDICTOR_EXPRESSION, valueMap, constantMap, null,
+                                        outputPeriod.getDaysInPeriod(), generator.getMissingValueStrategy(),
+                                        samplePeriodsMap.get( outputPeriod ), periodValueMap ) );
+
+                                    carryPredictionForward( value, outputPeriod, predictionReference,
+                                        periodValueMap );
+
+                                    if ( value != null && !value.isNaN() && !value.isInfinite()
+                                        && !dataValueIsZeroAndInsignificant( Double.toString( value ),
+                                            outputDataElement ) )
+                                    {
+                                        String valueString = outputDataElement.getValueType().isInteger()
+                                            ? Long.toString( Math.round( value ) )
+                                            : Double.toString( MathUtils.roundFraction( value, 4 ) );
+
+                                        taskPredictions.add( new DataValue( outputDataElement,
+                                            outputPeriod, orgUnit, outputOptionCombo, aocLookup.get( aoc ),
+                                            valueString, storedBy, now, null ) );
+                                    }
+                                }
                             }
                         }
-                    }
+
+                        return taskPredictions;
+                    } );
                 }
 
+                List<DataValue> predictions = predictionExecutor.invokeAll( tasks ).stream()
+                    .flatMap( List::stream )
+                    .collect( Collectors.toList() );
+
                 writePredictions( predictions, outputDataElement, outputOptionCombo,
                     outputPeriodSet, existingOutputPeriods, orgUnits, storedBy, predictionSummary );
             }
@@ -431,6 +467,40 @@ public class DefaultPredictionService
     // Supportive Methods
     // -------------------------------------------------------------------------
 
+    /**
+     * Resolves the attribute option combos of the fetched data, plus the
+     * default attribute option combo, by UID.
+     *
+     * @param sampleMap4 other-period sample data for the org units.
+     * @param valueMap4 current-period sample data for the org units.
+     * @param defaultCategoryOptionCombo system default category option combo.
+     * @param cocMap cache of category option combos by UID.
+     * @return map of attribute option combos by UID.
+     */
+    private Map<String, CategoryOptionCombo> getAttributeOptionComboLookup(
+        Map4<OrganisationUnit, String, Period, DimensionalItemObject, Double> sampleMap4,
+        Map4<OrganisationUnit, String, Period, DimensionalItemObject, Double> valueMap4,
+        CategoryOptionCombo defaultCategoryOptionCombo, CachingMap<String, CategoryOptionCombo> cocMap )
+    {
+        Set<String> aocs = new HashSet<>();
+
+        sampleMap4.values().forEach( map3 -> aocs.addAll( map3.keySet() ) );
+        valueMap4.values().forEach( map3 -> aocs.addAll( map3.keySet() ) );
+
+        aocs.remove( NON_AOC );
+
+        Map<String, CategoryOptionCombo> aocLookup = new HashMap<>();
+
+        aocLookup.put( defaultCategoryOptionCombo.getUid(), defaultCategoryOptionCombo );
+
+        for ( String aoc : aocs )
+        {
+            aocLookup.put( aoc, cocMap.get( aoc, () -> categoryService.getCategoryOptionCombo( aoc ) ) );
+        }
+
+        return aocLookup;
+    }
+
     /**
      * For a predictor and orgUnit, determines the set of attribute option
      * combos for which predictions will be generated.
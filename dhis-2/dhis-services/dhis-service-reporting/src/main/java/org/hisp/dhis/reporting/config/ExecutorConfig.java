@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reporting.config;
+
+import org.hisp.dhis.commons.util.BoundedExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application wide thread pools of validation and prediction.
+ */
+@Configuration( "reportingExecutorConfig" )
+public class ExecutorConfig
+{
+    public static final String VALIDATION_EXECUTOR = "org.hisp.dhis.validation.ValidationExecutor";
+
+    public static final String PREDICTION_EXECUTOR = "org.hisp.dhis.predictor.PredictionExecutor";
+
+    /**
+     * Pool for evaluating validation rules.
+     */
+    @Bean( VALIDATION_EXECUTOR )
+    public BoundedExecutor validationExecutor()
+    {
+        return new BoundedExecutor( "VALIDATION", Integer.MAX_VALUE );
+    }
+
+    /**
+     * Pool for evaluating predictor expressions. Tasks must not access the
+     * database.
+     */
+    @Bean( PREDICTION_EXECUTOR )
+    public BoundedExecutor predictionExecutor()
+    {
+        return new BoundedExecutor( "PREDICTION", Integer.MAX_VALUE );
+    }
+}
@@ -165,7 +165,7 @@ public class DataValidationTask
      */
     private void runInternal()
     {
-        if ( context.isAnalysisComplete() )
+        if ( context.isAnalysisComplete() || context.isCancelled() )
         {
             return;
         }
@@ -178,6 +178,11 @@ public class DataValidationTask
             {
                 period = p;
 
+                if ( !context.isAffectedByChanges( periodTypeX, period ) )
+                {
+                    continue;
+                }
+
                 getData();
 
                 for ( OrganisationUnit ou : orgUnits )
@@ -189,10 +194,16 @@ public class DataValidationTask
                     {
                         ruleX = r;
 
-                        if ( context.isAnalysisComplete() )
+                        if ( context.isAnalysisComplete() || context.isCancelled() )
                         {
                             break loop;
                         }
+
+                        if ( !context.isAffectedByChanges( ruleX, orgUnit, period ) )
+                        {
+                            continue;
+                        }
+
                         validationResults = new HashSet<>();
                         validateRule();
                         addValidationResultsToContext();
@@ -208,6 +219,11 @@ public class DataValidationTask
      */
     private void validateRule()
     {
+        if ( context.isIncremental() )
+        {
+            context.addValidatedCell( orgUnit, ruleX.getRule(), period );
+        }
+
         // Skip validation if org unit level does not match
         if ( !ruleX.getOrganisationUnitLevels().isEmpty() &&
             !ruleX.getOrganisationUnitLevels().contains( orgUnit.getLevel() ) )
@@ -249,23 +265,34 @@ public class DataValidationTask
      */
     private void validateOptionCombo( String optionCombo, Double leftSide, Double rightSide )
     {
-        // Skipping any results we already know
-        if ( context.skipValidationOfTuple( orgUnit, ruleX.getRule(), period, optionCombo,
-            periodService.getDayInPeriod( period, new Date() ) ) )
+        int dayInPeriod = periodService.getDayInPeriod( period, new Date() );
+
+        boolean known = context.skipValidationOfTuple( orgUnit, ruleX.getRule(), period, optionCombo,
+            dayInPeriod );
+
+        // Skipping any results we already know, unless incremental where
+        // known results are evaluated again to reconcile them
+
+        if ( known && !context.isIncremental() )
         {
             return;
         }
 
         boolean violation = isViolation( leftSide, rightSide );
 
-        if ( violation && !context.isAnalysisComplete() )
+        if ( violation && context.isIncremental() )
+        {
+            context.addViolatedCell( orgUnit, ruleX.getRule(), period, optionCombo );
+        }
+
+        if ( violation && !known && !context.isAnalysisComplete() )
         {
             validationResults.add( new ValidationResult(
                 ruleX.getRule(), period, orgUnit,
                 getAttributeOptionCombo( optionCombo ),
                 roundSignificant( zeroIfNull( leftSide ) ),
                 roundSignificant( zeroIfNull( rightSide ) ),
-                periodService.getDayInPeriod( period, new Date() ) ) );
+                dayInPeriod ) );
         }
     }
 
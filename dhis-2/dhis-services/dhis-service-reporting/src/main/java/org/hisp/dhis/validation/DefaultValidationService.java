@@ -45,6 +45,7 @@ import org.hisp.dhis.dataelement.DataElementOperand;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.datavalue.DeflatedDataValue;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -172,6 +173,7 @@ public class DefaultValidationService
                 : parameters.getPeriods().size() + " periods")
             + ", "
             + parameters.getValidationRules().size() + " rules"
+            + (parameters.isIncremental() ? ", changes since " + parameters.getChangedSince() : "")
             + (parameters.isPersistResults() ? ", persisting results" : "")
             + (parameters.isSendNotifications() ? ", sending notifications" : "") );
 
@@ -181,6 +183,18 @@ public class DefaultValidationService
 
         List<ValidationResult> results = Validator.validate( context, applicationContext, analyticsService );
 
+        if ( context.isCancelled() )
+        {
+            clock.logTime( "Validation analysis cancelled, " + results.size() + " results" ).stop();
+
+            return results;
+        }
+
+        if ( context.isIncremental() && context.isPersistResults() )
+        {
+            results.removeAll( removeObsoleteResults( context ) );
+        }
+
         if ( context.isPersistResults() )
         {
             validationResultService.saveValidationResults( context.getValidationResults() );
@@ -295,6 +309,15 @@ public class DefaultValidationService
         addRulesToContext( periodTypeXMap, parameters.getValidationRules() );
         removeAnyUnneededPeriodTypes( periodTypeXMap );
 
+        Map<Long, SetMap<String, Period>> changedPeriods = null;
+
+        if ( parameters.isIncremental() )
+        {
+            changedPeriods = getChangedPeriods( parameters.getChangedSince() );
+
+            orgUnits = getOrgUnitsAffectedByChanges( orgUnits, periodTypeXMap.values(), changedPeriods );
+        }
+
         ValidationRunContext.Builder builder = ValidationRunContext.newBuilder()
             .withOrgUnits( orgUnits )
             .withPeriodTypeXs( new ArrayList<>( periodTypeXMap.values() ) )
@@ -307,7 +330,9 @@ public class DefaultValidationService
             .withPersistResults( parameters.isPersistResults() )
             .withAttributeCombo( parameters.getAttributeOptionCombo() )
             .withDefaultAttributeCombo( categoryService.getDefaultCategoryOptionCombo() )
-            .withMaxResults( parameters.getMaxResults() );
+            .withMaxResults( parameters.getMaxResults() )
+            .withChangedPeriods( changedPeriods )
+            .withJobConfiguration( parameters.getJobConfiguration() );
 
         if ( currentUser != null )
         {
@@ -376,6 +401,8 @@ public class DefaultValidationService
 
         SetMap<PeriodTypeExtended, DimensionalItemId> periodItemIds = new SetMap<>();
 
+        Map<ValidationRuleExtended, Set<DimensionalItemId>> ruleItemIds = new HashMap<>();
+
         for ( ValidationRule rule : rules )
         {
             PeriodTypeExtended periodX = periodTypeXMap.get( rule.getPeriodType() );
@@ -400,6 +427,8 @@ public class DefaultValidationService
 
             periodItemIds.putValues( periodX, itemIds );
 
+            ruleItemIds.put( ruleX, itemIds );
+
             allItemIds.addAll( itemIds );
         }
 
@@ -409,7 +438,38 @@ public class DefaultValidationService
         Map<DimensionalItemId, DimensionalItemObject> dimensionItemMap = dimensionService
             .getNoAclDataDimensionalItemObjectMap( allItemIds );
 
-        // 3. Save the dimensional objects in the extended period types.
+        // 3. Save the data elements of each rule, used to find the rules
+        // affected by data value changes in incremental validation.
+
+        for ( Map.Entry<ValidationRuleExtended, Set<DimensionalItemId>> entry : ruleItemIds.entrySet() )
+        {
+            ValidationRuleExtended ruleX = entry.getKey();
+
+            for ( DimensionalItemId itemId : entry.getValue() )
+            {
+                DimensionalItemObject item = dimensionItemMap.get( itemId );
+
+                if ( item == null )
+                {
+                    continue;
+                }
+
+                if ( DimensionItemType.DATA_ELEMENT == item.getDimensionItemType() )
+                {
+                    ruleX.getDataElementIds().add( item.getId() );
+                }
+                else if ( DimensionItemType.DATA_ELEMENT_OPERAND == item.getDimensionItemType() )
+                {
+                    ruleX.getDataElementIds().add( ((DataElementOperand) item).getDataElement().getId() );
+                }
+                else
+                {
+                    ruleX.setOnlyDataElementItems( false );
+                }
+            }
+        }
+
+        // 4. Save the dimensional objects in the extended period types.
 
         for ( Map.Entry<PeriodTypeExtended, Set<DimensionalItemId>> entry : periodItemIds.entrySet() )
         {
@@ -446,6 +506,143 @@ public class DefaultValidationService
         }
     }
 
+    /**
+     * Gets the periods of data values changed since the given date by data
+     * element id and organisation unit uid. A change is registered for the
+     * organisation unit of the value and all its ancestors, as values are
+     * aggregated up the hierarchy when validating.
+     *
+     * @param since the date from which to include changes.
+     * @return the changed periods.
+     */
+    private Map<Long, SetMap<String, Period>> getChangedPeriods( Date since )
+    {
+        List<DeflatedDataValue> changes = dataValueService.getDeflatedDataValueChanges( since );
+
+        Set<Long> orgUnitIds = new HashSet<>();
+        Map<Long, Period> periodMap = new HashMap<>();
+
+        for ( DeflatedDataValue change : changes )
+        {
+            orgUnitIds.add( change.getSourceId() );
+            periodMap.computeIfAbsent( change.getPeriodId(), periodService::getPeriod );
+        }
+
+        Map<Long, OrganisationUnit> orgUnitMap = new HashMap<>();
+
+        for ( OrganisationUnit orgUnit : organisationUnitService.getOrganisationUnits( orgUnitIds ) )
+        {
+            orgUnitMap.put( orgUnit.getId(), orgUnit );
+        }
+
+        Map<Long, SetMap<String, Period>> changedPeriods = new HashMap<>();
+
+        for ( DeflatedDataValue change : changes )
+        {
+            OrganisationUnit orgUnit = orgUnitMap.get( change.getSourceId() );
+            Period period = periodMap.get( change.getPeriodId() );
+
+            if ( orgUnit == null || period == null )
+            {
+                continue;
+            }
+
+            SetMap<String, Period> orgUnitPeriods = changedPeriods
+                .computeIfAbsent( change.getDataElementId(), k -> new SetMap<>() );
+
+            for ( String uid : orgUnit.getPath().split( "/" ) )
+            {
+                if ( !uid.isEmpty() )
+                {
+                    orgUnitPeriods.putValue( uid, period );
+                }
+            }
+        }
+
+        log.info( String.format( "Found %d data value changes in %d organisation units since %s",
+            changes.size(), orgUnitMap.size(), since ) );
+
+        return changedPeriods;
+    }
+
+    /**
+     * Restricts the organisation units to validate to the ones affected by data
+     * value changes, unless any rule can be affected by other changes than data
+     * value changes.
+     *
+     * @param orgUnits the organisation units to validate.
+     * @param periodTypeXs the extended period types holding the rules.
+     * @param changedPeriods the changed periods by data element and
+     *        organisation unit.
+     * @return the organisation units to validate.
+     */
+    private List<OrganisationUnit> getOrgUnitsAffectedByChanges( List<OrganisationUnit> orgUnits,
+        Collection<PeriodTypeExtended> periodTypeXs, Map<Long, SetMap<String, Period>> changedPeriods )
+    {
+        Set<String> affectedUids = new HashSet<>();
+
+        for ( PeriodTypeExtended periodTypeX : periodTypeXs )
+        {
+            for ( ValidationRuleExtended ruleX : periodTypeX.getRuleXs() )
+            {
+                if ( !ruleX.hasOnlyDataElementItems() )
+                {
+                    return orgUnits;
+                }
+
+                for ( Long dataElementId : ruleX.getDataElementIds() )
+                {
+                    SetMap<String, Period> orgUnitPeriods = changedPeriods.get( dataElementId );
+
+                    if ( orgUnitPeriods != null )
+                    {
+                        affectedUids.addAll( orgUnitPeriods.keySet() );
+                    }
+                }
+            }
+        }
+
+        List<OrganisationUnit> affected = new ArrayList<>();
+
+        for ( OrganisationUnit orgUnit : orgUnits )
+        {
+            if ( affectedUids.contains( orgUnit.getUid() ) )
+            {
+                affected.add( orgUnit );
+            }
+        }
+
+        return affected;
+    }
+
+    /**
+     * Deletes the persisted results which were evaluated again during an
+     * incremental analysis and are no longer violations. Skipped when the max
+     * results were reached, as not all combinations were evaluated then.
+     *
+     * @param context the validation run context.
+     * @return the deleted validation results.
+     */
+    private List<ValidationResult> removeObsoleteResults( ValidationRunContext context )
+    {
+        if ( context.isAnalysisComplete() )
+        {
+            log.info( "Max results reached, keeping existing validation results" );
+
+            return new ArrayList<>();
+        }
+
+        List<ValidationResult> obsolete = context.getObsoleteValidationResults();
+
+        context.getValidationResults().removeAll( obsolete );
+
+        obsolete.forEach( validationResultService::deleteValidationResult );
+
+        log.info( String.format( "Removed %d obsolete validation results", obsolete.size() ) );
+
+        return obsolete;
+    }
+
     /**
      * Checks to see if a dimensional item object has values stored in the
      * database by attribute option combo.
@@ -56,6 +56,10 @@ public class ValidationRuleExtended
 
     private boolean rightSlidingWindow;
 
+    private Set<Long> dataElementIds = new HashSet<>();
+
+    private boolean onlyDataElementItems = true;
+
     public ValidationRuleExtended( ValidationRule rule )
     {
         this.rule = rule;
@@ -70,7 +74,9 @@ public class ValidationRuleExtended
             .append( "rule", rule )
             .append( "organisationUnitLevels", organisationUnitLevels )
             .append( "leftSlidingWindow", leftSlidingWindow )
-            .append( "rightSlidingWindow", rightSlidingWindow ).toString();
+            .append( "rightSlidingWindow", rightSlidingWindow )
+            .append( "dataElementIds", dataElementIds )
+            .append( "onlyDataElementItems", onlyDataElementItems ).toString();
     }
 
     // -------------------------------------------------------------------------
@@ -96,4 +102,29 @@ public class ValidationRuleExtended
     {
         return rightSlidingWindow;
     }
+
+    /**
+     * Ids of the data elements referenced by the rule expressions, either
+     * directly or through data element operands.
+     */
+    public Set<Long> getDataElementIds()
+    {
+        return dataElementIds;
+    }
+
+    /**
+     * Indicates whether the rule expressions only reference data elements and
+     * data element operands without sliding windows, in which case the rule
+     * result for an organisation unit and period can only change when a value
+     * of one of its data elements changes.
+     */
+    public boolean hasOnlyDataElementItems()
+    {
+        return onlyDataElementItems && !leftSlidingWindow && !rightSlidingWindow;
+    }
+
+    public void setOnlyDataElementItems( boolean onlyDataElementItems )
+    {
+        this.onlyDataElementItems = onlyDataElementItems;
+    }
 }
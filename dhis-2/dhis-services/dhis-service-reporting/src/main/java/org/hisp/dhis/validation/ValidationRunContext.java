@@ -35,15 +35,19 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.Validate;
 import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.category.CategoryOptionGroup;
+import org.hisp.dhis.common.MapMap;
 import org.hisp.dhis.common.MapMapMap;
+import org.hisp.dhis.common.SetMap;
 import org.hisp.dhis.constant.Constant;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.JobConfiguration;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -88,6 +92,40 @@ public class ValidationRunContext
 
     private MapMapMap<OrganisationUnit, ValidationRule, Period, List<ValidationResult>> initialValidationResults = new MapMapMap<>();
 
+    // -------------------------------------------------------------------------
+    // Progress and cancellation
+    // -------------------------------------------------------------------------
+
+    private JobConfiguration jobConfiguration;
+
+    private volatile boolean cancelled = false;
+
+    private final AtomicInteger validatedOrgUnits = new AtomicInteger();
+
+    // -------------------------------------------------------------------------
+    // Incremental validation
+    // -------------------------------------------------------------------------
+
+    /**
+     * Periods of changed data values by data element id and organisation unit
+     * uid, where the organisation units include the ancestors of the
+     * organisation units of the changed values. Null unless the analysis is
+     * incremental.
+     */
+    private Map<Long, SetMap<String, Period>> changedPeriods;
+
+    /**
+     * Organisation unit, rule and period combinations which were evaluated
+     * during an incremental analysis.
+     */
+    private Set<String> validatedCells = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Organisation unit, rule, period and attribute option combo combinations
+     * which were found to be violations during an incremental analysis.
+     */
+    private Set<String> violatedCells = ConcurrentHashMap.newKeySet();
+
     private ValidationRunContext()
     {
         validationResults = new ConcurrentLinkedQueue<>();
@@ -203,9 +241,175 @@ public class ValidationRunContext
 
     }
 
-    public int getNumberOfTasks()
+    public boolean isIncremental()
+    {
+        return changedPeriods != null;
+    }
+
+    /**
+     * Indicates whether any rule of the given period type may be affected by
+     * data value changes in the given period, for any organisation unit. Always
+     * true unless the analysis is incremental.
+     */
+    public boolean isAffectedByChanges( PeriodTypeExtended periodTypeX, Period period )
+    {
+        if ( changedPeriods == null )
+        {
+            return true;
+        }
+
+        for ( ValidationRuleExtended ruleX : periodTypeX.getRuleXs() )
+        {
+            if ( !ruleX.hasOnlyDataElementItems() )
+            {
+                return true;
+            }
+
+            for ( Long dataElementId : ruleX.getDataElementIds() )
+            {
+                SetMap<String, Period> orgUnitPeriods = changedPeriods.get( dataElementId );
+
+                if ( orgUnitPeriods != null && orgUnitPeriods.values().stream()
+                    .anyMatch( periods -> overlapsAny( periods, period ) ) )
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Indicates whether the result of the given rule for the given organisation
+     * unit and period may be affected by data value changes. Always true
+     * unless the analysis is incremental. Rules which reference other items
+     * than data elements or use sliding windows are always considered
+     * affected.
+     */
+    public boolean isAffectedByChanges( ValidationRuleExtended ruleX, OrganisationUnit orgUnit, Period period )
+    {
+        if ( changedPeriods == null || !ruleX.hasOnlyDataElementItems() )
+        {
+            return true;
+        }
+
+        for ( Long dataElementId : ruleX.getDataElementIds() )
+        {
+            SetMap<String, Period> orgUnitPeriods = changedPeriods.get( dataElementId );
+
+            if ( orgUnitPeriods != null && overlapsAny( orgUnitPeriods.get( orgUnit.getUid() ), period ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Records that the given organisation unit, rule and period combination
+     * was evaluated during an incremental analysis.
+     */
+    public void addValidatedCell( OrganisationUnit orgUnit, ValidationRule rule, Period period )
+    {
+        validatedCells.add( getCellKey( orgUnit, rule, period ) );
+    }
+
+    /**
+     * Records that the given combination was found to be a violation during an
+     * incremental analysis.
+     */
+    public void addViolatedCell( OrganisationUnit orgUnit, ValidationRule rule, Period period,
+        String attributeOptionCombo )
+    {
+        violatedCells.add( getCellKey( orgUnit, rule, period ) + "-" + attributeOptionCombo );
+    }
+
+    /**
+     * Gets the initial validation results which were evaluated again during an
+     * incremental analysis and were no longer found to be violations.
+     *
+     * @return a list of obsolete validation results.
+     */
+    public List<ValidationResult> getObsoleteValidationResults()
+    {
+        List<ValidationResult> obsolete = new ArrayList<>();
+
+        for ( MapMap<ValidationRule, Period, List<ValidationResult>> ruleResults : initialValidationResults.values() )
+        {
+            for ( Map<Period, List<ValidationResult>> periodResults : ruleResults.values() )
+            {
+                for ( List<ValidationResult> results : periodResults.values() )
+                {
+                    for ( ValidationResult vr : results )
+                    {
+                        String cellKey = getCellKey( vr.getOrganisationUnit(), vr.getValidationRule(),
+                            vr.getPeriod() );
+
+                        if ( validatedCells.contains( cellKey ) && !violatedCells
+                            .contains( cellKey + "-" + vr.getAttributeOptionCombo().getUid() ) )
+                        {
+                            obsolete.add( vr );
+                        }
+                    }
+                }
+            }
+        }
+
+        return obsolete;
+    }
+
+    private static String getCellKey( OrganisationUnit orgUnit, ValidationRule rule, Period period )
+    {
+        return orgUnit.getUid() + "-" + rule.getUid() + "-" + period.getIsoDate();
+    }
+
+    private static boolean overlapsAny( Set<Period> periods, Period period )
+    {
+        if ( periods == null )
+        {
+            return false;
+        }
+
+        for ( Period p : periods )
+        {
+            if ( !p.getStartDate().after( period.getEndDate() ) && !p.getEndDate().before( period.getStartDate() ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public JobConfiguration getJobConfiguration()
+    {
+        return jobConfiguration;
+    }
+
+    /**
+     * Indicates whether the analysis was cancelled, either directly or through
+     * cancellation of the job running it. Tasks check this and stop early.
+     */
+    public boolean isCancelled()
     {
-        return (orgUnits.size() + ORG_UNITS_PER_TASK - 1) / ORG_UNITS_PER_TASK;
+        return cancelled || (jobConfiguration != null && jobConfiguration.isCancelled());
+    }
+
+    public void cancel()
+    {
+        this.cancelled = true;
+    }
+
+    public void addValidatedOrgUnits( int count )
+    {
+        validatedOrgUnits.addAndGet( count );
+    }
+
+    public int getValidatedOrgUnits()
+    {
+        return validatedOrgUnits.get();
     }
 
     public boolean isAnalysisComplete()
@@ -345,6 +549,25 @@ public class ValidationRunContext
             return this;
         }
 
+        /**
+         * Makes the analysis incremental, only evaluating the combinations
+         * affected by the given data value changes.
+         *
+         * @param changedPeriods periods of changed data values by data element
+         *        id and affected organisation unit uid
+         */
+        public Builder withChangedPeriods( Map<Long, SetMap<String, Period>> changedPeriods )
+        {
+            this.context.changedPeriods = changedPeriods;
+            return this;
+        }
+
+        public Builder withJobConfiguration( JobConfiguration jobConfiguration )
+        {
+            this.context.jobConfiguration = jobConfiguration;
+            return this;
+        }
+
         public Builder withInitialResults( Collection<ValidationResult> results )
         {
             this.context.validationResults.addAll( results );
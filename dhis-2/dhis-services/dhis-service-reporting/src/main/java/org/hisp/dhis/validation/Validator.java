@@ -29,31 +29,52 @@ package org.hisp.dhis.validation;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.analytics.AnalyticsService;
 import org.hisp.dhis.category.CategoryService;
-import org.hisp.dhis.commons.util.SystemUtils;
+import org.hisp.dhis.commons.util.BoundedExecutor;
+import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.reporting.config.ExecutorConfig;
+import org.hisp.dhis.system.notification.Notifier;
 import org.springframework.context.ApplicationContext;
 
-import com.google.common.collect.Lists;
-
 /**
  * Evaluates validation rules.
  *
  * @author Jim Grace
  */
+@Slf4j
 public class Validator
 {
+    /**
+     * Target number of tasks per thread of the validation pool, giving idle
+     * threads work to steal when some tasks take longer than others.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private static final int PROGRESS_INTERVAL_SECONDS = 10;
+
     /**
      * Evaluates validation rules for a collection of organisation units. This
-     * method breaks the job down by organisation unit. It assigns the
-     * evaluation for each organisation unit to a task that can be evaluated
-     * independently in a multi-threaded environment.
+     * method breaks the job down by organisation unit. The organisation units
+     * are split recursively into tasks of roughly equal weight, where the
+     * weight of an organisation unit is its number of data values in the
+     * validated periods, and the tasks are evaluated in the shared validation
+     * pool. Progress is reported to the job of the run, and the run stops
+     * early when cancelled.
      * <p/>
      * Return early with no results if there are no organisation units or no
      * validation rules.
@@ -65,65 +86,224 @@ public class Validator
     {
         CategoryService categoryService = applicationContext.getBean( CategoryService.class );
 
-        int threadPoolSize = getThreadPoolSize( context );
-
-        if ( threadPoolSize == 0 || context.getPeriodTypeXs().isEmpty() )
+        if ( context.getOrgUnits().isEmpty() || context.getPeriodTypeXs().isEmpty() )
         {
             return new ArrayList<>( context.getValidationResults() );
         }
 
-        ExecutorService executor = Executors.newFixedThreadPool( threadPoolSize );
+        BoundedExecutor executor = applicationContext.getBean( ExecutorConfig.VALIDATION_EXECUTOR,
+            BoundedExecutor.class );
+
+        long[] cumulativeWeights = getCumulativeWeights( context,
+            applicationContext.getBean( DataValueService.class ) );
+
+        long totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
 
-        List<List<OrganisationUnit>> orgUnitLists = Lists.partition( context.getOrgUnits(),
-            ValidationRunContext.ORG_UNITS_PER_TASK );
+        long maxTaskWeight = Math.max( 1, totalWeight / ((long) executor.getParallelism() * TASKS_PER_THREAD) );
 
-        for ( List<OrganisationUnit> orgUnits : orgUnitLists )
+        ForkJoinTask<Void> task = executor.submit( new ValidationAction( context, applicationContext,
+            analyticsService, cumulativeWeights, maxTaskWeight, 0, context.getOrgUnits().size() ) );
+
+        waitForCompletion( task, context, applicationContext.getBean( Notifier.class ) );
+
+        reloadAttributeOptionCombos( context.getValidationResults(), categoryService );
+
+        return new ArrayList<>( context.getValidationResults() );
+    }
+
+    /**
+     * Waits for the validation to complete, reporting progress at regular
+     * intervals. If the waiting thread is interrupted, the run is cancelled.
+     */
+    private static void waitForCompletion( ForkJoinTask<Void> task, ValidationRunContext context, Notifier notifier )
+    {
+        try
         {
-            ValidationTask task = (ValidationTask) applicationContext.getBean( DataValidationTask.NAME );
-            task.init( orgUnits, context, analyticsService );
+            while ( true )
+            {
+                try
+                {
+                    task.get( PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS );
 
-            executor.execute( task );
+                    return;
+                }
+                catch ( TimeoutException ex )
+                {
+                    notifyProgress( context, notifier );
+                }
+            }
         }
+        catch ( InterruptedException ex )
+        {
+            log.info( "Validation interrupted, cancelling" );
 
-        executor.shutdown();
+            context.cancel();
 
-        try
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException ex )
         {
-            executor.awaitTermination( 6, TimeUnit.HOURS );
+            throw new IllegalStateException( "Validation failed", ex.getCause() );
         }
-        catch ( InterruptedException e )
+    }
+
+    private static void notifyProgress( ValidationRunContext context, Notifier notifier )
+    {
+        int validated = context.getValidatedOrgUnits();
+        int total = context.getOrgUnits().size();
+
+        String message = String.format( "Validated %d of %d organisation units (%d%%)",
+            validated, total, validated * 100 / total );
+
+        log.info( message );
+
+        if ( context.getJobConfiguration() != null )
         {
-            executor.shutdownNow();
+            notifier.update( context.getJobConfiguration(), message );
         }
+    }
 
-        reloadAttributeOptionCombos( context.getValidationResults(), categoryService );
+    /**
+     * Gets the cumulative weights of the organisation units of the context,
+     * where the weight of an organisation unit is one plus its number of data
+     * values in the validated periods.
+     */
+    private static long[] getCumulativeWeights( ValidationRunContext context, DataValueService dataValueService )
+    {
+        Set<Period> periods = new HashSet<>();
 
-        return new ArrayList<>( context.getValidationResults() );
+        for ( PeriodTypeExtended periodTypeX : context.getPeriodTypeXs() )
+        {
+            periods.addAll( periodTypeX.getPeriods() );
+        }
+
+        Map<Long, Integer> counts = dataValueService.getDataValueCountsByOrganisationUnit( periods );
+
+        List<OrganisationUnit> orgUnits = context.getOrgUnits();
+
+        long[] cumulativeWeights = new long[orgUnits.size()];
+
+        long sum = 0;
+
+        for ( int i = 0; i < orgUnits.size(); i++ )
+        {
+            sum += 1 + counts.getOrDefault( orgUnits.get( i ).getId(), 0 );
+
+            cumulativeWeights[i] = sum;
+        }
+
+        return cumulativeWeights;
     }
 
     /**
-     * Determines how many threads we should use for testing validation rules.
-     *
-     * @param context validation run context
-     * @return number of threads we should use for testing validation rules
+     * Validates a range of the organisation units of the context. Ranges
+     * heavier than the max task weight are split in two halves of equal
+     * weight, which idle threads of the pool can steal. Ranges are never larger
+     * than {@link ValidationRunContext#ORG_UNITS_PER_TASK} organisation units.
      */
-    private static int getThreadPoolSize( ValidationRunContext context )
+    private static class ValidationAction
+        extends RecursiveAction
     {
-        int threadPoolSize = SystemUtils.getCpuCores();
+        private final ValidationRunContext context;
+
+        private final ApplicationContext applicationContext;
+
+        private final AnalyticsService analyticsService;
+
+        private final long[] cumulativeWeights;
+
+        private final long maxTaskWeight;
+
+        private final int from;
 
-        if ( threadPoolSize > 2 )
+        private final int to;
+
+        ValidationAction( ValidationRunContext context, ApplicationContext applicationContext,
+            AnalyticsService analyticsService, long[] cumulativeWeights, long maxTaskWeight, int from, int to )
         {
-            threadPoolSize--;
+            this.context = context;
+            this.applicationContext = applicationContext;
+            this.analyticsService = analyticsService;
+            this.cumulativeWeights = cumulativeWeights;
+            this.maxTaskWeight = maxTaskWeight;
+            this.from = from;
+            this.to = to;
         }
 
-        int numberOfTasks = context.getNumberOfTasks();
+        @Override
+        protected void compute()
+        {
+            if ( context.isCancelled() || context.isAnalysisComplete() )
+            {
+                return;
+            }
+
+            if ( to - from == 1 || (to - from <= ValidationRunContext.ORG_UNITS_PER_TASK
+                && getWeight( from, to ) <= maxTaskWeight) )
+            {
+                validate();
+            }
+            else
+            {
+                int split = getSplit();
+
+                invokeAll(
+                    new ValidationAction( context, applicationContext, analyticsService, cumulativeWeights,
+                        maxTaskWeight, from, split ),
+                    new ValidationAction( context, applicationContext, analyticsService, cumulativeWeights,
+                        maxTaskWeight, split, to ) );
+            }
+        }
 
-        if ( threadPoolSize > numberOfTasks )
+        private void validate()
         {
-            threadPoolSize = numberOfTasks;
+            ValidationTask task = (ValidationTask) applicationContext.getBean( DataValidationTask.NAME );
+            task.init( context.getOrgUnits().subList( from, to ), context, analyticsService );
+
+            try
+            {
+                task.run();
+            }
+            catch ( RuntimeException ex )
+            {
+                log.error( "Validation task failed", ex );
+            }
+
+            context.addValidatedOrgUnits( to - from );
         }
 
-        return threadPoolSize;
+        private long getWeight( int start, int end )
+        {
+            return cumulativeWeights[end - 1] - (start == 0 ? 0 : cumulativeWeights[start - 1]);
+        }
+
+        /**
+         * Finds the index splitting the range in two parts of roughly equal
+         * weight, where both parts hold at least one organisation unit.
+         */
+        private int getSplit()
+        {
+            long half = getWeight( from, to ) / 2 + (from == 0 ? 0 : cumulativeWeights[from - 1]);
+
+            int low = from + 1;
+            int high = to - 1;
+
+            while ( low < high )
+            {
+                int mid = (low + high) >>> 1;
+
+                if ( cumulativeWeights[mid - 1] < half )
+                {
+                    low = mid + 1;
+                }
+                else
+                {
+                    high = mid;
+                }
+            }
+
+            return low;
+        }
     }
 
     /**
@@ -45,6 +45,7 @@ import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.scheduling.AbstractJob;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.TransactionWatermarkProvider;
 import org.hisp.dhis.scheduling.parameters.MonitoringJobParameters;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.util.DateUtils;
@@ -77,20 +78,25 @@ public class MonitoringJob
 
     private final MessageService messageService;
 
+    private final TransactionWatermarkProvider watermarkProvider;
+
     public MonitoringJob( ValidationService validationService, ValidationRuleService validationRuleService,
-        PeriodService periodService, Notifier notifier, MessageService messageService )
+        PeriodService periodService, Notifier notifier, MessageService messageService,
+        TransactionWatermarkProvider watermarkProvider )
     {
         checkNotNull( validationRuleService );
         checkNotNull( validationService );
         checkNotNull( periodService );
         checkNotNull( notifier );
         checkNotNull( messageService );
+        checkNotNull( watermarkProvider );
 
         this.validationService = validationService;
         this.validationRuleService = validationRuleService;
         this.periodService = periodService;
         this.notifier = notifier;
         this.messageService = messageService;
+        this.watermarkProvider = watermarkProvider;
     }
 
     // -------------------------------------------------------------------------
@@ -111,6 +117,15 @@ public class MonitoringJob
 
         MonitoringJobParameters monitoringJobParameters = (MonitoringJobParameters) jobConfiguration.getJobParameters();
 
+        // Changes of transactions open at the start of the run are not seen
+        // by the run, so the next run looks back to the oldest of them
+
+        Date watermark = monitoringJobParameters.isIncremental() ? watermarkProvider.getWatermark( new Date() )
+            : null;
+
+        Date changedSince = monitoringJobParameters.isIncremental() ? monitoringJobParameters.getLastIncrementalRun()
+            : null;
+
         // TODO improve collection usage
 
         try
@@ -159,10 +174,24 @@ public class MonitoringJob
                 .withMaxResults( ValidationService.MAX_SCHEDULED_ALERTS )
                 .withSendNotifications( monitoringJobParameters.isSendNotifications() )
                 .withPersistResults( monitoringJobParameters.isPersistResults() )
+                .withChangedSince( changedSince )
+                .withJobConfiguration( jobConfiguration )
                 .build();
 
             validationService.validationAnalysis( parameters );
 
+            if ( jobConfiguration.isCancelled() )
+            {
+                notifier.notify( jobConfiguration, INFO, "Monitoring process cancelled", true );
+
+                return;
+            }
+
+            if ( monitoringJobParameters.isIncremental() )
+            {
+                monitoringJobParameters.setLastIncrementalRun( watermark );
+            }
+
             notifier.notify( jobConfiguration, INFO, "Monitoring process done", true );
         }
         catch ( RuntimeException ex )
@@ -78,6 +78,7 @@ import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.period.WeeklyPeriodType;
 import org.hisp.dhis.period.YearlyPeriodType;
+import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.translation.Translation;
 import org.hisp.dhis.translation.TranslationProperty;
 import org.hisp.dhis.user.CurrentUserService;
@@ -130,6 +131,9 @@ public class ValidationServiceTest
     @Autowired
     private IdentifiableObjectManager identifiableObjectManager;
 
+    @Autowired
+    private ValidationResultService validationResultService;
+
     @Autowired
     private UserService injectUserService;
 
@@ -771,6 +775,70 @@ public class ValidationServiceTest
         assertResultsEquals( reference, results );
     }
 
+    @Test
+    public void testValidateIncremental()
+    {
+        useDataValue( dataElementA, periodA, sourceA, "1" );
+        useDataValue( dataElementB, periodA, sourceA, "2" );
+        useDataValue( dataElementC, periodA, sourceA, "3" );
+        useDataValue( dataElementD, periodA, sourceA, "4" );
+
+        useDataValue( dataElementA, periodB, sourceA, "1" );
+        useDataValue( dataElementB, periodB, sourceA, "2" );
+        useDataValue( dataElementC, periodB, sourceA, "3" );
+        useDataValue( dataElementD, periodB, sourceA, "4" );
+
+        validationRuleService.saveValidationRule( validationRuleA ); // Invalid
+
+        ValidationAnalysisParams parameters = validationService
+            .newParamsBuilder( Lists.newArrayList( validationRuleA ), sourceA, Lists.newArrayList( periodA, periodB ) )
+            .withPersistResults( true ).build();
+
+        assertEquals( 2, validationService.validationAnalysis( parameters ).size() );
+        assertEquals( 2, validationResultService.getAllValidationResults().size() );
+
+        Date changedSince = new Date();
+
+        DataValue dataValue = dataValueService.getDataValue( dataElementC, periodA, sourceA, optionCombo );
+        dataValue.setValue( "7" );
+        dataValueService.updateDataValue( dataValue ); // Now valid in period A
+
+        parameters = validationService
+            .newParamsBuilder( Lists.newArrayList( validationRuleA ), sourceA, Lists.newArrayList( periodA, periodB ) )
+            .withPersistResults( true ).withChangedSince( changedSince ).build();
+
+        Collection<ValidationResult> results = validationService.validationAnalysis( parameters );
+
+        Collection<ValidationResult> reference = new HashSet<>();
+
+        reference
+            .add( createValidationResult( validationRuleA, periodB, sourceA, defaultCombo, 3.0, -1.0, dayInPeriodB ) );
+
+        assertResultsEquals( reference, results );
+        assertResultsEquals( reference, validationResultService.getAllValidationResults() );
+    }
+
+    @Test
+    public void testValidateCancelled()
+    {
+        useDataValue( dataElementA, periodA, sourceA, "1" );
+        useDataValue( dataElementB, periodA, sourceA, "2" );
+        useDataValue( dataElementC, periodA, sourceA, "3" );
+        useDataValue( dataElementD, periodA, sourceA, "4" );
+
+        validationRuleService.saveValidationRule( validationRuleA ); // Invalid
+
+        JobConfiguration jobConfiguration = new JobConfiguration();
+        jobConfiguration.setCancelled( true );
+
+        ValidationAnalysisParams parameters = validationService
+            .newParamsBuilder( Lists.newArrayList( validationRuleA ), sourceA, Lists.newArrayList( periodA ) )
+            .withPersistResults( true ).withJobConfiguration( jobConfiguration ).build();
+
+        assertResultsEmpty( validationService.validationAnalysis( parameters ) );
+        assertResultsEmpty( validationResultService.getAllValidationResults() );
+    }
+
     @Test
     public void testValidateDataSetPeriodSource()
     {
@@ -46,6 +46,7 @@ import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.schema.descriptors.*;
 import org.hisp.dhis.security.Authority;
 import org.hisp.dhis.system.util.AnnotationUtils;
+import org.hisp.dhis.system.util.Clock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
@@ -154,12 +155,14 @@ public class DefaultSchemaService
     @EventListener
     public void handleContextRefresh( ContextRefreshedEvent contextRefreshedEvent )
     {
+        Clock clock = new Clock( log ).startClock();
+
+        MetamodelImplementor metamodelImplementor = (MetamodelImplementor) sessionFactory.getMetamodel();
+
         for ( SchemaDescriptor descriptor : DESCRIPTORS )
         {
             Schema schema = descriptor.getSchema();
 
-            MetamodelImplementor metamodelImplementor = (MetamodelImplementor) sessionFactory.getMetamodel();
-
             try
             {
                 metamodelImplementor.entityPersister( schema.getKlass() );
@@ -190,6 +193,8 @@ public class DefaultSchemaService
             schema.getReadableProperties();
             schema.getEmbeddedObjectProperties();
         }
+
+        clock.logTime( "Initialized " + classSchemaMap.size() + " schemas" );
     }
 
     @Override
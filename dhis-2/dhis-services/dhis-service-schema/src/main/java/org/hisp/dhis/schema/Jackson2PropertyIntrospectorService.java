@@ -34,10 +34,11 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -73,6 +74,12 @@ import com.google.common.primitives.Primitives;
 public class Jackson2PropertyIntrospectorService
     extends AbstractPropertyIntrospectorService
 {
+    /**
+     * Classes which do not expose any web-api properties, the same value and
+     * item types are checked for almost every schema property.
+     */
+    private final Map<Class<?>, Boolean> simpleClassCache = new ConcurrentHashMap<>();
+
     @Override
     protected Map<String, Property> scanClass( Class<?> clazz )
     {
@@ -193,7 +200,7 @@ public class Jackson2PropertyIntrospectorService
                     Class<?> klass = (Class<?>) getInnerType( (ParameterizedType) type );
                     property.setItemKlass( Primitives.wrap( klass ) );
 
-                    if ( collectProperties( klass ).isEmpty() )
+                    if ( isSimpleClass( klass ) )
                     {
                         property.setSimple( true );
                     }
@@ -206,7 +213,7 @@ public class Jackson2PropertyIntrospectorService
             }
             else
             {
-                if ( collectProperties( returnType ).isEmpty() )
+                if ( isSimpleClass( returnType ) )
                 {
                     property.setSimple( true );
                 }
@@ -288,32 +295,29 @@ public class Jackson2PropertyIntrospectorService
             .collect( Collectors.toList() );
         List<Property> properties = new ArrayList<>();
 
-        Map<String, Method> methodMap = multimap.keySet().stream()
-            .filter( key -> {
-                List<Method> methods = multimap.get( key ).stream()
-                    .filter( method -> AnnotationUtils.isAnnotationPresent( method, JsonProperty.class )
-                        && method.getParameterTypes().length == 0 )
-                    .collect( Collectors.toList() );
+        Map<String, Method> methodMap = new HashMap<>();
 
-                if ( methods.size() > 1 )
-                {
-                    log.error( "More than one web-api exposed method with name '" + key + "' found on class '"
-                        + klass.getName()
-                        + "' please fix as this is known to cause issues with Schema / Query services." );
+        for ( String key : multimap.keySet() )
+        {
+            List<Method> methods = multimap.get( key ).stream()
+                .filter( method -> AnnotationUtils.isAnnotationPresent( method, JsonProperty.class )
+                    && method.getParameterTypes().length == 0 )
+                .collect( Collectors.toList() );
 
-                    log.debug( "Methods found: " + methods );
-                }
+            if ( methods.size() > 1 )
+            {
+                log.error( "More than one web-api exposed method with name '" + key + "' found on class '"
+                    + klass.getName()
+                    + "' please fix as this is known to cause issues with Schema / Query services." );
 
-                return methods.size() == 1;
-            } )
-            .collect( Collectors.toMap( Function.identity(), key -> {
-                List<Method> collect = multimap.get( key ).stream()
-                    .filter( method -> AnnotationUtils.isAnnotationPresent( method, JsonProperty.class )
-                        && method.getParameterTypes().length == 0 )
-                    .collect( Collectors.toList() );
+                log.debug( "Methods found: " + methods );
+            }
 
-                return collect.get( 0 );
-            } ) );
+            if ( methods.size() == 1 )
+            {
+                methodMap.put( key, methods.get( 0 ) );
+            }
+        }
 
         methodMap.keySet().forEach( key -> {
             String fieldName = getFieldName( methodMap.get( key ) );
@@ -339,6 +343,11 @@ public class Jackson2PropertyIntrospectorService
         return properties;
     }
 
+    private boolean isSimpleClass( Class<?> klass )
+    {
+        return simpleClassCache.computeIfAbsent( klass, k -> collectProperties( k ).isEmpty() );
+    }
+
     private Type getInnerType( ParameterizedType parameterizedType )
     {
         ParameterizedType innerType = parameterizedType;
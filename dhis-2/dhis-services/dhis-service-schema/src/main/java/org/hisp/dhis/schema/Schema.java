@@ -222,6 +222,12 @@ public class Schema implements Ordered, Klass
      */
     private Map<String, Property> analyticalObjectProperties;
 
+    /**
+     * List of all persisted reference properties owned by this schema, cached
+     * on first request.
+     */
+    private transient volatile List<Property> ownerReferenceProperties;
+
     /**
      * Map containing cached authorities by their type.
      */
@@ -632,6 +638,29 @@ public class Schema implements Ordered, Klass
         return analyticalObjectProperties;
     }
 
+    /**
+     * Returns the persisted properties owned by this schema which reference
+     * identifiable objects, either directly or as collection items. These are
+     * the properties which are collected and connected when preheating.
+     */
+    public List<Property> getOwnerReferenceProperties()
+    {
+        List<Property> properties = ownerReferenceProperties;
+
+        if ( properties == null )
+        {
+            properties = Collections.unmodifiableList( getProperties().stream()
+                .filter( p -> p.isPersisted() && p.isOwner()
+                    && (PropertyType.REFERENCE == p.getPropertyType()
+                        || PropertyType.REFERENCE == p.getItemPropertyType()) )
+                .collect( Collectors.toList() ) );
+
+            ownerReferenceProperties = properties;
+        }
+
+        return properties;
+    }
+
     public void addProperty( Property property )
     {
         if ( property == null || property.getName() == null || propertyMap.containsKey( property.getName() ) )
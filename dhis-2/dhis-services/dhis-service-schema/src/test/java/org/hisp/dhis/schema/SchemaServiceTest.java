@@ -28,8 +28,11 @@
 package org.hisp.dhis.schema;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import org.hisp.dhis.DhisSpringTest;
+import org.hisp.dhis.dataelement.DataElement;
 import org.junit.Test;
 
 /**
@@ -52,4 +55,16 @@ public class SchemaServiceTest
     {
         assertFalse( schemaService.getSchemas().isEmpty() );
     }
+
+    @Test
+    public void testSimpleProperties()
+    {
+        Schema schema = schemaService.getSchema( DataElement.class );
+        assertNotNull( schema );
+
+        assertTrue( schema.getProperty( "name" ).isSimple() );
+        assertTrue( schema.getProperty( "aggregationLevels" ).isSimple() );
+        assertFalse( schema.getProperty( "categoryCombo" ).isSimple() );
+        assertFalse( schema.getProperty( "dataElementGroups" ).isSimple() );
+    }
 }
@@ -37,6 +37,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.hisp.dhis.common.MetadataObject;
 import org.hisp.dhis.common.SecondaryMetadataObject;
@@ -143,6 +144,36 @@ public class SchemaTest
         assertNotSame( list1, list2 );
     }
 
+    @Test
+    public void testOwnerReferenceProperties()
+    {
+        final Schema schema = new Schema( Metadata.class, "singular", "plural" );
+        schema.addProperty( createProperty( "reference", PropertyType.REFERENCE, null, true, true ) );
+        schema.addProperty( createProperty( "references", PropertyType.COLLECTION, PropertyType.REFERENCE, true,
+            true ) );
+        schema.addProperty( createProperty( "inverse", PropertyType.REFERENCE, null, true, false ) );
+        schema.addProperty( createProperty( "transient", PropertyType.REFERENCE, null, false, true ) );
+        schema.addProperty( createProperty( "name", PropertyType.TEXT, null, true, true ) );
+
+        List<Property> properties = schema.getOwnerReferenceProperties();
+        assertThat( properties.stream().map( Property::getName ).sorted().collect( Collectors.toList() ),
+            contains( "reference", "references" ) );
+        assertSame( properties, schema.getOwnerReferenceProperties() );
+    }
+
+    private Property createProperty( String name, PropertyType propertyType, PropertyType itemPropertyType,
+        boolean persisted, boolean owner )
+    {
+        Property property = new Property();
+        property.setName( name );
+        property.setPropertyType( propertyType );
+        property.setItemPropertyType( itemPropertyType );
+        property.setPersisted( persisted );
+        property.setOwner( owner );
+
+        return property;
+    }
+
     private static class SecondaryMetadata implements SecondaryMetadataObject
     {
     }
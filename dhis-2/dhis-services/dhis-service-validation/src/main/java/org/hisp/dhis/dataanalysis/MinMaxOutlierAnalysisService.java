@@ -43,6 +43,9 @@ import org.hisp.dhis.minmax.MinMaxDataElement;
 import org.hisp.dhis.minmax.MinMaxDataElementService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.system.notification.NotificationLevel;
+import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.system.util.MathUtils;
 import org.hisp.quick.BatchHandler;
 import org.hisp.quick.BatchHandlerFactory;
@@ -59,6 +62,12 @@ import com.google.common.collect.Lists;
 public class MinMaxOutlierAnalysisService
     implements MinMaxDataAnalysisService
 {
+    /**
+     * Number of data elements for which measures are calculated by a single
+     * query during min-max value generation.
+     */
+    private static final int DATA_ELEMENTS_PER_QUERY = 100;
+
     // -------------------------------------------------------------------------
     // Dependencies
     // -------------------------------------------------------------------------
@@ -69,16 +78,21 @@ public class MinMaxOutlierAnalysisService
 
     private final BatchHandlerFactory batchHandlerFactory;
 
+    private final Notifier notifier;
+
     public MinMaxOutlierAnalysisService( DataAnalysisStore dataAnalysisStore,
-        MinMaxDataElementService minMaxDataElementService, BatchHandlerFactory batchHandlerFactory )
+        MinMaxDataElementService minMaxDataElementService, BatchHandlerFactory batchHandlerFactory,
+        Notifier notifier )
     {
         checkNotNull( dataAnalysisStore );
         checkNotNull( minMaxDataElementService );
         checkNotNull( batchHandlerFactory );
+        checkNotNull( notifier );
 
         this.dataAnalysisStore = dataAnalysisStore;
         this.minMaxDataElementService = minMaxDataElementService;
         this.batchHandlerFactory = batchHandlerFactory;
+        this.notifier = notifier;
     }
 
     // -------------------------------------------------------------------------
@@ -108,10 +122,19 @@ public class MinMaxOutlierAnalysisService
     @Override
     public void generateMinMaxValues( OrganisationUnit parent, Collection<DataElement> dataElements,
         Double stdDevFactor )
+    {
+        generateMinMaxValues( parent, dataElements, stdDevFactor, null );
+    }
+
+    @Override
+    public void generateMinMaxValues( OrganisationUnit parent, Collection<DataElement> dataElements,
+        Double stdDevFactor, JobConfiguration jobId )
     {
         log.info( "Starting min-max value generation, no of data elements: " + dataElements.size() + ", parent: "
             + parent.getUid() );
 
+        notifier.notify( jobId, NotificationLevel.INFO, "Starting min-max value generation", false );
+
         Date from = new DateTime( 1, 1, 1, 1, 1 ).toDate();
 
         minMaxDataElementService.removeMinMaxDataElements( dataElements, parent );
@@ -120,50 +143,75 @@ public class MinMaxOutlierAnalysisService
 
         List<String> parentPaths = Lists.newArrayList( parent.getPath() );
 
+        List<DataElement> numericDataElements = dataElements.stream()
+            .filter( de -> de.getValueType().isNumeric() )
+            .collect( Collectors.toList() );
+
+        Map<Long, DataElement> dataElementLookup = numericDataElements.stream()
+            .collect( Collectors.toMap( DataElement::getId, de -> de, ( de1, de2 ) -> de1 ) );
+
         BatchHandler<MinMaxDataElement> batchHandler = batchHandlerFactory
             .createBatchHandler( MinMaxDataElementBatchHandler.class ).init();
 
-        for ( DataElement dataElement : dataElements )
+        int done = 0;
+
+        for ( List<DataElement> dataElementPage : Lists.partition( numericDataElements, DATA_ELEMENTS_PER_QUERY ) )
         {
-            if ( dataElement.getValueType().isNumeric() )
-            {
-                Set<CategoryOptionCombo> categoryOptionCombos = dataElement.getCategoryOptionCombos();
-
-                List<DataAnalysisMeasures> measuresList = dataAnalysisStore.getDataAnalysisMeasures( dataElement,
-                    categoryOptionCombos, parentPaths, from );
-
-                for ( DataAnalysisMeasures measures : measuresList )
-                {
-                    int min = (int) Math.round(
-                        MathUtils.getLowBound( measures.getStandardDeviation(), stdDevFactor, measures.getAverage() ) );
-                    int max = (int) Math.round( MathUtils.getHighBound( measures.getStandardDeviation(), stdDevFactor,
-                        measures.getAverage() ) );
-
-                    switch ( dataElement.getValueType() )
-                    {
-                    case INTEGER_POSITIVE:
-                    case INTEGER_ZERO_OR_POSITIVE:
-                        min = Math.max( 0, min ); // Cannot be < 0
-                        break;
-                    case INTEGER_NEGATIVE:
-                        max = Math.min( 0, max ); // Cannot be > 0
-                        break;
-                    }
-
-                    OrganisationUnit orgUnit = new OrganisationUnit();
-                    orgUnit.setId( measures.getOrgUnitId() );
-
-                    CategoryOptionCombo categoryOptionCombo = new CategoryOptionCombo();
-                    categoryOptionCombo.setId( measures.getCategoryOptionComboId() );
-
-                    batchHandler.addObject(
-                        new MinMaxDataElement( dataElement, orgUnit, categoryOptionCombo, min, max, true ) );
-                }
-            }
+            dataAnalysisStore.getDataAnalysisMeasures( dataElementPage, parentPaths, from,
+                measures -> batchHandler.addObject( getMinMaxDataElement(
+                    dataElementLookup.get( measures.getDataElementId() ), measures, stdDevFactor ) ) );
+
+            done += dataElementPage.size();
+
+            notifier.notify( jobId, NotificationLevel.INFO, String.format(
+                "Generated min-max values for %d of %d data elements", done, numericDataElements.size() ), false );
         }
 
+        batchHandler.flush();
+
         log.info( "Min-max value generation done" );
 
-        batchHandler.flush();
+        notifier.notify( jobId, NotificationLevel.INFO, "Min-max value generation done", true );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Creates a min-max value from the average and standard deviation measures
+     * of a data element.
+     *
+     * @param dataElement the data element.
+     * @param measures the measures.
+     * @param stdDevFactor the std dev factor.
+     * @return a generated min-max value.
+     */
+    private MinMaxDataElement getMinMaxDataElement( DataElement dataElement, DataAnalysisMeasures measures,
+        Double stdDevFactor )
+    {
+        int min = (int) Math.round(
+            MathUtils.getLowBound( measures.getStandardDeviation(), stdDevFactor, measures.getAverage() ) );
+        int max = (int) Math.round( MathUtils.getHighBound( measures.getStandardDeviation(), stdDevFactor,
+            measures.getAverage() ) );
+
+        switch ( dataElement.getValueType() )
+        {
+        case INTEGER_POSITIVE:
+        case INTEGER_ZERO_OR_POSITIVE:
+            min = Math.max( 0, min ); // Cannot be < 0
+            break;
+        case INTEGER_NEGATIVE:
+            max = Math.min( 0, max ); // Cannot be > 0
+            break;
+        }
+
+        OrganisationUnit orgUnit = new OrganisationUnit();
+        orgUnit.setId( measures.getOrgUnitId() );
+
+        CategoryOptionCombo categoryOptionCombo = new CategoryOptionCombo();
+        categoryOptionCombo.setId( measures.getCategoryOptionComboId() );
+
+        return new MinMaxDataElement( dataElement, orgUnit, categoryOptionCombo, min, max, true );
     }
 }
@@ -34,8 +34,12 @@ import static org.hisp.dhis.commons.util.TextUtils.getCommaDelimitedString;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -54,6 +58,7 @@ import org.hisp.dhis.util.DateUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
@@ -95,12 +100,7 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
 
         String catOptionComboIds = TextUtils.getCommaDelimitedString( getIdentifiers( categoryOptionCombos ) );
 
-        String matchPaths = "(";
-        for ( String path : parentPaths )
-        {
-            matchPaths += "ou.path like '" + path + "%' or ";
-        }
-        matchPaths = TextUtils.removeLastOr( matchPaths ) + ") ";
+        String matchPaths = getPathRestriction( parentPaths );
 
         String sql = "select dv.sourceid, dv.categoryoptioncomboid, " +
             "avg(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as average, " +
@@ -134,6 +134,60 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
         return measures;
     }
 
+    @Override
+    public void getDataAnalysisMeasures( Collection<DataElement> dataElements, Collection<String> parentPaths,
+        Date from, Consumer<DataAnalysisMeasures> consumer )
+    {
+        if ( dataElements.isEmpty() || parentPaths.isEmpty() )
+        {
+            return;
+        }
+
+        Map<Long, Set<Long>> catOptionComboIdsByDataElement = new HashMap<>();
+        Set<Long> catOptionComboIds = new HashSet<>();
+
+        for ( DataElement dataElement : dataElements )
+        {
+            Set<Long> ids = new HashSet<>( getIdentifiers( dataElement.getCategoryOptionCombos() ) );
+
+            catOptionComboIdsByDataElement.put( dataElement.getId(), ids );
+            catOptionComboIds.addAll( ids );
+        }
+
+        if ( catOptionComboIds.isEmpty() )
+        {
+            return;
+        }
+
+        String sql = "select dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, " +
+            "avg(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as average, " +
+            "stddev_pop(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as standarddeviation " +
+            "from datavalue dv " +
+            "inner join organisationunit ou on ou.organisationunitid = dv.sourceid " +
+            "inner join period pe on dv.periodid = pe.periodid " +
+            "where dv.dataelementid in (" + getCommaDelimitedString( catOptionComboIdsByDataElement.keySet() ) + ") " +
+            "and dv.categoryoptioncomboid in (" + getCommaDelimitedString( catOptionComboIds ) + ") " +
+            "and pe.startdate >= '" + DateUtils.getMediumDateString( from ) + "' " +
+            "and " + getPathRestriction( parentPaths ) +
+            "and dv.deleted is false " +
+            "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid";
+
+        log.debug( "Data analysis measures SQL: " + sql );
+
+        jdbcTemplate.query( sql, (RowCallbackHandler) rs -> {
+            long dataElementId = rs.getLong( 1 );
+            long categoryOptionComboId = rs.getLong( 3 );
+            double stdDev = rs.getDouble( 5 );
+
+            if ( stdDev != 0.0
+                && catOptionComboIdsByDataElement.get( dataElementId ).contains( categoryOptionComboId ) )
+            {
+                consumer.accept( new DataAnalysisMeasures( dataElementId, rs.getLong( 2 ), categoryOptionComboId,
+                    rs.getDouble( 4 ), stdDev ) );
+            }
+        } );
+    }
+
     @Override
     public List<DeflatedDataValue> getMinMaxViolations( Collection<DataElement> dataElements,
         Collection<CategoryOptionCombo> categoryOptionCombos, Collection<Period> periods,
@@ -287,4 +341,21 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
 
         return jdbcTemplate.query( sql, new DeflatedDataValueNameMinMaxRowMapper( null, null ) );
     }
+
+    /**
+     * Returns an SQL restriction matching organisation units which are equal to
+     * or descendants of any of the given paths.
+     *
+     * @param parentPaths the parent OrganisationUnits' paths.
+     * @return an SQL restriction, enclosed in parentheses.
+     */
+    private String getPathRestriction( Collection<String> parentPaths )
+    {
+        String matchPaths = "(";
+        for ( String path : parentPaths )
+        {
+            matchPaths += "ou.path like '" + path + "%' or ";
+        }
+        return TextUtils.removeLastOr( matchPaths ) + ") ";
+    }
 }
@@ -69,6 +69,8 @@ public class OutlierDetectionRequest
 
     private int maxResults;
 
+    private boolean useStatistics;
+
     public List<Long> getDataElementIds()
     {
         return dataElements.stream()
@@ -85,6 +87,11 @@ public class OutlierDetectionRequest
         return dataStartDate != null && dataEndDate != null;
     }
 
+    public boolean hasDataStartOrEndDate()
+    {
+        return dataStartDate != null || dataEndDate != null;
+    }
+
     public static class Builder
     {
         private OutlierDetectionRequest query;
@@ -158,6 +165,17 @@ public class OutlierDetectionRequest
             return this;
         }
 
+        /**
+         * Use the precomputed outlier statistics for the mean and standard
+         * deviation of each series. Only applies when neither a data start
+         * date nor a data end date is specified.
+         */
+        public Builder withUseStatistics( boolean useStatistics )
+        {
+            this.query.useStatistics = useStatistics;
+            return this;
+        }
+
         public OutlierDetectionRequest build()
         {
             Preconditions.checkNotNull( this.query.orgUnitSelection );
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.outlierdetection.scheduling;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.hisp.dhis.commons.timer.SystemTimer;
+import org.hisp.dhis.commons.timer.Timer;
+import org.hisp.dhis.outlierdetection.service.OutlierStatisticsManager;
+import org.hisp.dhis.scheduling.AbstractJob;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.NotificationLevel;
+import org.hisp.dhis.system.notification.Notifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Updates the precomputed outlier statistics for data value series which
+ * changed since the previous run.
+ *
+ * @see OutlierStatisticsManager
+ */
+@Component( "outlierStatisticsJob" )
+public class OutlierStatisticsJob
+    extends AbstractJob
+{
+    private final OutlierStatisticsManager outlierStatisticsManager;
+
+    private final Notifier notifier;
+
+    public OutlierStatisticsJob( OutlierStatisticsManager outlierStatisticsManager, Notifier notifier )
+    {
+        checkNotNull( outlierStatisticsManager );
+        checkNotNull( notifier );
+
+        this.outlierStatisticsManager = outlierStatisticsManager;
+        this.notifier = notifier;
+    }
+
+    @Override
+    public JobType getJobType()
+    {
+        return JobType.OUTLIER_STATISTICS;
+    }
+
+    @Override
+    public void execute( JobConfiguration jobConfiguration )
+    {
+        Timer timer = new SystemTimer().start();
+
+        notifier.notify( jobConfiguration, NotificationLevel.INFO, "Updating outlier statistics", false );
+
+        int series = outlierStatisticsManager.updateStatistics();
+
+        timer.stop();
+
+        notifier.notify( jobConfiguration, NotificationLevel.INFO, String.format(
+            "Outlier statistics updated for %d series in %s", series, timer.toString() ), true );
+    }
+}
@@ -161,7 +161,8 @@ public class DefaultOutlierDetectionService
             .withStartEndDate( query.getStartDate(), query.getEndDate() )
             .withOrgUnits( orgUnits )
             .withDataStartDate( query.getDataStartDate() )
-            .withDataEndDate( query.getDataEndDate() );
+            .withDataEndDate( query.getDataEndDate() )
+            .withUseStatistics( query.isUseStatistics() );
 
         if ( query.getAlgorithm() != null )
         {
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.outlierdetection.service;
+
+import static org.hisp.dhis.system.util.MathUtils.NUMERIC_LENIENT_REGEXP;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.scheduling.TransactionWatermarkProvider;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Manager for the outlier statistics table, which holds the count, mean and
+ * population standard deviation of the values of each data value series,
+ * meaning each combination of data element, org unit, category option combo
+ * and attribute option combo. The statistics of a series are recomputed from
+ * all of its values when any of them changes.
+ */
+@Slf4j
+@Repository
+public class OutlierStatisticsManager
+{
+    private static final String SERIES_COLUMNS = "dataelementid, sourceid, categoryoptioncomboid, "
+        + "attributeoptioncomboid";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionWatermarkProvider watermarkProvider;
+
+    public OutlierStatisticsManager( NamedParameterJdbcTemplate jdbcTemplate,
+        TransactionWatermarkProvider watermarkProvider )
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.watermarkProvider = watermarkProvider;
+    }
+
+    /**
+     * Updates the statistics of all series with data values which changed
+     * since the last update. Updates all series if the statistics table is
+     * empty.
+     * <p>
+     * The watermark stored with the statistics is the start of the oldest
+     * transaction open when the update starts, rather than the time of the
+     * update, since data values written by transactions which commit later
+     * carry an earlier last updated time and are not visible to this update.
+     *
+     * @return the number of series for which statistics were written.
+     */
+    @Transactional
+    public int updateStatistics()
+    {
+        final Date watermark = watermarkProvider.getWatermark();
+        final Date lastWatermark = jdbcTemplate.queryForObject(
+            "select max(updated) from outlierstatistics", new MapSqlParameterSource(), Date.class );
+        final Date lastUpdated = lastWatermark != null
+            ? DateUtils.addMinutes( lastWatermark, -TransactionWatermarkProvider.CLOCK_SKEW_MARGIN_MINUTES )
+            : null;
+
+        final List<String> valueTypes = ValueType.NUMERIC_TYPES.stream()
+            .map( ValueType::name )
+            .collect( Collectors.toList() );
+
+        final SqlParameterSource params = new MapSqlParameterSource()
+            .addValue( "last_updated", lastUpdated )
+            .addValue( "updated", watermark )
+            .addValue( "value_types", valueTypes )
+            .addValue( "numeric_regexp", NUMERIC_LENIENT_REGEXP );
+
+        // Series with changed data values since the last update
+
+        final String changedSeries = "(select distinct " + SERIES_COLUMNS + " " +
+            "from datavalue where lastupdated >= :last_updated) as ch";
+
+        final String changedSeriesJoin = lastUpdated == null ? "" :
+            "inner join " + changedSeries + " " +
+            "on dv.dataelementid = ch.dataelementid " +
+            "and dv.sourceid = ch.sourceid " +
+            "and dv.categoryoptioncomboid = ch.categoryoptioncomboid " +
+            "and dv.attributeoptioncomboid = ch.attributeoptioncomboid ";
+
+        final String deleteSql = lastUpdated == null ? "delete from outlierstatistics" :
+            "delete from outlierstatistics st " +
+            "using " + changedSeries + " " +
+            "where st.dataelementid = ch.dataelementid " +
+            "and st.sourceid = ch.sourceid " +
+            "and st.categoryoptioncomboid = ch.categoryoptioncomboid " +
+            "and st.attributeoptioncomboid = ch.attributeoptioncomboid";
+
+        // @formatter:off
+        final String insertSql =
+            "insert into outlierstatistics (" + SERIES_COLUMNS + ", count, mean, stddev, updated) " +
+            "select dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid, " +
+            "count(*), " +
+            "avg(dv.value::double precision), " +
+            "stddev_pop(dv.value::double precision), " +
+            ":updated " +
+            "from datavalue dv " +
+            "inner join dataelement de on dv.dataelementid = de.dataelementid " +
+            changedSeriesJoin +
+            "where de.valuetype in (:value_types) " +
+            "and dv.value ~ :numeric_regexp " +
+            "and dv.deleted is false " +
+            "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid";
+        // @formatter:on
+
+        final int deleted = jdbcTemplate.update( deleteSql, params );
+        final int inserted = jdbcTemplate.update( insertSql, params );
+
+        log.info( String.format( "Outlier statistics updated, since: '%s', removed: %d, written: %d",
+            lastUpdated, deleted, inserted ) );
+
+        return inserted;
+    }
+}
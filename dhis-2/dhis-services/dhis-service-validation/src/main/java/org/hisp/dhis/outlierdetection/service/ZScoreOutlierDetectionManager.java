@@ -78,6 +78,9 @@ public class ZScoreOutlierDetectionManager
         final String ouPathClause = getOrgUnitPathClause( request.getOrgUnits() );
         final String dataStartDateClause = getDataStartDateClause( request.getDataStartDate() );
         final String dataEndDateClause = getDataEndDateClause( request.getDataEndDate() );
+        final String statsSql = request.isUseStatistics() && !request.hasDataStartOrEndDate()
+            ? getPrecomputedStatsSql( ouPathClause )
+            : getStatsSql( ouPathClause, dataStartDateClause, dataEndDateClause );
 
         // @formatter:off
         final String sql =
@@ -112,22 +115,7 @@ public class ZScoreOutlierDetectionManager
                 "and dv.deleted is false" +
             ") as dvs " +
             // Mean and std dev mapping query
-            "inner join (" +
-                "select dv.dataelementid as dataelementid, dv.sourceid as sourceid, " +
-                "dv.categoryoptioncomboid as categoryoptioncomboid, " +
-                "dv.attributeoptioncomboid as attributeoptioncomboid, " +
-                "avg(dv.value::double precision) as mean, " +
-                "stddev_pop(dv.value::double precision) as std_dev " +
-                "from datavalue dv " +
-                "inner join period pe on dv.periodid = pe.periodid " +
-                "inner join organisationunit ou on dv.sourceid = ou.organisationunitid " +
-                "where dv.dataelementid in (:data_element_ids) " +
-                dataStartDateClause +
-                dataEndDateClause +
-                "and " + ouPathClause + " " +
-                "and dv.deleted is false " +
-                "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid" +
-            ") as stats " +
+            "inner join (" + statsSql + ") as stats " +
             // Query join
             "on dvs.dataelementid = stats.dataelementid " +
             "and dvs.sourceid = stats.sourceid " +
@@ -167,6 +155,60 @@ public class ZScoreOutlierDetectionManager
         }
     }
 
+    /**
+     * Returns a query for the mean and standard deviation of each data value
+     * series, calculated from the data values.
+     *
+     * @param ouPathClause the org unit path clause.
+     * @param dataStartDateClause the data start date clause.
+     * @param dataEndDateClause the data end date clause.
+     * @return an SQL query.
+     */
+    private String getStatsSql( String ouPathClause, String dataStartDateClause, String dataEndDateClause )
+    {
+        // @formatter:off
+        return
+            "select dv.dataelementid as dataelementid, dv.sourceid as sourceid, " +
+            "dv.categoryoptioncomboid as categoryoptioncomboid, " +
+            "dv.attributeoptioncomboid as attributeoptioncomboid, " +
+            "avg(dv.value::double precision) as mean, " +
+            "stddev_pop(dv.value::double precision) as std_dev " +
+            "from datavalue dv " +
+            "inner join period pe on dv.periodid = pe.periodid " +
+            "inner join organisationunit ou on dv.sourceid = ou.organisationunitid " +
+            "where dv.dataelementid in (:data_element_ids) " +
+            dataStartDateClause +
+            dataEndDateClause +
+            "and " + ouPathClause + " " +
+            "and dv.deleted is false " +
+            "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid";
+        // @formatter:on
+    }
+
+    /**
+     * Returns a query for the mean and standard deviation of each data value
+     * series, derived from the precomputed outlier statistics table.
+     *
+     * @param ouPathClause the org unit path clause.
+     * @return an SQL query.
+     * @see OutlierStatisticsManager
+     */
+    private String getPrecomputedStatsSql( String ouPathClause )
+    {
+        // @formatter:off
+        return
+            "select st.dataelementid as dataelementid, st.sourceid as sourceid, " +
+            "st.categoryoptioncomboid as categoryoptioncomboid, " +
+            "st.attributeoptioncomboid as attributeoptioncomboid, " +
+            "st.mean as mean, " +
+            "st.stddev as std_dev " +
+            "from outlierstatistics st " +
+            "inner join organisationunit ou on st.sourceid = ou.organisationunitid " +
+            "where st.dataelementid in (:data_element_ids) " +
+            "and " + ouPathClause;
+        // @formatter:on
+    }
+
     /**
      * Returns a {@link RowMapper} for {@link OutlierValue}.
      *
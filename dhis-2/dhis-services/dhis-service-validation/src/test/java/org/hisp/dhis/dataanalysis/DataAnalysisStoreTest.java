@@ -29,6 +29,7 @@ package org.hisp.dhis.dataanalysis;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -181,4 +182,46 @@ public class DataAnalysisStoreTest
         assertEquals( 12.78, measures.get( 0 ).getAverage(), DELTA );
         assertEquals( 15.26, measures.get( 0 ).getStandardDeviation(), DELTA );
     }
+
+    @Test
+    public void testGetDataAnalysisMeasuresForDataElements()
+    {
+        dataValueService
+            .addDataValue( createDataValue( dataElementA, periodA, organisationUnitA, "5", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementA, periodB, organisationUnitA, "2", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementA, periodC, organisationUnitA, "1", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementB, periodA, organisationUnitA, "5", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementB, periodB, organisationUnitA, "5", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementB, periodA, organisationUnitB, "2", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementB, periodB, organisationUnitB, "4", categoryOptionCombo ) );
+
+        List<DataAnalysisMeasures> measures = new ArrayList<>();
+
+        dataAnalysisStore.getDataAnalysisMeasures( Lists.newArrayList( dataElementA, dataElementB ),
+            Lists.newArrayList( organisationUnitA.getPath(), organisationUnitB.getPath() ), from, measures::add );
+
+        // Data element B in org unit A has no deviation and is skipped
+
+        assertEquals( 2, measures.size() );
+
+        DataAnalysisMeasures measuresA = measures.stream()
+            .filter( m -> m.getDataElementId() == dataElementA.getId() ).findFirst().get();
+        DataAnalysisMeasures measuresB = measures.stream()
+            .filter( m -> m.getDataElementId() == dataElementB.getId() ).findFirst().get();
+
+        assertEquals( organisationUnitA.getId(), measuresA.getOrgUnitId() );
+        assertEquals( categoryOptionCombo.getId(), measuresA.getCategoryOptionComboId() );
+        assertEquals( 2.67, measuresA.getAverage(), DELTA );
+        assertEquals( 1.70, measuresA.getStandardDeviation(), DELTA );
+
+        assertEquals( organisationUnitB.getId(), measuresB.getOrgUnitId() );
+        assertEquals( 3.0, measuresB.getAverage(), DELTA );
+        assertEquals( 1.0, measuresB.getStandardDeviation(), DELTA );
+    }
 }
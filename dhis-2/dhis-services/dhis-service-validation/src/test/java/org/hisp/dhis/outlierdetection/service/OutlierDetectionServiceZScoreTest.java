@@ -82,6 +82,9 @@ public class OutlierDetectionServiceZScoreTest
     @Autowired
     private DataValueService dataValueService;
 
+    @Autowired
+    private OutlierStatisticsManager outlierStatisticsManager;
+
     @Autowired
     private OutlierDetectionService subject;
 
@@ -221,6 +224,55 @@ public class OutlierDetectionServiceZScoreTest
         assertContainsOutlierValue( response, 91d );
     }
 
+    @Test
+    public void testGetOutlierValuesWithStatistics()
+    {
+        // 12, 91, 11, 87 are outlier values with a z-score above 2.0
+
+        addDataValues(
+            new DataValue( deA, m01, ouA, coc, coc, "50" ), new DataValue( deA, m07, ouA, coc, coc, "51" ),
+            new DataValue( deA, m02, ouA, coc, coc, "53" ), new DataValue( deA, m08, ouA, coc, coc, "59" ),
+            new DataValue( deA, m03, ouA, coc, coc, "58" ), new DataValue( deA, m09, ouA, coc, coc, "55" ),
+            new DataValue( deA, m04, ouA, coc, coc, "55" ), new DataValue( deA, m10, ouA, coc, coc, "52" ),
+            new DataValue( deA, m05, ouA, coc, coc, "51" ), new DataValue( deA, m11, ouA, coc, coc, "58" ),
+            new DataValue( deA, m06, ouA, coc, coc, "12" ), new DataValue( deA, m12, ouA, coc, coc, "91" ),
+
+            new DataValue( deB, m01, ouA, coc, coc, "41" ), new DataValue( deB, m02, ouA, coc, coc, "48" ),
+            new DataValue( deB, m03, ouA, coc, coc, "45" ), new DataValue( deB, m04, ouA, coc, coc, "46" ),
+            new DataValue( deB, m05, ouA, coc, coc, "49" ), new DataValue( deB, m06, ouA, coc, coc, "41" ),
+            new DataValue( deB, m07, ouA, coc, coc, "41" ), new DataValue( deB, m08, ouA, coc, coc, "49" ),
+            new DataValue( deB, m09, ouA, coc, coc, "42" ), new DataValue( deB, m10, ouA, coc, coc, "47" ),
+            new DataValue( deB, m11, ouA, coc, coc, "11" ), new DataValue( deB, m12, ouA, coc, coc, "87" ) );
+
+        assertEquals( 2, outlierStatisticsManager.updateStatistics() );
+
+        OutlierDetectionRequest.Builder request = new OutlierDetectionRequest.Builder()
+            .withDataElements( Lists.newArrayList( deA, deB ) )
+            .withStartEndDate( getDate( 2020, 1, 1 ), getDate( 2021, 1, 1 ) )
+            .withOrgUnits( Lists.newArrayList( ouA ) )
+            .withAlgorithm( OutlierDetectionAlgorithm.Z_SCORE )
+            .withThreshold( 2.0 );
+
+        OutlierDetectionResponse calculated = subject.getOutlierValues( request.build() );
+        OutlierDetectionResponse precomputed = subject.getOutlierValues( request.withUseStatistics( true ).build() );
+
+        assertEquals( 4, precomputed.getOutlierValues().size() );
+        assertContainsOutlierValue( precomputed, 12d );
+        assertContainsOutlierValue( precomputed, 91d );
+        assertContainsOutlierValue( precomputed, 11d );
+        assertContainsOutlierValue( precomputed, 87d );
+
+        for ( int i = 0; i < calculated.getOutlierValues().size(); i++ )
+        {
+            OutlierValue expected = calculated.getOutlierValues().get( i );
+            OutlierValue actual = precomputed.getOutlierValues().get( i );
+
+            assertEquals( expected.getMean(), actual.getMean(), DELTA );
+            assertEquals( expected.getStdDev(), actual.getStdDev(), DELTA );
+            assertEquals( expected.getZScore(), actual.getZScore(), DELTA );
+        }
+    }
+
     @Test
     public void testGetOutlierValuesAsCsv()
         throws IOException
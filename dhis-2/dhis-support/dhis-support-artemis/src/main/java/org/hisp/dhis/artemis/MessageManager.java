@@ -27,10 +27,16 @@
  */
 package org.hisp.dhis.artemis;
 
+import java.util.Collection;
+
+import javax.jms.Destination;
+import javax.jms.MessageProducer;
+
 import org.apache.qpid.jms.JmsQueue;
 import org.apache.qpid.jms.JmsTopic;
 import org.hisp.dhis.render.RenderService;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.stereotype.Component;
 
 /**
@@ -58,6 +64,39 @@ public class MessageManager
             session -> session.createTextMessage( renderService.toJsonAsString( message ) ) );
     }
 
+    /**
+     * Sends the given messages to the given destination using a single session
+     * and producer.
+     *
+     * @param destinationName the destination name.
+     * @param messages the messages to send.
+     */
+    public void send( String destinationName, Collection<? extends Message> messages )
+    {
+        jmsTopicTemplate.execute( session -> {
+            Destination destination = jmsTopicTemplate.getDestinationResolver()
+                .resolveDestinationName( session, destinationName, jmsTopicTemplate.isPubSubDomain() );
+
+            MessageProducer producer = session.createProducer( destination );
+
+            try
+            {
+                producer.setDeliveryMode( jmsTopicTemplate.getDeliveryMode() );
+
+                for ( Message message : messages )
+                {
+                    producer.send( session.createTextMessage( renderService.toJsonAsString( message ) ) );
+                }
+            }
+            finally
+            {
+                JmsUtils.closeMessageProducer( producer );
+            }
+
+            return null;
+        }, false );
+    }
+
     public void sendTopic( String destinationName, Message message )
     {
         jmsTopicTemplate.send( new JmsTopic( destinationName ),
@@ -28,12 +28,19 @@
 package org.hisp.dhis.artemis.audit;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.DelayQueue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import org.hisp.dhis.audit.AuditScope;
+import org.hisp.dhis.audit.AuditType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -43,10 +50,12 @@ import org.springframework.stereotype.Component;
  * and should be used only in very high-traffic environments. Note that upon a
  * JVM crash, the Audit messages in this queue will be lost.
  *
- * The buffer is based on a {@link DelayQueue} where messages are buffered for 5
- * seconds, before being de-queued to the Artemis broker.
+ * Messages are buffered for 5 seconds, before being de-queued to the Artemis
+ * broker in batches. The buffer is indexed by entity, so that repeated audits
+ * of the same type for the same entity and user are coalesced into the most
+ * recent one while buffered.
  *
- * To avoid excessive memory pressure, max 200 messages can stay in the queue:
+ * To avoid excessive memory pressure, max 200 entities can stay in the queue:
  * in-excess messages are processed immediately.
  *
  * @author Luciano Fiandesio
@@ -61,11 +70,30 @@ public class AuditScheduler
 
     private final AuditProducerSupplier auditProducerSupplier;
 
-    private final BlockingQueue<QueuedAudit> delayed = new DelayQueue<>();
+    private final long delay;
 
+    /**
+     * Buffered audits in insertion order, keyed by {@link AuditKey}, or by a
+     * unique object for audits of objects without identifier.
+     */
+    private final Map<Object, QueuedAudit> delayed = new LinkedHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong published = new AtomicLong();
+
+    @Autowired
     public AuditScheduler( AuditProducerSupplier auditProducerSupplier )
+    {
+        this( auditProducerSupplier, DELAY );
+    }
+
+    AuditScheduler( AuditProducerSupplier auditProducerSupplier, long delay )
     {
         this.auditProducerSupplier = auditProducerSupplier;
+        this.delay = delay;
     }
 
     public void addAuditItem( final Audit auditItem )
@@ -75,28 +103,129 @@ public class AuditScheduler
             log.debug( String.format( "add Audit object with content %s to delayed queue", auditItem.toLog() ) );
         }
 
-        final QueuedAudit postponed = new QueuedAudit( auditItem, DELAY );
+        received.incrementAndGet();
+
+        final Object key = getKey( auditItem );
+
+        boolean publish = false;
+
+        synchronized ( delayed )
+        {
+            QueuedAudit queued = delayed.get( key );
+
+            if ( queued != null )
+            {
+                queued.setAuditItem( auditItem );
+                coalesced.incrementAndGet();
+            }
+            else if ( delayed.size() >= MAX_SIZE )
+            {
+                publish = true;
+            }
+            else
+            {
+                delayed.put( key, new QueuedAudit( auditItem, delay ) );
+            }
+        }
 
-        if ( delayed.size() >= MAX_SIZE )
+        if ( publish )
         {
             auditProducerSupplier.publish( auditItem );
+            published.incrementAndGet();
         }
-        else
+    }
+
+    @Scheduled( fixedDelay = 5_000 )
+    public void process()
+    {
+        final List<Audit> expired = new ArrayList<>();
+
+        synchronized ( delayed )
         {
-            if ( !delayed.contains( postponed ) )
+            Iterator<QueuedAudit> iterator = delayed.values().iterator();
+
+            while ( iterator.hasNext() )
             {
-                delayed.offer( postponed );
+                QueuedAudit queued = iterator.next();
+
+                // Entries are in insertion order, hence remaining entries are
+                // not yet expired either
+
+                if ( queued.getDelay( TimeUnit.MILLISECONDS ) > 0 )
+                {
+                    break;
+                }
+
+                expired.add( queued.getAuditItem() );
+                iterator.remove();
             }
         }
+
+        if ( !expired.isEmpty() )
+        {
+            auditProducerSupplier.publish( expired );
+            published.addAndGet( expired.size() );
+        }
     }
 
-    @Scheduled( fixedDelay = 5_000 )
-    public void process()
+    /**
+     * Returns the number of audits currently buffered.
+     */
+    public int getQueueSize()
+    {
+        synchronized ( delayed )
+        {
+            return delayed.size();
+        }
+    }
+
+    /**
+     * Returns the number of audits added to this scheduler.
+     */
+    public long getReceivedCount()
+    {
+        return received.get();
+    }
+
+    /**
+     * Returns the number of audits which were merged into a buffered audit for
+     * the same entity.
+     */
+    public long getCoalescedCount()
     {
-        final Collection<QueuedAudit> expired = new ArrayList<>();
+        return coalesced.get();
+    }
+
+    /**
+     * Returns the number of audits published to the broker.
+     */
+    public long getPublishedCount()
+    {
+        return published.get();
+    }
+
+    private Object getKey( Audit audit )
+    {
+        if ( audit.getUid() == null )
+        {
+            return new Object();
+        }
+
+        return new AuditKey( audit.getAuditScope(), audit.getAuditType(), audit.getKlass(), audit.getUid(),
+            audit.getCreatedBy() );
+    }
+
+    @Value
+    private static class AuditKey
+    {
+        private AuditScope auditScope;
+
+        private AuditType auditType;
+
+        private String klass;
 
-        delayed.drainTo( expired );
+        private String uid;
 
-        expired.stream().map( QueuedAudit::getAuditItem ).forEach( auditProducerSupplier::publish );
+        private String createdBy;
     }
 }
@@ -41,7 +41,7 @@ public class QueuedAudit implements Delayed
 
     private final long delay;
 
-    private final Audit audit;
+    private Audit audit;
 
     public QueuedAudit( Audit audit, long delay )
     {
@@ -57,6 +57,19 @@ public class QueuedAudit implements Delayed
         return audit;
     }
 
+    /**
+     * Replaces the queued audit with a more recent audit of the same entity,
+     * retaining the original position in the queue.
+     *
+     * @param audit the audit.
+     */
+    public void setAuditItem( Audit audit )
+    {
+        checkNotNull( audit );
+
+        this.audit = audit;
+    }
+
     @Override
     public long getDelay( TimeUnit unit )
     {
@@ -81,45 +94,4 @@ public class QueuedAudit implements Delayed
 
         return ((d == 0) ? 0 : ((d < 0) ? -1 : 1));
     }
-
-    @Override
-    public int hashCode()
-    {
-        final int prime = 31;
-
-        int result = 1;
-        result = prime * result + ((audit == null) ? 0 : audit.hashCode());
-
-        return result;
-    }
-
-    @Override
-    public boolean equals( Object obj )
-    {
-        if ( this == obj )
-        {
-            return true;
-        }
-
-        if ( obj == null )
-        {
-            return false;
-        }
-
-        if ( !(obj instanceof QueuedAudit) )
-        {
-            return false;
-        }
-
-        final QueuedAudit other = (QueuedAudit) obj;
-
-        if ( audit == null )
-        {
-            return other.audit == null;
-        }
-        else
-        {
-            return audit.equals( other.audit );
-        }
-    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.artemis.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.hisp.dhis.audit.AuditScope;
+import org.hisp.dhis.audit.AuditType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class AuditSchedulerTest
+{
+    @Mock
+    private AuditProducerSupplier auditProducerSupplier;
+
+    @Captor
+    private ArgumentCaptor<List<Audit>> auditCaptor;
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    private AuditScheduler auditScheduler;
+
+    @Before
+    public void setUp()
+    {
+        auditScheduler = new AuditScheduler( auditProducerSupplier, 0 );
+    }
+
+    @Test
+    public void testCoalesceAuditsOfSameEntity()
+    {
+        Audit auditA = createAudit( AuditType.UPDATE, "deabcdefghA", "admin" );
+        Audit auditB = createAudit( AuditType.UPDATE, "deabcdefghA", "admin" );
+        Audit auditC = createAudit( AuditType.UPDATE, "deabcdefghB", "admin" );
+        Audit auditD = createAudit( AuditType.UPDATE, "deabcdefghA", "system" );
+        Audit auditE = createAudit( AuditType.DELETE, "deabcdefghA", "admin" );
+
+        auditScheduler.addAuditItem( auditA );
+        auditScheduler.addAuditItem( auditB );
+        auditScheduler.addAuditItem( auditC );
+        auditScheduler.addAuditItem( auditD );
+        auditScheduler.addAuditItem( auditE );
+
+        assertEquals( 4, auditScheduler.getQueueSize() );
+        assertEquals( 5, auditScheduler.getReceivedCount() );
+        assertEquals( 1, auditScheduler.getCoalescedCount() );
+
+        auditScheduler.process();
+
+        verify( auditProducerSupplier ).publish( auditCaptor.capture() );
+
+        List<Audit> published = auditCaptor.getValue();
+
+        assertEquals( 4, published.size() );
+        assertSame( auditB, published.get( 0 ) );
+        assertSame( auditC, published.get( 1 ) );
+        assertSame( auditD, published.get( 2 ) );
+        assertSame( auditE, published.get( 3 ) );
+        assertEquals( 0, auditScheduler.getQueueSize() );
+        assertEquals( 4, auditScheduler.getPublishedCount() );
+    }
+
+    @Test
+    public void testNoCoalesceWithoutUid()
+    {
+        auditScheduler.addAuditItem( createAudit( AuditType.UPDATE, null, "admin" ) );
+        auditScheduler.addAuditItem( createAudit( AuditType.UPDATE, null, "admin" ) );
+
+        assertEquals( 2, auditScheduler.getQueueSize() );
+        assertEquals( 0, auditScheduler.getCoalescedCount() );
+    }
+
+    @Test
+    public void testRetainUntilExpired()
+    {
+        auditScheduler = new AuditScheduler( auditProducerSupplier, 60_000 );
+
+        auditScheduler.addAuditItem( createAudit( AuditType.UPDATE, "deabcdefghA", "admin" ) );
+
+        auditScheduler.process();
+
+        verify( auditProducerSupplier, never() ).publish( any( List.class ) );
+        assertEquals( 1, auditScheduler.getQueueSize() );
+    }
+
+    private Audit createAudit( AuditType auditType, String uid, String createdBy )
+    {
+        return Audit.builder()
+            .auditType( auditType )
+            .auditScope( AuditScope.METADATA )
+            .klass( "org.hisp.dhis.dataelement.DataElement" )
+            .uid( uid )
+            .createdBy( createdBy )
+            .build();
+    }
+}
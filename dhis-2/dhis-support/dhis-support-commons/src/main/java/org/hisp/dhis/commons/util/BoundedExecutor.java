@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.commons.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Application wide bounded pool of named threads for a kind of work, like
+ * validation or metadata export. All runs of the work share the pool, so
+ * concurrent runs compete for the same bounded number of threads rather than
+ * each creating their own. The pool uses one thread less than the number of
+ * CPU cores when there are more than two cores, capped at the given maximum.
+ *
+ * Tasks submitted to the pool do not have the persistence session of the
+ * calling thread, so tasks which access the database must open their own
+ * transaction.
+ */
+@Slf4j
+public class BoundedExecutor
+{
+    private final String name;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param name the name of the pool, used as prefix of thread names.
+     * @param maxThreads the maximum number of threads of the pool.
+     */
+    public BoundedExecutor( String name, int maxThreads )
+    {
+        int cores = SystemUtils.getCpuCores();
+
+        this.name = name;
+        this.pool = new ForkJoinPool( Math.max( 1, Math.min( maxThreads, cores > 2 ? cores - 1 : cores ) ),
+            forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                    .newThread( forkJoinPool );
+                thread.setName( "DHIS2-" + name + "-" + thread.getPoolIndex() );
+                return thread;
+            }, null, false );
+    }
+
+    /**
+     * Gets the number of threads of the pool.
+     */
+    public int getParallelism()
+    {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Submits a task for execution in the pool. Cancelling the returned future
+     * prevents the task from starting, but does not interrupt a running task.
+     *
+     * @param task the task.
+     * @return a future of the result of the task.
+     */
+    public <T> Future<T> submit( Callable<T> task )
+    {
+        return pool.submit( task );
+    }
+
+    /**
+     * Submits a task for execution in the pool.
+     *
+     * @param task the task.
+     * @return the submitted task.
+     */
+    public <T> ForkJoinTask<T> submit( ForkJoinTask<T> task )
+    {
+        return pool.submit( task );
+    }
+
+    /**
+     * Executes the given tasks in the pool and waits for all of them to
+     * complete.
+     *
+     * @param tasks the tasks.
+     * @return the results of the tasks, in the order of the tasks.
+     * @throws RuntimeException if any of the tasks failed or the calling
+     *         thread was interrupted.
+     */
+    public <T> List<T> invokeAll( List<Callable<T>> tasks )
+    {
+        List<T> results = new ArrayList<>( tasks.size() );
+
+        try
+        {
+            for ( Future<T> future : pool.invokeAll( tasks ) )
+            {
+                results.add( future.get() );
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException( "Interrupted while waiting for tasks of pool: " + name, ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IllegalStateException( ex.getCause() );
+        }
+
+        return results;
+    }
+
+    /**
+     * Shuts down the pool and interrupts running tasks.
+     */
+    public void shutdown()
+    {
+        log.info( String.format( "Shutting down pool: %s", name ) );
+
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.db.migration.v36;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds trigram (pg_trgm) GIN indexes on lower(name) for the metadata tables
+ * searched by the dashboard search and the metadata pickers. These serve the
+ * case insensitive "lower(name) like '%term%'" predicates which otherwise
+ * require sequential scans. The migration is skipped when the pg_trgm
+ * extension is not available on the database server.
+ */
+public class V2_36_32__Add_trigram_indexes_for_metadata_search extends BaseJavaMigration
+{
+    private static final Logger log = LoggerFactory
+        .getLogger( V2_36_32__Add_trigram_indexes_for_metadata_search.class );
+
+    private static final String[] TABLES = {
+        "dashboard", "visualization", "eventchart", "eventreport", "map", "report", "document",
+        "dataelement", "indicator", "dataset", "programindicator", "program", "organisationunit",
+        "dataelementcategoryoption", "trackedentityattribute", "optionset" };
+
+    @Override
+    public void migrate( Context context )
+        throws Exception
+    {
+        if ( !createTrigramExtension( context ) )
+        {
+            log.warn( "Extension pg_trgm is not available, skipping trigram indexes for metadata search" );
+            return;
+        }
+
+        try ( Statement statement = context.getConnection().createStatement() )
+        {
+            for ( String table : TABLES )
+            {
+                String sql = String.format(
+                    "create index if not exists in_%s_name_trgm on %s using gin (lower(name) gin_trgm_ops)",
+                    table, table );
+
+                log.info( "Executing metadata search index query: [" + sql + "]" );
+                statement.execute( sql );
+            }
+        }
+    }
+
+    /**
+     * Creates the pg_trgm extension if not already present. Creating an
+     * extension requires privileges which the database user may not have, so
+     * a failure is rolled back to a savepoint to keep the migration
+     * transaction usable.
+     *
+     * @return true if the extension is available.
+     */
+    private boolean createTrigramExtension( Context context )
+        throws SQLException
+    {
+        Savepoint savepoint = context.getConnection().setSavepoint();
+
+        try ( Statement statement = context.getConnection().createStatement() )
+        {
+            statement.execute( "create extension if not exists pg_trgm" );
+            context.getConnection().releaseSavepoint( savepoint );
+            return true;
+        }
+        catch ( SQLException ex )
+        {
+            log.warn( String.format( "Could not create extension pg_trgm: %s", ex.getMessage() ) );
+            context.getConnection().rollback( savepoint );
+        }
+
+        try ( Statement statement = context.getConnection().createStatement();
+            ResultSet rs = statement.executeQuery( "select 1 from pg_extension where extname = 'pg_trgm'" ) )
+        {
+            return rs.next();
+        }
+    }
+}
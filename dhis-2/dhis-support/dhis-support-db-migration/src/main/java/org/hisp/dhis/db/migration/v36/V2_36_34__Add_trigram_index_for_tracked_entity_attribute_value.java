@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.db.migration.v36;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds a trigram (pg_trgm) GIN index on lower(value) of the tracked entity
+ * attribute value table. This serves the "lower(value) like '%term%'" and
+ * "lower(value) ~* 'term'" predicates of tracked entity instance queries, for
+ * which the existing btree index on (trackedentityattributeid, lower(value))
+ * can only be used for exact and prefix matches.
+ * <p>
+ * The index is created concurrently to avoid blocking writes on large
+ * tables, which requires running outside of a transaction. The migration is
+ * skipped when the pg_trgm extension is not available on the database server.
+ */
+public class V2_36_34__Add_trigram_index_for_tracked_entity_attribute_value extends BaseJavaMigration
+{
+    private static final Logger log = LoggerFactory
+        .getLogger( V2_36_34__Add_trigram_index_for_tracked_entity_attribute_value.class );
+
+    @Override
+    public void migrate( Context context )
+        throws Exception
+    {
+        if ( !createTrigramExtension( context ) )
+        {
+            log.warn( "Extension pg_trgm is not available, skipping trigram index for tracked entity attributes" );
+            return;
+        }
+
+        try ( Statement statement = context.getConnection().createStatement() )
+        {
+            statement.execute( "create index concurrently if not exists in_trackedentityattributevalue_value_trgm " +
+                "on trackedentityattributevalue using gin (lower(value) gin_trgm_ops)" );
+        }
+    }
+
+    @Override
+    public boolean canExecuteInTransaction()
+    {
+        return false;
+    }
+
+    private boolean createTrigramExtension( Context context )
+        throws SQLException
+    {
+        try ( Statement statement = context.getConnection().createStatement() )
+        {
+            statement.execute( "create extension if not exists pg_trgm" );
+            return true;
+        }
+        catch ( SQLException ex )
+        {
+            log.warn( String.format( "Could not create extension pg_trgm: %s", ex.getMessage() ) );
+        }
+
+        try ( Statement statement = context.getConnection().createStatement();
+            ResultSet rs = statement.executeQuery( "select 1 from pg_extension where extname = 'pg_trgm'" ) )
+        {
+            return rs.next();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+create table if not exists dataapprovalsummary (
+    workflowid bigint not null,
+    periodid bigint not null,
+    organisationunitid bigint not null,
+    attributeoptioncomboid bigint not null,
+    dataapprovallevelid bigint,
+    level integer,
+    accepted boolean,
+    readybelow boolean,
+    acceptedbelow boolean
+);
+
+alter table dataapprovalsummary
+	drop constraint if exists dataapprovalsummary_pkey,
+	drop constraint if exists fk_dataapprovalsummary_workflowid,
+	drop constraint if exists fk_dataapprovalsummary_periodid,
+	drop constraint if exists fk_dataapprovalsummary_organisationunitid,
+	drop constraint if exists fk_dataapprovalsummary_attributeoptioncomboid;
+
+alter table dataapprovalsummary
+	add constraint dataapprovalsummary_pkey PRIMARY KEY (workflowid, periodid, organisationunitid, attributeoptioncomboid),
+	add constraint fk_dataapprovalsummary_workflowid FOREIGN KEY (workflowid) REFERENCES dataapprovalworkflow(workflowid) on delete cascade,
+	add constraint fk_dataapprovalsummary_periodid FOREIGN KEY (periodid) REFERENCES period(periodid) on delete cascade,
+	add constraint fk_dataapprovalsummary_organisationunitid FOREIGN KEY (organisationunitid) REFERENCES organisationunit(organisationunitid) on delete cascade,
+	add constraint fk_dataapprovalsummary_attributeoptioncomboid FOREIGN KEY (attributeoptioncomboid) REFERENCES categoryoptioncombo(categoryoptioncomboid) on delete cascade;
+
+create index if not exists in_dataapprovalsummary_organisationunitid on dataapprovalsummary (organisationunitid);
+
+-- Populate the highest approved level for existing approvals, readiness below is computed until reconciled
+
+delete from dataapprovalsummary;
+
+insert into dataapprovalsummary (workflowid, periodid, organisationunitid, attributeoptioncomboid, dataapprovallevelid, level, accepted)
+select distinct on (da.workflowid, da.periodid, da.organisationunitid, da.attributeoptioncomboid)
+    da.workflowid, da.periodid, da.organisationunitid, da.attributeoptioncomboid, da.dataapprovallevelid, dal.level, da.accepted
+from dataapproval da
+join dataapprovallevel dal on dal.dataapprovallevelid = da.dataapprovallevelid
+where da.workflowid is not null and da.attributeoptioncomboid is not null
+order by da.workflowid, da.periodid, da.organisationunitid, da.attributeoptioncomboid, dal.level;
@@ -0,0 +1,26 @@
+create table if not exists outlierstatistics (
+    dataelementid bigint not null,
+    sourceid bigint not null,
+    categoryoptioncomboid bigint not null,
+    attributeoptioncomboid bigint not null,
+    count bigint not null,
+    sum double precision not null,
+    sumsquares double precision not null,
+    updated timestamp without time zone not null
+);
+
+alter table outlierstatistics
+	drop constraint if exists outlierstatistics_pkey,
+	drop constraint if exists fk_outlierstatistics_dataelementid,
+	drop constraint if exists fk_outlierstatistics_sourceid,
+	drop constraint if exists fk_outlierstatistics_categoryoptioncomboid,
+	drop constraint if exists fk_outlierstatistics_attributeoptioncomboid;
+
+alter table outlierstatistics
+	add constraint outlierstatistics_pkey PRIMARY KEY (dataelementid, sourceid, categoryoptioncomboid, attributeoptioncomboid),
+	add constraint fk_outlierstatistics_dataelementid FOREIGN KEY (dataelementid) REFERENCES dataelement(dataelementid) on delete cascade,
+	add constraint fk_outlierstatistics_sourceid FOREIGN KEY (sourceid) REFERENCES organisationunit(organisationunitid) on delete cascade,
+	add constraint fk_outlierstatistics_categoryoptioncomboid FOREIGN KEY (categoryoptioncomboid) REFERENCES categoryoptioncombo(categoryoptioncomboid) on delete cascade,
+	add constraint fk_outlierstatistics_attributeoptioncomboid FOREIGN KEY (attributeoptioncomboid) REFERENCES categoryoptioncombo(categoryoptioncomboid) on delete cascade;
+
+create index if not exists in_outlierstatistics_sourceid on outlierstatistics (sourceid);
@@ -0,0 +1,9 @@
+-- Replace sum and sum of squares with mean and standard deviation computed from the values, statistics are recomputed on the next update
+
+delete from outlierstatistics;
+
+alter table outlierstatistics
+    drop column if exists sum,
+    drop column if exists sumsquares,
+    add column if not exists mean double precision not null,
+    add column if not exists stddev double precision not null;
@@ -0,0 +1,14 @@
+create table if not exists programnotificationprogress (
+    programnotificationtemplateid bigint not null,
+    notificationdate date not null,
+    programinstanceid bigint,
+    programstageinstanceid bigint
+);
+
+alter table programnotificationprogress
+	drop constraint if exists programnotificationprogress_pkey,
+	drop constraint if exists fk_programnotificationprogress_templateid;
+
+alter table programnotificationprogress
+	add constraint programnotificationprogress_pkey PRIMARY KEY (programnotificationtemplateid, notificationdate),
+	add constraint fk_programnotificationprogress_templateid FOREIGN KEY (programnotificationtemplateid) REFERENCES programnotificationtemplate(programnotificationtemplateid) on delete cascade;
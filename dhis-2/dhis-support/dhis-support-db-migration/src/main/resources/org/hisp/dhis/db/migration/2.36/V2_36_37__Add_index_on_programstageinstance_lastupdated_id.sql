@@ -0,0 +1,3 @@
+-- Supports keyset paging of events ordered by last updated and id
+
+create index if not exists in_programstageinstance_lastupdated_id on programstageinstance (lastupdated, programstageinstanceid);
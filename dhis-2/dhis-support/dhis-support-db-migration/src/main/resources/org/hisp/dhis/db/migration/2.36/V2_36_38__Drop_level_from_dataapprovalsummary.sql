@@ -0,0 +1,11 @@
+-- The level number is read from dataapprovallevel, as levels are renumbered when levels are added, moved or deleted
+
+alter table dataapprovalsummary drop column if exists level;
+
+alter table dataapprovalsummary drop constraint if exists fk_dataapprovalsummary_dataapprovallevelid;
+
+update dataapprovalsummary das set dataapprovallevelid = null
+where not exists (select 1 from dataapprovallevel dal where dal.dataapprovallevelid = das.dataapprovallevelid);
+
+alter table dataapprovalsummary
+	add constraint fk_dataapprovalsummary_dataapprovallevelid FOREIGN KEY (dataapprovallevelid) REFERENCES dataapprovallevel(dataapprovallevelid) on delete set null;
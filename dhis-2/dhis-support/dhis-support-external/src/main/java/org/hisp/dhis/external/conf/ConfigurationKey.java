@@ -44,6 +44,7 @@ public enum ConfigurationKey
     SYSTEM_MONITORING_PASSWORD( "system.monitoring.password" ),
     SYSTEM_SQL_VIEW_TABLE_PROTECTION( "system.sql_view_table_protection", Constants.ON, false ),
     SYSTEM_PROGRAM_RULE_SERVER_EXECUTION( "system.program_rule.server_execution", Constants.ON, false ),
+    SYSTEM_STARTUP_MAX_THREADS( "system.startup.max_threads", "4", false ),
     NODE_ID( "node.id", "", false ),
     ENCRYPTION_PASSWORD( "encryption.password", "", true ),
     CONNECTION_DIALECT( "connection.dialect", "", false ),
@@ -81,6 +82,7 @@ public enum ConfigurationKey
     CLUSTER_MEMBERS( "cluster.members", "", false ),
     CLUSTER_CACHE_PORT( "cluster.cache.port", "4001", false ),
     CLUSTER_CACHE_REMOTE_OBJECT_PORT( "cluster.cache.remote.object.port", "0", false ),
+    CLUSTER_CACHE_INVALIDATION_ENABLED( "cluster.cache.invalidation.enabled", Constants.OFF, false ),
     REDIS_HOST( "redis.host", "localhost", false ),
     REDIS_PORT( "redis.port", "6379", false ),
     REDIS_PASSWORD( "redis.password", "", true ),
@@ -89,8 +91,14 @@ public enum ConfigurationKey
     FLYWAY_OUT_OF_ORDER_MIGRATION( "flyway.migrate_out_of_order", Constants.FALSE, false ),
     FLYWAY_REPAIR_BEFORE_MIGRATION( "flyway.repair_before_migration", Constants.FALSE, false ),
     PROGRAM_TEMPORARY_OWNERSHIP_TIMEOUT( "tracker.temporary.ownership.timeout", "3", false ),
+    TRACKER_EVENT_DATA_VALUES_COMPACT( "tracker.event.datavalues.compact", Constants.OFF, false ),
     LEADER_TIME_TO_LIVE( "leader.time.to.live.minutes", "2", false ),
+    SCHEDULING_DB_HEAVY_MAX_JOBS( "scheduling.db_heavy.max_jobs", "2", false ),
+    SCHEDULING_DB_HEAVY_MAX_JOBS_PER_TYPE( "scheduling.db_heavy.max_jobs_per_type", "1", false ),
+    SCHEDULING_CPU_HEAVY_MAX_JOBS( "scheduling.cpu_heavy.max_jobs", "2", false ),
+    SCHEDULING_IO_BOUND_MAX_JOBS( "scheduling.io_bound.max_jobs", "10", false ),
     ANALYTICS_CACHE_EXPIRATION( "analytics.cache.expiration", "0" ),
+    ANALYTICS_TABLE_CLUSTERED_LAYOUT( "analytics.table.clustered_layout", "", false ),
     ARTEMIS_MODE( "artemis.mode", "EMBEDDED" ),
     ARTEMIS_HOST( "artemis.host", "127.0.0.1" ),
     ARTEMIS_PORT( "artemis.port", "25672" ),
@@ -109,6 +117,7 @@ public enum ConfigurationKey
     MONITORING_HIBERNATE_ENABLED( "monitoring.hibernate.enabled", Constants.OFF, false ),
     MONITORING_UPTIME_ENABLED( "monitoring.uptime.enabled", Constants.OFF, false ),
     MONITORING_CPU_ENABLED( "monitoring.cpu.enabled", Constants.OFF, false ),
+    MONITORING_AUDIT_ENABLED( "monitoring.audit.enabled", Constants.OFF, false ),
     MONITORING_LOG_REQUESTID_ENABLED( "monitoring.requestidlog.enabled", Constants.OFF, false ),
     MONITORING_LOG_REQUESTID_HASHALGO( "monitoring.requestidlog.hash", "SHA-256", false ),
     MONITORING_LOG_REQUESTID_MAXSIZE( "monitoring.requestidlog.maxsize", "-1", false ),
@@ -58,6 +58,7 @@ import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.external.location.LocationManagerException;
+import org.hisp.dhis.hibernate.jsonb.type.JsonEventDataValueSetBinaryType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
@@ -89,6 +90,8 @@ public class DefaultHibernateConfigurationProvider
 
     private static final String FILENAME_EHCACHE_REPLICATION = "/ehcache-replication.xml";
 
+    private static final String FILENAME_EHCACHE_INVALIDATION = "/ehcache-invalidation.xml";
+
     @Autowired
     private org.springframework.core.env.Environment environment;
     // -------------------------------------------------------------------------
@@ -184,7 +187,15 @@ public class DefaultHibernateConfigurationProvider
         // ---------------------------------------------------------------------
         // Handle cache replication
         // ---------------------------------------------------------------------
-        if ( configProvider.isClusterEnabled() )
+        if ( configProvider.isClusterEnabled() && isCacheInvalidationEnabled() )
+        {
+            config.setProperty( "net.sf.ehcache.configurationResourceName", FILENAME_EHCACHE_INVALIDATION );
+
+            setClusterHostnames();
+
+            log.info( "Clustering and cache invalidation enabled" );
+        }
+        else if ( configProvider.isClusterEnabled() )
         {
             config.setProperty( "net.sf.ehcache.configurationResourceName", FILENAME_EHCACHE_REPLICATION );
 
@@ -247,6 +258,9 @@ public class DefaultHibernateConfigurationProvider
         set( ConfigurationKey.ENCRYPTION_PASSWORD.getKey(),
             configProvider.getProperty( ConfigurationKey.ENCRYPTION_PASSWORD ), p );
 
+        set( JsonEventDataValueSetBinaryType.COMPACT_ENCODING,
+            String.valueOf( configProvider.isEnabled( ConfigurationKey.TRACKER_EVENT_DATA_VALUES_COMPACT ) ), p );
+
         if ( SystemUtils.isTestRun( environment.getActiveProfiles() ) )
         {
             set( HBM2DDL_AUTO, configProvider.getProperty( ConfigurationKey.CONNECTION_SCHEMA ), p );
@@ -306,6 +320,39 @@ public class DefaultHibernateConfigurationProvider
         }
     }
 
+    /**
+     * Indicates whether invalidation based cache clustering is enabled. Cache
+     * invalidations are broadcast through Redis, hence Redis must be enabled.
+     */
+    private boolean isCacheInvalidationEnabled()
+    {
+        if ( !configProvider.isEnabled( ConfigurationKey.CLUSTER_CACHE_INVALIDATION_ENABLED ) )
+        {
+            return false;
+        }
+
+        if ( !Boolean.parseBoolean( configProvider.getProperty( ConfigurationKey.REDIS_ENABLED ) ) )
+        {
+            log.warn( "Cache invalidation requires Redis to be enabled, falling back to cache replication" );
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private void setClusterHostnames()
+    {
+        String clusterMembers = configProvider.getProperty( ConfigurationKey.CLUSTER_MEMBERS );
+
+        for ( String member : clusterMembers.trim().split( "\\s*,\\s*" ) )
+        {
+            clusterHostnames.add( member );
+
+            log.info( "Found cluster instance: " + member );
+        }
+    }
+
     /**
      * Sets system properties to be resolved in the Ehcache cache replication
      * configuration.
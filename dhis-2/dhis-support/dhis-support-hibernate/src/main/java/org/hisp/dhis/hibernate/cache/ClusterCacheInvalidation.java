@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.hibernate.cache;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+
+/**
+ * Entry point for invalidation based clustering of the Hibernate second level
+ * cache. Cache entries are kept local to each instance, and only the keys of
+ * updated and removed entries are broadcast through the registered
+ * {@link CacheInvalidationPublisher}. Ehcache instantiates its listeners
+ * reflectively, hence the publisher is held statically.
+ */
+@Slf4j
+public final class ClusterCacheInvalidation
+{
+    /**
+     * Identifier of this instance, used to ignore invalidations originating
+     * from this instance.
+     */
+    public static final String NODE_ID = UUID.randomUUID().toString();
+
+    private static volatile CacheInvalidationPublisher publisher;
+
+    private ClusterCacheInvalidation()
+    {
+        throw new UnsupportedOperationException( "util" );
+    }
+
+    public static void setPublisher( CacheInvalidationPublisher cacheInvalidationPublisher )
+    {
+        publisher = cacheInvalidationPublisher;
+    }
+
+    static void publishInvalidation( String cacheName, Object key )
+    {
+        CacheInvalidationPublisher current = publisher;
+
+        if ( current == null )
+        {
+            return;
+        }
+
+        if ( key instanceof Serializable )
+        {
+            current.publishInvalidation( cacheName, (Serializable) key );
+        }
+        else
+        {
+            current.publishInvalidateAll( cacheName );
+        }
+    }
+
+    static void publishInvalidateAll( String cacheName )
+    {
+        CacheInvalidationPublisher current = publisher;
+
+        if ( current != null )
+        {
+            current.publishInvalidateAll( cacheName );
+        }
+    }
+
+    /**
+     * Removes the entry with the given key from the local cache with the given
+     * name without broadcasting the removal.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key of the entry.
+     */
+    public static void invalidateLocal( String cacheName, Object key )
+    {
+        for ( CacheManager cacheManager : CacheManager.ALL_CACHE_MANAGERS )
+        {
+            Ehcache cache = cacheManager.getEhcache( cacheName );
+
+            if ( cache != null )
+            {
+                cache.remove( key, true );
+            }
+        }
+
+        log.debug( String.format( "Invalidated entry in cache: '%s'", cacheName ) );
+    }
+
+    /**
+     * Removes all entries from the local cache with the given name without
+     * broadcasting the removal.
+     *
+     * @param cacheName the name of the cache.
+     */
+    public static void invalidateAllLocal( String cacheName )
+    {
+        for ( CacheManager cacheManager : CacheManager.ALL_CACHE_MANAGERS )
+        {
+            Ehcache cache = cacheManager.getEhcache( cacheName );
+
+            if ( cache != null )
+            {
+                cache.removeAll( true );
+            }
+        }
+
+        log.debug( String.format( "Invalidated all entries in cache: '%s'", cacheName ) );
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.hibernate.cache;
+
+import net.sf.ehcache.CacheException;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.distribution.CacheReplicator;
+
+/**
+ * Cache replicator which broadcasts the keys of updated and removed entries
+ * instead of copying entries between instances. Puts are not broadcast, as
+ * entries are loaded from the database on demand. Being a
+ * {@link CacheReplicator}, it is not notified of removals triggered by
+ * invalidations received from other instances.
+ */
+public class InvalidationCacheReplicator
+    implements CacheReplicator
+{
+    private volatile boolean alive = true;
+
+    @Override
+    public void notifyElementPut( Ehcache cache, Element element )
+        throws CacheException
+    {
+    }
+
+    @Override
+    public void notifyElementUpdated( Ehcache cache, Element element )
+        throws CacheException
+    {
+        if ( alive )
+        {
+            ClusterCacheInvalidation.publishInvalidation( cache.getName(), element.getObjectKey() );
+        }
+    }
+
+    @Override
+    public void notifyElementRemoved( Ehcache cache, Element element )
+        throws CacheException
+    {
+        if ( alive )
+        {
+            ClusterCacheInvalidation.publishInvalidation( cache.getName(), element.getObjectKey() );
+        }
+    }
+
+    @Override
+    public void notifyElementExpired( Ehcache cache, Element element )
+    {
+    }
+
+    @Override
+    public void notifyElementEvicted( Ehcache cache, Element element )
+    {
+    }
+
+    @Override
+    public void notifyRemoveAll( Ehcache cache )
+    {
+        if ( alive )
+        {
+            ClusterCacheInvalidation.publishInvalidateAll( cache.getName() );
+        }
+    }
+
+    @Override
+    public boolean isReplicateUpdatesViaCopy()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean notAlive()
+    {
+        return !alive;
+    }
+
+    @Override
+    public boolean alive()
+    {
+        return alive;
+    }
+
+    @Override
+    public void dispose()
+    {
+        alive = false;
+    }
+
+    @Override
+    public Object clone()
+        throws CloneNotSupportedException
+    {
+        return new InvalidationCacheReplicator();
+    }
+}
@@ -28,22 +28,57 @@
 package org.hisp.dhis.hibernate.jsonb.type;
 
 import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.program.UserInfoSnapshot;
+import org.postgresql.util.PGobject;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
+ * Stores event data values as a JSON object keyed by data element uid.
+ * <p>
+ * When compact encoding is enabled through the {@link #COMPACT_ENCODING}
+ * Hibernate property, each value is marked with the {@link #VERSION_KEY} key,
+ * timestamps are written as epoch milliseconds, providedElsewhere is omitted
+ * when false, and storedBy and lastUpdatedByUserInfo are omitted when they
+ * refer to the user in createdByUserInfo. A null storedBy or
+ * lastUpdatedByUserInfo is written explicitly. The value is always written
+ * under the value key, so SQL queries on
+ * {@code eventdatavalues #>> '{uid,value}'} are not affected. Both the verbose
+ * and the compact encoding are read transparently.
+ *
  * @author David Katuscak
  */
 public class JsonEventDataValueSetBinaryType extends JsonBinaryType
 {
+    /**
+     * Hibernate property which enables the compact encoding.
+     */
+    public static final String COMPACT_ENCODING = "dhis.event_data_values.compact";
+
+    /**
+     * Key which marks a value in the compact encoding.
+     */
+    public static final String VERSION_KEY = "v";
+
+    public static final int COMPACT_VERSION = 1;
+
     public JsonEventDataValueSetBinaryType()
     {
         super();
@@ -76,6 +111,32 @@ public class JsonEventDataValueSetBinaryType extends JsonBinaryType
         return convertJsonToObject( json );
     }
 
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public void nullSafeSet( PreparedStatement ps, Object value, int idx, SharedSessionContractImplementor session )
+        throws HibernateException,
+        SQLException
+    {
+        if ( value == null || !isCompactEncoding( session ) )
+        {
+            super.nullSafeSet( ps, value, idx, session );
+            return;
+        }
+
+        try
+        {
+            PGobject pg = new PGobject();
+            pg.setType( "jsonb" );
+            pg.setValue( writeCompactJson( (Set<EventDataValue>) value ) );
+
+            ps.setObject( idx, pg );
+        }
+        catch ( JsonProcessingException e )
+        {
+            throw new IllegalArgumentException( e );
+        }
+    }
+
     /**
      * Serializes an object to JSON.
      *
@@ -117,9 +178,7 @@ public class JsonEventDataValueSetBinaryType extends JsonBinaryType
     {
         try
         {
-            Map<String, EventDataValue> data = reader.readValue( content );
-
-            return convertEventDataValuesMapIntoSet( data );
+            return readEventDataValues( MAPPER, content );
         }
         catch ( IOException e )
         {
@@ -143,4 +202,175 @@ public class JsonEventDataValueSetBinaryType extends JsonBinaryType
         return eventDataValues;
     }
 
+    // -------------------------------------------------------------------------
+    // Compact encoding
+    // -------------------------------------------------------------------------
+
+    /**
+     * Indicates whether the compact encoding is enabled for the session
+     * factory of the given session.
+     *
+     * @param session the session.
+     * @return true if values are to be written in the compact encoding.
+     */
+    public static boolean isCompactEncoding( SharedSessionContractImplementor session )
+    {
+        return Boolean.parseBoolean( Objects.toString( session.getFactory().getProperties().get( COMPACT_ENCODING ) ) );
+    }
+
+    /**
+     * Serializes the given event data values to a JSON object keyed by data
+     * element uid using the compact encoding.
+     *
+     * @param eventDataValues the event data values.
+     * @return JSON content.
+     * @throws JsonProcessingException if the serialization fails.
+     */
+    public static String writeCompactJson( Set<EventDataValue> eventDataValues )
+        throws JsonProcessingException
+    {
+        ObjectNode data = MAPPER.createObjectNode();
+
+        for ( EventDataValue eventDataValue : eventDataValues )
+        {
+            data.set( eventDataValue.getDataElement(), toCompactNode( eventDataValue ) );
+        }
+
+        return MAPPER.writeValueAsString( data );
+    }
+
+    /**
+     * Deserializes event data values in either encoding from a JSON object
+     * keyed by data element uid. Fields omitted by the compact encoding are
+     * restored only for values marked with the {@link #VERSION_KEY} key.
+     *
+     * @param mapper the object mapper to read the values with.
+     * @param content the JSON content.
+     * @return the event data values.
+     * @throws JsonProcessingException if the deserialization fails.
+     */
+    public static Set<EventDataValue> readEventDataValues( ObjectMapper mapper, String content )
+        throws JsonProcessingException
+    {
+        Set<EventDataValue> eventDataValues = new HashSet<>();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = mapper.readTree( content ).fields();
+
+        while ( fields.hasNext() )
+        {
+            Map.Entry<String, JsonNode> field = fields.next();
+            ObjectNode node = (ObjectNode) field.getValue();
+            boolean compact = node.remove( VERSION_KEY ) != null;
+
+            EventDataValue eventDataValue = mapper.treeToValue( node, EventDataValue.class );
+            eventDataValue.setDataElement( field.getKey() );
+
+            if ( compact )
+            {
+                restoreSharedFields( eventDataValue, node );
+            }
+
+            eventDataValues.add( eventDataValue );
+        }
+
+        return eventDataValues;
+    }
+
+    /**
+     * Fills in the fields which the compact encoding omits because they refer
+     * to the user who created the value. Fields present in the node, including
+     * explicit nulls, are kept.
+     */
+    private static void restoreSharedFields( EventDataValue eventDataValue, JsonNode node )
+    {
+        UserInfoSnapshot createdBy = eventDataValue.getCreatedByUserInfo();
+
+        if ( createdBy == null )
+        {
+            return;
+        }
+
+        if ( !node.has( "storedBy" ) )
+        {
+            eventDataValue.setStoredBy( createdBy.getUsername() );
+        }
+
+        if ( !node.has( "lastUpdatedByUserInfo" ) )
+        {
+            eventDataValue.setLastUpdatedByUserInfo( createdBy );
+        }
+    }
+
+    private static ObjectNode toCompactNode( EventDataValue eventDataValue )
+    {
+        UserInfoSnapshot createdBy = eventDataValue.getCreatedByUserInfo();
+        UserInfoSnapshot lastUpdatedBy = eventDataValue.getLastUpdatedByUserInfo();
+        String storedBy = eventDataValue.getStoredBy();
+
+        ObjectNode node = MAPPER.createObjectNode();
+
+        node.put( VERSION_KEY, COMPACT_VERSION );
+
+        if ( eventDataValue.getValue() != null )
+        {
+            node.put( "value", eventDataValue.getValue() );
+        }
+
+        if ( eventDataValue.getCreated() != null )
+        {
+            node.put( "created", eventDataValue.getCreated().getTime() );
+        }
+
+        if ( eventDataValue.getLastUpdated() != null )
+        {
+            node.put( "lastUpdated", eventDataValue.getLastUpdated().getTime() );
+        }
+
+        if ( Boolean.TRUE.equals( eventDataValue.getProvidedElsewhere() ) )
+        {
+            node.put( "providedElsewhere", true );
+        }
+
+        if ( createdBy == null )
+        {
+            putIfNotNull( node, "lastUpdatedByUserInfo", lastUpdatedBy );
+            putIfNotNull( node, "storedBy", storedBy );
+
+            return node;
+        }
+
+        node.set( "createdByUserInfo", MAPPER.valueToTree( createdBy ) );
+
+        if ( lastUpdatedBy == null )
+        {
+            node.putNull( "lastUpdatedByUserInfo" );
+        }
+        else if ( !isSameUser( createdBy, lastUpdatedBy ) )
+        {
+            node.set( "lastUpdatedByUserInfo", MAPPER.valueToTree( lastUpdatedBy ) );
+        }
+
+        if ( !Objects.equals( createdBy.getUsername(), storedBy ) )
+        {
+            node.put( "storedBy", storedBy );
+        }
+
+        return node;
+    }
+
+    private static boolean isSameUser( UserInfoSnapshot user, UserInfoSnapshot other )
+    {
+        return user.equals( other )
+            && Objects.equals( user.getUsername(), other.getUsername() )
+            && Objects.equals( user.getFirstName(), other.getFirstName() )
+            && Objects.equals( user.getSurname(), other.getSurname() );
+    }
+
+    private static void putIfNotNull( ObjectNode node, String key, Object value )
+    {
+        if ( value != null )
+        {
+            node.set( key, MAPPER.valueToTree( value ) );
+        }
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.hibernate.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InvalidationCacheReplicatorTest
+{
+    private static final String CACHE_NAME = "org.hisp.dhis.test.Entity";
+
+    private CacheManager cacheManager;
+
+    private Cache cache;
+
+    private List<String> published = new ArrayList<>();
+
+    @Before
+    public void setUp()
+    {
+        cacheManager = CacheManager.newInstance( new net.sf.ehcache.config.Configuration()
+            .name( "invalidationCacheReplicatorTest" ) );
+
+        cache = new Cache( CACHE_NAME, 100, false, true, 0, 0 );
+        cacheManager.addCache( cache );
+        cache.getCacheEventNotificationService().registerListener( new InvalidationCacheReplicator() );
+
+        ClusterCacheInvalidation.setPublisher( new CacheInvalidationPublisher()
+        {
+            @Override
+            public void publishInvalidation( String cacheName, Serializable key )
+            {
+                published.add( cacheName + ":" + key );
+            }
+
+            @Override
+            public void publishInvalidateAll( String cacheName )
+            {
+                published.add( cacheName + ":*" );
+            }
+        } );
+    }
+
+    @After
+    public void tearDown()
+    {
+        ClusterCacheInvalidation.setPublisher( null );
+        cacheManager.shutdown();
+    }
+
+    @Test
+    public void testPublishUpdatesAndRemovals()
+    {
+        cache.put( new Element( 1L, "A" ) );
+
+        assertTrue( published.isEmpty() );
+
+        cache.put( new Element( 1L, "B" ) );
+        cache.remove( 1L );
+        cache.removeAll();
+
+        assertEquals( 3, published.size() );
+        assertEquals( CACHE_NAME + ":1", published.get( 0 ) );
+        assertEquals( CACHE_NAME + ":1", published.get( 1 ) );
+        assertEquals( CACHE_NAME + ":*", published.get( 2 ) );
+    }
+
+    @Test
+    public void testInvalidateLocalIsNotPublished()
+    {
+        cache.put( new Element( 2L, "A" ) );
+
+        ClusterCacheInvalidation.invalidateLocal( CACHE_NAME, 2L );
+        ClusterCacheInvalidation.invalidateAllLocal( CACHE_NAME );
+
+        assertNull( cache.get( 2L ) );
+        assertTrue( published.isEmpty() );
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.hibernate.jsonb.type;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.program.UserInfoSnapshot;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JsonEventDataValueSetBinaryType}.
+ */
+public class JsonEventDataValueSetBinaryTypeTest
+{
+    private JsonEventDataValueSetBinaryType jsonBinaryType;
+
+    private UserInfoSnapshot userInfo;
+
+    @Before
+    public void setUp()
+    {
+        jsonBinaryType = new JsonEventDataValueSetBinaryType();
+
+        userInfo = new UserInfoSnapshot( "admin", "John", "Traore" );
+        userInfo.setUid( "xE7jOejl9FI" );
+    }
+
+    @Test
+    public void compactEncodingOmitsSharedFields()
+        throws Exception
+    {
+        EventDataValue dataValue = new EventDataValue( "deabcdefghA", "42", userInfo );
+
+        String json = JsonEventDataValueSetBinaryType.writeCompactJson( Collections.singleton( dataValue ) );
+
+        assertTrue( json.contains( "\"v\":1" ) );
+        assertTrue( json.contains( "\"value\":\"42\"" ) );
+        assertTrue( json.contains( "\"created\":" + dataValue.getCreated().getTime() ) );
+        assertFalse( json.contains( "storedBy" ) );
+        assertFalse( json.contains( "lastUpdatedByUserInfo" ) );
+        assertFalse( json.contains( "providedElsewhere" ) );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void compactEncodingRoundTrip()
+        throws Exception
+    {
+        EventDataValue dataValue = new EventDataValue( "deabcdefghA", "42", userInfo );
+        dataValue.setCreated( new Date( 1609459200000L ) );
+        dataValue.setLastUpdated( new Date( 1612137600000L ) );
+
+        String json = JsonEventDataValueSetBinaryType.writeCompactJson( Collections.singleton( dataValue ) );
+
+        Set<EventDataValue> result = (Set<EventDataValue>) jsonBinaryType.convertJsonToObject( json );
+
+        assertEquals( 1, result.size() );
+
+        EventDataValue copy = result.iterator().next();
+
+        assertEquals( "deabcdefghA", copy.getDataElement() );
+        assertEquals( "42", copy.getValue() );
+        assertEquals( dataValue.getCreated(), copy.getCreated() );
+        assertEquals( dataValue.getLastUpdated(), copy.getLastUpdated() );
+        assertEquals( "admin", copy.getStoredBy() );
+        assertEquals( "xE7jOejl9FI", copy.getLastUpdatedByUserInfo().getUid() );
+        assertFalse( copy.getProvidedElsewhere() );
+    }
+
+    @Test
+    public void compactEncodingKeepsDifferentStoredBy()
+        throws Exception
+    {
+        EventDataValue dataValue = new EventDataValue( "deabcdefghA", "42", userInfo );
+        dataValue.setStoredBy( "android" );
+
+        String json = JsonEventDataValueSetBinaryType.writeCompactJson( Collections.singleton( dataValue ) );
+
+        assertTrue( json.contains( "\"storedBy\":\"android\"" ) );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void compactEncodingKeepsNullStoredBy()
+        throws Exception
+    {
+        EventDataValue dataValue = new EventDataValue( "deabcdefghA", "42", userInfo );
+        dataValue.setStoredBy( null );
+
+        String json = JsonEventDataValueSetBinaryType.writeCompactJson( Collections.singleton( dataValue ) );
+
+        assertTrue( json.contains( "\"storedBy\":null" ) );
+
+        Set<EventDataValue> result = (Set<EventDataValue>) jsonBinaryType.convertJsonToObject( json );
+
+        assertNull( result.iterator().next().getStoredBy() );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void verboseEncodingIsNotRestored()
+    {
+        String json = "{\"deabcdefghA\":{\"value\":\"42\",\"created\":\"2021-01-01T00:00:00.000\","
+            + "\"createdByUserInfo\":{\"uid\":\"xE7jOejl9FI\",\"username\":\"admin\"}}}";
+
+        Set<EventDataValue> result = (Set<EventDataValue>) jsonBinaryType.convertJsonToObject( json );
+
+        EventDataValue dataValue = result.iterator().next();
+
+        assertNull( dataValue.getStoredBy() );
+        assertNull( dataValue.getLastUpdatedByUserInfo() );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void readsVerboseEncoding()
+    {
+        String json = "{\"deabcdefghA\":{\"value\":\"42\",\"created\":\"2021-01-01T00:00:00.000\","
+            + "\"lastUpdated\":\"2021-02-01T00:00:00.000\",\"storedBy\":\"admin\",\"providedElsewhere\":true}}";
+
+        Set<EventDataValue> result = (Set<EventDataValue>) jsonBinaryType.convertJsonToObject( json );
+
+        EventDataValue dataValue = result.iterator().next();
+
+        assertEquals( "42", dataValue.getValue() );
+        assertEquals( "admin", dataValue.getStoredBy() );
+        assertTrue( dataValue.getProvidedElsewhere() );
+        assertNull( dataValue.getCreatedByUserInfo() );
+    }
+}
@@ -115,6 +115,30 @@ public interface StatementBuilder
      */
     String getAnalyze( String table );
 
+    /**
+     * Returns a sub-query which evaluates to a hash of the rows of a table,
+     * which can be used to detect changes to tables without a last updated
+     * column. Returns null if such sub-query is not supported.
+     *
+     * @param table the table to hash.
+     * @return a sub-query evaluating to a hash of the rows of the table.
+     */
+    String getTableHash( String table );
+
+    /**
+     * Returns a parameterized statement which inserts a row, or updates the
+     * given columns of the existing row if a row with the same key exists. The
+     * statement takes the values of the key columns followed by the values of
+     * the columns as parameters. If no columns are given, an existing row is
+     * left unchanged.
+     *
+     * @param table the table.
+     * @param keyColumns the columns of the unique key of the table.
+     * @param columns the columns to insert or update.
+     * @return a parameterized insert or update statement.
+     */
+    String getUpsert( String table, List<String> keyColumns, List<String> columns );
+
     /**
      * Returns an SQL statement to include in create table statements with
      * applies options to the table. Returns an empty string if all options are
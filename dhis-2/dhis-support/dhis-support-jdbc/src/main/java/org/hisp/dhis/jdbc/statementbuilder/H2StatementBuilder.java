@@ -27,6 +27,12 @@
  */
 package org.hisp.dhis.jdbc.statementbuilder;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
 /**
  * @author Lars Helge Overland
  */
@@ -57,6 +63,23 @@ public class H2StatementBuilder
         return null;
     }
 
+    @Override
+    public String getTableHash( String table )
+    {
+        return null;
+    }
+
+    @Override
+    public String getUpsert( String table, List<String> keyColumns, List<String> columns )
+    {
+        List<String> allColumns = Stream.concat( keyColumns.stream(), columns.stream() )
+            .collect( Collectors.toList() );
+
+        return "merge into " + table + " (" + String.join( ", ", allColumns ) + ") " +
+            "key (" + String.join( ", ", keyColumns ) + ") " +
+            "values (" + StringUtils.repeat( "?", ", ", allColumns.size() ) + ")";
+    }
+
     @Override
     public String getTableOptions( boolean autoVacuum )
     {
@@ -27,6 +27,12 @@
  */
 package org.hisp.dhis.jdbc.statementbuilder;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
 /**
  * @author Lars Helge Overland
  */
@@ -57,6 +63,34 @@ public class HsqlStatementBuilder
         return null;
     }
 
+    @Override
+    public String getTableHash( String table )
+    {
+        return null;
+    }
+
+    @Override
+    public String getUpsert( String table, List<String> keyColumns, List<String> columns )
+    {
+        List<String> allColumns = Stream.concat( keyColumns.stream(), columns.stream() )
+            .collect( Collectors.toList() );
+
+        String update = columns.isEmpty() ? ""
+            : "when matched then update set " + columns.stream()
+                .map( column -> column + " = v." + column )
+                .collect( Collectors.joining( ", " ) ) + " ";
+
+        return "merge into " + table + " " +
+            "using (values (" + StringUtils.repeat( "?", ", ", allColumns.size() ) + ")) " +
+            "as v (" + String.join( ", ", allColumns ) + ") " +
+            "on " + keyColumns.stream()
+                .map( column -> table + "." + column + " = v." + column )
+                .collect( Collectors.joining( " and " ) ) + " " +
+            update +
+            "when not matched then insert (" + String.join( ", ", allColumns ) + ") " +
+            "values (" + allColumns.stream().map( column -> "v." + column ).collect( Collectors.joining( ", " ) ) + ")";
+    }
+
     @Override
     public String getTableOptions( boolean autoVacuum )
     {
@@ -29,6 +29,10 @@ package org.hisp.dhis.jdbc.statementbuilder;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * @author Lars Helge Overland
@@ -66,6 +70,27 @@ public class PostgreSQLStatementBuilder
         return "analyze " + table + ";";
     }
 
+    @Override
+    public String getTableHash( String table )
+    {
+        return "(select coalesce(sum(hashtext(t::text)::bigint), 0) from " + table + " t)";
+    }
+
+    @Override
+    public String getUpsert( String table, List<String> keyColumns, List<String> columns )
+    {
+        List<String> allColumns = Stream.concat( keyColumns.stream(), columns.stream() )
+            .collect( Collectors.toList() );
+
+        return "insert into " + table + " (" + String.join( ", ", allColumns ) + ") " +
+            "values (" + StringUtils.repeat( "?", ", ", allColumns.size() ) + ") " +
+            "on conflict (" + String.join( ", ", keyColumns ) + ") " +
+            (columns.isEmpty() ? "do nothing"
+                : "do update set " + columns.stream()
+                    .map( column -> column + " = excluded." + column )
+                    .collect( Collectors.joining( ", " ) ));
+    }
+
     @Override
     public String getAutoIncrementValue()
     {
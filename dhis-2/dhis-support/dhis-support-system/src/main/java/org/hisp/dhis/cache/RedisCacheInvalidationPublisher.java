@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.hibernate.cache.CacheInvalidationPublisher;
+import org.hisp.dhis.hibernate.cache.ClusterCacheInvalidation;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Broadcasts invalidations of Hibernate second level cache entries through
+ * Redis pub/sub, and applies invalidations received from other instances to the
+ * local caches. A message has the format
+ * {@code <node id>|<cache name>|<base64 serialized key>}, where an empty key
+ * invalidates the entire cache.
+ * <p>
+ * Invalidations raised within a transaction are published after the
+ * transaction commits. Messages are sent by a single background thread from a
+ * bounded queue, so that Redis latency and outages do not affect the writing
+ * transaction. If the queue is full, the affected caches are invalidated
+ * entirely once the queue has room again, and failures to send are logged.
+ */
+@Slf4j
+public class RedisCacheInvalidationPublisher
+    implements CacheInvalidationPublisher, MessageListener
+{
+    public static final String CHANNEL = "dhis2.cache.invalidation";
+
+    private static final String SEPARATOR = "|";
+
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ExecutorService executor = new ThreadPoolExecutor( 1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>( QUEUE_CAPACITY ), new ThreadFactoryBuilder()
+            .setNameFormat( "DHIS2-CACHE-INVALIDATION-%d" )
+            .setDaemon( true )
+            .build() );
+
+    /**
+     * Names of caches for which invalidations were rejected by the full queue.
+     */
+    private final Set<String> overflowedCaches = ConcurrentHashMap.newKeySet();
+
+    public RedisCacheInvalidationPublisher( StringRedisTemplate redisTemplate )
+    {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Sends queued invalidations and stops the background thread.
+     */
+    public void shutdown()
+    {
+        executor.shutdown();
+
+        try
+        {
+            executor.awaitTermination( 10, TimeUnit.SECONDS );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // CacheInvalidationPublisher implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void publishInvalidation( String cacheName, Serializable key )
+    {
+        publish( cacheName, Base64.getEncoder().encodeToString( SerializationUtils.serialize( key ) ) );
+    }
+
+    @Override
+    public void publishInvalidateAll( String cacheName )
+    {
+        publish( cacheName, "" );
+    }
+
+    // -------------------------------------------------------------------------
+    // MessageListener implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void onMessage( Message message, byte[] pattern )
+    {
+        String[] parts = new String( message.getBody(), StandardCharsets.UTF_8 ).split( "\\|", 3 );
+
+        if ( parts.length != 3 || ClusterCacheInvalidation.NODE_ID.equals( parts[0] ) )
+        {
+            return;
+        }
+
+        String cacheName = parts[1];
+
+        if ( parts[2].isEmpty() )
+        {
+            ClusterCacheInvalidation.invalidateAllLocal( cacheName );
+            return;
+        }
+
+        try
+        {
+            Object key = SerializationUtils.deserialize( Base64.getDecoder().decode( parts[2] ) );
+
+            ClusterCacheInvalidation.invalidateLocal( cacheName, key );
+        }
+        catch ( IllegalArgumentException | SerializationException ex )
+        {
+            log.warn( String.format( "Could not read cache key, invalidating cache: '%s'", cacheName ), ex );
+
+            ClusterCacheInvalidation.invalidateAllLocal( cacheName );
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void publish( String cacheName, String key )
+    {
+        if ( !TransactionSynchronizationManager.isSynchronizationActive() )
+        {
+            submit( cacheName, key );
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization( new TransactionSynchronization()
+        {
+            @Override
+            public void afterCommit()
+            {
+                submit( cacheName, key );
+            }
+        } );
+    }
+
+    private void submit( String cacheName, String key )
+    {
+        try
+        {
+            executor.execute( () -> send( cacheName, key ) );
+        }
+        catch ( RejectedExecutionException ex )
+        {
+            if ( overflowedCaches.add( cacheName ) )
+            {
+                log.warn( String.format( "Invalidation queue is full, cache will be invalidated entirely: '%s'",
+                    cacheName ) );
+            }
+        }
+    }
+
+    private void send( String cacheName, String key )
+    {
+        for ( String overflowedCache : overflowedCaches )
+        {
+            if ( overflowedCaches.remove( overflowedCache ) )
+            {
+                sendMessage( overflowedCache, "" );
+            }
+        }
+
+        sendMessage( cacheName, key );
+    }
+
+    private void sendMessage( String cacheName, String key )
+    {
+        try
+        {
+            redisTemplate.convertAndSend( CHANNEL,
+                ClusterCacheInvalidation.NODE_ID + SEPARATOR + cacheName + SEPARATOR + key );
+        }
+        catch ( RuntimeException ex )
+        {
+            log.error( String.format( "Could not publish invalidation for cache: '%s'", cacheName ), ex );
+        }
+    }
+}
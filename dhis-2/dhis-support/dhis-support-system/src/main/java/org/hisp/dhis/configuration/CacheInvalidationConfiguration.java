@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.configuration;
+
+import org.hisp.dhis.cache.RedisCacheInvalidationPublisher;
+import org.hisp.dhis.condition.CacheInvalidationEnabledCondition;
+import org.hisp.dhis.hibernate.cache.ClusterCacheInvalidation;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Configuration registered if {@link CacheInvalidationEnabledCondition}
+ * matches to true. Sets up broadcasting of Hibernate second level cache
+ * invalidations through Redis pub/sub.
+ */
+@Configuration
+@Conditional( CacheInvalidationEnabledCondition.class )
+public class CacheInvalidationConfiguration
+{
+    @Bean( destroyMethod = "shutdown" )
+    public RedisCacheInvalidationPublisher redisCacheInvalidationPublisher(
+        StringRedisTemplate stringRedisTemplate )
+    {
+        RedisCacheInvalidationPublisher publisher = new RedisCacheInvalidationPublisher( stringRedisTemplate );
+
+        ClusterCacheInvalidation.setPublisher( publisher );
+
+        return publisher;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+        RedisConnectionFactory redisConnectionFactory, RedisCacheInvalidationPublisher publisher )
+    {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory( redisConnectionFactory );
+        container.addMessageListener( publisher, new ChannelTopic( RedisCacheInvalidationPublisher.CHANNEL ) );
+        return container;
+    }
+}
@@ -27,6 +27,10 @@
  */
 package org.hisp.dhis.system.startup;
 
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Convenience class for creating startup routines. Contains a setter for the
  * runlevel property which should be used in bean mappings.
@@ -50,6 +54,13 @@ public abstract class AbstractStartupRoutine
         this.runlevel = runlevel;
     }
 
+    private Set<String> dependencies = ImmutableSet.of();
+
+    public void setDependencies( String... dependencies )
+    {
+        this.dependencies = ImmutableSet.copyOf( dependencies );
+    }
+
     private boolean skipInTests = false;
 
     public void setSkipInTests( boolean skipInTests )
@@ -73,6 +84,12 @@ public abstract class AbstractStartupRoutine
         return name;
     }
 
+    @Override
+    public Set<String> getDependencies()
+    {
+        return dependencies;
+    }
+
     @Override
     public boolean skipInTests()
     {
@@ -27,18 +27,39 @@
  */
 package org.hisp.dhis.system.startup;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.util.Clock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * Default implementation of StartupRoutineExecutor. The execute method will
  * execute the added StartupRoutines ordered by their run levels. Startup
- * routines can be ignored from the command line by appending the below.
+ * routines with the same run level are executed concurrently on a bounded
+ * pool, unless one depends on the other. Startup routines can be ignored from
+ * the command line by appending the below.
  *
  * <code>-Ddhis.skip.startup=true</code>
  *
@@ -53,12 +74,17 @@ public class DefaultStartupRoutineExecutor
 
     private static final String SKIP_PROP = "dhis.skip.startup";
 
+    private static final String METRIC_NAME = "startup.routine";
+
     @Autowired
     private DhisConfigurationProvider config;
 
     @Autowired( required = false )
     private List<StartupRoutine> startupRoutines;
 
+    @Autowired( required = false )
+    private MeterRegistry meterRegistry;
+
     // -------------------------------------------------------------------------
     // Execute
     // -------------------------------------------------------------------------
@@ -100,22 +126,154 @@ public class DefaultStartupRoutineExecutor
 
         startupRoutines.sort( new StartupRoutineComparator() );
 
-        int total = startupRoutines.size();
-        int index = 1;
+        Map<Integer, List<StartupRoutine>> runlevels = new TreeMap<>();
 
         for ( StartupRoutine routine : startupRoutines )
         {
             if ( !(testing && routine.skipInTests()) )
             {
-                log.info( "Executing startup routine [" + index + " of " + total + ", runlevel " + routine.getRunlevel()
-                    + "]: " + routine.getName() );
+                runlevels.computeIfAbsent( routine.getRunlevel(), runlevel -> new ArrayList<>() ).add( routine );
+            }
+        }
+
+        int threads = testing ? 1
+            : Math.max( 1, Integer.parseInt( config.getProperty( ConfigurationKey.SYSTEM_STARTUP_MAX_THREADS ) ) );
+
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool( threads,
+            new ThreadFactoryBuilder().setNameFormat( "DHIS2-STARTUP-%d" ).setDaemon( true ).build() ) : null;
+
+        Clock clock = new Clock( log ).startClock();
+
+        try
+        {
+            for ( List<StartupRoutine> routines : runlevels.values() )
+            {
+                List<StartupRoutine> ordered = getExecutionOrder( routines );
+
+                if ( executor == null || ordered.size() == 1 )
+                {
+                    for ( StartupRoutine routine : ordered )
+                    {
+                        executeRoutine( routine );
+                    }
+                }
+                else
+                {
+                    executeConcurrently( ordered, executor );
+                }
+            }
+        }
+        finally
+        {
+            if ( executor != null )
+            {
+                executor.shutdownNow();
+            }
+        }
+
+        clock.logTime( "All startup routines done" );
+    }
+
+    /**
+     * Executes the given startup routines of a single run level on the given
+     * executor. A routine is started as soon as the routines it depends on are
+     * done. Waits for all routines to finish and rethrows the first failure.
+     *
+     * @param routines the routines in execution order.
+     * @param executor the executor.
+     */
+    private void executeConcurrently( List<StartupRoutine> routines, ExecutorService executor )
+        throws Exception
+    {
+        ListMultimap<String, CompletableFuture<Void>> futures = ArrayListMultimap.create();
+
+        for ( StartupRoutine routine : routines )
+        {
+            CompletableFuture<?>[] dependencies = routine.getDependencies().stream()
+                .flatMap( dependency -> futures.get( dependency ).stream() )
+                .toArray( CompletableFuture[]::new );
 
-                routine.execute();
+            CompletableFuture<Void> future = CompletableFuture.allOf( dependencies ).thenRunAsync( () -> {
+                try
+                {
+                    executeRoutine( routine );
+                }
+                catch ( Exception ex )
+                {
+                    throw new CompletionException( ex );
+                }
+            }, executor );
 
-                ++index;
+            futures.put( routine.getName(), future );
+        }
+
+        try
+        {
+            CompletableFuture.allOf( futures.values().toArray( new CompletableFuture[0] ) ).join();
+        }
+        catch ( CompletionException ex )
+        {
+            throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+        }
+    }
+
+    private void executeRoutine( StartupRoutine routine )
+        throws Exception
+    {
+        log.info( "Executing startup routine [runlevel " + routine.getRunlevel() + "]: " + routine.getName() );
+
+        Clock clock = new Clock().startClock();
+
+        routine.execute();
+
+        log.info( "Startup routine " + routine.getName() + " done in " + clock.time() );
+
+        if ( meterRegistry != null )
+        {
+            Timer.builder( METRIC_NAME )
+                .description( "Execution time of startup routines" )
+                .tag( "routine", routine.getName() )
+                .register( meterRegistry )
+                .record( clock.getSplitTime(), TimeUnit.MILLISECONDS );
+        }
+    }
+
+    /**
+     * Orders the given startup routines of a single run level so that each
+     * routine comes after the routines it depends on, keeping the original
+     * order otherwise. Dependencies on routines outside of the run level are
+     * ignored.
+     *
+     * @param routines the routines of a single run level.
+     * @return the routines in execution order.
+     * @throws IllegalStateException if the dependencies contain a cycle.
+     */
+    static List<StartupRoutine> getExecutionOrder( List<StartupRoutine> routines )
+    {
+        Set<StartupRoutine> ordered = new LinkedHashSet<>();
+
+        while ( ordered.size() < routines.size() )
+        {
+            boolean progress = false;
+
+            for ( StartupRoutine routine : routines )
+            {
+                if ( !ordered.contains( routine ) && routines.stream()
+                    .filter( other -> routine.getDependencies().contains( other.getName() ) )
+                    .allMatch( ordered::contains ) )
+                {
+                    ordered.add( routine );
+                    progress = true;
+                }
+            }
+
+            if ( !progress )
+            {
+                throw new IllegalStateException( "Startup routines at runlevel " + routines.get( 0 ).getRunlevel()
+                    + " have cyclic dependencies" );
             }
         }
 
-        log.info( "All startup routines done" );
+        return new ArrayList<>( ordered );
     }
 }
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.system.startup;
 
+import java.util.Set;
+
 /**
  * Defines a startup routine which should be executed when the system is
  * started. The runlevel can be used to group startup routines that are
@@ -61,6 +63,16 @@ public interface StartupRoutine
      */
     int getRunlevel();
 
+    /**
+     * Returns the names of the StartupRoutines with the same runlevel which
+     * must be completed before this StartupRoutine is executed.
+     * StartupRoutines with the same runlevel which do not depend on each other
+     * may be executed concurrently.
+     *
+     * @return the names of the StartupRoutines this StartupRoutine depends on.
+     */
+    Set<String> getDependencies();
+
     /**
      * Returns whether this StartupRoutine is to be skipped in tests or not.
      *
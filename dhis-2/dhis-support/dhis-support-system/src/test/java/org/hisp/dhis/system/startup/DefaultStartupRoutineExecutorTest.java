@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.startup;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class DefaultStartupRoutineExecutorTest
+{
+    @Test
+    public void testExecutionOrderKeepsIndependentOrder()
+    {
+        List<StartupRoutine> routines = Arrays.asList( createRoutine( "A" ), createRoutine( "B" ),
+            createRoutine( "C" ) );
+
+        assertEquals( Arrays.asList( "A", "B", "C" ), getNames( routines ) );
+    }
+
+    @Test
+    public void testExecutionOrderHonoursDependencies()
+    {
+        List<StartupRoutine> routines = Arrays.asList( createRoutine( "A", "C" ), createRoutine( "B" ),
+            createRoutine( "C", "B" ) );
+
+        assertEquals( Arrays.asList( "B", "C", "A" ), getNames( routines ) );
+    }
+
+    @Test
+    public void testExecutionOrderIgnoresDependenciesOutsideRunlevel()
+    {
+        List<StartupRoutine> routines = Arrays.asList( createRoutine( "A", "X" ), createRoutine( "B" ) );
+
+        assertEquals( Arrays.asList( "A", "B" ), getNames( routines ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void testExecutionOrderRejectsCycles()
+    {
+        DefaultStartupRoutineExecutor.getExecutionOrder( Arrays.asList( createRoutine( "A", "B" ),
+            createRoutine( "B", "A" ) ) );
+    }
+
+    private List<String> getNames( List<StartupRoutine> routines )
+    {
+        return DefaultStartupRoutineExecutor.getExecutionOrder( routines ).stream()
+            .map( StartupRoutine::getName )
+            .collect( Collectors.toList() );
+    }
+
+    private StartupRoutine createRoutine( String name, String... dependencies )
+    {
+        AbstractStartupRoutine routine = new AbstractStartupRoutine()
+        {
+            @Override
+            public void execute()
+            {
+            }
+        };
+
+        routine.setName( name );
+        routine.setDependencies( dependencies );
+        return routine;
+    }
+}
@@ -28,9 +28,11 @@
 package org.hisp.dhis.webapi.controller;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -113,6 +115,7 @@ import org.hisp.dhis.user.UserSettingService;
 import org.hisp.dhis.user.sharing.Sharing;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.service.ContextService;
+import org.hisp.dhis.webapi.service.EtagService;
 import org.hisp.dhis.webapi.service.LinkService;
 import org.hisp.dhis.webapi.service.WebMessageService;
 import org.hisp.dhis.webapi.utils.ContextUtils;
@@ -124,6 +127,8 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -228,6 +233,9 @@ public abstract class AbstractCrudController<T extends IdentifiableObject>
     @Autowired
     protected SharingService sharingService;
 
+    @Autowired
+    protected EtagService etagService;
+
     // --------------------------------------------------------------------------
     // GET
     // --------------------------------------------------------------------------
@@ -256,6 +264,15 @@ public abstract class AbstractCrudController<T extends IdentifiableObject>
                 "You don't have the proper permissions to read objects of this type." );
         }
 
+        if ( isDeepEtagSupported( fields, filters ) && etagService.isNotModified(
+            manager.getVersion( getEntityClass() ), contextService.getRequest(), response ) )
+        {
+            response.setHeader( ContextUtils.HEADER_CACHE_CONTROL,
+                CacheControl.noCache().cachePrivate().getHeaderValue() );
+
+            return null;
+        }
+
         List<T> entities = getEntityList( metadata, options, filters, orders );
 
         Pager pager = metadata.getPager();
@@ -1225,6 +1242,42 @@ public abstract class AbstractCrudController<T extends IdentifiableObject>
     {
     }
 
+    /**
+     * Indicates whether the list response for the given fields and filters can
+     * be validated with a deep ETag derived from the version of the entity
+     * type, before any objects are loaded. This requires that only simple
+     * properties of the entity type are rendered and filtered on, and that the
+     * controller does not customize how entities are retrieved or
+     * post-processed.
+     *
+     * @param fields the requested fields.
+     * @param filters the requested filters.
+     * @return true if deep ETags are supported.
+     */
+    protected boolean isDeepEtagSupported( List<String> fields, List<String> filters )
+    {
+        Class<?> controllerClass = ClassUtils.getUserClass( getClass() );
+
+        if ( isOverridden( controllerClass, "getEntityList", WebMetadata.class, WebOptions.class, List.class,
+            List.class )
+            || isOverridden( controllerClass, "postProcessResponseEntities", List.class, WebOptions.class,
+                Map.class ) )
+        {
+            return false;
+        }
+
+        Schema schema = getSchema();
+
+        boolean simpleFields = fields.stream()
+            .flatMap( field -> Arrays.stream( field.split( "," ) ) )
+            .allMatch( field -> isSimpleProperty( schema, field ) );
+
+        boolean simpleFilters = filters.stream()
+            .allMatch( filter -> isSimpleProperty( schema, StringUtils.substringBefore( filter, ":" ) ) );
+
+        return simpleFields && simpleFilters;
+    }
+
     /**
      * Override to process a single entity after it has been retrieved from
      * storage and before it is returned to the view. Entity is null-safe.
@@ -1297,6 +1350,20 @@ public abstract class AbstractCrudController<T extends IdentifiableObject>
         return PaginationUtils.getPaginationData( options );
     }
 
+    private static boolean isOverridden( Class<?> klass, String methodName, Class<?>... parameterTypes )
+    {
+        Method method = ReflectionUtils.findMethod( klass, methodName, parameterTypes );
+
+        return method != null && method.getDeclaringClass() != AbstractCrudController.class;
+    }
+
+    private static boolean isSimpleProperty( Schema schema, String name )
+    {
+        Property property = schema.getProperty( StringUtils.trimToEmpty( name ) );
+
+        return property != null && property.isSimple() && !property.isCollection();
+    }
+
     private void restrictToCaptureScope( List<T> entityList, WebOptions options, Map<String, String> parameters )
     {
         if ( !options.isTrue( "restrictToCaptureScope" ) || CollectionUtils.isEmpty( entityList )
@@ -50,6 +50,7 @@ import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.EtagService;
 import org.hisp.dhis.webapi.service.WebMessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -86,6 +87,9 @@ public class KeyJsonValueController
     @Autowired
     private WebMessageService messageService;
 
+    @Autowired
+    private EtagService etagService;
+
     /**
      * Returns a JSON array of strings representing the different namespaces
      * used. If no namespaces exist, an empty array is returned.
@@ -105,15 +109,21 @@ public class KeyJsonValueController
     @RequestMapping( value = "/{namespace}", method = RequestMethod.GET, produces = "application/json" )
     public @ResponseBody List<String> getKeysInNamespace( @RequestParam( required = false ) Date lastUpdated,
         @PathVariable String namespace,
-        HttpServletResponse response )
+        HttpServletRequest request, HttpServletResponse response )
         throws IOException,
         WebMessageException
     {
         validateAccess( namespace );
 
+        setNoStore( response );
+
         getNameS( namespace );
 
-        setNoStore( response );
+        if ( etagService.isNotModified( keyJsonValueService.getVersion( namespace, null, currentUserIsAdmin() ),
+            request, response ) )
+        {
+            return null;
+        }
 
         return keyJsonValueService.getKeysInNamespace( namespace, lastUpdated, currentUserIsAdmin() );
     }
@@ -151,10 +161,12 @@ public class KeyJsonValueController
      */
     @RequestMapping( value = "/{namespace}/{key}", method = RequestMethod.GET, produces = "application/json" )
     public @ResponseBody String getKeyJsonValue( @PathVariable String namespace, @PathVariable String key,
-        HttpServletResponse response )
+        HttpServletRequest request, HttpServletResponse response )
         throws IOException,
         WebMessageException
     {
+        validateAccess( namespace );
+
         KeyJsonValue keyJsonValue = validateAndGetValue( namespace, key );
 
         if ( !aclService.canRead( currentUserService.getCurrentUser(), keyJsonValue ) )
@@ -165,6 +177,12 @@ public class KeyJsonValueController
                         "'" ) );
         }
 
+        if ( etagService.isNotModified( keyJsonValueService.getVersion( namespace, key, currentUserIsAdmin() ),
+            request, response ) )
+        {
+            return null;
+        }
+
         return keyJsonValue.getValue();
     }
 
@@ -27,10 +27,15 @@
  */
 package org.hisp.dhis.webapi.controller;
 
+import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.jobConfigurationReport;
+
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.hisp.dhis.common.DhisApiVersion;
 import org.hisp.dhis.dataanalysis.MinMaxDataAnalysisService;
 import org.hisp.dhis.dataelement.DataElement;
@@ -42,9 +47,15 @@ import org.hisp.dhis.minmax.MinMaxDataElementService;
 import org.hisp.dhis.minmax.MinMaxValueParams;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.SchedulingManager;
+import org.hisp.dhis.scheduling.parameters.MinMaxValueGenerationJobParameters;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.WebMessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -84,6 +95,15 @@ public class MinMaxValueController
     @Autowired
     private SystemSettingManager systemSettingManager;
 
+    @Autowired
+    private SchedulingManager schedulingManager;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private WebMessageService webMessageService;
+
     @RequestMapping( method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE )
     @PreAuthorize( "hasRole('ALL') or hasRole('F_PERFORM_MAINTENANCE')" )
     @ResponseStatus( HttpStatus.NO_CONTENT )
@@ -118,6 +138,35 @@ public class MinMaxValueController
 
     }
 
+    @RequestMapping( method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE, params = "async=true" )
+    @PreAuthorize( "hasRole('ALL') or hasRole('F_PERFORM_MAINTENANCE')" )
+    public void generateMinMaxValueAsync( @RequestBody MinMaxValueParams minMaxValueParams,
+        HttpServletResponse response, HttpServletRequest request )
+        throws WebMessageException
+    {
+        List<String> dataSets = minMaxValueParams.getDataSets();
+        String organisationUnitId = minMaxValueParams.getOrganisationUnit();
+
+        if ( dataSets == null || dataSets.isEmpty() )
+        {
+            throw new WebMessageException( WebMessageUtils.conflict( " No datasets defined" ) );
+        }
+
+        if ( this.organisationUnitService.getOrganisationUnit( organisationUnitId ) == null )
+        {
+            throw new WebMessageException( WebMessageUtils.conflict( " No valid organisation unit" ) );
+        }
+
+        JobConfiguration minMaxValueJob = new JobConfiguration( "inMemoryMinMaxValueGenerationJob",
+            JobType.MIN_MAX_VALUE_GENERATION, "",
+            new MinMaxValueGenerationJobParameters( dataSets, organisationUnitId ), true, true );
+        minMaxValueJob.setUserUid( currentUserService.getCurrentUser().getUid() );
+
+        schedulingManager.executeJob( minMaxValueJob );
+
+        webMessageService.send( jobConfigurationReport( minMaxValueJob ), response, request );
+    }
+
     @RequestMapping( value = "/{ou}", method = RequestMethod.DELETE )
     @PreAuthorize( "hasRole('ALL') or hasRole('F_PERFORM_MAINTENANCE')" )
     @ResponseStatus( HttpStatus.NO_CONTENT )
@@ -51,6 +51,7 @@ import org.hisp.dhis.schema.Schemas;
 import org.hisp.dhis.schema.validation.SchemaValidator;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.service.ContextService;
+import org.hisp.dhis.webapi.service.EtagService;
 import org.hisp.dhis.webapi.service.LinkService;
 import org.hisp.dhis.webapi.service.WebMessageService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -94,9 +95,17 @@ public class SchemaController
     @Autowired
     private WebMessageService webMessageService;
 
+    @Autowired
+    private EtagService etagService;
+
     @RequestMapping
-    public @ResponseBody RootNode getSchemas()
+    public @ResponseBody RootNode getSchemas( HttpServletRequest request, HttpServletResponse response )
     {
+        if ( etagService.isNotModified( etagService.getStartupVersion(), request, response ) )
+        {
+            return null;
+        }
+
         List<String> fields = Lists.newArrayList( contextService.getParameterValues( "fields" ) );
 
         if ( fields.isEmpty() )
@@ -117,8 +126,14 @@ public class SchemaController
     }
 
     @RequestMapping( value = "/{type}", method = RequestMethod.GET )
-    public @ResponseBody RootNode getSchema( @PathVariable String type )
+    public @ResponseBody RootNode getSchema( @PathVariable String type, HttpServletRequest request,
+        HttpServletResponse response )
     {
+        if ( etagService.isNotModified( etagService.getStartupVersion(), request, response ) )
+        {
+            return null;
+        }
+
         List<String> fields = Lists.newArrayList( contextService.getParameterValues( "fields" ) );
 
         if ( fields.isEmpty() )
@@ -29,20 +29,29 @@ package org.hisp.dhis.webapi.controller.dataitem;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
 import static org.hisp.dhis.webapi.controller.dataitem.helper.FilteringHelper.containsDimensionTypeFilter;
 import static org.hisp.dhis.webapi.controller.dataitem.helper.FilteringHelper.extractEntitiesFromInFilter;
 import static org.hisp.dhis.webapi.controller.dataitem.helper.FilteringHelper.extractEntityFromEqualFilter;
+import static org.hisp.dhis.webapi.controller.dataitem.helper.FilteringHelper.withPersistedDisplayProperties;
 import static org.hisp.dhis.webapi.controller.dataitem.helper.OrderingHelper.sort;
 import static org.hisp.dhis.webapi.controller.dataitem.helper.PaginationHelper.slice;
 import static org.hisp.dhis.webapi.utils.PaginationUtils.NO_PAGINATION;
 
+import java.text.Collator;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.common.BaseDimensionalItemObject;
 import org.hisp.dhis.dataelement.DataElement;
@@ -53,12 +62,19 @@ import org.hisp.dhis.indicator.Indicator;
 import org.hisp.dhis.program.ProgramDataElementDimensionItem;
 import org.hisp.dhis.program.ProgramIndicator;
 import org.hisp.dhis.program.ProgramTrackedEntityAttributeDimensionItem;
+import org.hisp.dhis.query.Order;
 import org.hisp.dhis.query.Pagination;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.query.QueryUtils;
+import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.webapi.webdomain.WebOptions;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 
 /**
@@ -68,6 +84,7 @@ import com.google.common.collect.ImmutableMap;
  * controller and service layers. The main goal is to alleviate the controller
  * layer.
  */
+@Slf4j
 @Component
 public class DataItemServiceFacade
 {
@@ -75,6 +92,16 @@ public class DataItemServiceFacade
 
     private final QueryService queryService;
 
+    private final SchemaService schemaService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Collator matching the collation of the database, or null for the "C"
+     * collation, so that items are sorted in memory like by the database.
+     */
+    private final Supplier<Collator> databaseCollator = Suppliers.memoize( this::getDatabaseCollator );
+
     /**
      * This Map holds the allowed data types to be queried.
      */
@@ -91,11 +118,16 @@ public class DataItemServiceFacade
             .build();
     // @formatter:on
 
-    DataItemServiceFacade( final QueryService queryService )
+    DataItemServiceFacade( final QueryService queryService, final SchemaService schemaService,
+        final JdbcTemplate jdbcTemplate )
     {
         checkNotNull( queryService );
+        checkNotNull( schemaService );
+        checkNotNull( jdbcTemplate );
 
         this.queryService = queryService;
+        this.schemaService = schemaService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     /**
@@ -103,6 +135,10 @@ public class DataItemServiceFacade
      * each one of them using the filters and params provided. The result list
      * will bring together the results of all target entities queried.
      *
+     * Filtering, ordering and limiting is done by the database for each
+     * entity, so that only the rows which may end up in the requested page
+     * are loaded. These are then merged and sliced in memory.
+     *
      * @param targetEntities the list of entities to be retrieved
      * @param orderParams request ordering params
      * @param filters request filters
@@ -120,12 +156,13 @@ public class DataItemServiceFacade
             // Retrieving all items for each entity type.
             for ( final Class<? extends BaseDimensionalItemObject> entity : targetEntities )
             {
-                final Query query = buildQueryForEntity( entity, filters, options );
+                final Query query = buildQueryForEntity( entity, filters, options, orderParams );
                 dimensionalItems.addAll( executeQuery( query ) );
             }
 
-            // In memory sorting
-            sort( dimensionalItems, orderParams );
+            // In memory sorting, consistent with the database collation
+            final Collator collator = databaseCollator.get();
+            sort( dimensionalItems, orderParams, collator != null ? (Collator) collator.clone() : null );
 
             // In memory pagination.
             dimensionalItems = slice( options, dimensionalItems );
@@ -197,26 +234,84 @@ public class DataItemServiceFacade
 
     /**
      * This method will build a Query object based on the provided arguments.
+     * The query is limited to the rows up to the requested page only when all
+     * requested orders can be applied by the database, otherwise all matching
+     * rows are needed for the ordering in memory.
      *
      * @param entity the BaseDimensionalItemObject class to be queried.
      * @param filters request filters
      * @param options request options
+     * @param orderParams request ordering params
      * @return the built query
      * @throws org.hisp.dhis.query.QueryParserException if errors occur during
      *         the query creation
      */
     private Query buildQueryForEntity( final Class<? extends BaseDimensionalItemObject> entity,
-        final List<String> filters, final WebOptions options )
+        final List<String> filters, final WebOptions options, final OrderParams orderParams )
     {
+        final Schema schema = schemaService.getDynamicSchema( entity );
+        final Set<String> orderings = orderParams != null && orderParams.getOrders() != null
+            ? orderParams.getOrders()
+            : emptySet();
+        final List<Order> orders = schema != null
+            ? QueryUtils.convertOrderStrings( withPersistedDisplayProperties( orderings, schema ), schema ).stream()
+                .map( DataItemServiceFacade::ignoreCase )
+                .collect( toList() )
+            : emptyList();
+
+        final boolean ordersPersisted = orders.size() == orderings.size()
+            && orders.stream().noneMatch( Order::isNonPersisted );
+
         final int maxLimit = options.getPage() * options.getPageSize();
-        final Pagination pagination = options.hasPaging()
+        final Pagination pagination = options.hasPaging() && ordersPersisted
             ? new Pagination( PAGINATION_FIRST_RESULT, maxLimit )
             : NO_PAGINATION;
 
-        final Query query = queryService.getQueryFromUrl( entity, filters, emptyList(),
-            pagination, options.getRootJunction() );
+        final Query query = queryService.getQueryFromUrl( entity, withPersistedDisplayProperties( filters, schema ),
+            orders, pagination, options.getRootJunction() );
         query.setDefaultOrder();
 
         return query;
     }
+
+    /**
+     * Returns the case insensitive variant of the given order, so that the
+     * database orders strings like the sorting in memory.
+     *
+     * @param order the order.
+     * @return the case insensitive order.
+     */
+    private static Order ignoreCase( final Order order )
+    {
+        return order.isAscending() ? Order.iasc( order.getProperty() ) : Order.idesc( order.getProperty() );
+    }
+
+    /**
+     * Returns a collator for the collation of the database, which is used by
+     * the database to order strings, or null if the database uses the "C"
+     * collation or the collation cannot be read.
+     */
+    private Collator getDatabaseCollator()
+    {
+        try
+        {
+            final String collation = jdbcTemplate.queryForObject(
+                "select datcollate from pg_database where datname = current_database()", String.class );
+
+            if ( collation == null || "C".equals( collation ) || "POSIX".equals( collation )
+                || collation.startsWith( "C." ) )
+            {
+                return null;
+            }
+
+            return Collator.getInstance( Locale.forLanguageTag( substringBefore( collation, "." )
+                .replace( '_', '-' ) ) );
+        }
+        catch ( DataAccessException ex )
+        {
+            log.warn( "Unable to read database collation, sorting data items in code point order", ex );
+
+            return null;
+        }
+    }
 }
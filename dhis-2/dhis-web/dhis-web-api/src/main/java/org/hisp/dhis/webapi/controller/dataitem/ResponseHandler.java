@@ -33,6 +33,7 @@ import static java.util.Collections.emptyList;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.hisp.dhis.node.NodeUtils.createPager;
 import static org.hisp.dhis.webapi.controller.dataitem.DataItemQueryController.API_RESOURCE_PATH;
+import static org.hisp.dhis.webapi.controller.dataitem.helper.FilteringHelper.withPersistedDisplayProperties;
 
 import java.util.List;
 
@@ -47,6 +48,7 @@ import org.hisp.dhis.node.types.RootNode;
 import org.hisp.dhis.query.Pagination;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.service.LinkService;
 import org.hisp.dhis.webapi.webdomain.WebOptions;
@@ -72,19 +74,23 @@ class ResponseHandler
 
     private final FieldFilterService fieldFilterService;
 
+    private final SchemaService schemaService;
+
     private final Cache<Long> pageCountingCache;
 
     ResponseHandler( QueryService queryService, LinkService linkService, FieldFilterService fieldFilterService,
-        CacheProvider cacheProvider )
+        SchemaService schemaService, CacheProvider cacheProvider )
     {
         checkNotNull( queryService );
         checkNotNull( linkService );
         checkNotNull( fieldFilterService );
+        checkNotNull( schemaService );
         checkNotNull( cacheProvider );
 
         this.queryService = queryService;
         this.linkService = linkService;
         this.fieldFilterService = fieldFilterService;
+        this.schemaService = schemaService;
         this.pageCountingCache = cacheProvider.createDataItemsPaginationCache();
     }
 
@@ -147,8 +153,9 @@ class ResponseHandler
         final WebOptions options,
         final List<String> filters )
     {
-        final Query query = queryService.getQueryFromUrl( entity, filters, emptyList(), new Pagination(),
-            options.getRootJunction() );
+        final Query query = queryService.getQueryFromUrl( entity,
+            withPersistedDisplayProperties( filters, schemaService.getDynamicSchema( entity ) ), emptyList(),
+            new Pagination(), options.getRootJunction() );
 
         return queryService.count( query );
     }
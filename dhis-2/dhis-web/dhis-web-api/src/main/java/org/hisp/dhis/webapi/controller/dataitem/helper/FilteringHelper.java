@@ -31,21 +31,31 @@ import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.contains;
 import static org.apache.commons.lang3.StringUtils.deleteWhitespace;
 import static org.apache.commons.lang3.StringUtils.split;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
 import static org.apache.commons.lang3.StringUtils.substringBetween;
 import static org.apache.commons.lang3.StringUtils.trimToEmpty;
 import static org.hisp.dhis.feedback.ErrorCode.E2014;
 import static org.hisp.dhis.feedback.ErrorCode.E2016;
+import static org.hisp.dhis.user.UserSettingKey.DB_LOCALE;
 import static org.hisp.dhis.webapi.controller.dataitem.DataItemServiceFacade.DATA_TYPE_ENTITY_MAP;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.hisp.dhis.common.BaseDimensionalItemObject;
 import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.common.UserContext;
 import org.hisp.dhis.feedback.ErrorMessage;
+import org.hisp.dhis.schema.Property;
+import org.hisp.dhis.schema.Schema;
+
+import com.google.common.collect.ImmutableMap;
 
 /**
  * Helper class responsible for reading and extracting the URL filters.
@@ -56,6 +66,13 @@ public class FilteringHelper
 
     private static final String DIMENSION_TYPE_EQUAL_FILTER_PREFIX = "dimensionItemType:eq:";
 
+    /**
+     * Translatable display properties and their persisted counterparts.
+     */
+    private static final Map<String, String> DISPLAY_PROPERTIES = ImmutableMap.of(
+        "displayName", "name",
+        "displayShortName", "shortName" );
+
     /**
      * This method will return the respective BaseDimensionalItemObject class
      * from the filter provided.
@@ -152,6 +169,51 @@ public class FilteringHelper
         return false;
     }
 
+    /**
+     * Replaces the display properties of the given filters or orders by their
+     * persisted counterparts, so that they are resolved by the database rather
+     * than in memory. This only applies when the current user has no database
+     * locale, as the display properties are then equal to the persisted ones.
+     *
+     * @param params filters or orders, in the format "property:..."
+     * @param schema the schema of the entity being queried
+     * @return the params, using persisted properties where possible
+     */
+    public static List<String> withPersistedDisplayProperties( final Collection<String> params,
+        final Schema schema )
+    {
+        if ( params == null )
+        {
+            return null;
+        }
+
+        if ( schema == null || UserContext.getUserSetting( DB_LOCALE ) != null )
+        {
+            return params.stream().collect( Collectors.toList() );
+        }
+
+        return params.stream().map( param -> withPersistedDisplayProperty( param, schema ) )
+            .collect( Collectors.toList() );
+    }
+
+    private static String withPersistedDisplayProperty( final String param, final Schema schema )
+    {
+        final String property = substringBefore( param, ":" );
+        final String persistedProperty = DISPLAY_PROPERTIES.get( property );
+
+        if ( persistedProperty != null )
+        {
+            final Property schemaProperty = schema.getProperty( persistedProperty );
+
+            if ( schemaProperty != null && schemaProperty.isPersisted() )
+            {
+                return persistedProperty + param.substring( property.length() );
+            }
+        }
+
+        return param;
+    }
+
     private static boolean hasEqualsDimensionTypeFilter( final String filter )
     {
         return trimToEmpty( filter ).contains( DIMENSION_TYPE_EQUAL_FILTER_PREFIX );
@@ -31,6 +31,7 @@ import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.split;
 import static org.hisp.dhis.feedback.ErrorCode.E2015;
 
+import java.text.Collator;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
@@ -55,12 +56,30 @@ public class OrderingHelper
     private static final String DESC = "desc";
 
     /**
-     * Sorts the given list based on the given sorting params.
+     * Sorts the given list based on the given sorting params. Strings are
+     * compared by their lower case values in code point order, like the case
+     * insensitive ordering applied by a database with the "C" collation.
      *
      * @param dimensionalItems
      * @param sortingParams
      */
     public static void sort( final List<BaseDimensionalItemObject> dimensionalItems, final OrderParams sortingParams )
+    {
+        sort( dimensionalItems, sortingParams, null );
+    }
+
+    /**
+     * Sorts the given list based on the given sorting params. Strings are
+     * compared by their lower case values with the given collator, like the
+     * case insensitive ordering applied by the database with its collation.
+     *
+     * @param dimensionalItems
+     * @param sortingParams
+     * @param collator the collator matching the collation of the database, or
+     *        null to compare strings in code point order.
+     */
+    public static void sort( final List<BaseDimensionalItemObject> dimensionalItems, final OrderParams sortingParams,
+        final Collator collator )
     {
         if ( sortingParams != null && isNotEmpty( dimensionalItems ) )
         {
@@ -69,9 +88,11 @@ public class OrderingHelper
 
             if ( sortingParams != null && isNotEmpty( orderingPairs ) )
             {
+                final Comparator<Object> valueComparator = getIgnoreCaseComparator( collator );
+
                 for ( final String orderingPair : orderingPairs )
                 {
-                    chainOfComparators.addComparator( getComparator( orderingPair ) );
+                    chainOfComparators.addComparator( getComparator( orderingPair, valueComparator ) );
                 }
 
                 dimensionalItems.sort( chainOfComparators );
@@ -80,7 +101,8 @@ public class OrderingHelper
     }
 
     @SuppressWarnings( { "unchecked", "rawtypes" } )
-    private static Comparator<BaseDimensionalItemObject> getComparator( final String orderingParam )
+    private static Comparator<BaseDimensionalItemObject> getComparator( final String orderingParam,
+        final Comparator<Object> valueComparator )
     {
         final String[] orderingAttributes = split( orderingParam, ":" );
         final boolean hasValidOrderingAttributes = orderingAttributes != null & orderingAttributes.length == 2;
@@ -88,7 +110,7 @@ public class OrderingHelper
         if ( hasValidOrderingAttributes )
         {
             final BeanComparator<BaseDimensionalItemObject> comparator = new BeanComparator(
-                orderingAttributes[ORDERING_ATTRIBUTE], new NullComparator<>( true ) );
+                orderingAttributes[ORDERING_ATTRIBUTE], new NullComparator<>( valueComparator, true ) );
 
             if ( DESC.equals( orderingAttributes[ORDERING_VALUE] ) )
             {
@@ -102,4 +124,20 @@ public class OrderingHelper
             throw new IllegalQueryException( new ErrorMessage( E2015, orderingParam ) );
         }
     }
+
+    /**
+     * Returns a comparator which compares strings by their lower case values,
+     * and other values by natural order.
+     *
+     * @param collator the collator for strings, or null for code point order.
+     */
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private static Comparator<Object> getIgnoreCaseComparator( final Collator collator )
+    {
+        final Comparator<String> stringComparator = collator != null ? collator::compare : String::compareTo;
+
+        return ( a, b ) -> a instanceof String && b instanceof String
+            ? stringComparator.compare( ((String) a).toLowerCase(), ((String) b).toLowerCase() )
+            : ((Comparable) a).compareTo( b );
+    }
 }
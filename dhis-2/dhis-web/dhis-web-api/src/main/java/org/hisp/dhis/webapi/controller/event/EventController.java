@@ -124,6 +124,8 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.Lists;
 
@@ -177,13 +179,15 @@ public class EventController
 
     private final ContextUtils contextUtils;
 
+    private final ObjectMapper jsonMapper;
+
     public EventController( CurrentUserService currentUserService, SchedulingManager schedulingManager,
         EventService eventService, CsvEventService csvEventService, EventRowService eventRowService,
         DataElementService dataElementService, WebMessageService webMessageService, InputUtils inputUtils,
         RenderService renderService, ProgramStageInstanceService programStageInstanceService,
         FileResourceService fileResourceService, FieldFilterService fieldFilterService, ContextService contextService,
         SchemaService schemaService, TrackedEntityInstanceService entityInstanceService, ContextUtils contextUtils,
-        RequestToSearchParamsMapper requestToSearchParamsMapper )
+        RequestToSearchParamsMapper requestToSearchParamsMapper, ObjectMapper jsonMapper )
     {
         this.currentUserService = currentUserService;
         this.schedulingManager = schedulingManager;
@@ -202,6 +206,7 @@ public class EventController
         this.entityInstanceService = entityInstanceService;
         this.contextUtils = contextUtils;
         this.requestToSearchParamsMapper = requestToSearchParamsMapper;
+        this.jsonMapper = jsonMapper;
     }
 
     private Schema schema;
@@ -661,6 +666,71 @@ public class EventController
         csvEventService.writeEvents( outputStream, events, !skipHeader );
     }
 
+    // -------------------------------------------------------------------------
+    // Stream Read
+    // -------------------------------------------------------------------------
+
+    /**
+     * Writes the events to the response while they are read from the
+     * database, so that large exports are not held in memory. Field filtering
+     * and metadata are not supported, and paging applies only if requested.
+     */
+    @RequestMapping( value = "/stream", method = RequestMethod.GET, produces = ContextUtils.CONTENT_TYPE_JSON )
+    public void streamJsonEvents( EventCriteria eventCriteria, HttpServletResponse response,
+        HttpServletRequest request )
+        throws IOException
+    {
+        EventSearchParams params = requestToSearchParamsMapper.map( eventCriteria );
+
+        String hrefBase = ContextUtils.getRootPath( request ) + RESOURCE_PATH + "/";
+
+        response.setContentType( ContextUtils.CONTENT_TYPE_JSON );
+        addAttachmentHeaders( eventCriteria, response );
+
+        try ( JsonGenerator generator = jsonMapper.getFactory().createGenerator( response.getOutputStream() ) )
+        {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart( "events" );
+
+            eventService.streamEvents( params, event -> {
+                if ( !params.isSkipEventId() )
+                {
+                    event.setHref( hrefBase + event.getEvent() );
+                }
+
+                writeEvent( generator, event );
+            } );
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    @RequestMapping( value = "/stream", method = RequestMethod.GET, produces = { "application/csv",
+        "application/csv+gzip", "text/csv" } )
+    public void streamCsvEvents( EventCriteria eventCriteria,
+        @RequestParam( required = false, defaultValue = "false" ) boolean skipHeader,
+        HttpServletResponse response, HttpServletRequest request )
+        throws IOException
+    {
+        EventSearchParams params = requestToSearchParamsMapper.map( eventCriteria );
+
+        OutputStream outputStream = response.getOutputStream();
+        response.setContentType( "application/csv" );
+
+        if ( ContextUtils.isAcceptCsvGzip( request ) )
+        {
+            response.addHeader( ContextUtils.HEADER_CONTENT_TRANSFER_ENCODING, "binary" );
+            outputStream = new GZIPOutputStream( outputStream );
+            response.setContentType( "application/csv+gzip" );
+        }
+
+        addAttachmentHeaders( eventCriteria, response );
+
+        csvEventService.streamEvents( outputStream, consumer -> eventService.streamEvents( params, consumer ),
+            !skipHeader );
+    }
+
     // -------------------------------------------------------------------------
     // Rows Read
     // -------------------------------------------------------------------------
@@ -819,6 +889,22 @@ public class EventController
         postEvent( strategy, response, request, importOptions, this::safeAddEventsXml, this::safeGetEventsXml );
     }
 
+    @SneakyThrows
+    private void writeEvent( JsonGenerator generator, Event event )
+    {
+        generator.writeObject( event );
+    }
+
+    private void addAttachmentHeaders( EventCriteria eventCriteria, HttpServletResponse response )
+    {
+        if ( !StringUtils.isEmpty( eventCriteria.getAttachment() ) )
+        {
+            response.addHeader( ContextUtils.HEADER_CONTENT_DISPOSITION,
+                "attachment; filename=" + eventCriteria.getAttachment() );
+            response.addHeader( ContextUtils.HEADER_CONTENT_TRANSFER_ENCODING, "binary" );
+        }
+    }
+
     @SneakyThrows
     private List<Event> safeGetEventsXml( InputStream inputStream )
     {
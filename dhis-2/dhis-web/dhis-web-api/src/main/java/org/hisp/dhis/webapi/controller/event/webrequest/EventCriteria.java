@@ -100,5 +100,11 @@ public class EventCriteria extends PagingAndSortingCriteriaAdapter
 
     private Set<String> filter;
 
+    /**
+     * Token returned as nextPageToken in the pager of the previous page, for
+     * keyset paging. Cannot be combined with order.
+     */
+    private String pageToken;
+
     private IdSchemes idSchemes = new IdSchemes();
 }
@@ -244,7 +244,7 @@ public class MetadataImportExportController
         MetadataExportParams params = metadataExportService.getParamsFromMap( contextService.getParameterValuesMap() );
         metadataExportService.validate( params );
 
-        RootNode rootNode = metadataExportService.getMetadataAsNode( params );
+        RootNode rootNode = metadataExportService.getMetadataAsStreamingNode( params );
 
         return MetadataExportControllerUtils.createResponseEntity( rootNode, download );
     }
@@ -100,6 +100,23 @@ public class JobConfigurationController
         return objectReport;
     }
 
+    @RequestMapping( value = "{uid}/cancel", method = RequestMethod.POST, produces = { "application/json",
+        "application/javascript" } )
+    public ObjectReport cancelJobConfiguration( @PathVariable( "uid" ) String uid )
+    {
+        ObjectReport objectReport = new ObjectReport( JobConfiguration.class, 0 );
+
+        boolean success = schedulingManager.cancelJob( uid );
+
+        if ( !success )
+        {
+            objectReport.addErrorReport( new ErrorReport( JobConfiguration.class,
+                new ErrorMessage( ErrorCode.E7011, uid ) ) );
+        }
+
+        return objectReport;
+    }
+
     @Override
     protected void postPatchEntity( JobConfiguration jobConfiguration )
     {
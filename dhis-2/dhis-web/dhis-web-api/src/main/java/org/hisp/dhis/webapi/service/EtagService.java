@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.service;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.UserContext;
+import org.hisp.dhis.user.CurrentUserService;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserCredentials;
+import org.hisp.dhis.user.UserSettingKey;
+import org.hisp.dhis.webapi.utils.ContextUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Produces deep ETags, which are derived from a cheap version of the requested
+ * resource rather than from the rendered response. The ETag combines the
+ * version with the request and a fingerprint of the access of the current
+ * user, so that a matching "If-None-Match" header can be answered with 304 Not
+ * Modified before any objects are loaded. Requests handled with deep ETags
+ * are excluded from the shallow ETag filter, which would otherwise buffer the
+ * entire response.
+ */
+@Component
+public class EtagService
+{
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Version of resources which only change when the server restarts, like
+     * schemas.
+     */
+    private final String startupVersion = String.valueOf( System.currentTimeMillis() );
+
+    private final CurrentUserService currentUserService;
+
+    public EtagService( CurrentUserService currentUserService )
+    {
+        checkNotNull( currentUserService );
+
+        this.currentUserService = currentUserService;
+    }
+
+    /**
+     * Returns the version of resources which only change when the server
+     * restarts.
+     *
+     * @return the startup version.
+     */
+    public String getStartupVersion()
+    {
+        return startupVersion;
+    }
+
+    /**
+     * Sets a deep ETag derived from the given version on the response, and
+     * sets status code 304 Not Modified if it matches the ETag of the request.
+     * Does nothing if the version is null.
+     *
+     * @param version the version of the requested resource.
+     * @param request the HttpServletRequest.
+     * @param response the HttpServletResponse.
+     * @return true if the response is considered not modified, false if not.
+     */
+    public boolean isNotModified( String version, HttpServletRequest request, HttpServletResponse response )
+    {
+        if ( version == null )
+        {
+            return false;
+        }
+
+        ShallowEtagHeaderFilter.disableContentCaching( request );
+
+        return ContextUtils.isNotModified( request, response, getEtag( version, request ) );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private String getEtag( String version, HttpServletRequest request )
+    {
+        StringBuilder builder = new StringBuilder( version )
+            .append( SEPARATOR ).append( request.getRequestURI() )
+            .append( SEPARATOR ).append( request.getQueryString() )
+            .append( SEPARATOR ).append( request.getHeader( HttpHeaders.ACCEPT ) )
+            .append( SEPARATOR ).append( getUserFingerprint() );
+
+        return Hashing.sha256().hashString( builder.toString(), StandardCharsets.UTF_8 ).toString();
+    }
+
+    /**
+     * Returns a fingerprint of the access of the current user, covering the
+     * user, user groups, user roles and their authorities, organisation units
+     * and locale.
+     */
+    private String getUserFingerprint()
+    {
+        User user = currentUserService.getCurrentUser();
+
+        if ( user == null )
+        {
+            return "";
+        }
+
+        Locale locale = UserContext.getUserSetting( UserSettingKey.DB_LOCALE );
+
+        UserCredentials credentials = user.getUserCredentials();
+
+        return user.getUid()
+            + SEPARATOR + getUids( user.getGroups() )
+            + SEPARATOR + (credentials != null ? getUids( credentials.getUserAuthorityGroups() ) : "")
+            + SEPARATOR + (credentials != null ? getSorted( credentials.getAllAuthorities() ) : "")
+            + SEPARATOR + getUids( user.getOrganisationUnits() )
+            + SEPARATOR + getUids( user.getDataViewOrganisationUnits() )
+            + SEPARATOR + getUids( user.getTeiSearchOrganisationUnits() )
+            + SEPARATOR + locale;
+    }
+
+    private static String getUids( Collection<? extends IdentifiableObject> objects )
+    {
+        if ( objects == null )
+        {
+            return "";
+        }
+
+        return objects.stream()
+            .map( IdentifiableObject::getUid )
+            .sorted()
+            .collect( Collectors.joining( "," ) );
+    }
+
+    private static String getSorted( Collection<String> values )
+    {
+        return values.stream()
+            .sorted()
+            .collect( Collectors.joining( "," ) );
+    }
+}
@@ -43,6 +43,8 @@ import static org.hisp.dhis.webapi.webdomain.WebOptions.PAGE_SIZE;
 import static org.hisp.dhis.webapi.webdomain.WebOptions.PAGING;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.junit.MockitoJUnit.rule;
 
@@ -60,19 +62,29 @@ import org.hisp.dhis.query.Junction.Type;
 import org.hisp.dhis.query.Pagination;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.webapi.webdomain.WebOptions;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoRule;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 public class DataItemServiceFacadeTest
 {
     @Mock
     private QueryService queryService;
 
+    @Mock
+    private SchemaService schemaService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @Rule
     public MockitoRule mockitoRule = rule();
 
@@ -81,7 +93,7 @@ public class DataItemServiceFacadeTest
     @Before
     public void setUp()
     {
-        dataItemServiceFacade = new DataItemServiceFacade( queryService );
+        dataItemServiceFacade = new DataItemServiceFacade( queryService, schemaService, jdbcTemplate );
     }
 
     @Test
@@ -109,6 +121,59 @@ public class DataItemServiceFacadeTest
         assertThat( actualDimensionalItems, containsInAnyOrder( expectedItemsFound.toArray() ) );
     }
 
+    @Test
+    public void testRetrieveDataItemEntitiesWithPersistedOrder()
+    {
+        // Given
+        final Set<Class<? extends BaseDimensionalItemObject>> anyTargetEntities = new HashSet<>(
+            asList( Indicator.class ) );
+        final List<String> anyFilters = asList( "displayName:ilike:anc" );
+        final WebOptions anyWebOptions = mockWebOptions( 10, 2 );
+        final OrderParams anyOrderParams = new OrderParams( new HashSet<>( asList( "displayName:desc" ) ) );
+        final Schema anySchema = mockSchemaWithPersistedName();
+        final Query anyQuery = from( anySchema );
+
+        // When
+        when( schemaService.getDynamicSchema( Indicator.class ) ).thenReturn( anySchema );
+        when( queryService.getQueryFromUrl( any(), anyList(), anyList(),
+            any( Pagination.class ), any( Type.class ) ) ).thenReturn( anyQuery );
+        dataItemServiceFacade.retrieveDataItemEntities( anyTargetEntities, anyFilters, anyWebOptions,
+            anyOrderParams );
+
+        // Then
+        final ArgumentCaptor<Pagination> pagination = ArgumentCaptor.forClass( Pagination.class );
+        verify( queryService ).getQueryFromUrl( eq( Indicator.class ), eq( asList( "name:ilike:anc" ) ),
+            anyList(), pagination.capture(), any( Type.class ) );
+        assertThat( pagination.getValue().hasPagination(), is( true ) );
+        assertThat( pagination.getValue().getSize(), is( 20 ) );
+    }
+
+    @Test
+    public void testRetrieveDataItemEntitiesWithNonPersistedOrder()
+    {
+        // Given
+        final Set<Class<? extends BaseDimensionalItemObject>> anyTargetEntities = new HashSet<>(
+            asList( Indicator.class ) );
+        final List<String> anyFilters = emptyList();
+        final WebOptions anyWebOptions = mockWebOptions( 10, 1 );
+        final OrderParams anyOrderParams = new OrderParams( new HashSet<>( asList( "dimensionItem:asc" ) ) );
+        final Schema anySchema = mockSchemaWithPersistedName();
+        final Query anyQuery = from( anySchema );
+
+        // When
+        when( schemaService.getDynamicSchema( Indicator.class ) ).thenReturn( anySchema );
+        when( queryService.getQueryFromUrl( any(), anyList(), anyList(),
+            any( Pagination.class ), any( Type.class ) ) ).thenReturn( anyQuery );
+        dataItemServiceFacade.retrieveDataItemEntities( anyTargetEntities, anyFilters, anyWebOptions,
+            anyOrderParams );
+
+        // Then
+        final ArgumentCaptor<Pagination> pagination = ArgumentCaptor.forClass( Pagination.class );
+        verify( queryService ).getQueryFromUrl( eq( Indicator.class ), anyList(), anyList(),
+            pagination.capture(), any( Type.class ) );
+        assertThat( pagination.getValue().hasPagination(), is( false ) );
+    }
+
     @Test
     public void testRetrieveDataItemEntitiesWhenTargetEntitiesIsEmpty()
     {
@@ -179,6 +244,20 @@ public class DataItemServiceFacadeTest
         assertThat( actualTargetEntities, containsInAnyOrder( DATA_TYPE_ENTITY_MAP.values().toArray() ) );
     }
 
+    private Schema mockSchemaWithPersistedName()
+    {
+        final Property name = new Property();
+        name.setName( "name" );
+        name.setFieldName( "name" );
+        name.setPersisted( true );
+        name.setSimple( true );
+
+        final Schema schema = new Schema( Indicator.class, "indicator", "indicators" );
+        schema.addProperty( name );
+
+        return schema;
+    }
+
     private WebOptions mockWebOptions( final int pageSize, final int pageNumber )
     {
         final Map<String, String> options = new HashMap<>( 0 );
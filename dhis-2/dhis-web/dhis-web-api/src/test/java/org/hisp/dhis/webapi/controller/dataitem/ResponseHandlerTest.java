@@ -63,6 +63,7 @@ import org.hisp.dhis.node.types.CollectionNode;
 import org.hisp.dhis.node.types.RootNode;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.service.LinkService;
 import org.hisp.dhis.webapi.webdomain.WebOptions;
@@ -87,6 +88,9 @@ public class ResponseHandlerTest
     @Mock
     private Environment environment;
 
+    @Mock
+    private SchemaService schemaService;
+
     @Mock
     private CacheProvider cacheProvider;
 
@@ -101,7 +105,8 @@ public class ResponseHandlerTest
         String[] testEnvironmentVars = { "test" };
         when( environment.getActiveProfiles() ).thenReturn( testEnvironmentVars );
         when( cacheProvider.createDataItemsPaginationCache() ).thenReturn( new NoOpCache<>() );
-        responseHandler = new ResponseHandler( queryService, linkService, fieldFilterService, cacheProvider );
+        responseHandler = new ResponseHandler( queryService, linkService, fieldFilterService, schemaService,
+            cacheProvider );
     }
 
     @Test
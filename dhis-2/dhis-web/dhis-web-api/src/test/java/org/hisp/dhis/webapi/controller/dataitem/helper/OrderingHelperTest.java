@@ -35,10 +35,13 @@ import static org.hisp.dhis.webapi.controller.dataitem.helper.OrderingHelper.sor
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 
+import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 import org.hisp.dhis.common.BaseDimensionalItemObject;
@@ -111,6 +114,42 @@ public class OrderingHelperTest
         assertEquals( anyDimensionalItems, ascList );
     }
 
+    @Test
+    public void sortWhenOrderParamsIsAscIgnoresCase()
+    {
+        // Given
+        final Set<String> orderings = new HashSet<>( singletonList( "dimensionItem:asc" ) );
+        final OrderParams orderParams = new OrderParams( orderings );
+        final List<BaseDimensionalItemObject> anyDimensionalItems = new ArrayList<>( Arrays.asList(
+            new BaseDimensionalItemObject( "B" ), new BaseDimensionalItemObject( "a" ) ) );
+
+        // When
+        sort( anyDimensionalItems, orderParams );
+
+        // Then
+        assertEquals( "a", anyDimensionalItems.get( 0 ).getDimensionItem() );
+        assertEquals( "B", anyDimensionalItems.get( 1 ).getDimensionItem() );
+    }
+
+    @Test
+    public void sortWhenOrderParamsIsAscUsesCollator()
+    {
+        // Given
+        final Set<String> orderings = new HashSet<>( singletonList( "dimensionItem:asc" ) );
+        final OrderParams orderParams = new OrderParams( orderings );
+        final List<BaseDimensionalItemObject> codePointItems = new ArrayList<>( Arrays.asList(
+            new BaseDimensionalItemObject( "\u00c9clair" ), new BaseDimensionalItemObject( "Zebra" ) ) );
+        final List<BaseDimensionalItemObject> collatedItems = new ArrayList<>( codePointItems );
+
+        // When
+        sort( codePointItems, orderParams );
+        sort( collatedItems, orderParams, Collator.getInstance( Locale.ENGLISH ) );
+
+        // Then
+        assertEquals( "Zebra", codePointItems.get( 0 ).getDimensionItem() );
+        assertEquals( "\u00c9clair", collatedItems.get( 0 ).getDimensionItem() );
+    }
+
     @Test
     public void sortWhenOrderParamsIsInvalid()
     {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2004-2021, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.mockito.junit.MockitoJUnit.rule;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.hisp.dhis.user.CurrentUserService;
+import org.hisp.dhis.user.User;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoRule;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class EtagServiceTest
+{
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Rule
+    public MockitoRule mockitoRule = rule();
+
+    private EtagService etagService;
+
+    @Before
+    public void setUp()
+    {
+        etagService = new EtagService( currentUserService );
+
+        when( currentUserService.getCurrentUser() ).thenReturn( createUser( "userUidA" ) );
+    }
+
+    @Test
+    public void testNotModified()
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse( etagService.isNotModified( "10-1000", createRequest( null ), response ) );
+
+        String etag = response.getHeader( HttpHeaders.ETAG );
+
+        MockHttpServletResponse revalidated = new MockHttpServletResponse();
+
+        assertTrue( etagService.isNotModified( "10-1000", createRequest( etag ), revalidated ) );
+        assertEquals( HttpServletResponse.SC_NOT_MODIFIED, revalidated.getStatus() );
+        assertEquals( etag, revalidated.getHeader( HttpHeaders.ETAG ) );
+    }
+
+    @Test
+    public void testModifiedWhenVersionChanges()
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        etagService.isNotModified( "10-1000", createRequest( null ), response );
+
+        String etag = response.getHeader( HttpHeaders.ETAG );
+
+        assertFalse( etagService.isNotModified( "11-2000", createRequest( etag ), new MockHttpServletResponse() ) );
+    }
+
+    @Test
+    public void testModifiedWhenUserChanges()
+    {
+        MockHttpServletResponse responseA = new MockHttpServletResponse();
+        etagService.isNotModified( "10-1000", createRequest( null ), responseA );
+
+        when( currentUserService.getCurrentUser() ).thenReturn( createUser( "userUidB" ) );
+
+        MockHttpServletResponse responseB = new MockHttpServletResponse();
+        etagService.isNotModified( "10-1000", createRequest( null ), responseB );
+
+        assertNotEquals( responseA.getHeader( HttpHeaders.ETAG ), responseB.getHeader( HttpHeaders.ETAG ) );
+    }
+
+    @Test
+    public void testNoVersion()
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse( etagService.isNotModified( null, createRequest( null ), response ) );
+        assertNull( response.getHeader( HttpHeaders.ETAG ) );
+    }
+
+    private MockHttpServletRequest createRequest( String ifNoneMatch )
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest( "GET", "/api/dataElements" );
+        request.setQueryString( "fields=id,name" );
+
+        if ( ifNoneMatch != null )
+        {
+            request.addHeader( HttpHeaders.IF_NONE_MATCH, ifNoneMatch );
+        }
+
+        return request;
+    }
+
+    private User createUser( String uid )
+    {
+        User user = new User();
+        user.setUid( uid );
+        return user;
+    }
+}